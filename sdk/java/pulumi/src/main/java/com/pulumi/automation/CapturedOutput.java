@@ -0,0 +1,112 @@
+// Copyright 2025, Pulumi Corporation
+
+package com.pulumi.automation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+/**
+ * The output of a command stream, as retained by an {@link OutputCapture} policy.
+ * <p>
+ * Output spilled to a file is only read back when {@link #text()} is called,
+ * and the file is removed by {@link #delete()}.
+ */
+final class CapturedOutput {
+    static final CapturedOutput Empty = new CapturedOutput("", null, null);
+
+    @Nullable
+    private final String text;
+    @Nullable
+    private final Path file;
+    @Nullable
+    private final Charset charset;
+
+    private CapturedOutput(@Nullable String text, @Nullable Path file, @Nullable Charset charset) {
+        this.text = text;
+        this.file = file;
+        this.charset = charset;
+    }
+
+    static CapturedOutput of(@Nullable String text) {
+        return text == null || text.isEmpty() ? Empty : new CapturedOutput(text, null, null);
+    }
+
+    static CapturedOutput ofFile(Path file, Charset charset) {
+        return new CapturedOutput(null, Objects.requireNonNull(file), Objects.requireNonNull(charset));
+    }
+
+    /**
+     * @return the captured text, read from the spill file if the output was spilled
+     * @throws UncheckedIOException if the spill file cannot be read
+     */
+    String text() {
+        if (text != null) {
+            return text;
+        }
+        try {
+            return Files.readString(file, charset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the output in a form bounded for messages: the retained text if
+     * the output is held in memory, otherwise the last {@code maxChars}
+     * characters of the spill file, without reading the rest of it.
+     *
+     * @param maxChars the maximum number of characters to read from a spill file
+     * @return the retained text, or the tail of the spill file
+     * @throws UncheckedIOException if the spill file cannot be read
+     */
+    String excerpt(int maxChars) {
+        if (text != null) {
+            return text;
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // read enough bytes for maxChars characters in any encoding
+            var maxBytes = (long) maxChars * (long) Math.ceil(charset.newEncoder().maxBytesPerChar());
+            var position = Math.max(0, channel.size() - maxBytes);
+            var buffer = ByteBuffer.allocate((int) (channel.size() - position));
+            while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+                // keep reading until the buffer is full
+            }
+            buffer.flip();
+            var tail = charset.decode(buffer).toString();
+            return tail.length() > maxChars ? tail.substring(tail.length() - maxChars) : tail;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes the spill file, if any. Failures are ignored.
+     */
+    void delete() {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // best effort, like the event log cleanup
+        }
+    }
+
+    /**
+     * @return the file the output was spilled to, if any
+     */
+    Optional<Path> file() {
+        return Optional.ofNullable(file);
+    }
+}
@@ -2,21 +2,41 @@
 
 package com.pulumi.automation;
 
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
 /**
  * {@link CommandResult} represents the result of a command execution.
+ * <p>
+ * Closing the result deletes the files the output was spilled to with
+ * {@link OutputCapture#spillToFile()}, if any.
  */
-public final class CommandResult {
+public final class CommandResult implements AutoCloseable {
+    /**
+     * The maximum number of characters of spilled output included in messages.
+     */
+    static final int MESSAGE_TAIL_CHARS = 8 * 1024;
+
     private final int code;
-    private final String standardOutput;
-    private final String standardError;
+    private final CapturedOutput standardOutput;
+    private final CapturedOutput standardError;
 
     public CommandResult(
             int code,
             String standardOutput,
             String standardError) {
+        this(code, CapturedOutput.of(standardOutput), CapturedOutput.of(standardError));
+    }
+
+    CommandResult(
+            int code,
+            CapturedOutput standardOutput,
+            CapturedOutput standardError) {
         this.code = code;
-        this.standardOutput = standardOutput;
-        this.standardError = standardError;
+        this.standardOutput = Objects.requireNonNull(standardOutput);
+        this.standardError = Objects.requireNonNull(standardError);
     }
 
     /**
@@ -29,30 +49,90 @@ public final class CommandResult {
     }
 
     /**
-     * Gets the standard output of the command.
+     * Gets the standard output of the command, as retained by the
+     * {@link OutputCapture} policy the command was run with.
+     * If the output was spilled to a file, the file is read on every call.
      *
      * @return the standard output
      */
     public String standardOutput() {
-        return standardOutput;
+        return standardOutput.text();
     }
 
     /**
-     * Gets the standard error of the command.
+     * Gets the standard error of the command, as retained by the
+     * {@link OutputCapture} policy the command was run with.
+     * If the output was spilled to a file, the file is read on every call.
      *
      * @return the standard error
      */
     public String standardError() {
+        return standardError.text();
+    }
+
+    /**
+     * Gets the file the standard output was spilled to, if the command was run
+     * with {@link OutputCapture#spillToFile()}.
+     *
+     * @return the standard output file, if any
+     */
+    public Optional<Path> standardOutputFile() {
+        return standardOutput.file();
+    }
+
+    /**
+     * Gets the file the standard error was spilled to, if the command was run
+     * with {@link OutputCapture#spillToFile()}.
+     *
+     * @return the standard error file, if any
+     */
+    public Optional<Path> standardErrorFile() {
+        return standardError.file();
+    }
+
+    CapturedOutput capturedStandardOutput() {
+        return standardOutput;
+    }
+
+    CapturedOutput capturedStandardError() {
         return standardError;
     }
 
+    /**
+     * Deletes the files the output was spilled to, if any.
+     */
+    @Override
+    public void close() {
+        standardOutput.delete();
+        standardError.delete();
+    }
+
+    /**
+     * Describes the result. Spilled output is described by its last
+     * {@value #MESSAGE_TAIL_CHARS} characters and the path of its file.
+     */
     @Override
     public String toString() {
         var sb = new StringBuilder();
         var lineSeparator = System.lineSeparator();
         sb.append("code: ").append(this.code).append(lineSeparator);
-        sb.append("stdout: ").append(this.standardOutput).append(lineSeparator);
-        sb.append("stderr: ").append(this.standardError).append(lineSeparator);
+        sb.append("stdout: ");
+        appendExcerpt(sb, standardOutput).append(lineSeparator);
+        sb.append("stderr: ");
+        appendExcerpt(sb, standardError).append(lineSeparator);
         return sb.toString();
     }
+
+    private static StringBuilder appendExcerpt(StringBuilder sb, CapturedOutput output) {
+        var file = output.file();
+        if (file.isPresent()) {
+            sb.append("(last ").append(MESSAGE_TAIL_CHARS).append(" characters, full output in ")
+                    .append(file.get()).append(") ");
+        }
+        try {
+            return sb.append(output.excerpt(MESSAGE_TAIL_CHARS));
+        } catch (UncheckedIOException e) {
+            return sb.append("<unavailable: ").append(e.getCause().getMessage()).append(">");
+        }
+    }
 }
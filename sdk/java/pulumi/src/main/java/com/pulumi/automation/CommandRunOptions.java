@@ -2,6 +2,8 @@
 
 package com.pulumi.automation;
 
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
@@ -27,11 +29,16 @@ public final class CommandRunOptions {
     @Nullable
     private final String standardInput;
     @Nullable
+    private final ReadableByteChannel standardInputChannel;
+    @Nullable
+    private final WritableByteChannel standardOutputChannel;
+    @Nullable
     private final Consumer<String> onStandardOutput;
     @Nullable
     private final Consumer<String> onStandardError;
     @Nullable
     private final Consumer<EngineEvent> onEngineEvent;
+    private final OutputCapture outputCapture;
 
     private CommandRunOptions(Builder builder) {
         this.workingDir = builder.workingDir;
@@ -39,9 +46,14 @@ public final class CommandRunOptions {
                 ? Collections.emptyMap()
                 : Collections.unmodifiableMap(builder.additionalEnv);
         this.standardInput = builder.standardInput;
+        this.standardInputChannel = builder.standardInputChannel;
+        this.standardOutputChannel = builder.standardOutputChannel;
         this.onStandardOutput = builder.onStandardOutput;
         this.onStandardError = builder.onStandardError;
         this.onEngineEvent = builder.onEngineEvent;
+        this.outputCapture = builder.outputCapture == null
+                ? OutputCapture.full()
+                : builder.outputCapture;
     }
 
     /**
@@ -82,6 +94,26 @@ public final class CommandRunOptions {
         return standardInput;
     }
 
+    /**
+     * Returns the channel the standard input of the command is read from.
+     *
+     * @return the standard input channel
+     */
+    @Nullable
+    public ReadableByteChannel standardInputChannel() {
+        return standardInputChannel;
+    }
+
+    /**
+     * Returns the channel the standard output of the command is written to.
+     *
+     * @return the standard output channel
+     */
+    @Nullable
+    public WritableByteChannel standardOutputChannel() {
+        return standardOutputChannel;
+    }
+
     /**
      * Returns a consumer that will be called with each line of standard output from
      * the command.
@@ -115,6 +147,16 @@ public final class CommandRunOptions {
         return onEngineEvent;
     }
 
+    /**
+     * Returns the policy for capturing the standard output and standard error
+     * of the command in the {@link CommandResult}.
+     *
+     * @return the output capture policy
+     */
+    public OutputCapture outputCapture() {
+        return outputCapture;
+    }
+
     /**
      * Returns a new {@link CommandRunOptions} with the given additional environment
      * variables.
@@ -148,9 +190,12 @@ public final class CommandRunOptions {
                 .workingDir(workingDir)
                 .additionalEnv(additionalEnv)
                 .standardInput(standardInput)
+                .standardInputChannel(standardInputChannel)
+                .standardOutputChannel(standardOutputChannel)
                 .onStandardOutput(onStandardOutput)
                 .onStandardError(onStandardError)
-                .onEngineEvent(onEngineEvent);
+                .onEngineEvent(onEngineEvent)
+                .outputCapture(outputCapture);
     }
 
     /**
@@ -164,11 +209,17 @@ public final class CommandRunOptions {
         @Nullable
         private String standardInput;
         @Nullable
+        private ReadableByteChannel standardInputChannel;
+        @Nullable
+        private WritableByteChannel standardOutputChannel;
+        @Nullable
         private Consumer<String> onStandardOutput;
         @Nullable
         private Consumer<String> onStandardError;
         @Nullable
         private Consumer<EngineEvent> onEngineEvent;
+        @Nullable
+        private OutputCapture outputCapture;
 
         private Builder() {
         }
@@ -206,6 +257,32 @@ public final class CommandRunOptions {
             return this;
         }
 
+        /**
+         * Sets a channel to read the standard input of the command from, until
+         * its end. Takes precedence over {@link #standardInput(String)}. The
+         * channel is not closed.
+         *
+         * @param standardInputChannel the standard input channel, in blocking mode
+         * @return the builder
+         */
+        public Builder standardInputChannel(ReadableByteChannel standardInputChannel) {
+            this.standardInputChannel = standardInputChannel;
+            return this;
+        }
+
+        /**
+         * Sets a channel to write the standard output of the command to, byte
+         * for byte. The standard output is then neither captured nor passed to
+         * {@link #onStandardOutput(Consumer)}. The channel is not closed.
+         *
+         * @param standardOutputChannel the standard output channel
+         * @return the builder
+         */
+        public Builder standardOutputChannel(WritableByteChannel standardOutputChannel) {
+            this.standardOutputChannel = standardOutputChannel;
+            return this;
+        }
+
         /**
          * Sets a consumer that will be called with each line of standard output from
          * the command.
@@ -241,6 +318,19 @@ public final class CommandRunOptions {
             return this;
         }
 
+        /**
+         * Sets the policy for capturing the standard output and standard error of
+         * the command in the {@link CommandResult}. Defaults to
+         * {@link OutputCapture#full()}.
+         *
+         * @param outputCapture the output capture policy
+         * @return the builder
+         */
+        public Builder outputCapture(OutputCapture outputCapture) {
+            this.outputCapture = outputCapture;
+            return this;
+        }
+
         /**
          * Builds the {@link CommandRunOptions}.
          *
@@ -0,0 +1,189 @@
+// Copyright 2025, Pulumi Corporation
+
+package com.pulumi.automation;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import javax.annotation.Nullable;
+
+import com.pulumi.Context;
+
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+
+/**
+ * A long-lived gRPC server hosting the language runtime for inline programs.
+ * <p>
+ * A single server is shared by all inline operations of a {@link Workspace}.
+ * Programs are registered per stack for the duration of an operation, and the
+ * engine's {@code Run} requests are routed to them by the fully qualified name
+ * of the stack, {@code org/project/stack}. Since the engine does not allow
+ * concurrent updates of the same stack, the stack identifies the operation.
+ */
+final class InlineLanguageHost implements AutoCloseable {
+    // maxRpcMessageSize raises the gRPC Max Message size from `4194304` (4mb) to
+    // `419430400` (400mb)
+    private static final int MAX_RPC_MESSAGE_SIZE_IN_BYTES = 400 * 1024 * 1024;
+
+    private final ConcurrentMap<String, InlineProgram> programs = new ConcurrentHashMap<>();
+    @Nullable
+    private final Executor executor;
+    private final StackNameResolver stackNames;
+    @Nullable
+    private Server server;
+    private boolean closed;
+
+    /**
+     * Creates a new, not yet started, host.
+     *
+     * @param executor   the executor to run the gRPC handlers on, or {@code null}
+     *                   to use the gRPC default executor
+     * @param stackNames resolves the fully qualified names of the stacks programs are registered for
+     */
+    InlineLanguageHost(@Nullable Executor executor, StackNameResolver stackNames) {
+        this.executor = executor;
+        this.stackNames = Objects.requireNonNull(stackNames);
+    }
+
+    /**
+     * Registers the program to run for the given stack, starting the server if
+     * it is not running yet. The program stays registered until the returned
+     * {@link Registration} is closed.
+     *
+     * @param stackName the name of the stack the operation runs against, either
+     *                  {@code stack}, {@code org/stack} or {@code org/project/stack}
+     * @param program   the inline program
+     * @param logger    the logger for the inline program, if any
+     * @return the registration, to be closed once the operation completes
+     * @throws AutomationException if the server could not be started, the stack name
+     *                             could not be resolved, or another operation is already
+     *                             running for the stack, whatever name it was given
+     */
+    Registration register(String stackName, Consumer<Context> program, @Nullable Logger logger)
+            throws AutomationException {
+        var key = stackNames.fullyQualify(stackName);
+        if (key.split("/", -1).length != 3) {
+            throw new AutomationException(
+                    "Expected a fully qualified name for stack '" + stackName + "', got: '" + key + "'");
+        }
+        var port = ensureStarted();
+        var inlineProgram = new InlineProgram(program, logger);
+        if (programs.putIfAbsent(key, inlineProgram) != null) {
+            throw new AutomationException(
+                    "An inline program is already running for stack '" + stackName + "' in this workspace");
+        }
+        return new Registration(key, inlineProgram, port);
+    }
+
+    /**
+     * Looks up the program registered for the given stack.
+     *
+     * @param organization the organization of the stack, as sent by the engine
+     * @param project      the project of the stack, as sent by the engine
+     * @param stack        the short name of the stack, as sent by the engine
+     * @return the registered program, if any
+     */
+    Optional<InlineProgram> lookup(String organization, String project, String stack) {
+        return Optional.ofNullable(programs.get(organization + "/" + project + "/" + stack));
+    }
+
+    private synchronized int ensureStarted() throws AutomationException {
+        if (closed) {
+            throw new AutomationException("The inline language host has been closed");
+        }
+        if (server == null) {
+            var builder = ServerBuilder.forPort(0)
+                    .maxInboundMessageSize(MAX_RPC_MESSAGE_SIZE_IN_BYTES)
+                    .addService(new LanguageRuntimeImpl(
+                            request -> lookup(request.getOrganization(), request.getProject(), request.getStack())));
+            if (executor != null) {
+                builder.executor(executor);
+            }
+            try {
+                server = builder.build().start();
+            } catch (IOException e) {
+                throw new AutomationException("Failed to start the inline language host", e);
+            }
+        }
+        return server.getPort();
+    }
+
+    /**
+     * Stops the server. Operations still running are not interrupted, but no new
+     * program can be registered.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (server != null) {
+            server.shutdown();
+            server = null;
+        }
+    }
+
+    /**
+     * Resolves the name a stack is given, e.g. {@code stack} or {@code org/stack},
+     * to its fully qualified name, {@code org/project/stack}, as the engine sends it.
+     */
+    @FunctionalInterface
+    interface StackNameResolver {
+        String fullyQualify(String stackName) throws AutomationException;
+    }
+
+    /**
+     * An inline program registered with the host.
+     */
+    static final class InlineProgram {
+        private final Consumer<Context> program;
+        @Nullable
+        private final Logger logger;
+
+        InlineProgram(Consumer<Context> program, @Nullable Logger logger) {
+            this.program = program;
+            this.logger = logger;
+        }
+
+        Consumer<Context> program() {
+            return program;
+        }
+
+        @Nullable
+        Logger logger() {
+            return logger;
+        }
+    }
+
+    /**
+     * The registration of a program for the duration of a single operation.
+     */
+    final class Registration implements AutoCloseable {
+        private final String key;
+        private final InlineProgram program;
+        private final int port;
+
+        private Registration(String key, InlineProgram program, int port) {
+            this.key = key;
+            this.program = program;
+            this.port = port;
+        }
+
+        /**
+         * @return the port the host is listening on
+         */
+        int port() {
+            return port;
+        }
+
+        @Override
+        public void close() {
+            programs.remove(key, program);
+        }
+    }
+}
@@ -2,18 +2,18 @@
 
 package com.pulumi.automation;
 
-import java.util.function.Consumer;
-import java.util.logging.Logger;
+import java.util.Optional;
+import java.util.function.Function;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.Empty;
-import com.pulumi.deployment.internal.DeploymentInstanceHolder;
 import com.pulumi.deployment.internal.InlineDeploymentSettings;
 import com.pulumi.deployment.internal.Runner;
 import com.pulumi.internal.PulumiInternal;
 import com.pulumi.resources.StackOptions;
-import com.pulumi.Context;
+import com.pulumi.automation.InlineLanguageHost.InlineProgram;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import pulumirpc.LanguageRuntimeGrpc.LanguageRuntimeImplBase;
 import pulumirpc.Plugin.PluginInfo;
@@ -24,14 +24,15 @@ import pulumirpc.Language.RunResponse;
 
 /**
  * Internal implementation of the LanguageRuntime service.
+ * <p>
+ * Run requests are dispatched to the inline program registered for the
+ * requested stack.
  */
 final class LanguageRuntimeImpl extends LanguageRuntimeImplBase {
-    private final Consumer<Context> program;
-    private final Logger logger;
+    private final Function<RunRequest, Optional<InlineProgram>> programs;
 
-    public LanguageRuntimeImpl(Consumer<Context> program, Logger logger) {
-        this.program = program;
-        this.logger = logger;
+    public LanguageRuntimeImpl(Function<RunRequest, Optional<InlineProgram>> programs) {
+        this.programs = programs;
     }
 
     @Override
@@ -46,6 +47,15 @@ final class LanguageRuntimeImpl extends LanguageRuntimeImplBase {
     @Override
     public void run(RunRequest request,
             StreamObserver<RunResponse> responseObserver) {
+        var program = programs.apply(request);
+        if (program.isEmpty()) {
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription("No inline program is registered for stack '" + request.getOrganization()
+                            + "/" + request.getProject() + "/" + request.getStack() + "'")
+                    .asException());
+            return;
+        }
+
         try {
             var args = request.getArgsList();
             var engineAddress = args != null && !args.isEmpty() ? args.get(0) : "";
@@ -63,7 +73,7 @@ final class LanguageRuntimeImpl extends LanguageRuntimeImplBase {
                     .build();
 
             var pulumiInternal = PulumiInternal.fromInline(inlineDeploymentSettings, StackOptions.Empty);
-            pulumiInternal.runAsync(program).handle((exitCode, throwable) -> {
+            pulumiInternal.runAsync(program.get().program()).handle((exitCode, throwable) -> {
                 try {
                     var responseBuilder = RunResponse.newBuilder();
                     if (throwable != null) {
@@ -75,14 +85,14 @@ final class LanguageRuntimeImpl extends LanguageRuntimeImplBase {
                     responseObserver.onCompleted();
                     return null;
                 } finally {
-                    DeploymentInstanceHolder.internalUnsafeDestroyInstance();
+                    pulumiInternal.destroy();
                 }
             }).join();
 
             // TODO graceful error propagation/handling
         } catch (Exception e) {
             String errorDetails = getDetailedErrorMessage(e, "Run failed");
-            responseObserver.onError(io.grpc.Status.UNKNOWN
+            responseObserver.onError(Status.UNKNOWN
                     .withDescription(errorDetails)
                     .withCause(e)
                     .asException());
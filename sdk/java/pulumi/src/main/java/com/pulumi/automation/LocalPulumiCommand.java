@@ -9,6 +9,8 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -19,13 +21,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nullable;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.pulumi.automation.events.internal.EventLogWatcher;
 import com.pulumi.automation.events.internal.EventsServer;
 import com.pulumi.core.internal.ContextAwareCompletableFuture;
@@ -47,6 +50,16 @@ public class LocalPulumiCommand implements PulumiCommand {
     private static final String CONFLICT_TEXT = "[409] Conflict: Another update is currently in progress.";
     private static final String LOCAL_BACKEND_CONFLICT_TEXT = "the stack is currently locked by";
 
+    /**
+     * The threads reading the output of the commands, shared by all the commands
+     * run in this JVM. Each running command uses two threads.
+     */
+    private static final ExecutorService READER_POOL = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("pulumi-command-reader-%d")
+                    .setDaemon(true)
+                    .build());
+
     private final String command;
     @Nullable
     private final Version version;
@@ -219,16 +232,35 @@ public class LocalPulumiCommand implements PulumiCommand {
         var debugCommands = eventLogLocation != null;
         env.putAll(pulumiEnvironment(options.additionalEnv(), command, debugCommands));
 
-        var executor = Executors.newFixedThreadPool(2);
+        var charset = Charset.defaultCharset();
+        OutputCapture.Sink stdoutSink = null;
+        OutputCapture.Sink stderrSink = null;
+        CompletableFuture<CapturedOutput> stdoutFuture = null;
+        CompletableFuture<CapturedOutput> stderrFuture = null;
 
         try {
+            stdoutSink = options.outputCapture().newSink("stdout", charset);
+            stderrSink = options.outputCapture().newSink("stderr", charset);
+
             var process = processBuilder.start();
 
-            var stdoutFuture = readStreamAsync(process.getInputStream(), executor, options.onStandardOutput());
-            var stderrFuture = readStreamAsync(process.getErrorStream(), executor, options.onStandardError());
+            var stdoutChannel = options.standardOutputChannel();
+            stdoutFuture = stdoutChannel != null
+                    ? copyStreamAsync(process.getInputStream(), stdoutChannel, stdoutSink)
+                    : readStreamAsync(process.getInputStream(), charset, stdoutSink, options.onStandardOutput());
+            stderrFuture = readStreamAsync(process.getErrorStream(), charset, stderrSink, options.onStandardError());
 
+            var stdInChannel = options.standardInputChannel();
             var stdIn = options.standardInput();
-            if (stdIn != null && !stdIn.isBlank()) {
+            IOException stdInFailure = null;
+            if (stdInChannel != null) {
+                try (var out = process.getOutputStream()) {
+                    Channels.newInputStream(stdInChannel).transferTo(out);
+                } catch (IOException e) {
+                    // the command may have exited early, its exit code tells why
+                    stdInFailure = e;
+                }
+            } else if (stdIn != null && !stdIn.isBlank()) {
                 try (var writer = new OutputStreamWriter(process.getOutputStream())) {
                     writer.write(stdIn);
                     writer.flush();
@@ -236,13 +268,20 @@ public class LocalPulumiCommand implements PulumiCommand {
             }
 
             int exitCode = process.waitFor();
-            String stdout = stdoutFuture.join();
-            String stderr = stderrFuture.join();
+            var stdout = stdoutFuture.join();
+            var stderr = stderrFuture.join();
 
             var result = new CommandResult(exitCode, stdout, stderr);
 
             if (exitCode != 0) {
-                throw createExceptionFromResult(result);
+                var exception = createExceptionFromResult(result);
+                if (stdInFailure != null) {
+                    exception.addSuppressed(stdInFailure);
+                }
+                throw exception;
+            }
+            if (stdInFailure != null) {
+                throw new AutomationException(stdInFailure);
             }
 
             return result;
@@ -254,29 +293,66 @@ public class LocalPulumiCommand implements PulumiCommand {
         } catch (Exception e) {
             throw new AutomationException(e);
         } finally {
-            executor.shutdown();
+            // the readers finish their sinks, unless they never started
+            if (stdoutFuture == null) {
+                finishQuietly(stdoutSink);
+            }
+            if (stderrFuture == null) {
+                finishQuietly(stderrSink);
+            }
         }
     }
 
-    private CompletableFuture<String> readStreamAsync(
+    private static CompletableFuture<CapturedOutput> readStreamAsync(
             InputStream in,
-            Executor executor,
+            Charset charset,
+            OutputCapture.Sink sink,
             @Nullable Consumer<String> lineConsumer) {
         return ContextAwareCompletableFuture.supplyAsync(() -> {
-            var sb = new StringBuilder();
-            try (var reader = new BufferedReader(new InputStreamReader(in))) {
+            try (var reader = new BufferedReader(new InputStreamReader(in, charset))) {
                 String line;
                 while ((line = reader.readLine()) != null) {
-                    sb.append(line).append(System.lineSeparator());
+                    sink.append(line);
                     if (lineConsumer != null) {
                         lineConsumer.accept(line);
                     }
                 }
-                return sb.toString();
+                return sink.finish();
+            } catch (IOException e) {
+                finishQuietly(sink);
+                throw new UncheckedIOException(e);
+            }
+        }, READER_POOL);
+    }
+
+    /**
+     * Copies a stream to a channel as is, without capturing it.
+     * The channel is not closed.
+     */
+    private static CompletableFuture<CapturedOutput> copyStreamAsync(
+            InputStream in,
+            WritableByteChannel channel,
+            OutputCapture.Sink sink) {
+        return ContextAwareCompletableFuture.supplyAsync(() -> {
+            try (in) {
+                in.transferTo(Channels.newOutputStream(channel));
+                return sink.finish();
             } catch (IOException e) {
+                finishQuietly(sink);
                 throw new UncheckedIOException(e);
             }
-        }, executor);
+        }, READER_POOL);
+    }
+
+    private static void finishQuietly(@Nullable OutputCapture.Sink sink) {
+        if (sink == null) {
+            return;
+        }
+        try {
+            sink.finish();
+        } catch (IOException e) {
+            // nothing more we can do, the command has already failed
+        }
     }
 
     static List<String> pulumiArgs(List<String> args, String eventLogLocation) {
@@ -325,12 +401,14 @@ public class LocalPulumiCommand implements PulumiCommand {
     }
 
     static CommandException createExceptionFromResult(CommandResult result) {
-        if (NOT_FOUND_REGEX_PATTERN.matcher(result.standardError()).find()) {
+        // only the tail of a spilled output is read, the errors are reported last
+        var standardError = result.capturedStandardError().excerpt(CommandResult.MESSAGE_TAIL_CHARS);
+        if (NOT_FOUND_REGEX_PATTERN.matcher(standardError).find()) {
             return new StackNotFoundException(result);
-        } else if (ALREADY_EXISTS_REGEX_PATTERN.matcher(result.standardError()).find()) {
+        } else if (ALREADY_EXISTS_REGEX_PATTERN.matcher(standardError).find()) {
             return new StackAlreadyExistsException(result);
-        } else if (result.standardError().indexOf(CONFLICT_TEXT) >= 0 ||
-                result.standardError().indexOf(LOCAL_BACKEND_CONFLICT_TEXT) >= 0) {
+        } else if (standardError.indexOf(CONFLICT_TEXT) >= 0 ||
+                standardError.indexOf(LOCAL_BACKEND_CONFLICT_TEXT) >= 0) {
             return new ConcurrentUpdateException(result);
         } else {
             return new CommandException(result);
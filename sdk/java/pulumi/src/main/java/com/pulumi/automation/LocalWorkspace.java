@@ -3,6 +3,11 @@
 package com.pulumi.automation;
 
 import java.io.IOException;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -58,6 +63,9 @@ public final class LocalWorkspace extends Workspace {
     @Nullable
     private final Logger logger;
     private final Map<String, String> environmentVariables;
+    private final InlineLanguageHost inlineLanguageHost;
+    @Nullable
+    private volatile String defaultOrganization;
 
     private LocalWorkspace(PulumiCommand cmd, LocalWorkspaceOptions options) throws AutomationException {
         super(cmd);
@@ -74,12 +82,14 @@ public final class LocalWorkspace extends Workspace {
             this.logger = options.logger();
             this.secretsProvider = options.secretsProvider();
             this.environmentVariables = options.environmentVariables();
+            this.inlineLanguageHost = new InlineLanguageHost(options.inlineHostExecutor(), this::fullyQualifiedStackName);
         } else {
             this.pulumiHome = null;
             this.program = null;
             this.logger = null;
             this.secretsProvider = null;
             this.environmentVariables = Collections.emptyMap();
+            this.inlineLanguageHost = new InlineLanguageHost(null, this::fullyQualifiedStackName);
         }
 
         if (dir == null || dir.toString().isBlank()) {
@@ -515,6 +525,49 @@ public final class LocalWorkspace extends Workspace {
         return environmentVariables;
     }
 
+    @Override
+    InlineLanguageHost inlineLanguageHost() {
+        return inlineLanguageHost;
+    }
+
+    /**
+     * Resolves the name of a stack to its fully qualified name, {@code org/project/stack},
+     * with the project of this workspace and the default organization of the backend.
+     */
+    String fullyQualifiedStackName(String stackName) throws AutomationException {
+        var parts = stackName.split("/", -1);
+        if (parts.length == 3) {
+            return stackName;
+        }
+        if (parts.length > 3) {
+            throw new AutomationException("Invalid stack name: '" + stackName + "'");
+        }
+        var project = getProjectSettings()
+                .map(ProjectSettings::name)
+                .orElseThrow(() -> new AutomationException(
+                        "Cannot resolve the project of stack '" + stackName + "', the workspace has no project settings"));
+        var organization = parts.length == 2 ? parts[0] : defaultOrganization();
+        return organization + "/" + project + "/" + parts[parts.length - 1];
+    }
+
+    private String defaultOrganization() {
+        var organization = this.defaultOrganization;
+        if (organization == null) {
+            try {
+                organization = runCommand(List.of("org", "get-default")).standardOutput().trim();
+            } catch (AutomationException e) {
+                // backends without organizations, e.g. DIY backends, do not have a default one
+                organization = "";
+            }
+            if (organization.isEmpty()) {
+                // the name the engine uses for the organization of such backends
+                organization = "organization";
+            }
+            this.defaultOrganization = organization;
+        }
+        return organization;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -713,9 +766,45 @@ public final class LocalWorkspace extends Workspace {
      */
     @Override
     public StackDeployment exportStack(String stackName) throws AutomationException {
+        // Let the CLI write the state to a file, and parse it from there,
+        // rather than holding both the output and the parsed state in memory.
+        try {
+            var tempFile = Files.createTempFile("stack", ".json");
+            try {
+                exportStack(stackName, tempFile);
+                try (var reader = Files.newBufferedReader(tempFile, StandardCharsets.UTF_8)) {
+                    return StackDeployment.fromJson(reader);
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (AutomationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AutomationException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exportStack(String stackName, Path file) throws AutomationException {
+        var args = List.of("stack", "export", "--stack", Objects.requireNonNull(stackName), "--show-secrets",
+                "--file", Objects.requireNonNull(file).toString());
+        runCommand(args);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exportStack(String stackName, WritableByteChannel channel) throws AutomationException {
+        // without --file, the CLI writes the state to its standard output
         var args = List.of("stack", "export", "--stack", Objects.requireNonNull(stackName), "--show-secrets");
-        var result = runCommand(args);
-        return StackDeployment.fromJson(result.standardOutput());
+        runCommand(args, CommandRunOptions.builder()
+                .standardOutputChannel(Objects.requireNonNull(channel))
+                .build());
     }
 
     /**
@@ -724,14 +813,12 @@ public final class LocalWorkspace extends Workspace {
     @Override
     public void importStack(String stackName, StackDeployment state) throws AutomationException {
         try {
-            var json = serializer.serializeJson(Objects.requireNonNull(state));
-
             var tempFile = Files.createTempFile("stack", ".json");
             try {
-                Files.writeString(tempFile, json);
-                var args = List.of("stack", "import", "--file", tempFile.toString(), "--stack",
-                        Objects.requireNonNull(stackName));
-                runCommand(args);
+                try (var writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                    serializer.serializeJson(Objects.requireNonNull(state), writer);
+                }
+                importStack(stackName, tempFile);
             } finally {
                 Files.deleteIfExists(tempFile);
             }
@@ -742,6 +829,33 @@ public final class LocalWorkspace extends Workspace {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void importStack(String stackName, Path file) throws AutomationException {
+        var args = List.of("stack", "import", "--file", Objects.requireNonNull(file).toString(), "--stack",
+                Objects.requireNonNull(stackName));
+        runCommand(args);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void importStack(String stackName, ReadableByteChannel channel) throws AutomationException {
+        Objects.requireNonNull(channel);
+        // a non-blocking channel may read nothing before its end, so it cannot be told apart from its end
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+            throw new IllegalBlockingModeException();
+        }
+        // without --file, the CLI reads the state from its standard input
+        var args = List.of("stack", "import", "--stack", Objects.requireNonNull(stackName));
+        runCommand(args, CommandRunOptions.builder()
+                .standardInputChannel(channel)
+                .build());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1070,6 +1184,8 @@ public final class LocalWorkspace extends Workspace {
 
     @Override
     public void close() throws Exception {
+        inlineLanguageHost.close();
+
         if (this.ownsWorkingDir && Files.exists(this.workDir)) {
             try {
                 Files.walk(this.workDir)
@@ -5,6 +5,7 @@ package com.pulumi.automation;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 
@@ -38,6 +39,8 @@ public class LocalWorkspaceOptions {
     @Nullable
     private final ProjectSettings projectSettings;
     private final Map<String, StackSettings> stackSettings;
+    @Nullable
+    private final Executor inlineHostExecutor;
 
     private LocalWorkspaceOptions(Builder builder) {
         this.workDir = builder.workDir;
@@ -53,6 +56,7 @@ public class LocalWorkspaceOptions {
         this.stackSettings = builder.stackSettings == null
                 ? Collections.emptyMap()
                 : Collections.unmodifiableMap(builder.stackSettings);
+        this.inlineHostExecutor = builder.inlineHostExecutor;
     }
 
     /**
@@ -195,6 +199,19 @@ public class LocalWorkspaceOptions {
         return stackSettings;
     }
 
+    /**
+     * The executor running the requests of the language host serving inline
+     * programs. The host is started once per {@link LocalWorkspace} and shared
+     * by all its inline operations. If none is specified, the gRPC default
+     * executor is used.
+     *
+     * @return the inline host executor
+     */
+    @Nullable
+    public Executor inlineHostExecutor() {
+        return inlineHostExecutor;
+    }
+
     /**
      * Creates a new {@link Builder} initialized with the values from this instance.
      *
@@ -210,7 +227,8 @@ public class LocalWorkspaceOptions {
                 .logger(logger)
                 .environmentVariables(environmentVariables)
                 .projectSettings(projectSettings)
-                .stackSettings(stackSettings);
+                .stackSettings(stackSettings)
+                .inlineHostExecutor(inlineHostExecutor);
     }
 
     /**
@@ -235,6 +253,8 @@ public class LocalWorkspaceOptions {
         private ProjectSettings projectSettings;
         @Nullable
         private Map<String, StackSettings> stackSettings;
+        @Nullable
+        private Executor inlineHostExecutor;
 
         private Builder() {
         }
@@ -355,6 +375,20 @@ public class LocalWorkspaceOptions {
             return this;
         }
 
+        /**
+         * The executor running the requests of the language host serving inline
+         * programs. The host is started once per {@link LocalWorkspace} and shared
+         * by all its inline operations. The caller remains responsible for shutting
+         * the executor down.
+         *
+         * @param inlineHostExecutor the inline host executor
+         * @return the builder
+         */
+        public Builder inlineHostExecutor(Executor inlineHostExecutor) {
+            this.inlineHostExecutor = inlineHostExecutor;
+            return this;
+        }
+
         /**
          * Builds the {@link LocalWorkspaceOptions}.
          *
@@ -0,0 +1,240 @@
+// Copyright 2025, Pulumi Corporation
+
+package com.pulumi.automation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.annotation.Nullable;
+
+/**
+ * Controls how much of the standard output and standard error of a Pulumi CLI
+ * command is retained in memory for the command result.
+ * <p>
+ * Line callbacks such as {@link CommandRunOptions#onStandardOutput()} are
+ * called for every line regardless of the capture policy.
+ */
+public abstract class OutputCapture {
+    private static final OutputCapture FULL = new Full();
+    private static final OutputCapture NONE = new None();
+
+    private OutputCapture() {
+    }
+
+    /**
+     * Retains the whole output in memory. This is the default.
+     *
+     * @return the capture policy
+     */
+    public static OutputCapture full() {
+        return FULL;
+    }
+
+    /**
+     * Retains only the last {@code maxChars} characters of the output in memory.
+     *
+     * @param maxChars the maximum number of characters to retain per stream
+     * @return the capture policy
+     */
+    public static OutputCapture tail(int maxChars) {
+        if (maxChars <= 0) {
+            throw new IllegalArgumentException("maxChars must be positive, got: " + maxChars);
+        }
+        return new Tail(maxChars);
+    }
+
+    /**
+     * Writes the output to temporary files in the default temporary directory,
+     * instead of retaining it in memory.
+     *
+     * @return the capture policy
+     * @see #spillToFile(Path)
+     */
+    public static OutputCapture spillToFile() {
+        return new SpillToFile(null);
+    }
+
+    /**
+     * Writes the output to temporary files in the given directory, instead of
+     * retaining it in memory. The files are available from
+     * {@link CommandResult#standardOutputFile()} and
+     * {@link CommandResult#standardErrorFile()}, and are deleted when the
+     * result is closed:
+     * <pre>{@code
+     * try (var result = stack.up(UpOptions.builder()
+     *         .outputCapture(OutputCapture.spillToFile())
+     *         .build())) {
+     *     // use the result
+     * }
+     * }</pre>
+     * When the command fails, the files are kept and the exception message
+     * refers to them.
+     *
+     * @param directory the directory to create the files in
+     * @return the capture policy
+     */
+    public static OutputCapture spillToFile(Path directory) {
+        return new SpillToFile(directory);
+    }
+
+    /**
+     * Does not retain any output; use the line callbacks to consume it.
+     *
+     * @return the capture policy
+     */
+    public static OutputCapture none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a new sink for one stream of one command.
+     *
+     * @param streamName the name of the stream, e.g. {@code stdout}
+     * @param charset    the charset the output is decoded with
+     * @return the new sink
+     * @throws IOException if the sink cannot be created
+     */
+    abstract Sink newSink(String streamName, Charset charset) throws IOException;
+
+    /**
+     * Receives the lines of a single stream.
+     */
+    interface Sink {
+        /**
+         * Appends a line, without its line separator.
+         */
+        void append(String line) throws IOException;
+
+        /**
+         * Completes the capture, releasing any resources held by the sink.
+         */
+        CapturedOutput finish() throws IOException;
+    }
+
+    private static final class Full extends OutputCapture {
+        @Override
+        Sink newSink(String streamName, Charset charset) {
+            var sb = new StringBuilder();
+            return new Sink() {
+                @Override
+                public void append(String line) {
+                    sb.append(line).append(System.lineSeparator());
+                }
+
+                @Override
+                public CapturedOutput finish() {
+                    return CapturedOutput.of(sb.toString());
+                }
+            };
+        }
+    }
+
+    private static final class Tail extends OutputCapture {
+        private final int maxChars;
+
+        private Tail(int maxChars) {
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        Sink newSink(String streamName, Charset charset) {
+            return new TailSink(maxChars);
+        }
+    }
+
+    /**
+     * A ring buffer of characters, retaining the most recent ones.
+     */
+    private static final class TailSink implements Sink {
+        private final char[] buffer;
+        private int start;
+        private int length;
+
+        TailSink(int maxChars) {
+            this.buffer = new char[maxChars];
+        }
+
+        @Override
+        public void append(String line) {
+            appendChars(line);
+            appendChars(System.lineSeparator());
+        }
+
+        private void appendChars(String chars) {
+            var count = chars.length();
+            // only the last buffer.length characters can survive
+            var from = Math.max(0, count - buffer.length);
+            for (int i = from; i < count; i++) {
+                var end = (start + length) % buffer.length;
+                buffer[end] = chars.charAt(i);
+                if (length < buffer.length) {
+                    length++;
+                } else {
+                    start = (start + 1) % buffer.length;
+                }
+            }
+        }
+
+        @Override
+        public CapturedOutput finish() {
+            var first = Math.min(length, buffer.length - start);
+            var sb = new StringBuilder(length)
+                    .append(buffer, start, first)
+                    .append(buffer, 0, length - first);
+            return CapturedOutput.of(sb.toString());
+        }
+    }
+
+    private static final class SpillToFile extends OutputCapture {
+        @Nullable
+        private final Path directory;
+
+        private SpillToFile(@Nullable Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        Sink newSink(String streamName, Charset charset) throws IOException {
+            var prefix = "pulumi-" + streamName + "-";
+            var file = directory == null
+                    ? Files.createTempFile(prefix, ".log")
+                    : Files.createTempFile(directory, prefix, ".log");
+            Writer writer = Files.newBufferedWriter(file, charset);
+            return new Sink() {
+                @Override
+                public void append(String line) throws IOException {
+                    writer.write(line);
+                    writer.write(System.lineSeparator());
+                }
+
+                @Override
+                public CapturedOutput finish() throws IOException {
+                    writer.close();
+                    return CapturedOutput.ofFile(file, charset);
+                }
+            };
+        }
+    }
+
+    private static final class None extends OutputCapture {
+        private static final Sink DISCARD = new Sink() {
+            @Override
+            public void append(String line) {
+                // discarded
+            }
+
+            @Override
+            public CapturedOutput finish() {
+                return CapturedOutput.Empty;
+            }
+        };
+
+        @Override
+        Sink newSink(String streamName, Charset charset) {
+            return DISCARD;
+        }
+    }
+}
@@ -27,6 +27,7 @@ public final class PreviewOptions extends UpdateOptions {
     private final String plan;
     @Nullable
     private final Logger logger;
+    private final boolean collectMetrics;
 
     private PreviewOptions(Builder builder) {
         super(builder);
@@ -40,6 +41,7 @@ public final class PreviewOptions extends UpdateOptions {
         this.program = builder.program;
         this.plan = builder.plan;
         this.logger = builder.logger;
+        this.collectMetrics = builder.collectMetrics;
     }
 
     /**
@@ -129,6 +131,15 @@ public final class PreviewOptions extends UpdateOptions {
         return logger;
     }
 
+    /**
+     * Collect {@link UpdateMetrics} from the engine events of the preview.
+     *
+     * @return whether to collect update metrics
+     */
+    public boolean isCollectMetrics() {
+        return collectMetrics;
+    }
+
     /**
      * Builder for {@link PreviewOptions}.
      */
@@ -145,6 +156,7 @@ public final class PreviewOptions extends UpdateOptions {
         private String plan;
         @Nullable
         private Logger logger;
+        private boolean collectMetrics;
 
         private Builder() {
         }
@@ -241,6 +253,18 @@ public final class PreviewOptions extends UpdateOptions {
             return this;
         }
 
+        /**
+         * Collect {@link UpdateMetrics} from the engine events of the preview,
+         * available from {@link PreviewResult#metrics()}.
+         *
+         * @param collectMetrics whether to collect update metrics
+         * @return the builder
+         */
+        public Builder collectMetrics(boolean collectMetrics) {
+            this.collectMetrics = collectMetrics;
+            return this;
+        }
+
         /**
          * Builds the {@link PreviewOptions}.
          *
@@ -3,22 +3,32 @@
 package com.pulumi.automation;
 
 import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
 
 /**
  * Represents the result of a preview operation.
+ * <p>
+ * Closing the result deletes the files the output of the preview operation was
+ * spilled to with {@link OutputCapture#spillToFile()}, if any.
  */
-public class PreviewResult {
-    private final String standardOutput;
-    private final String standardError;
+public class PreviewResult implements AutoCloseable {
+    private final CapturedOutput standardOutput;
+    private final CapturedOutput standardError;
     private final Map<OperationType, Integer> changeSummary;
+    @Nullable
+    private final UpdateMetrics metrics;
 
     PreviewResult(
-            String standardOutput,
-            String standardError,
-            Map<OperationType, Integer> changeSummary) {
+            CapturedOutput standardOutput,
+            CapturedOutput standardError,
+            Map<OperationType, Integer> changeSummary,
+            @Nullable UpdateMetrics metrics) {
         this.standardOutput = standardOutput;
         this.standardError = standardError;
         this.changeSummary = changeSummary;
+        this.metrics = metrics;
     }
 
     /**
@@ -27,7 +37,7 @@ public class PreviewResult {
      * @return the standard output
      */
     public String standardOutput() {
-        return standardOutput;
+        return standardOutput.text();
     }
 
     /**
@@ -36,7 +46,7 @@ public class PreviewResult {
      * @return the standard error
      */
     public String standardError() {
-        return standardError;
+        return standardError.text();
     }
 
     /**
@@ -48,4 +58,23 @@ public class PreviewResult {
     public Map<OperationType, Integer> changeSummary() {
         return changeSummary;
     }
+
+    /**
+     * Returns the timing metrics of the preview, if requested with
+     * {@link PreviewOptions.Builder#collectMetrics(boolean)}.
+     *
+     * @return the preview metrics
+     */
+    public Optional<UpdateMetrics> metrics() {
+        return Optional.ofNullable(metrics);
+    }
+
+    /**
+     * Deletes the files the output was spilled to, if any.
+     */
+    @Override
+    public void close() {
+        standardOutput.delete();
+        standardError.delete();
+    }
 }
@@ -2,11 +2,14 @@
 
 package com.pulumi.automation;
 
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Type;
 import java.util.Map;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 
 /**
  * Represents the state of a stack deployment as used by
@@ -18,6 +21,10 @@ import com.google.gson.reflect.TypeToken;
  * NOTE: instances may contain sensitive data (secrets).
  */
 public final class StackDeployment {
+    static final Gson GSON = new Gson();
+    static final Type MAP_TYPE = new TypeToken<Map<String, Object>>() {
+    }.getType();
+
     private final int version;
     private final Map<String, Object> deployment;
 
@@ -34,18 +41,47 @@ public final class StackDeployment {
      * @throws AutomationException if the deployment cannot be parsed
      */
     public static StackDeployment fromJson(String json) throws AutomationException {
-        try {
-            var jsonObject = JsonParser.parseString(json).getAsJsonObject();
+        return fromJson(new StringReader(json));
+    }
 
-            var version = jsonObject.get("version").getAsInt();
+    /**
+     * Creates a new {@link StackDeployment} from the given JSON reader.
+     * <p>
+     * The JSON is parsed as it is read, without first loading it in memory as text.
+     *
+     * @param json the reader for the JSON to parse, not closed by this method
+     * @return the stack deployment
+     * @throws AutomationException if the deployment cannot be parsed
+     */
+    public static StackDeployment fromJson(Reader json) throws AutomationException {
+        try {
+            var reader = new JsonReader(json);
+            Integer version = null;
+            Map<String, Object> deployment = null;
 
-            var deploymentObject = jsonObject.get("deployment").getAsJsonObject();
-            var gson = new Gson();
-            var type = new TypeToken<Map<String, Object>>() {
-            }.getType();
-            Map<String, Object> deployment = gson.fromJson(deploymentObject, type);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "version":
+                        version = reader.nextInt();
+                        break;
+                    case "deployment":
+                        deployment = GSON.fromJson(reader, MAP_TYPE);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
 
+            if (version == null || deployment == null) {
+                throw new AutomationException(
+                        "Failed to parse StackDeployment JSON: 'version' and 'deployment' are required");
+            }
             return new StackDeployment(version, deployment);
+        } catch (AutomationException e) {
+            throw e;
         } catch (Exception e) {
             throw new AutomationException("Failed to parse StackDeployment JSON", e);
         }
@@ -0,0 +1,132 @@
+// Copyright 2025, Pulumi Corporation
+
+package com.pulumi.automation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Iterates over the resources of an exported deployment, reading them one at a
+ * time, so that the state of large stacks can be inspected or transformed
+ * without loading it in memory.
+ * <p>
+ * Each resource is returned in the same raw representation as the resources in
+ * {@link StackDeployment#deployment()}.
+ * <p>
+ * NOTE: resources may contain sensitive data (secrets).
+ *
+ * @see Workspace#exportStack(String, Path)
+ */
+public final class StackResourceReader implements Iterator<Map<String, Object>>, Closeable {
+    private final JsonReader reader;
+    private boolean inResources;
+
+    private StackResourceReader(Reader json) {
+        this.reader = new JsonReader(Objects.requireNonNull(json));
+    }
+
+    /**
+     * Opens the exported deployment stored in the given file.
+     *
+     * @param file the file containing the output of {@code pulumi stack export}
+     * @return the reader, to be closed by the caller
+     * @throws AutomationException if the file cannot be opened or is not a deployment
+     */
+    public static StackResourceReader open(Path file) throws AutomationException {
+        try {
+            return of(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new AutomationException("Failed to open exported deployment: " + file, e);
+        }
+    }
+
+    /**
+     * Reads the exported deployment from the given reader.
+     *
+     * @param json the reader for the output of {@code pulumi stack export}, closed with this reader
+     * @return the reader, to be closed by the caller
+     * @throws AutomationException if the input is not a deployment
+     */
+    public static StackResourceReader of(Reader json) throws AutomationException {
+        var resources = new StackResourceReader(json);
+        try {
+            resources.inResources = resources.seekResources();
+            return resources;
+        } catch (Exception e) {
+            try {
+                resources.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new AutomationException("Failed to parse StackDeployment JSON", e);
+        }
+    }
+
+    /**
+     * Positions the reader at the first element of {@code deployment.resources}.
+     *
+     * @return false if the deployment has no resources
+     */
+    private boolean seekResources() throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("deployment") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("resources") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    return true;
+                }
+                reader.skipValue();
+            }
+            return false;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!inResources) {
+            return false;
+        }
+        try {
+            if (reader.hasNext()) {
+                return true;
+            }
+            reader.endArray();
+            inResources = false;
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return StackDeployment.GSON.fromJson(reader, StackDeployment.MAP_TYPE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inResources = false;
+        reader.close();
+    }
+}
@@ -27,6 +27,7 @@ public final class UpOptions extends UpdateOptions {
     @Nullable
     private final Logger logger;
     private final boolean continueOnError;
+    private final boolean collectMetrics;
 
     private UpOptions(Builder builder) {
         super(builder);
@@ -40,6 +41,7 @@ public final class UpOptions extends UpdateOptions {
         this.showSecrets = builder.showSecrets;
         this.logger = builder.logger;
         this.continueOnError = builder.continueOnError;
+        this.collectMetrics = builder.collectMetrics;
     }
 
     /**
@@ -147,6 +149,15 @@ public final class UpOptions extends UpdateOptions {
         return continueOnError;
     }
 
+    /**
+     * Collect {@link UpdateMetrics} from the engine events of the update.
+     *
+     * @return whether to collect update metrics
+     */
+    public boolean collectMetrics() {
+        return collectMetrics;
+    }
+
     /**
      * Builder for {@link UpOptions}.
      */
@@ -165,6 +176,7 @@ public final class UpOptions extends UpdateOptions {
         @Nullable
         private Logger logger;
         private boolean continueOnError;
+        private boolean collectMetrics;
 
         private Builder() {
         }
@@ -283,6 +295,18 @@ public final class UpOptions extends UpdateOptions {
             return this;
         }
 
+        /**
+         * Collect {@link UpdateMetrics} from the engine events of the update,
+         * available from {@link UpResult#metrics()}.
+         *
+         * @param collectMetrics whether to collect update metrics
+         * @return the builder
+         */
+        public Builder collectMetrics(boolean collectMetrics) {
+            this.collectMetrics = collectMetrics;
+            return this;
+        }
+
         /**
          * Builds the {@link UpOptions}.
          *
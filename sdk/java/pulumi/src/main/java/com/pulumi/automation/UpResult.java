@@ -6,20 +6,27 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
 
 /**
  * The result of an up operation.
  */
 public final class UpResult extends UpdateResult {
     private final Map<String, OutputValue> outputs;
+    @Nullable
+    private final UpdateMetrics metrics;
 
     UpResult(
-            String standardOutput,
-            String standardError,
+            CapturedOutput standardOutput,
+            CapturedOutput standardError,
             UpdateSummary summary,
-            Map<String, OutputValue> outputs) {
+            Map<String, OutputValue> outputs,
+            @Nullable UpdateMetrics metrics) {
         super(standardOutput, standardError, summary);
         this.outputs = Collections.unmodifiableMap(new HashMap<>(Objects.requireNonNull(outputs)));
+        this.metrics = metrics;
     }
 
     /**
@@ -30,4 +37,14 @@ public final class UpResult extends UpdateResult {
     public Map<String, OutputValue> outputs() {
         return outputs;
     }
+
+    /**
+     * Returns the timing metrics of the update, if requested with
+     * {@link UpOptions.Builder#collectMetrics(boolean)}.
+     *
+     * @return the update metrics
+     */
+    public Optional<UpdateMetrics> metrics() {
+        return Optional.ofNullable(metrics);
+    }
 }
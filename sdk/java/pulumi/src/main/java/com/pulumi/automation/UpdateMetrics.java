@@ -0,0 +1,434 @@
+// Copyright 2025, Pulumi Corporation
+
+package com.pulumi.automation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+
+import com.pulumi.automation.events.EngineEvent;
+import com.pulumi.automation.events.StepEventMetadata;
+
+/**
+ * Timing metrics of the resource operations of an update or preview, derived
+ * from the engine events.
+ * <p>
+ * A step starts when its {@code ResourcePreEvent} is received, and completes
+ * when its {@code ResourceOutputsEvent} or {@code ResourceOperationFailedEvent}
+ * is received. Times are measured with the local monotonic clock when the
+ * events are received, as the event timestamps only have a one second
+ * resolution.
+ * <p>
+ * The metrics are aggregated as the events are received: the steps are not
+ * kept once they complete, except for the ones on the estimated critical path.
+ *
+ * @see UpOptions.Builder#collectMetrics(boolean)
+ * @see PreviewOptions.Builder#collectMetrics(boolean)
+ */
+public final class UpdateMetrics {
+    private final Duration duration;
+    private final int stepCount;
+    private final Map<String, Duration> resourceLatencies;
+    private final Map<String, OperationStats> byType;
+    private final Map<String, OperationStats> byProvider;
+    private final Map<Integer, Duration> concurrency;
+    private final int maxConcurrency;
+    private final List<StepTiming> estimatedCriticalPath;
+
+    private UpdateMetrics(
+            Duration duration,
+            int stepCount,
+            Map<String, Duration> resourceLatencies,
+            Map<String, OperationStats> byType,
+            Map<String, OperationStats> byProvider,
+            Map<Integer, Duration> concurrency,
+            int maxConcurrency,
+            List<StepTiming> estimatedCriticalPath) {
+        this.duration = duration;
+        this.stepCount = stepCount;
+        this.resourceLatencies = Collections.unmodifiableMap(resourceLatencies);
+        this.byType = Collections.unmodifiableMap(byType);
+        this.byProvider = Collections.unmodifiableMap(byProvider);
+        this.concurrency = Collections.unmodifiableMap(concurrency);
+        this.maxConcurrency = maxConcurrency;
+        this.estimatedCriticalPath = Collections.unmodifiableList(estimatedCriticalPath);
+    }
+
+    /**
+     * Gets the time from the start of the first step to the completion of the last one.
+     *
+     * @return the duration of the resource operations
+     */
+    public Duration duration() {
+        return duration;
+    }
+
+    /**
+     * Gets the number of completed steps.
+     *
+     * @return the number of completed steps
+     */
+    public int stepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Gets the total latency of the steps of each resource, by URN. A resource
+     * may have several steps, e.g. when it is replaced.
+     *
+     * @return the latency of each resource
+     */
+    public Map<String, Duration> resourceLatencies() {
+        return resourceLatencies;
+    }
+
+    /**
+     * Gets the statistics of the steps, by resource type.
+     *
+     * @return the statistics by resource type
+     */
+    public Map<String, OperationStats> byType() {
+        return byType;
+    }
+
+    /**
+     * Gets the statistics of the steps, by provider reference (without the provider ID).
+     *
+     * @return the statistics by provider
+     */
+    public Map<String, OperationStats> byProvider() {
+        return byProvider;
+    }
+
+    /**
+     * Gets how long each number of steps was in flight, from the start of the
+     * first step to the completion of the last one.
+     *
+     * @return the time spent at each concurrency level, by number of steps in flight
+     */
+    public Map<Integer, Duration> concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Gets the maximum number of steps that were in flight at the same time.
+     *
+     * @return the maximum concurrency
+     */
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Gets an estimate of the chain of steps that determined the duration of
+     * the update, from the first to the last.
+     * <p>
+     * This is a heuristic: the engine events do not carry the dependencies
+     * between resources, so each step is assumed to have waited for the last
+     * step that completed before it started. A step that started late for
+     * another reason, e.g. the {@code --parallel} limit, is attributed to
+     * whichever step happened to complete before it.
+     *
+     * @return the estimated critical path
+     */
+    public List<StepTiming> estimatedCriticalPath() {
+        return estimatedCriticalPath;
+    }
+
+    static Collector collector() {
+        return new Collector(System::nanoTime);
+    }
+
+    /**
+     * The timing of a single step of a resource.
+     */
+    public static final class StepTiming {
+        private final String urn;
+        private final String type;
+        @Nullable
+        private final String provider;
+        private final OperationType op;
+        private final Duration start;
+        private final Duration duration;
+        private final boolean failed;
+        @Nullable
+        private final StepTiming predecessor;
+
+        private StepTiming(
+                String urn,
+                String type,
+                @Nullable String provider,
+                OperationType op,
+                Duration start,
+                Duration duration,
+                boolean failed,
+                @Nullable StepTiming predecessor) {
+            this.urn = urn;
+            this.type = type;
+            this.provider = provider;
+            this.op = op;
+            this.start = start;
+            this.duration = duration;
+            this.failed = failed;
+            this.predecessor = predecessor;
+        }
+
+        /**
+         * @return the URN of the resource
+         */
+        public String urn() {
+            return urn;
+        }
+
+        /**
+         * @return the type of the resource
+         */
+        public String type() {
+            return type;
+        }
+
+        /**
+         * @return the provider reference of the resource, without the provider ID, if any
+         */
+        public Optional<String> provider() {
+            return Optional.ofNullable(provider);
+        }
+
+        /**
+         * @return the operation performed
+         */
+        public OperationType op() {
+            return op;
+        }
+
+        /**
+         * @return the start of the step, relative to the start of the first step
+         */
+        public Duration start() {
+            return start;
+        }
+
+        /**
+         * @return the latency of the step
+         */
+        public Duration duration() {
+            return duration;
+        }
+
+        /**
+         * @return true if the step failed
+         */
+        public boolean failed() {
+            return failed;
+        }
+
+        @Override
+        public String toString() {
+            return op + " " + urn + " " + duration.toMillis() + "ms" + (failed ? " (failed)" : "");
+        }
+    }
+
+    /**
+     * Aggregated statistics of a group of steps.
+     */
+    public static final class OperationStats {
+        private int count;
+        private int failures;
+        private Duration total = Duration.ZERO;
+        private Duration max = Duration.ZERO;
+
+        private OperationStats() {
+        }
+
+        private void add(StepTiming step) {
+            count++;
+            if (step.failed) {
+                failures++;
+            }
+            total = total.plus(step.duration);
+            if (step.duration.compareTo(max) > 0) {
+                max = step.duration;
+            }
+        }
+
+        /**
+         * @return the number of steps
+         */
+        public int count() {
+            return count;
+        }
+
+        /**
+         * @return the number of failed steps
+         */
+        public int failures() {
+            return failures;
+        }
+
+        /**
+         * @return the sum of the latencies of the steps
+         */
+        public Duration total() {
+            return total;
+        }
+
+        /**
+         * @return the mean latency of the steps
+         */
+        public Duration mean() {
+            return count == 0 ? Duration.ZERO : total.dividedBy(count);
+        }
+
+        /**
+         * @return the maximum latency of the steps
+         */
+        public Duration max() {
+            return max;
+        }
+    }
+
+    /**
+     * Computes the metrics incrementally from the engine events. A constant
+     * amount of state is kept per step in flight, and completed steps are
+     * folded into the aggregates, which grow with the number of resources,
+     * types and providers, and with the length of the estimated critical path.
+     */
+    static final class Collector implements Consumer<EngineEvent> {
+        private final LongSupplier clock;
+        private final Map<String, InFlight> inFlight = new HashMap<>();
+        private final Map<String, Duration> resourceLatencies = new LinkedHashMap<>();
+        private final Map<String, OperationStats> byType = new LinkedHashMap<>();
+        private final Map<String, OperationStats> byProvider = new LinkedHashMap<>();
+        private final Map<Integer, Duration> concurrency = new TreeMap<>();
+        private long origin = -1;
+        private long last;
+        private long lastChange;
+        private int stepCount;
+        private int maxConcurrency;
+        @Nullable
+        private StepTiming lastCompleted;
+
+        Collector(LongSupplier clock) {
+            this.clock = Objects.requireNonNull(clock);
+        }
+
+        @Override
+        public synchronized void accept(EngineEvent event) {
+            if (event.resourcePreEvent() != null) {
+                started(event.resourcePreEvent().metadata());
+            } else if (event.resourceOutputsEvent() != null) {
+                completed(event.resourceOutputsEvent().metadata(), false);
+            } else if (event.resourceOperationFailedEvent() != null) {
+                completed(event.resourceOperationFailedEvent().metadata(), true);
+            }
+        }
+
+        private void started(StepEventMetadata metadata) {
+            var now = clock.getAsLong();
+            if (origin < 0) {
+                origin = now;
+                lastChange = now;
+            }
+            recordConcurrency(now);
+            inFlight.put(key(metadata), new InFlight(now, lastCompleted));
+            maxConcurrency = Math.max(maxConcurrency, inFlight.size());
+        }
+
+        private void completed(StepEventMetadata metadata, boolean failed) {
+            var key = key(metadata);
+            var step = inFlight.get(key);
+            if (step == null) {
+                // e.g. a step that does not send a pre event
+                return;
+            }
+            var now = clock.getAsLong();
+            recordConcurrency(now);
+            inFlight.remove(key);
+            last = now;
+            var timing = new StepTiming(
+                    metadata.urn(),
+                    metadata.type(),
+                    providerOf(metadata.provider()),
+                    metadata.op(),
+                    Duration.ofNanos(step.start - origin),
+                    Duration.ofNanos(now - step.start),
+                    failed,
+                    step.predecessor
+            );
+            stepCount++;
+            lastCompleted = timing;
+            resourceLatencies.merge(timing.urn, timing.duration, Duration::plus);
+            byType.computeIfAbsent(timing.type, __ -> new OperationStats()).add(timing);
+            if (timing.provider != null) {
+                byProvider.computeIfAbsent(timing.provider, __ -> new OperationStats()).add(timing);
+            }
+        }
+
+        /**
+         * Accounts the time since the last change to the number of steps in flight until now.
+         */
+        private void recordConcurrency(long now) {
+            if (now > lastChange) {
+                concurrency.merge(inFlight.size(), Duration.ofNanos(now - lastChange), Duration::plus);
+            }
+            lastChange = now;
+        }
+
+        synchronized UpdateMetrics build() {
+            // the step completing last ends the critical path
+            var criticalPath = new ArrayList<StepTiming>();
+            for (var step = lastCompleted; step != null; step = step.predecessor) {
+                criticalPath.add(step);
+            }
+            Collections.reverse(criticalPath);
+            return new UpdateMetrics(
+                    origin < 0 ? Duration.ZERO : Duration.ofNanos(last - origin),
+                    stepCount,
+                    new LinkedHashMap<>(resourceLatencies),
+                    new LinkedHashMap<>(byType),
+                    new LinkedHashMap<>(byProvider),
+                    new TreeMap<>(concurrency),
+                    maxConcurrency,
+                    criticalPath
+            );
+        }
+
+        private static String key(StepEventMetadata metadata) {
+            return metadata.op() + " " + metadata.urn();
+        }
+
+        /**
+         * Provider references are {@code <provider URN>::<provider ID>}.
+         */
+        @Nullable
+        private static String providerOf(@Nullable String reference) {
+            if (reference == null || reference.isEmpty()) {
+                return null;
+            }
+            var index = reference.lastIndexOf("::");
+            return index > 0 ? reference.substring(0, index) : reference;
+        }
+    }
+
+    private static final class InFlight {
+        private final long start;
+        @Nullable
+        private final StepTiming predecessor;
+
+        private InFlight(long start, @Nullable StepTiming predecessor) {
+            this.start = start;
+            this.predecessor = predecessor;
+        }
+    }
+}
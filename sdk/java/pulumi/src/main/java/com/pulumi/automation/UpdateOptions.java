@@ -30,6 +30,8 @@ public abstract class UpdateOptions {
     @Nullable
     private final Consumer<EngineEvent> onEvent;
     @Nullable
+    private final OutputCapture outputCapture;
+    @Nullable
     private final String color;
     private final boolean logFlow;
     @Nullable
@@ -58,6 +60,7 @@ public abstract class UpdateOptions {
         onStandardOutput = builder.onStandardOutput;
         onStandardError = builder.onStandardError;
         onEvent = builder.onEvent;
+        outputCapture = builder.outputCapture;
         color = builder.color;
         logFlow = builder.logFlow;
         logVerbosity = builder.logVerbosity;
@@ -157,6 +160,17 @@ public abstract class UpdateOptions {
         return onEvent;
     }
 
+    /**
+     * Optional policy for capturing the standard output and standard error of
+     * the operation in its result. Defaults to {@link OutputCapture#full()}.
+     *
+     * @return the output capture policy
+     */
+    @Nullable
+    public OutputCapture outputCapture() {
+        return outputCapture;
+    }
+
     /**
      * Colorize output. Choices are: always, never, raw, auto (default "auto")
      *
@@ -247,6 +261,8 @@ public abstract class UpdateOptions {
         @Nullable
         private Consumer<EngineEvent> onEvent;
         @Nullable
+        private OutputCapture outputCapture;
+        @Nullable
         private String color;
         private boolean logFlow;
         @Nullable
@@ -373,6 +389,20 @@ public abstract class UpdateOptions {
             return (B) this;
         }
 
+        /**
+         * Optional policy for capturing the standard output and standard error of
+         * the operation in its result, e.g. {@link OutputCapture#tail(int)} to
+         * bound the memory used by verbose updates.
+         *
+         * @param outputCapture the output capture policy
+         * @return the builder
+         */
+        @SuppressWarnings("unchecked")
+        public B outputCapture(OutputCapture outputCapture) {
+            this.outputCapture = outputCapture;
+            return (B) this;
+        }
+
         /**
          * Colorize output. Choices are: always, never, raw, auto (default "auto")
          *
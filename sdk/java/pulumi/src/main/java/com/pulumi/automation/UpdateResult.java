@@ -4,15 +4,18 @@ package com.pulumi.automation;
 
 /**
  * The result of an update operation.
+ * <p>
+ * Closing the result deletes the files the output of the update operation was
+ * spilled to with {@link OutputCapture#spillToFile()}, if any.
  */
-public class UpdateResult {
-    private final String standardOutput;
-    private final String standardError;
+public class UpdateResult implements AutoCloseable {
+    private final CapturedOutput standardOutput;
+    private final CapturedOutput standardError;
     private final UpdateSummary summary;
 
     UpdateResult(
-            String standardOutput,
-            String standardError,
+            CapturedOutput standardOutput,
+            CapturedOutput standardError,
             UpdateSummary summary) {
         this.standardOutput = standardOutput;
         this.standardError = standardError;
@@ -25,7 +28,7 @@ public class UpdateResult {
      * @return the standard output
      */
     public String standardOutput() {
-        return standardOutput;
+        return standardOutput.text();
     }
 
     /**
@@ -34,7 +37,7 @@ public class UpdateResult {
      * @return the standard error
      */
     public String standardError() {
-        return standardError;
+        return standardError.text();
     }
 
     /**
@@ -45,4 +48,13 @@ public class UpdateResult {
     public UpdateSummary summary() {
         return summary;
     }
+
+    /**
+     * Deletes the files the output was spilled to, if any.
+     */
+    @Override
+    public void close() {
+        standardOutput.delete();
+        standardError.delete();
+    }
 }
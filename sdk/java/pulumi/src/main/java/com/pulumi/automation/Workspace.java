@@ -2,11 +2,15 @@
 
 package com.pulumi.automation;
 
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
@@ -24,6 +28,7 @@ import com.pulumi.Context;
  * ($PULUMI_HOME), and creation, deletion, and listing of Stacks.
  */
 public abstract class Workspace implements AutoCloseable {
+
     final PulumiCommand cmd;
 
     Workspace(PulumiCommand cmd) {
@@ -446,6 +451,52 @@ public abstract class Workspace implements AutoCloseable {
      */
     public abstract void importStack(String stackName, StackDeployment state) throws AutomationException;
 
+    /**
+     * Exports the deployment state of the stack to the given file, without
+     * loading it in memory.
+     * <p>
+     * Use {@link StackResourceReader#open(Path)} to iterate over the resources of
+     * the exported deployment.
+     *
+     * @param stackName the stack to export
+     * @param file      the file to write the deployment state to, overwritten if it exists
+     * @throws AutomationException if there was an issue exporting the stack
+     */
+    public abstract void exportStack(String stackName, Path file) throws AutomationException;
+
+    /**
+     * Exports the deployment state of the stack to the given channel, without
+     * loading it in memory. The output of the CLI is streamed to the channel as
+     * it is produced. The channel is not closed.
+     *
+     * @param stackName the stack to export
+     * @param channel   the channel to write the deployment state to
+     * @throws AutomationException if there was an issue exporting the stack
+     */
+    public abstract void exportStack(String stackName, WritableByteChannel channel) throws AutomationException;
+
+    /**
+     * Imports the deployment state stored in the given file into a pre-existing
+     * stack, without loading it in memory.
+     *
+     * @param stackName the stack to import
+     * @param file      the file containing the deployment state to import
+     * @throws AutomationException if there was an issue importing the stack
+     */
+    public abstract void importStack(String stackName, Path file) throws AutomationException;
+
+    /**
+     * Imports the deployment state read from the given channel into a
+     * pre-existing stack, without loading it in memory. The channel is streamed
+     * to the CLI until its end, and is not closed.
+     *
+     * @param stackName the stack to import
+     * @param channel   the channel to read the deployment state from, in blocking mode
+     * @throws AutomationException if there was an issue importing the stack
+     * @throws IllegalBlockingModeException if the channel is in non-blocking mode
+     */
+    public abstract void importStack(String stackName, ReadableByteChannel channel) throws AutomationException;
+
     /**
      * Installs a plugin in the Workspace, for example to use cloud providers like
      * AWS or GCP.
@@ -522,6 +573,13 @@ public abstract class Workspace implements AutoCloseable {
             String newSecretsProvider,
             @Nullable SecretsProviderOptions options) throws AutomationException;
 
+    /**
+     * The long-lived host serving the inline programs of this workspace.
+     *
+     * @return the inline language host
+     */
+    abstract InlineLanguageHost inlineLanguageHost();
+
     /**
      * Runs a Pulumi CLI command with the provided arguments.
      *
@@ -2,7 +2,9 @@
 
 package com.pulumi.automation;
 
-import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -11,16 +13,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
-import java.util.logging.Logger;
 
 import javax.annotation.Nullable;
 
-import io.grpc.Server;
-import io.grpc.ServerBuilder;
-
 import com.google.gson.reflect.TypeToken;
 
-import com.pulumi.Context;
 import com.pulumi.automation.events.EngineEvent;
 import com.pulumi.automation.events.SummaryEvent;
 import com.pulumi.automation.serialization.internal.LocalSerializer;
@@ -437,18 +434,24 @@ public final class WorkspaceStack implements AutoCloseable {
             applyUpdateOptions(options, args);
         }
 
-        InlineLanguageHost inlineHost = null;
+        InlineLanguageHost.Registration inlineProgram = null;
 
         Consumer<String> onStandardOutput = options != null ? options.onStandardOutput() : null;
         Consumer<String> onStandardError = options != null ? options.onStandardError() : null;
         Consumer<EngineEvent> onEvent = options != null ? options.onEvent() : null;
+        OutputCapture outputCapture = options != null ? options.outputCapture() : null;
+        UpdateMetrics.Collector metrics = options != null && options.collectMetrics()
+                ? UpdateMetrics.collector()
+                : null;
+        if (metrics != null) {
+            onEvent = onEvent == null ? metrics : metrics.andThen(onEvent);
+        }
 
         try {
             if (program != null) {
                 execKind = ExecKind.Inline;
-                inlineHost = new InlineLanguageHost(program, logger);
-                inlineHost.start();
-                args.add("--client=127.0.0.1:" + inlineHost.getPort());
+                inlineProgram = workspace.inlineLanguageHost().register(name, program, logger);
+                args.add("--client=127.0.0.1:" + inlineProgram.port());
             }
 
             args.add("--exec-kind");
@@ -460,6 +463,7 @@ public final class WorkspaceStack implements AutoCloseable {
                         .onStandardOutput(onStandardOutput)
                         .onStandardError(onStandardError)
                         .onEngineEvent(onEvent)
+                        .outputCapture(outputCapture)
                         .build());
             } catch (Exception e) {
                 // TODO handle inline host exception
@@ -473,21 +477,28 @@ public final class WorkspaceStack implements AutoCloseable {
                 throw e;
             }
 
-            var output = getOutputs();
-            var showSecrets = options != null && options.showSecrets();
-            var summary = getInfo(showSecrets);
-            return new UpResult(
-                    upResult.standardOutput(),
-                    upResult.standardError(),
-                    summary.get(),
-                    output);
+            try {
+                var output = getOutputs();
+                var showSecrets = options != null && options.showSecrets();
+                var summary = getInfo(showSecrets);
+                return new UpResult(
+                        upResult.capturedStandardOutput(),
+                        upResult.capturedStandardError(),
+                        summary.get(),
+                        output,
+                        metrics != null ? metrics.build() : null);
+            } catch (Exception e) {
+                // the result is not handed out, so nobody else can delete its spill files
+                upResult.close();
+                throw e;
+            }
         } catch (AutomationException e) {
             throw e;
         } catch (Exception e) {
             throw new AutomationException(e);
         } finally {
-            if (inlineHost != null) {
-                inlineHost.stop();
+            if (inlineProgram != null) {
+                inlineProgram.close();
             }
         }
     }
@@ -556,7 +567,7 @@ public final class WorkspaceStack implements AutoCloseable {
             applyUpdateOptions(options, args);
         }
 
-        InlineLanguageHost inlineHost = null;
+        InlineLanguageHost.Registration inlineProgram = null;
 
         Consumer<String> onStandardOutput = options != null ? options.onStandardOutput() : null;
         Consumer<String> onStandardError = options != null ? options.onStandardError() : null;
@@ -567,11 +578,19 @@ public final class WorkspaceStack implements AutoCloseable {
         // a workaround, updating the value at index 0.
         SummaryEvent[] summaryEvent = { null };
         Consumer<EngineEvent> onEvent = options != null ? options.onEvent() : null;
+        OutputCapture outputCapture = options != null ? options.outputCapture() : null;
+        UpdateMetrics.Collector metrics = options != null && options.isCollectMetrics()
+                ? UpdateMetrics.collector()
+                : null;
         Consumer<EngineEvent> onPreviewEvent = event -> {
             if (event.summaryEvent() != null) {
                 summaryEvent[0] = event.summaryEvent();
             }
 
+            if (metrics != null) {
+                metrics.accept(event);
+            }
+
             if (onEvent != null) {
                 onEvent.accept(event);
             }
@@ -580,9 +599,8 @@ public final class WorkspaceStack implements AutoCloseable {
         try {
             if (program != null) {
                 execKind = ExecKind.Inline;
-                inlineHost = new InlineLanguageHost(program, logger);
-                inlineHost.start();
-                args.add("--client=127.0.0.1:" + inlineHost.getPort());
+                inlineProgram = workspace.inlineLanguageHost().register(name, program, logger);
+                args.add("--client=127.0.0.1:" + inlineProgram.port());
             }
 
             args.add("--exec-kind");
@@ -594,6 +612,7 @@ public final class WorkspaceStack implements AutoCloseable {
                         .onStandardOutput(onStandardOutput)
                         .onStandardError(onStandardError)
                         .onEngineEvent(onPreviewEvent)
+                        .outputCapture(outputCapture)
                         .build());
             } catch (Exception e) {
                 // TODO handle inline host exception
@@ -608,20 +627,22 @@ public final class WorkspaceStack implements AutoCloseable {
             }
 
             if (summaryEvent[0] == null) {
+                result.close();
                 throw new NoSummaryEventException("No summary of changes for 'preview'");
             }
 
             return new PreviewResult(
-                    result.standardOutput(),
-                    result.standardError(),
-                    summaryEvent[0].resourceChanges());
+                    result.capturedStandardOutput(),
+                    result.capturedStandardError(),
+                    summaryEvent[0].resourceChanges(),
+                    metrics != null ? metrics.build() : null);
         } catch (AutomationException e) {
             throw e;
         } catch (Exception e) {
             throw new AutomationException(e);
         } finally {
-            if (inlineHost != null) {
-                inlineHost.stop();
+            if (inlineProgram != null) {
+                inlineProgram.close();
             }
         }
     }
@@ -692,19 +713,27 @@ public final class WorkspaceStack implements AutoCloseable {
         Consumer<String> onStandardOutput = options != null ? options.onStandardOutput() : null;
         Consumer<String> onStandardError = options != null ? options.onStandardError() : null;
         Consumer<EngineEvent> onEvent = options != null ? options.onEvent() : null;
+        OutputCapture outputCapture = options != null ? options.outputCapture() : null;
 
         var result = runCommand(args, CommandRunOptions.builder()
                 .onStandardOutput(onStandardOutput)
                 .onStandardError(onStandardError)
                 .onEngineEvent(onEvent)
+                .outputCapture(outputCapture)
                 .build());
 
-        var showSecrets = options != null && options.showSecrets();
-        var summary = getInfo(showSecrets);
-        return new UpdateResult(
-                result.standardOutput(),
-                result.standardError(),
-                summary.get());
+        try {
+            var showSecrets = options != null && options.showSecrets();
+            var summary = getInfo(showSecrets);
+            return new UpdateResult(
+                    result.capturedStandardOutput(),
+                    result.capturedStandardError(),
+                    summary.get());
+        } catch (AutomationException | RuntimeException e) {
+            // the result is not handed out, so nobody else can delete its spill files
+            result.close();
+            throw e;
+        }
     }
 
     /**
@@ -760,19 +789,27 @@ public final class WorkspaceStack implements AutoCloseable {
         Consumer<String> onStandardOutput = options != null ? options.onStandardOutput() : null;
         Consumer<String> onStandardError = options != null ? options.onStandardError() : null;
         Consumer<EngineEvent> onEvent = options != null ? options.onEvent() : null;
+        OutputCapture outputCapture = options != null ? options.outputCapture() : null;
 
         var result = runCommand(args, CommandRunOptions.builder()
                 .onStandardOutput(onStandardOutput)
                 .onStandardError(onStandardError)
                 .onEngineEvent(onEvent)
+                .outputCapture(outputCapture)
                 .build());
 
-        var showSecrets = options != null && options.isShowSecrets();
-        var summary = getInfo(showSecrets);
-        return new UpdateResult(
-                result.standardOutput(),
-                result.standardError(),
-                summary.get());
+        try {
+            var showSecrets = options != null && options.isShowSecrets();
+            var summary = getInfo(showSecrets);
+            return new UpdateResult(
+                    result.capturedStandardOutput(),
+                    result.capturedStandardError(),
+                    summary.get());
+        } catch (AutomationException | RuntimeException e) {
+            // the result is not handed out, so nobody else can delete its spill files
+            result.close();
+            throw e;
+        }
     }
 
     /**
@@ -869,6 +906,53 @@ public final class WorkspaceStack implements AutoCloseable {
         this.workspace.importStack(this.name, state);
     }
 
+    /**
+     * Exports the deployment state of the stack to the given file, without
+     * loading it in memory.
+     *
+     * @param file the file to write the deployment state to, overwritten if it exists
+     * @throws AutomationException if an error occurs
+     * @see StackResourceReader#open(Path)
+     */
+    public void exportStack(Path file) throws AutomationException {
+        this.workspace.exportStack(this.name, file);
+    }
+
+    /**
+     * Exports the deployment state of the stack to the given channel, without
+     * loading it in memory. The channel is not closed.
+     *
+     * @param channel the channel to write the deployment state to
+     * @throws AutomationException if an error occurs
+     */
+    public void exportStack(WritableByteChannel channel) throws AutomationException {
+        this.workspace.exportStack(this.name, channel);
+    }
+
+    /**
+     * Imports the deployment state stored in the given file into the stack,
+     * without loading it in memory.
+     *
+     * @param file the file containing the deployment state to import
+     * @throws AutomationException if an error occurs
+     */
+    public void importStack(Path file) throws AutomationException {
+        this.workspace.importStack(this.name, file);
+    }
+
+    /**
+     * Imports the deployment state read from the given channel into the stack,
+     * without loading it in memory. The channel is read until its end, and is
+     * not closed.
+     *
+     * @param channel the channel to read the deployment state from, in blocking mode
+     * @throws AutomationException if an error occurs
+     * @throws java.nio.channels.IllegalBlockingModeException if the channel is in non-blocking mode
+     */
+    public void importStack(ReadableByteChannel channel) throws AutomationException {
+        this.workspace.importStack(this.name, channel);
+    }
+
     /**
      * Returns the current update summary for the stack.
      *
@@ -929,38 +1013,6 @@ public final class WorkspaceStack implements AutoCloseable {
         CREATE_OR_SELECT
     }
 
-    private static class InlineLanguageHost {
-        private final Consumer<Context> program;
-        private final Logger logger;
-        private Server server;
-
-        public InlineLanguageHost(Consumer<Context> program, Logger logger) {
-            this.program = program;
-            this.logger = logger;
-        }
-
-        public void start() throws IOException {
-            // maxRpcMessageSize raises the gRPC Max Message size from `4194304` (4mb) to
-            // `419430400` (400mb)
-            var maxRpcMessageSizeInBytes = 400 * 1024 * 1024;
-            server = ServerBuilder.forPort(0)
-                    .maxInboundMessageSize(maxRpcMessageSizeInBytes)
-                    .addService(new LanguageRuntimeImpl(program, logger))
-                    .build()
-                    .start();
-        }
-
-        public int getPort() {
-            return server.getPort();
-        }
-
-        public void stop() {
-            if (server != null) {
-                server.shutdown();
-            }
-        }
-    }
-
     private static void applyUpdateOptions(UpdateOptions options, ArrayList<String> args) {
         var parallel = options.parallel();
         if (parallel != null) {
@@ -70,6 +70,16 @@ public class LocalSerializer {
     }
 
     public <T> String serializeJson(T object) {
+        checkJsonSerializable(object);
+        return gson.toJson(object);
+    }
+
+    public <T> void serializeJson(T object, Appendable writer) {
+        checkJsonSerializable(object);
+        gson.toJson(object, writer);
+    }
+
+    private static void checkJsonSerializable(Object object) {
         // Consider supporting JSON serialization of ProjectSettings
         // https://github.com/pulumi/pulumi-java/issues/1629
         if (object instanceof ProjectSettings) {
@@ -82,8 +92,6 @@ public class LocalSerializer {
             throw new UnsupportedOperationException(
                     "Saving StackSettings as JSON is not yet supported. Please use YAML");
         }
-
-        return gson.toJson(object);
     }
 
     public <T> String serializeYaml(T object) {
@@ -3,6 +3,7 @@ package com.pulumi.core.internal;
 import com.pulumi.core.internal.annotations.InternalUse;
 import com.pulumi.deployment.DeploymentInstance;
 import com.pulumi.deployment.internal.DeploymentInstanceHolder;
+import com.pulumi.deployment.internal.DeploymentInstanceInternal;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
 
@@ -137,6 +138,11 @@ public class ContextAwareCompletableFuture<T> extends CompletableFuture<T>
 
     public static <U> CompletableFuture<U> supplyAsync(Supplier<U> supplier)
     {
+        var executor = DeploymentInstanceInternal.currentExecutor();
+        if (executor != null)
+        {
+            return supplyAsync(supplier, executor);
+        }
         supplier = wrap(supplier);
         var future = CompletableFuture.supplyAsync(supplier);
         return wrap(future);
@@ -152,6 +158,11 @@ public class ContextAwareCompletableFuture<T> extends CompletableFuture<T>
 
     public static CompletableFuture<Void> runAsync(Runnable runnable)
     {
+        var executor = DeploymentInstanceInternal.currentExecutor();
+        if (executor != null)
+        {
+            return runAsync(runnable, executor);
+        }
         runnable = wrap(runnable);
         var future = CompletableFuture.runAsync(runnable);
         return wrap(future);
@@ -722,6 +733,13 @@ public class ContextAwareCompletableFuture<T> extends CompletableFuture<T>
         return wrapIfNeeded(inner);
     }
 
+    @Override
+    public Executor defaultExecutor()
+    {
+        var executor = DeploymentInstanceInternal.executorOf(context);
+        return executor != null ? executor : super.defaultExecutor();
+    }
+
     @Override
     public <U> CompletableFuture<U> newIncompleteFuture()
     {
@@ -100,6 +100,21 @@ public class OutputCompletionSource<T> {
         ));
     }
 
+    /**
+     * Completes the output right away, but converts the given value only once the output is used,
+     * e.g. applied, serialized or extracted in a test.
+     *
+     * @see Converter#convertValueLazily(String, Value, TypeShape, ImmutableSet)
+     */
+    public void setLazyValue(Converter converter, String context, Value value, ImmutableSet<Resource> depsOrEmpty) {
+        mutableData.complete(converter.convertValueLazily(
+                context,
+                value,
+                getTypeShape(),
+                Sets.union(this.resources, depsOrEmpty).immutableCopy()
+        ));
+    }
+
     public TypeShape<T> getTypeShape() {
         return dataTypeShape;
     }
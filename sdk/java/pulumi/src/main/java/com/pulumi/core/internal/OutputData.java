@@ -27,6 +27,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
@@ -45,15 +46,26 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
     private final ImmutableSet<Resource> resources;
     @Nullable
     private final T value;
+    // computes the value on first access instead, see ofLazy
+    @Nullable
+    private final LazyValue<T> lazyValue;
     private final boolean known;
     private final boolean secret;
 
     private OutputData(ImmutableSet<Resource> resources, @Nullable T value, boolean isKnown, boolean isSecret) {
+        this(resources, value, null, isKnown, isSecret);
+    }
+
+    private OutputData(
+            ImmutableSet<Resource> resources, @Nullable T value, @Nullable LazyValue<T> lazyValue,
+            boolean isKnown, boolean isSecret
+    ) {
         this.resources = requireNonNull(resources);
-        if (!isKnown && value != null) {
+        if (!isKnown && (value != null || lazyValue != null)) {
             throw new IllegalArgumentException(String.format("Expected an 'unknown' OutputData to not carry a non-null value, but got: '%s'", value));
         }
         this.value = value;
+        this.lazyValue = lazyValue;
         this.known = isKnown; // can be true even with value == null (when empty)
         this.secret = isSecret;
     }
@@ -131,6 +143,20 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
         return new OutputData<>(resources, value, isKnown, isSecret);
     }
 
+    /**
+     * Creates known data whose value is only computed when it is first accessed, e.g. to convert
+     * the outputs of a resource only if the program uses them. The value is computed at most once,
+     * and may turn out to be {@code null}. A failure to compute it is thrown by every access.
+     * <p>
+     * Lazy data is equal to the data with the same value, so {@link #equals(Object)} and {@link #hashCode()}
+     * compute the value, and throw its failure, but {@link #toString()} does not.
+     * Once the value is computed, the copies of the data are not lazy, e.g. the empty data for a {@code null} value.
+     */
+    @InternalUse
+    public static <T> OutputData<T> ofLazy(ImmutableSet<Resource> resources, Supplier<T> value, boolean isSecret) {
+        return new OutputData<>(resources, null, new LazyValue<>(value), true, isSecret);
+    }
+
     public static <T> OutputData<T> unknown() {
         //noinspection unchecked
         return (OutputData<T>) Unknown;
@@ -142,11 +168,11 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
     }
 
     public OutputData<T> copy() {
-        return ofNullable(this.resources, this.value, this.known, this.secret);
+        return with(this.resources, this.secret);
     }
 
     public OutputData<T> withIsSecret(boolean isSecret) {
-        return ofNullable(this.resources, this.value, this.known, isSecret);
+        return with(this.resources, isSecret);
     }
 
     public OutputData<T> withDependency(Resource resource) {
@@ -154,7 +180,7 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
                 this.resources,
                 ImmutableSet.of(resource)
         ).immutableCopy();
-        return ofNullable(newDependencies, this.value, this.known, this.secret);
+        return with(newDependencies, this.secret);
     }
 
     public OutputData<T> withDependencies(List<Resource> resources) {
@@ -162,12 +188,27 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
             this.resources,
             ImmutableSet.copyOf(resources)
         ).immutableCopy();
-        return ofNullable(newDependencies, this.value, this.known, this.secret);
+        return with(newDependencies, this.secret);
+    }
+
+    /**
+     * @return this data with the given resources and secrecy, and the same value, still lazy if it was
+     */
+    private OutputData<T> with(ImmutableSet<Resource> resources, boolean isSecret) {
+        if (this.lazyValue != null && !this.lazyValue.isComputed()) {
+            return new OutputData<>(resources, null, this.lazyValue, this.known, isSecret);
+        }
+        return ofNullable(resources, value(), this.known, isSecret);
+    }
+
+    @Nullable
+    private T value() {
+        return this.lazyValue == null ? this.value : this.lazyValue.get();
     }
 
     public <U> OutputData<U> apply(Function<? super T, ? extends U> function) {
         if (known) {
-            return ofNullable(resources, function.apply(value), true, secret);
+            return ofNullable(resources, function.apply(value()), true, secret);
         } else {
             return ofNullable(resources, null, false, secret);
         }
@@ -181,7 +222,7 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
                 .build();
         var combinedSecret = secret || other.isSecret();
         if (known && other.known) {
-            var combinedValue = fn.apply(value, other.value);
+            var combinedValue = fn.apply(value(), other.value());
             return ofNullable(combinedResources, combinedValue, true, combinedSecret);
         } else {
             return ofNullable(combinedResources, null, false, combinedSecret);
@@ -190,7 +231,7 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
 
     public <U> OutputData<U> compose(Function<T, OutputData<U>> function) {
         if (known) {
-            return combine(function.apply(value), (__, x) -> x);
+            return combine(function.apply(value()), (__, x) -> x);
         } else {
             return ofNullable(resources, null, false, secret);
         }
@@ -201,7 +242,7 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
     }
 
     public Optional<T> getValueOptional() {
-        return Optional.ofNullable(this.value);
+        return Optional.ofNullable(value());
     }
 
     @Nullable
@@ -211,7 +252,7 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
 
     @Nullable
     public T getValueNullable() {
-        return this.value;
+        return value();
     }
 
     public Optional<T> filter(Predicate<T> isEmpty) {
@@ -236,19 +277,19 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
         return known == that.known
                 && secret == that.secret
                 && resources.equals(that.resources)
-                && Objects.equals(value, that.value);
+                && Objects.equals(value(), that.value());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(resources, value, known, secret);
+        return Objects.hash(resources, value(), known, secret);
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
                 .add("resources", resources)
-                .add("value", value)
+                .add("value", this.lazyValue == null || this.lazyValue.isComputed() ? value() : "<lazy>")
                 .add("known", known)
                 .add("secret", secret)
                 .toString();
@@ -256,7 +297,7 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
 
     public <V> CompletableFuture<OutputData<V>> traverseFuture(Function<T, CompletableFuture<V>> fn) {
         if (known) {
-            return fn.apply(value).thenApply(x -> apply(__ -> x));
+            return fn.apply(value()).thenApply(x -> apply(__ -> x));
         } else {
             return CompletableFuture.completedFuture(ofNullable(resources, null, false, secret));
         }
@@ -353,4 +394,39 @@ public final class OutputData<T> implements Copyable<OutputData<T>> {
             return build(Function.identity());
         }
     }
+
+    /**
+     * A value computed at most once, on first access, like {@code Suppliers.memoize},
+     * that tells whether it is computed yet.
+     */
+    private static final class LazyValue<T> implements Supplier<T> {
+        @Nullable
+        private Supplier<T> supplier; // released once computed
+        @Nullable
+        private T value;
+        private volatile boolean computed;
+
+        private LazyValue(Supplier<T> supplier) {
+            this.supplier = requireNonNull(supplier);
+        }
+
+        @Override
+        @Nullable
+        public T get() {
+            if (!this.computed) {
+                synchronized (this) {
+                    if (!this.computed) {
+                        this.value = requireNonNull(this.supplier).get();
+                        this.supplier = null;
+                        this.computed = true;
+                    }
+                }
+            }
+            return this.value;
+        }
+
+        private boolean isComputed() {
+            return this.computed;
+        }
+    }
 }
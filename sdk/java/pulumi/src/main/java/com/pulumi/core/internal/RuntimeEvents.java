@@ -0,0 +1,335 @@
+package com.pulumi.core.internal;
+
+import com.pulumi.core.internal.annotations.InternalUse;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * JDK Flight Recorder events of the Pulumi runtime.
+ * <p>
+ * The events are recorded with the standard JFR tooling, e.g. {@code -XX:StartFlightRecording}.
+ * The {@link #Settings} resource enables all of them, e.g. extract it and start the program with
+ * {@code -XX:StartFlightRecording:settings=/path/to/pulumi.jfc,filename=pulumi.jfr}.
+ * <p>
+ * The events are only begun and filled in when they are enabled in a running recording,
+ * otherwise the work they trace is left as is, e.g. no callbacks are added to its futures.
+ */
+@InternalUse
+public final class RuntimeEvents {
+
+    /**
+     * The class path resource of the JFR settings enabling all the events of the Pulumi runtime.
+     */
+    public static final String Settings = "/com/pulumi/core/internal/pulumi.jfc";
+
+    private static final String PulumiCategory = "Pulumi";
+
+    private RuntimeEvents() {
+        throw new UnsupportedOperationException("static class");
+    }
+
+    /**
+     * The registration of a resource, from its preparation to the completion of its outputs.
+     * <p>
+     * Call {@link #start(String, String)}, then {@link #prepared()}, {@link #registered(String)}
+     * and {@link #completed(Throwable)} in that order, at the end of each stage.
+     */
+    @Name("pulumi.ResourceRegistered")
+    @Label("Resource Registered")
+    @Description("A resource was read or registered with the engine and its outputs completed")
+    @Category({PulumiCategory, "Resources"})
+    @StackTrace(false)
+    public static final class ResourceRegistered extends Event {
+        @Label("Type")
+        public String type;
+
+        @Label("Name")
+        public String name;
+
+        @Label("URN")
+        public String urn;
+
+        @Label("Prepare Duration")
+        @Description("Waiting for the inputs and dependencies, and serializing the inputs")
+        @Timespan(Timespan.NANOSECONDS)
+        public long prepareDuration;
+
+        @Label("RPC Duration")
+        @Description("Waiting for the engine to read or register the resource")
+        @Timespan(Timespan.NANOSECONDS)
+        public long rpcDuration;
+
+        @Label("Complete Duration")
+        @Description("Deserializing the outputs and completing them")
+        @Timespan(Timespan.NANOSECONDS)
+        public long completeDuration;
+
+        @Label("Failed")
+        public boolean failed;
+
+        // shared by all the registrations started while the event is not enabled, it is never started
+        private static final ResourceRegistered NotRecorded = new ResourceRegistered(null, null);
+
+        // only set if the event was enabled when the registration started
+        private transient boolean started;
+        private transient long mark;
+
+        private ResourceRegistered(@Nullable String type, @Nullable String name) {
+            this.type = type;
+            this.name = name;
+        }
+
+        /**
+         * Starts recording the registration of a resource.
+         *
+         * @param type the resource type token
+         * @param name the resource name
+         * @return the started event, or a shared event recording nothing if the event is not enabled
+         */
+        public static ResourceRegistered start(String type, String name) {
+            var event = new ResourceRegistered(type, name);
+            if (!event.isEnabled()) {
+                return NotRecorded;
+            }
+            event.started = true;
+            event.mark = System.nanoTime();
+            event.begin();
+            return event;
+        }
+
+        public void prepared() {
+            if (this.started) {
+                this.prepareDuration = lap();
+            }
+        }
+
+        public void registered(String urn) {
+            if (this.started) {
+                this.urn = urn;
+                this.rpcDuration = lap();
+            }
+        }
+
+        public void completed(@Nullable Throwable throwable) {
+            if (this.started) {
+                this.completeDuration = lap();
+                this.failed = throwable != null;
+                end();
+                if (shouldCommit()) {
+                    commit();
+                }
+            }
+        }
+
+        private long lap() {
+            var now = System.nanoTime();
+            var duration = now - this.mark;
+            this.mark = now;
+            return duration;
+        }
+    }
+
+    /**
+     * An invoke of a provider function, from the request to the response.
+     */
+    @Name("pulumi.InvokeCompleted")
+    @Label("Invoke Completed")
+    @Description("The engine responded to an invoke of a provider function")
+    @Category({PulumiCategory, "Invokes"})
+    @StackTrace(false)
+    public static final class InvokeCompleted extends Event {
+        @Label("Token")
+        public String token;
+
+        @Label("Arguments Size")
+        @DataAmount
+        public long argumentsSize;
+
+        @Label("Failed")
+        public boolean failed;
+
+        /**
+         * Records the invoke when the given future completes.
+         *
+         * @param token         the function token
+         * @param argumentsSize the size of the serialized arguments, only computed if the event is enabled
+         * @param future        the future of the invoke response
+         * @param <T>           the response type
+         * @return the given future
+         */
+        public static <T> CompletableFuture<T> record(
+                String token, LongSupplier argumentsSize, CompletableFuture<T> future
+        ) {
+            var event = new InvokeCompleted();
+            if (!event.isEnabled()) {
+                return future;
+            }
+            event.begin();
+            event.token = token;
+            event.argumentsSize = argumentsSize.getAsLong();
+            future.whenComplete((__, throwable) -> {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.failed = throwable != null;
+                    event.commit();
+                }
+            });
+            return future;
+        }
+    }
+
+    /**
+     * The serialization of the properties of a resource, an invoke or a stack, including waiting for their values.
+     */
+    @Name("pulumi.SerializationCompleted")
+    @Label("Serialization Completed")
+    @Description("Properties were serialized to be sent to the engine")
+    @Category({PulumiCategory, "Serialization"})
+    @StackTrace(false)
+    @Enabled(false)
+    public static final class SerializationCompleted extends Event {
+        @Label("Label")
+        public String label;
+
+        @Label("Properties")
+        public int properties;
+
+        @Label("Nodes")
+        @Description("The number of values in the serialized properties, including nested ones")
+        public long nodes;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+
+        @Label("Contains Unknowns")
+        public boolean containsUnknowns;
+
+        /**
+         * Records the serialization when the given future completes successfully.
+         *
+         * @param label  the label of the serialized properties
+         * @param future the future of the serialization
+         * @param fill   fills in the event with the serialization result, only called if the event is committed
+         * @param <T>    the serialization result type
+         * @return the given future if the event is not enabled, otherwise a future completing after the event
+         */
+        public static <T> CompletableFuture<T> record(
+                String label, CompletableFuture<T> future, BiConsumer<SerializationCompleted, T> fill
+        ) {
+            var event = new SerializationCompleted();
+            if (!event.isEnabled()) {
+                return future;
+            }
+            event.begin();
+            return future.thenApply(result -> {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.label = label;
+                    fill.accept(event, result);
+                    event.commit();
+                }
+                return result;
+            });
+        }
+    }
+
+    /**
+     * The wait of the runner for all the tasks of a deployment.
+     */
+    @Name("pulumi.RunnerDrained")
+    @Label("Runner Drained")
+    @Description("The runner waited for all the tasks of the deployment to complete")
+    @Category({PulumiCategory, "Runner"})
+    @StackTrace(false)
+    public static final class RunnerDrained extends Event {
+        @Label("Tasks")
+        @Description("The number of tasks that completed while waiting")
+        public int tasks;
+
+        @Label("Iterations")
+        @Description("The number of times the runner checked for completed tasks")
+        public int iterations;
+
+        @Label("Failed")
+        public boolean failed;
+
+        /**
+         * Records the wait when the given future completes.
+         *
+         * @param tasks      the number of tasks that completed while waiting
+         * @param iterations the number of times the runner checked for completed tasks
+         * @param future     the future of the wait
+         * @return the given future if the event is not enabled, otherwise a future completing after the event
+         */
+        public static CompletableFuture<Void> record(
+                IntSupplier tasks, IntSupplier iterations, CompletableFuture<Void> future
+        ) {
+            var event = new RunnerDrained();
+            if (!event.isEnabled()) {
+                return future;
+            }
+            event.begin();
+            // the caller continues after the event is committed
+            return future.whenComplete((__, throwable) -> {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.tasks = tasks.getAsInt();
+                    event.iterations = iterations.getAsInt();
+                    event.failed = throwable != null;
+                    event.commit();
+                }
+            });
+        }
+    }
+
+    /**
+     * A log message sent to the engine, from the time it was queued.
+     */
+    @Name("pulumi.EngineLog")
+    @Label("Engine Log")
+    @Description("A log message was queued and then sent to the engine")
+    @Category({PulumiCategory, "Logging"})
+    @StackTrace(false)
+    public static final class EngineLog extends Event {
+        @Label("Severity")
+        public String severity;
+
+        @Label("Message Length")
+        public int messageLength;
+
+        @Label("Queue Length")
+        @Description("The number of log messages waiting to be sent when this one was queued")
+        public int queueLength;
+    }
+
+    /**
+     * The scan of the class path for resource classes.
+     */
+    @Name("pulumi.ResourcePackagesScan")
+    @Label("Resource Packages Scan")
+    @Description("The class path was scanned for resource classes")
+    @Category({PulumiCategory, "Resources"})
+    @StackTrace(false)
+    public static final class ResourcePackagesScan extends Event {
+        @Label("Classes")
+        @Description("The number of classes loaded and inspected")
+        public int classes;
+
+        @Label("Resource Types")
+        public int resourceTypes;
+    }
+}
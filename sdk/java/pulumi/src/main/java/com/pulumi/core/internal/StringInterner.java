@@ -0,0 +1,43 @@
+package com.pulumi.core.internal;
+
+import com.pulumi.core.internal.annotations.InternalUse;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicates the strings a deployment receives over and over from the engine, e.g. URNs, type tokens
+ * and property names, which every response carries as fresh copies.
+ * <p>
+ * Unlike {@link String#intern()}, the strings are only retained as long as the interner, i.e. the deployment,
+ * so that the strings of one deployment are not kept alive by another one running in the same process.
+ */
+@InternalUse
+public final class StringInterner {
+
+    private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+
+    /**
+     * @return the first equal string given to this interner, or the given string if it is the first one
+     */
+    @Nullable
+    public String intern(@Nullable String string) {
+        if (string == null || string.isEmpty()) {
+            return string;
+        }
+        // most strings were seen before, so look them up without locking first
+        var interned = this.strings.get(string);
+        if (interned != null) {
+            return interned;
+        }
+        interned = this.strings.putIfAbsent(string, string);
+        return interned == null ? string : interned;
+    }
+
+    /**
+     * @return the number of distinct strings interned
+     */
+    public int size() {
+        return this.strings.size();
+    }
+}
@@ -4,13 +4,10 @@ import com.pulumi.core.Output;
 import com.pulumi.core.internal.annotations.InternalUse;
 
 import javax.annotation.ParametersAreNonnullByDefault;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.StringJoiner;
 
-import static com.pulumi.core.internal.Objects.require;
 import static com.pulumi.core.internal.Strings.isNonEmptyOrNull;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
@@ -56,11 +53,8 @@ public final class Urn {
 
     private static final String Prefix = "urn:pulumi:";
     private static final String PartsSeparator = "::";
-    private static final String PartsSeparatorRegex = "[:][:]";
     private static final String TypeSeparator = ":";
-    private static final String TypeSeparatorRegex = "[:]";
     private static final String ParentSeparator = "$";
-    private static final String ParentSeparatorRegex = "\\$";
 
     public final String stack;
     public final String project;
@@ -97,46 +91,80 @@ public final class Urn {
                 .toString();
     }
 
+    /**
+     * Parses a URN by scanning it for its separators, so that only the returned parts are allocated.
+     * URNs are parsed for every resource reference, so this avoids splitting with regular expressions.
+     */
     @InternalUse
-    @SuppressWarnings("ConstantConditions") // IntelliJ can't understand the custom validators
     public static Urn parse(String urn) {
-        require(u -> isNonEmptyOrNull(u), urn,
-                () -> format("expected urn to be not empty and not null, got: '%s'", urn)
-        );
-        require(u -> u.startsWith(Prefix), urn,
-                () -> format("expected urn to start with '%s', got: '%s'", Prefix, urn)
-        );
+        if (!isNonEmptyOrNull(urn)) {
+            throw new IllegalArgumentException(format("expected urn to be not empty and not null, got: '%s'", urn));
+        }
+        if (!urn.startsWith(Prefix)) {
+            throw new IllegalArgumentException(format("expected urn to start with '%s', got: '%s'", Prefix, urn));
+        }
 
-        var urnParts = urn.split(PartsSeparatorRegex, -1); // -1 avoids dropping trailing empty strings
-        require(up -> up.length == 4, urnParts,
-                () -> format("expected urn to have 4 parts, separated by '%s', got '%s' in '%s'",
-                        PartsSeparator, urnParts.length, urn
-                )
-        );
-        var stack = urnParts[0].replaceFirst(Prefix, "");
-        require(s -> isNonEmptyOrNull(s), stack,
-                () -> format("expected urn stack part to be not empty, got: '%s'", stack)
-        );
-        require(s -> !s.contains(PartsSeparator), stack,
-                () -> format("expected urn stack part to not contain '%s', got: '%s'", ParentSeparator, stack)
-        );
-        var project = urnParts[1];
-        require(p -> isNonEmptyOrNull(p), project,
-                () -> format("expected urn project part to be not empty, got: '%s'", project)
-        );
-        require(p -> !p.contains(PartsSeparator), project,
-                () -> format("expected urn project part to not contain '%s', got: '%s'", ParentSeparator, project)
-        );
-        var qualifiedType = urnParts[2];
-        require(q -> isNonEmptyOrNull(q), qualifiedType,
-                () -> format("expected urn qualifiedType part to be not empty, got: '%s'", qualifiedType)
-        );
-        var name = urnParts[3];
-        require(n -> isNonEmptyOrNull(n), name,
-                () -> format("expected urn name part to be not empty, got: '%s'", name)
+        var projectStart = urn.indexOf(PartsSeparator);
+        var typeStart = projectStart < 0 ? -1 : urn.indexOf(PartsSeparator, projectStart + PartsSeparator.length());
+        var nameStart = typeStart < 0 ? -1 : urn.indexOf(PartsSeparator, typeStart + PartsSeparator.length());
+        if (nameStart < 0 || urn.indexOf(PartsSeparator, nameStart + PartsSeparator.length()) >= 0) {
+            throw new IllegalArgumentException(format("expected urn to have 4 parts, separated by '%s', got '%s' in '%s'",
+                    PartsSeparator, countParts(urn, PartsSeparator), urn
+            ));
+        }
+        // the first separator may overlap the prefix, e.g. 'urn:pulumi::', then the whole first part is the stack
+        var stackStart = projectStart >= Prefix.length() ? Prefix.length() : 0;
+        if (isBlank(urn, stackStart, projectStart)) {
+            throw new IllegalArgumentException(format("expected urn stack part to be not empty, got: '%s'",
+                    urn.substring(stackStart, projectStart)));
+        }
+        projectStart += PartsSeparator.length();
+        if (isBlank(urn, projectStart, typeStart)) {
+            throw new IllegalArgumentException(format("expected urn project part to be not empty, got: '%s'",
+                    urn.substring(projectStart, typeStart)));
+        }
+        typeStart += PartsSeparator.length();
+        if (isBlank(urn, typeStart, nameStart)) {
+            throw new IllegalArgumentException(format("expected urn qualifiedType part to be not empty, got: '%s'",
+                    urn.substring(typeStart, nameStart)));
+        }
+        nameStart += PartsSeparator.length();
+        if (isBlank(urn, nameStart, urn.length())) {
+            throw new IllegalArgumentException(format("expected urn name part to be not empty, got: '%s'",
+                    urn.substring(nameStart)));
+        }
+
+        return new Urn(
+                urn.substring(stackStart, projectStart - PartsSeparator.length()),
+                urn.substring(projectStart, typeStart - PartsSeparator.length()),
+                QualifiedTypeName.parse(urn, typeStart, nameStart - PartsSeparator.length()),
+                urn.substring(nameStart)
         );
+    }
+
+    /**
+     * @return true if the given range of the string is empty or only contains whitespace, like {@link String#isBlank()}
+     */
+    private static boolean isBlank(String string, int from, int to) {
+        for (int i = from; i < to; ) {
+            var codePoint = string.codePointAt(i);
+            if (!Character.isWhitespace(codePoint)) {
+                return false;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return true;
+    }
 
-        return new Urn(stack, project, QualifiedTypeName.parse(qualifiedType), name);
+    /**
+     * @return the number of parts the string splits into by the given separator, including empty ones
+     */
+    private static int countParts(String string, String separator) {
+        var parts = 1;
+        for (int i = string.indexOf(separator); i >= 0; i = string.indexOf(separator, i + separator.length())) {
+            parts++;
+        }
+        return parts;
     }
 
     public String asString() {
@@ -181,33 +209,32 @@ public final class Urn {
         }
 
         @InternalUse
-        @SuppressWarnings("ConstantConditions") // IntelliJ can't understand the custom validators
         public static QualifiedTypeName parse(String qualifiedType) {
-            var qualifiedTypeParts = qualifiedType.split(ParentSeparatorRegex, -1); // -1 avoids dropping trailing empty strings
-            require(qp -> qp.length > 0, qualifiedTypeParts,
-                    () -> format("expected qualified type to not be empty, split by '%s', got '%s'",
-                            ParentSeparatorRegex, String.join(", ", qualifiedTypeParts))
-            );
-            var type = qualifiedTypeParts[qualifiedTypeParts.length - 1];
-            require(t -> isNonEmptyOrNull(t), type,
-                    () -> format("expected qualified type, type part to be not empty, got: '%s'", type)
-            );
-            final Optional<String> parent;
-
-            // Handle parents. URNs can have nested parents which should be joined with a "$".
-            if (qualifiedTypeParts.length >= 2) {
-                // Get only the parent parts of the URN type.
-                List<String> parentList = Arrays.asList(qualifiedTypeParts).subList(0, qualifiedTypeParts.length - 1);
+            return parse(qualifiedType, 0, qualifiedType.length());
+        }
 
-                var pt = String.join(ParentSeparator, parentList);
-                require(p -> isNonEmptyOrNull(p), pt,
-                        () -> format("expected qualified type, parent part to be not empty, got: '%s'", pt)
-                );
-                parent = Optional.of(pt);
+        private static QualifiedTypeName parse(String string, int from, int to) {
+            // URNs can have nested parents, joined with a "$", and only the last part is the type
+            var typeStart = string.lastIndexOf(ParentSeparator, to - 1) + 1;
+            if (typeStart <= from) {
+                typeStart = from;
+            }
+            if (isBlank(string, typeStart, to)) {
+                throw new IllegalArgumentException(format("expected qualified type, type part to be not empty, got: '%s'",
+                        string.substring(typeStart, to)));
+            }
+            final Optional<String> parent;
+            if (typeStart > from) {
+                var parentEnd = typeStart - ParentSeparator.length();
+                if (isBlank(string, from, parentEnd)) {
+                    throw new IllegalArgumentException(format("expected qualified type, parent part to be not empty, got: '%s'",
+                            string.substring(from, parentEnd)));
+                }
+                parent = Optional.of(string.substring(from, parentEnd));
             } else {
                 parent = Optional.empty();
             }
-            return new QualifiedTypeName(parent, Type.parse(type));
+            return new QualifiedTypeName(parent, Type.parse(string, typeStart, to));
         }
 
         public String asString() {
@@ -254,27 +281,37 @@ public final class Urn {
         }
 
         @InternalUse
-        @SuppressWarnings("ConstantConditions") // IntelliJ can't understand the custom validators
         public static Type parse(String type) {
-            final var typeParts = type.split(TypeSeparatorRegex, -1); // -1 avoids dropping trailing empty strings
-            require(tp -> tp.length == 2 || tp.length == 3, typeParts,
-                    () -> format("type token '%s' does not match the expected format 'package%smodule?%stypename'",
-                                 type, TypeSeparator, TypeSeparator)
-            );
-            final var package_ = typeParts[0];
-            require(p -> isNonEmptyOrNull(p), package_,
-                    () -> format("type token '%s' does not match the expected format 'package%smodule?%stypename' because the 'package' part is empty",
-                                 type, TypeSeparator, TypeSeparator)
-            );
-            final Optional<String> module = typeParts.length == 3 && isNonEmptyOrNull(typeParts[1])
-                ? Optional.of(typeParts[1])
-                : Optional.empty();
-            final var typeName = typeParts[typeParts.length - 1];
-            require(p -> isNonEmptyOrNull(p), typeName,
-                    () -> format("type token '%s' does not match the expected format 'package%smodule?%stypename' because the 'typename' part is empty",
-                                 type, TypeSeparator, TypeSeparator)
-            );
-            return new Type(package_, module, typeName);
+            return parse(type, 0, type.length());
+        }
+
+        private static Type parse(String string, int from, int to) {
+            var moduleStart = string.indexOf(TypeSeparator, from);
+            var nameStart = moduleStart < 0 || moduleStart >= to ? -1 : string.indexOf(TypeSeparator, moduleStart + 1);
+            if (nameStart >= to) {
+                nameStart = -1;
+            }
+            var extra = nameStart < 0 ? -1 : string.indexOf(TypeSeparator, nameStart + 1);
+            if (moduleStart < 0 || moduleStart >= to || (extra >= 0 && extra < to)) {
+                throw new IllegalArgumentException(format(
+                        "type token '%s' does not match the expected format 'package%smodule?%stypename'",
+                        string.substring(from, to), TypeSeparator, TypeSeparator));
+            }
+            if (isBlank(string, from, moduleStart)) {
+                throw new IllegalArgumentException(format(
+                        "type token '%s' does not match the expected format 'package%smodule?%stypename' because the 'package' part is empty",
+                        string.substring(from, to), TypeSeparator, TypeSeparator));
+            }
+            var typeNameStart = (nameStart < 0 ? moduleStart : nameStart) + 1;
+            if (isBlank(string, typeNameStart, to)) {
+                throw new IllegalArgumentException(format(
+                        "type token '%s' does not match the expected format 'package%smodule?%stypename' because the 'typename' part is empty",
+                        string.substring(from, to), TypeSeparator, TypeSeparator));
+            }
+            final Optional<String> module = nameStart >= 0 && !isBlank(string, moduleStart + 1, nameStart)
+                    ? Optional.of(string.substring(moduleStart + 1, nameStart))
+                    : Optional.empty();
+            return new Type(string.substring(from, moduleStart), module, string.substring(typeNameStart, to));
         }
 
         public String asString() {
@@ -4,7 +4,6 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
@@ -25,6 +24,8 @@ import com.pulumi.core.internal.Maps;
 import com.pulumi.core.internal.OutputCompletionSource;
 import com.pulumi.core.internal.OutputData;
 import com.pulumi.core.internal.OutputInternal;
+import com.pulumi.core.internal.RuntimeEvents;
+import com.pulumi.core.internal.StringInterner;
 import com.pulumi.core.internal.Strings;
 import com.pulumi.core.internal.annotations.InternalUse;
 import com.pulumi.deployment.CallOptions;
@@ -54,6 +55,7 @@ import com.pulumi.serialization.internal.PropertiesSerializer.SerializationResul
 import com.pulumi.serialization.internal.Structs;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.opentelemetry.api.trace.Span;
 import pulumirpc.AliasOuterClass.Alias;
 import pulumirpc.EngineOuterClass.LogRequest;
 import pulumirpc.EngineOuterClass.LogSeverity;
@@ -70,6 +72,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
@@ -85,8 +88,10 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -131,30 +136,37 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         this.log = new Log(state.logger, DeploymentState.ExcessiveDebugOutput);
         this.featureSupport = new FeatureSupport(state.monitor);
         this.serialization = new PropertiesSerializer(this.log);
-        this.deserializer = new Deserializer(this.log);
-        this.converter = new Converter(this.log, this.deserializer);
+        this.deserializer = new Deserializer(this.log, state.interner);
+        this.converter = new Converter(this.log, this.deserializer, state.lazyCollections);
         this.rootResource = new RootResource(state.engine);
-        this.prepare = new Prepare(this.log, this.featureSupport, this.rootResource, this.serialization);
+        this.prepare = new Prepare(
+                this.log, this.featureSupport, this.rootResource, this.serialization, state.instrumentation
+        );
         this.invoke = new Invoke(
                 this.log, state.monitor, this.featureSupport, this.serialization, this.converter, this.prepare,
-                DeploymentState.DisableResourceReferences
+                DeploymentState.DisableResourceReferences, state.instrumentation, state.performanceReport
         );
-        this.call = new Call(this.log, state.monitor, this.prepare, this.serialization, this.converter);
+        this.call = new Call(this.log, state.monitor, this.prepare, this.serialization, this.converter, state.interner);
         this.readResource = new ReadResource(
                 this.log, this.prepare, state.monitor,
-                DeploymentState.DisableResourceReferences
+                DeploymentState.DisableResourceReferences, state.instrumentation, state.interner
         );
         this.registerResource = new RegisterResource(
                 this.log, this.prepare, state.monitor,
-                DeploymentState.DisableResourceReferences
+                DeploymentState.DisableResourceReferences, state.instrumentation, state.interner
         );
         this.readOrRegisterResource = new ReadOrRegisterResourceInternal(
                 this.log, state.runner, this.invoke, this.readResource,
-                this.registerResource, this.converter, state.isDryRun
+                this.registerResource, this.converter, state.isDryRun, state.instrumentation,
+                state.performanceReport, state.metrics, state.stallDetector, state.lazyOutputs
         );
         this.registerResourceOutputs = new RegisterResourceOutputsInternal(
                 this.log, state.runner, state.monitor, this.featureSupport, this.serialization
         );
+        state.instrumentation.observe(state.runner::getTaskCount, state.logger::getPendingLogCount);
+        state.metrics.observe(
+                state.runner::getTaskCount, state.logger::getPendingLogCount, this.featureSupport::snapshot
+        );
     }
 
     @InternalUse
@@ -237,6 +249,29 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         return this.log;
     }
 
+    @InternalUse
+    public Instrumentation getInstrumentation() {
+        return this.state.instrumentation;
+    }
+
+    @InternalUse
+    public PerformanceReport getPerformanceReport() {
+        return this.state.performanceReport;
+    }
+
+    @InternalUse
+    public DeploymentMetrics getMetrics() {
+        return this.state.metrics;
+    }
+
+    /**
+     * @return the recorder of the calls to the engine, to close once the deployment completes
+     */
+    @InternalUse
+    public RpcRecorder getRpcRecorder() {
+        return this.state.rpcRecorder;
+    }
+
     @Override
     @InternalUse
     public Config getConfig() {
@@ -297,6 +332,12 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
             return ContextAwareCompletableFuture.completedFuture(this.featureSupport.get(feature));
         }
 
+        private Map<String, Boolean> snapshot() {
+            synchronized (this.featureSupport) {
+                return ImmutableMap.copyOf(this.featureSupport);
+            }
+        }
+
         @InternalUse
         CompletableFuture<Boolean> monitorSupportsResourceReferences() {
             return monitorSupportsFeature("resourceReferences");
@@ -513,6 +554,8 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         private final Converter converter;
         private final boolean disableResourceReferences;
         private final Prepare prepare;
+        private final Instrumentation instrumentation;
+        private final PerformanceReport performanceReport;
 
         private Invoke(
                 Log log,
@@ -521,7 +564,9 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                 PropertiesSerializer serialization,
                 Converter converter,
                 Prepare prepare,
-                boolean disableResourceReferences
+                boolean disableResourceReferences,
+                Instrumentation instrumentation,
+                PerformanceReport performanceReport
         ) {
             this.log = Objects.requireNonNull(log);
             this.monitor = Objects.requireNonNull(monitor);
@@ -530,6 +575,8 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
             this.converter = Objects.requireNonNull(converter);
             this.prepare = Objects.requireNonNull(prepare);
             this.disableResourceReferences = disableResourceReferences;
+            this.instrumentation = Objects.requireNonNull(instrumentation);
+            this.performanceReport = Objects.requireNonNull(performanceReport);
         }
 
         public <T> Output<T> invoke(String token, TypeShape<T> targetType, InvokeArgs args) {
@@ -718,6 +765,16 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
 
         private CompletableFuture<SerializationResult> invokeRawAsync(
                 String token, SerializationResult invokeArgs, InvokeOptions options, String packageRef) {
+            var span = this.instrumentation.startInvokeSpan(token);
+            this.instrumentation.recordSerializedSize("invoke", token, invokeArgs.serialized);
+            var response = this.performanceReport.recordInvoke(token, invokeRpcAsync(token, invokeArgs, options, packageRef));
+            return this.instrumentation.endInvokeOnCompletion(span, token, RuntimeEvents.InvokeCompleted.record(
+                    token, invokeArgs.serialized::getSerializedSize, response
+            ));
+        }
+
+        private CompletableFuture<SerializationResult> invokeRpcAsync(
+                String token, SerializationResult invokeArgs, InvokeOptions options, String packageRef) {
             CompletableFuture<Optional<String>> providerFuture = CompletableFutures.flipOptional(
                     () -> {
                         var provider = Internal.from(options).getNestedProvider(token);
@@ -799,19 +856,22 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         private final Prepare prepare;
         private final PropertiesSerializer serialization;
         private final Converter converter;
+        private final StringInterner interner;
 
         public Call(
                 Log log,
                 Monitor monitor,
                 Prepare prepare,
                 PropertiesSerializer serialization,
-                Converter converter
+                Converter converter,
+                StringInterner interner
         ) {
             this.log = Objects.requireNonNull(log);
             this.monitor = Objects.requireNonNull(monitor);
             this.prepare = Objects.requireNonNull(prepare);
             this.serialization = Objects.requireNonNull(serialization);
             this.converter = Objects.requireNonNull(converter);
+            this.interner = Objects.requireNonNull(interner);
         }
 
         void call(String token, CallArgs args) {
@@ -935,7 +995,8 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
 
                         // Unmarshal return dependencies.
                         var dependencies = response.getReturnDependenciesMap().values().stream()
-                                .flatMap(deps -> deps.getUrnsList().stream().map(DependencyResource::new))
+                                .flatMap(deps -> deps.getUrnsList().stream()
+                                        .map(urn -> new DependencyResource(this.interner.intern(urn))))
                                 .map(r -> (Resource) r)
                                 .collect(toImmutableSet());
                         return new CallRawAsyncResult(response.getReturn(), dependencies);
@@ -1001,24 +1062,41 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         private final FeatureSupport featureSupport;
         private final RootResource rootResource;
         private final PropertiesSerializer serialization;
+        private final Instrumentation instrumentation;
 
-        private Prepare(Log log, FeatureSupport featureSupport, RootResource rootResource, PropertiesSerializer serialization) {
+        private Prepare(
+                Log log, FeatureSupport featureSupport, RootResource rootResource, PropertiesSerializer serialization,
+                Instrumentation instrumentation
+        ) {
             this.log = Objects.requireNonNull(log);
             this.featureSupport = Objects.requireNonNull(featureSupport);
             this.rootResource = Objects.requireNonNull(rootResource);
             this.serialization = Objects.requireNonNull(serialization);
+            this.instrumentation = Objects.requireNonNull(instrumentation);
+        }
+
+        /**
+         * Starts a span for a stage of the preparation of a resource, as a child of the resource span.
+         * Evaluate it before the stage future, e.g. {@code traced(stage(name, span), future)}, to trace it all.
+         */
+        private Span stage(String name, Span span) {
+            return this.instrumentation.startSpan(name, span);
+        }
+
+        private <T> CompletableFuture<T> traced(Span stage, CompletableFuture<T> future) {
+            return this.instrumentation.endOnCompletion(stage, future);
         }
 
         private CompletableFuture<PrepareResult> prepareResourceAsync(
                 String label, Resource res, boolean custom, boolean remote,
-                ResourceArgs args, ResourceOptions options) {
+                ResourceArgs args, ResourceOptions options, Span span, Registration registration) {
 
             var type = res.pulumiResourceType();
             var name = res.pulumiResourceName();
 
             // Before we can proceed, all our dependencies must be finished.
             log.excessive("Gathering explicit dependencies: t=%s, name=%s, custom=%s, remote=%s", type, name, custom, remote);
-            return gatherExplicitDependenciesAsync(options.getDependsOn())
+            return traced(stage("pulumi.prepare.dependencies", span), gatherExplicitDependenciesAsync(options.getDependsOn()))
                     .thenApply(ImmutableSet::copyOf)
                     .thenCompose(explicitDirectDependencies -> {
                         var explicitDirectDependenciesWithReplace = ImmutableSet.<Resource>builder()
@@ -1034,11 +1112,13 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                         // Serialize out all our props to their final values. In doing so, we'll also collect all
                         // the Resources pointed to by any Dependency objects we encounter, adding them to 'propertyDependencies'.
                         log.excessive("Serializing properties: t=%s, name=%s, custom=%s, remote=%s", type, name, custom, remote);
-                        return Internal.from(args).toMapAsync(this.log).thenCompose(
+                        var serializationStage = stage("pulumi.prepare.serialization", span);
+                        return Internal.from(args).toMapAsync(this.log).thenCompose(props -> registration.inputsResolvedAsync(props, explicitDirectDependenciesWithReplace, options)).thenCompose(
                                 props -> this.featureSupport.monitorSupportsResourceReferences().thenCompose(
-                                        supportsResourceReferences -> serialization.serializeResourcePropertiesAsync(label, props, supportsResourceReferences).thenCompose(
+                                        supportsResourceReferences -> traced(serializationStage, serialization.serializeResourcePropertiesAsync(label, props, supportsResourceReferences)).thenCompose(
                                                 serializationResult -> {
                                                     var serializedProps = serializationResult.serialized;
+                                                    this.instrumentation.recordSerializedSize("resource", type, serializedProps);
                                                     var propertyToDirectDependencies = serializationResult.propertyToDependentResources;
                                                     log.excessive("Serialized properties: t=%s, name=%s, custom=%s, remote=%s", type, name, custom, remote);
 
@@ -1047,14 +1127,16 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                                                     log.excessive("Getting parent urn: t=%s, name=%s, custom=%s, remote=%s", type, name, custom, remote);
 
                                                     // If no parent was provided, parent to the root resource.
+                                                    var parentStage = stage("pulumi.prepare.parent", span);
                                                     var parentUrn = options.getParent().isPresent()
                                                             ? Internal.of(options.getParent().get().urn()).getValueOptional()
                                                             : this.rootResource.getRootResourceAsync(type);
-                                                    return parentUrn.thenCompose(
+                                                    return traced(parentStage, parentUrn).thenCompose(
                                                             (Optional<String> pUrn) -> {
                                                                 log.excessive("Got parent urn: t=%s, name=%s, custom=%s, remote=%s", type, name, custom, remote);
 
                                                                 // Construct the provider reference, if we were given a provider to use.
+                                                                var providerStage = stage("pulumi.prepare.provider", span);
                                                                 final CompletableFuture<Optional<String>> providerRef;
                                                                 if (custom) {
                                                                     providerRef = CompletableFutures.flipOptional(options.getProvider().map(p -> Internal.from(p).getRegistrationId()));
@@ -1062,7 +1144,7 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                                                                     providerRef = CompletableFuture.completedFuture(Optional.<String>empty());
                                                                 }
 
-                                                                return providerRef.thenCompose(
+                                                                return traced(providerStage, providerRef).thenCompose(
                                                                         (Optional<String> pRef) -> {
                                                                             // For remote resources, merge any provider opts into a single dict,
                                                                             // and then create a new dict with all the resolved provider refs.
@@ -1111,11 +1193,11 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                                                                                         CompletableFutures.allOf(propertyToDirectDependencyUrnFutures)
                                                                                                 .thenApply(ImmutableMap::copyOf);
 
-                                                                                return allTransitiveDependencyUrns.build().thenCompose(
+                                                                                return traced(stage("pulumi.prepare.dependencyUrns", span), allTransitiveDependencyUrns.build()).thenCompose(
                                                                                         allDirectDependencyUrns -> propertyToDirectDependencyUrnsFuture.thenCompose(
                                                                                                 propertyToDirectDependencyUrns -> {
                                                                                                     // Wait for all aliases.
-                                                                                                    var aliasesFuture = AliasSerializer.serializeAliases(options.getAliases());
+                                                                                                    var aliasesFuture = traced(stage("pulumi.prepare.aliases", span), AliasSerializer.serializeAliases(options.getAliases()));
                                                                                                     var replaceWithUrnFutures = options.getReplaceWith().stream()
                                                                                                             .map(resource -> Internal.of(resource.urn()).getValueOrDefault(""))
                                                                                                             .collect(Collectors.toList());
@@ -1329,6 +1411,77 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         }
     }
 
+    /**
+     * Times the stages of the registration of a resource, for the flight recorder and the performance report.
+     */
+    private static final class Registration {
+        private final RuntimeEvents.ResourceRegistered event;
+        @Nullable
+        private final PerformanceReport.ResourceTiming timing;
+        @Nullable
+        private final StallDetector.PendingResource pending;
+
+        private Registration(
+                Resource resource, Collection<String> outputs,
+                PerformanceReport performanceReport, StallDetector stallDetector
+        ) {
+            var type = resource.pulumiResourceType();
+            var name = resource.pulumiResourceName();
+            this.event = RuntimeEvents.ResourceRegistered.start(type, name);
+            this.timing = performanceReport.startResource(type, name);
+            this.pending = stallDetector.startResource(type, name, outputs);
+        }
+
+        /**
+         * Completes with the given inputs once they, the explicit dependencies and the parent are resolved,
+         * to tell the time waiting for them from the time serializing the inputs, in the performance report.
+         */
+        private <T extends Map<String, Output<?>>> CompletableFuture<T> inputsResolvedAsync(
+                T inputs, Collection<Resource> dependencies, ResourceOptions options
+        ) {
+            if (this.timing == null) {
+                return CompletableFuture.completedFuture(inputs);
+            }
+            var resolved = new ArrayList<CompletableFuture<?>>();
+            inputs.values().forEach(input -> resolved.add(Internal.of(input).getDataAsync()));
+            dependencies.forEach(dependency -> resolved.add(Internal.of(dependency.urn()).getDataAsync()));
+            options.getParent().ifPresent(parent -> resolved.add(Internal.of(parent.urn()).getDataAsync()));
+            // failures are reported by the serialization, which awaits the same inputs
+            return CompletableFuture.allOf(resolved.toArray(new CompletableFuture[0])).handle((__, ignore) -> {
+                this.timing.dependenciesResolved();
+                return inputs;
+            });
+        }
+
+        private void prepared(PrepareResult prepareResult) {
+            this.event.prepared();
+            if (this.timing != null) {
+                var dependencies = new ArrayList<>(prepareResult.allDirectDependencyUrns);
+                if (!prepareResult.parentUrn.isEmpty()) {
+                    dependencies.add(prepareResult.parentUrn);
+                }
+                this.timing.prepared(dependencies);
+            }
+        }
+
+        private void registered(String urn) {
+            this.event.registered(urn);
+            if (this.timing != null) {
+                this.timing.registered(urn);
+            }
+        }
+
+        private void completed(@Nullable Throwable throwable) {
+            this.event.completed(throwable);
+            if (this.timing != null) {
+                this.timing.completed(throwable);
+            }
+            if (this.pending != null) {
+                this.pending.completed();
+            }
+        }
+    }
+
     private static final class ReadOrRegisterResourceInternal implements ReadOrRegisterResource {
 
         private final Log log;
@@ -1338,6 +1491,11 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         private final RegisterResource registerResource;
         private final Converter converter;
         private final boolean isDryRun;
+        private final Instrumentation instrumentation;
+        private final PerformanceReport performanceReport;
+        private final DeploymentMetrics metrics;
+        private final StallDetector stallDetector;
+        private final boolean lazyOutputs;
 
         private ReadOrRegisterResourceInternal(
                 Log log,
@@ -1346,7 +1504,12 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                 ReadResource readResource,
                 RegisterResource registerResource,
                 Converter converter,
-                boolean isDryRun
+                boolean isDryRun,
+                Instrumentation instrumentation,
+                PerformanceReport performanceReport,
+                DeploymentMetrics metrics,
+                StallDetector stallDetector,
+                boolean lazyOutputs
         ) {
             this.log = Objects.requireNonNull(log);
             this.runner = Objects.requireNonNull(runner);
@@ -1355,6 +1518,11 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
             this.registerResource = Objects.requireNonNull(registerResource);
             this.converter = Objects.requireNonNull(converter);
             this.isDryRun = isDryRun;
+            this.instrumentation = Objects.requireNonNull(instrumentation);
+            this.performanceReport = Objects.requireNonNull(performanceReport);
+            this.metrics = Objects.requireNonNull(metrics);
+            this.stallDetector = Objects.requireNonNull(stallDetector);
+            this.lazyOutputs = lazyOutputs;
         }
 
         @Override
@@ -1402,65 +1570,39 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
 
             packageRefFuture = ContextAwareCompletableFuture.wrap(packageRefFuture);
 
-            return packageRefFuture
+            var span = this.instrumentation.startResourceSpan(
+                    "pulumi.resource", resource.pulumiResourceType(), resource.pulumiResourceName()
+            );
+            var registration = new Registration(
+                    resource, completionSources.keySet(), this.performanceReport, this.stallDetector
+            );
+            this.metrics.resourceRegistered(completionSources.size());
+            return this.instrumentation.endOnCompletion(span, packageRefFuture
                     .thenCompose(packageRef -> readOrRegisterResourceAsync(
                             resource,
                             remote,
                             newDependency,
                             args,
                             options,
-                            packageRef
+                            packageRef,
+                            span,
+                            registration
                     ))
                     .thenApplyAsync(response -> {
-                        var urn = response.urn;
-                        var id = response.id;
-                        var data = response.data;
-                        var dependencies = response.dependencies;
-                        log.excessive(
-                                "Read response for resource: t=%s, name=%s, urn=%s, id=%s, remote=%s, data=%s",
-                                resource.pulumiResourceType(), resource.pulumiResourceName(), urn, id, remote, data
-                        );
-
-                        lazy.urn().completeOrThrow(new OutputInternal(
-                                OutputData.of(urn).withDependency(resource)));
-
-                        if (resource instanceof CustomResource) {
-                            var isKnown = isNonEmptyOrNull(id);
-                            lazy.id().orElseThrow().completeOrThrow(isKnown
-                                    ? new OutputInternal(OutputData.of(id).withDependency(resource))
-                                    : new OutputInternal(OutputData.<String>unknown().withDependency(resource)));
-                        }
-
-                        // Go through all our output fields and lookup a corresponding value in the response
-                        // object.  Allow the output field to deserialize the response.
-                        for (var entry : completionSources.entrySet()) {
-                            var fieldName = entry.getKey();
-                            OutputCompletionSource<?> completionSource = entry.getValue();
-
-                            // We process and deserialize each field instead of bulk processing
-                            // 'response.data' so that each field can have independent isKnown/isSecret values.
-                            // We do not want to bubble up isKnown/isSecret from one field to the rest.
-                            var value = Structs.tryGetValue(data, fieldName);
-                            log.excessive(String.format(
-                                    "Setting OutputCompletionSource for field=%s shape=%s value=%s",
-                                    fieldName, completionSource.getTypeShape().asString(), value
-                            ));
-                            if (value.isPresent()) {
-                                var contextInfo = String.format("%s.%s", resource.getClass().getTypeName(), fieldName);
-                                var depsOrEmpty = Maps.tryGetValue(dependencies, fieldName).orElse(ImmutableSet.of());
-                                completionSource.setValue(
-                                        this.converter,
-                                        contextInfo,
-                                        value.get(),
-                                        depsOrEmpty
-                                );
-                            }
+                        registration.registered(response.urn);
+                        var completeStage = this.instrumentation.startSpan("pulumi.complete", span);
+                        try {
+                            completeOutputs(resource, remote, completionSources, lazy, response);
+                        } finally {
+                            completeStage.end();
                         }
                         return (Void) null;
                     })
                     // Wrap with `whenComplete` so that we always resolve all the outputs of the resource
                     // regardless of whether we encounter an errors computing the action.
                     .whenComplete((__, throwable) -> {
+                        registration.completed(throwable);
+                        this.metrics.resourceCompleted(completionSources.size(), throwable != null);
                         if (throwable instanceof Exception) {
                             var e = (Exception) throwable;
                             // Mark any unresolved output properties with this exception. That way we don't
@@ -1490,12 +1632,70 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                         if (resource instanceof CustomResource) {
                             lazy.id().orElseThrow().complete(defaultValue);
                         }
-                    });
+                    }));
+        }
+
+        /**
+         * Completes the URN, the ID and the output fields of the resource with the response of the engine.
+         */
+        private void completeOutputs(
+                Resource resource, boolean remote,
+                ImmutableMap<String, OutputCompletionSource<?>> completionSources,
+                Resource.LazyFields lazy, RawResourceResult response
+        ) {
+            var urn = response.urn;
+            var id = response.id;
+            var data = response.data;
+            var dependencies = response.dependencies;
+            log.excessive(
+                    "Read response for resource: t=%s, name=%s, urn=%s, id=%s, remote=%s, data=%s",
+                    resource.pulumiResourceType(), resource.pulumiResourceName(), urn, id, remote, data
+            );
+
+            lazy.urn().completeOrThrow(new OutputInternal(
+                    OutputData.of(urn).withDependency(resource)));
+
+            if (resource instanceof CustomResource) {
+                var isKnown = isNonEmptyOrNull(id);
+                lazy.id().orElseThrow().completeOrThrow(isKnown
+                        ? new OutputInternal(OutputData.of(id).withDependency(resource))
+                        : new OutputInternal(OutputData.<String>unknown().withDependency(resource)));
+            }
+
+            // Go through all our output fields and lookup a corresponding value in the response
+            // object.  Allow the output field to deserialize the response.
+            for (var entry : completionSources.entrySet()) {
+                var fieldName = entry.getKey();
+                OutputCompletionSource<?> completionSource = entry.getValue();
+
+                // We process and deserialize each field instead of bulk processing
+                // 'response.data' so that each field can have independent isKnown/isSecret values.
+                // We do not want to bubble up isKnown/isSecret from one field to the rest.
+                var value = Structs.tryGetValue(data, fieldName);
+                log.excessive(String.format(
+                        "Setting OutputCompletionSource for field=%s shape=%s value=%s",
+                        fieldName, completionSource.getTypeShape().asString(), value
+                ));
+                if (value.isPresent()) {
+                    var contextInfo = String.format("%s.%s", resource.getClass().getTypeName(), fieldName);
+                    var depsOrEmpty = Maps.tryGetValue(dependencies, fieldName).orElse(ImmutableSet.of());
+                    if (this.lazyOutputs) {
+                        completionSource.setLazyValue(this.converter, contextInfo, value.get(), depsOrEmpty);
+                    } else {
+                        completionSource.setValue(
+                                this.converter,
+                                contextInfo,
+                                value.get(),
+                                depsOrEmpty
+                        );
+                    }
+                }
+            }
         }
 
         private CompletableFuture<RawResourceResult> readOrRegisterResourceAsync(
                 Resource resource, boolean remote, Function<String, Resource> newDependency, ResourceArgs args,
-                ResourceOptions options, String packageRef
+                ResourceOptions options, String packageRef, Span span, Registration registration
         ) {
             if (options.getUrn().isPresent()) {
                 // This is a resource that already exists. Read its state from the engine.
@@ -1529,10 +1729,10 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                                 }
 
                                 // If this resource already exists, read its state rather than registering it anew.
-                                return this.readResource.readResourceAsync(resource, id, args, options, packageRef);
+                                return this.readResource.readResourceAsync(resource, id, args, options, packageRef, span, registration);
                             }
                             // see comment at the end of the method below
-                            return this.registerResource.registerResourceAsync(resource, remote, newDependency, args, options, packageRef);
+                            return this.registerResource.registerResourceAsync(resource, remote, newDependency, args, options, packageRef, span, registration);
                         });
             }
 
@@ -1540,7 +1740,7 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
             // this resource's properties will be resolved asynchronously after the operation completes,
             // so that dependent computations resolve normally.
             // If we are just planning, on the other hand, values will never resolve.
-            return this.registerResource.registerResourceAsync(resource, remote, newDependency, args, options, packageRef);
+            return this.registerResource.registerResourceAsync(resource, remote, newDependency, args, options, packageRef, span, registration);
         }
     }
 
@@ -1565,25 +1765,33 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         private final Prepare prepare;
         private final Monitor monitor;
         private final boolean disableResourceReferences;
+        private final Instrumentation instrumentation;
+        private final StringInterner interner;
 
-        private ReadResource(Log log, Prepare prepare, Monitor monitor, boolean disableResourceReferences) {
+        private ReadResource(
+                Log log, Prepare prepare, Monitor monitor, boolean disableResourceReferences,
+                Instrumentation instrumentation, StringInterner interner
+        ) {
             this.log = Objects.requireNonNull(log);
             this.prepare = Objects.requireNonNull(prepare);
             this.monitor = Objects.requireNonNull(monitor);
             this.disableResourceReferences = disableResourceReferences;
+            this.instrumentation = Objects.requireNonNull(instrumentation);
+            this.interner = Objects.requireNonNull(interner);
         }
 
         private CompletableFuture<RawResourceResult> readResourceAsync(
                 Resource resource, String id, ResourceArgs args, ResourceOptions options,
-                String packageRef
+                String packageRef, Span span, Registration registration
         ) {
             var name = resource.pulumiResourceName();
             var type = resource.pulumiResourceType();
             var label = String.format("resource:%s[%s]#...", name, type);
             log.debug(String.format("Reading resource: id=%s, type=%s, name=%s", id, type, name));
 
-            return this.prepare.prepareResourceAsync(label, resource, /* custom */ true, /* remote */ false, args, options)
+            return this.prepare.prepareResourceAsync(label, resource, /* custom */ true, /* remote */ false, args, options, span, registration)
                     .thenCompose(prepareResult -> {
+                        registration.prepared(prepareResult);
                         log.debugOrExcessive(String.format(
                                         "ReadResource RPC prepared: id=%s, type=%s, name=%s", id, type, name),
                                 String.format(", obj=%s", prepareResult.serializedProps)
@@ -1604,9 +1812,10 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                                 .addAllDependencies(prepareResult.allDirectDependencyUrns);
 
                         // Now run the operation, serializing the invocation if necessary.
-                        return this.monitor.readResourceAsync(resource, request.build())
+                        var rpcStage = this.instrumentation.startSpan("pulumi.monitor.readResource", span);
+                        return this.instrumentation.endOnCompletion(rpcStage, this.monitor.readResourceAsync(resource, request.build()))
                                 .thenApply(response -> new RawResourceResult(
-                                        response.getUrn(), id, response.getProperties(), ImmutableMap.of()
+                                        this.interner.intern(response.getUrn()), id, response.getProperties(), ImmutableMap.of()
                                 ));
 
                     });
@@ -1619,17 +1828,24 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         private final Prepare prepare;
         private final Monitor monitor;
         private final boolean disableResourceReferences;
+        private final Instrumentation instrumentation;
+        private final StringInterner interner;
 
-        private RegisterResource(Log log, Prepare prepare, Monitor monitor, boolean disableResourceReferences) {
+        private RegisterResource(
+                Log log, Prepare prepare, Monitor monitor, boolean disableResourceReferences,
+                Instrumentation instrumentation, StringInterner interner
+        ) {
             this.log = Objects.requireNonNull(log);
             this.prepare = Objects.requireNonNull(prepare);
             this.monitor = Objects.requireNonNull(monitor);
             this.disableResourceReferences = disableResourceReferences;
+            this.instrumentation = Objects.requireNonNull(instrumentation);
+            this.interner = Objects.requireNonNull(interner);
         }
 
         private CompletableFuture<RawResourceResult> registerResourceAsync(
                 Resource resource, boolean remote, Function<String, Resource> newDependency, ResourceArgs args,
-                ResourceOptions options, String packageRef) {
+                ResourceOptions options, String packageRef, Span span, Registration registration) {
             var name = resource.pulumiResourceName();
             var type = resource.pulumiResourceType();
             var custom = resource instanceof CustomResource;
@@ -1639,8 +1855,9 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                     type, name, custom, remote
             ));
             var label = String.format("resource:%s[%s]", name, type);
-            return this.prepare.prepareResourceAsync(label, resource, custom, remote, args, options)
+            return this.prepare.prepareResourceAsync(label, resource, custom, remote, args, options, span, registration)
                     .thenCompose(prepareResult -> {
+                        registration.prepared(prepareResult);
                         log.debug(String.format(
                                 "Prepared resource: t=%s, name=%s, custom=%s, remote=%s",
                                 type, name, custom, remote
@@ -1654,22 +1871,27 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                                 "Registering resource monitor start: t=%s, name=%s, custom=%s, remote=%s, request=%s",
                                 type, name, custom, remote, request
                         ));
-                        return this.monitor.registerResourceAsync(resource, request)
+                        var rpcStage = this.instrumentation.startSpan("pulumi.monitor.registerResource", span);
+                        return this.instrumentation.endOnCompletion(rpcStage, this.monitor.registerResourceAsync(resource, request))
                                 .thenApply(result -> {
                                     log.debug(String.format(
                                             "Registering resource monitor end: t=%s, name=%s, custom=%s, remote=%s, result=%s",
                                             type, name, custom, remote, result
                                     ));
 
+                                    // the same URNs and property names arrive with every response, so keep one copy
                                     var dependencies = result.getPropertyDependenciesMap().entrySet().stream()
                                             .collect(toImmutableMap(
-                                                    Map.Entry::getKey,
+                                                    entry -> this.interner.intern(entry.getKey()),
                                                     entry -> entry.getValue().getUrnsList().stream()
+                                                            .map(this.interner::intern)
                                                             .map(newDependency)
                                                             .collect(toImmutableSet())
                                             ));
 
-                                    return new RawResourceResult(result.getUrn(), result.getId(), result.getObject(), dependencies);
+                                    return new RawResourceResult(
+                                            this.interner.intern(result.getUrn()), result.getId(), result.getObject(), dependencies
+                                    );
                                 });
                     });
         }
@@ -1872,6 +2094,8 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
     public static class DeploymentState {
         public static final boolean DisableResourceReferences = getBooleanEnvironmentVariable("PULUMI_DISABLE_RESOURCE_REFERENCES").or(false);
         public static final boolean ExcessiveDebugOutput = getBooleanEnvironmentVariable("PULUMI_EXCESSIVE_DEBUG_OUTPUT").or(false);
+        public static final boolean LazyOutputs = getBooleanEnvironmentVariable("PULUMI_JAVA_LAZY_OUTPUTS").or(false);
+        public static final boolean LazyCollections = getBooleanEnvironmentVariable("PULUMI_JAVA_LAZY_COLLECTIONS").or(false);
 
         public final DeploymentImpl.Config config;
         public final String organizationName;
@@ -1881,8 +2105,16 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         public final boolean isDryRun;
         public final Engine engine;
         public final Monitor monitor;
+        public final Instrumentation instrumentation;
+        public final PerformanceReport performanceReport;
+        public final StallDetector stallDetector;
+        public final DeploymentMetrics metrics;
+        public final StringInterner interner = new StringInterner();
+        private boolean lazyOutputs = LazyOutputs;
+        private boolean lazyCollections = LazyCollections;
         public Runner runner; // late init
         public EngineLogger logger; // late init
+        private RpcRecorder rpcRecorder = RpcRecorder.disabled();
         public final ConcurrentHashMap<String, CompletableFuture<String>> packageRefCache =
                 new ConcurrentHashMap<>();
 
@@ -1900,6 +2132,43 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                 boolean isDryRun,
                 Engine engine,
                 Monitor monitor) {
+            this(config, standardLogger, organizationName, projectName, stackName, rootDirectory, isDryRun,
+                    engine, monitor, Instrumentation.disabled());
+        }
+
+        @InternalUse
+        public DeploymentState(
+                DeploymentImpl.Config config,
+                Logger standardLogger,
+                String organizationName,
+                String projectName,
+                String stackName,
+                String rootDirectory,
+                boolean isDryRun,
+                Engine engine,
+                Monitor monitor,
+                Instrumentation instrumentation) {
+            this(config, standardLogger, organizationName, projectName, stackName, rootDirectory, isDryRun,
+                    engine, monitor, instrumentation, false);
+        }
+
+        /**
+         * @param synchronous run the deployment synchronously: all its asynchronous work runs one task at a time,
+         *                    in a deterministic order, on the thread calling {@link Runner#runAsync(Supplier)}
+         */
+        @InternalUse
+        public DeploymentState(
+                DeploymentImpl.Config config,
+                Logger standardLogger,
+                String organizationName,
+                String projectName,
+                String stackName,
+                String rootDirectory,
+                boolean isDryRun,
+                Engine engine,
+                Monitor monitor,
+                Instrumentation instrumentation,
+                boolean synchronous) {
             this.config = Objects.requireNonNull(config);
             this.standardLogger = Objects.requireNonNull(standardLogger);
             this.organizationName = Objects.requireNonNullElse(organizationName, "organization");
@@ -1908,10 +2177,46 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
             this.rootDirectory = Objects.requireNonNullElse(rootDirectory, "");
             this.isDryRun = isDryRun;
             this.engine = Objects.requireNonNull(engine);
-            this.monitor = Objects.requireNonNull(monitor);
+            this.metrics = new DeploymentMetrics();
+            this.monitor = this.metrics.countRpcs(Objects.requireNonNull(monitor));
+            this.instrumentation = Objects.requireNonNull(instrumentation);
+            this.performanceReport = PerformanceReport.fromEnvironment();
+            this.stallDetector = StallDetector.fromEnvironment();
             // Use Suppliers to avoid problems with cyclic dependencies
             this.logger = new DefaultEngineLogger(standardLogger, () -> this.runner, () -> this.engine);
-            this.runner = new DefaultRunner(standardLogger, this.logger);
+            this.runner = new DefaultRunner(
+                    standardLogger, this.logger, this.performanceReport, this.stallDetector,
+                    synchronous ? new DeterministicExecutor() : null
+            );
+        }
+
+        /**
+         * Converts the output fields of the resources only once the program uses them, instead of as soon as
+         * the engine responds, which is also enabled with {@code PULUMI_JAVA_LAZY_OUTPUTS}.
+         * Whether an output is known or secret, and its dependencies, are still available right away.
+         * An output that cannot be converted fails when it is used, instead of failing its resource.
+         *
+         * @return this deployment state
+         */
+        @InternalUse
+        public DeploymentState lazyOutputs() {
+            this.lazyOutputs = true;
+            return this;
+        }
+
+        /**
+         * Converts the {@code List} and {@code Map} values, e.g. of invoke results, to immutable views
+         * converting their elements only once the program accesses them, instead of all of them up front,
+         * which is also enabled with {@code PULUMI_JAVA_LAZY_COLLECTIONS}.
+         * The size of a view is available without any conversion.
+         * An element that cannot be converted fails when it is accessed, instead of failing the whole value.
+         *
+         * @return this deployment state
+         */
+        @InternalUse
+        public DeploymentState lazyCollections() {
+            this.lazyCollections = true;
+            return this;
         }
 
         /**
@@ -1922,7 +2227,7 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
             standardLogger.log(Level.FINEST, "ENV: " + System.getenv());
 
             // Initialize OpenTelemetry tracing if TRACEPARENT is present
-            Instrumentation.initialize();
+            var instrumentation = Instrumentation.fromEnvironment();
 
             Function<RuntimeException, RuntimeException> startErrorSupplier =
                     e -> new IllegalArgumentException(
@@ -1941,15 +2246,23 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                 var config = Config.parse();
                 standardLogger.setLevel(GlobalLogging.GlobalLevel);
 
+                // Record the calls to replay them offline, if requested
+                var recorder = RpcRecorder.fromEnvironment();
+
                 standardLogger.log(Level.FINEST, "Creating deployment engine");
-                var engine = new GrpcEngine(engineTarget);
+                var engine = recorder.record(new GrpcEngine(engineTarget, instrumentation));
                 standardLogger.log(Level.FINEST, "Created deployment engine");
 
                 standardLogger.log(Level.FINEST, "Creating deployment monitor");
-                var monitor = new GrpcMonitor(monitorTarget);
+                var monitor = recorder.record(new GrpcMonitor(monitorTarget, instrumentation));
                 standardLogger.log(Level.FINEST, "Created deployment monitor");
 
-                return new DeploymentState(config, standardLogger, organization, project, stack, rootDirectory, dryRun, engine, monitor);
+                var state = new DeploymentState(
+                        config, standardLogger, organization, project, stack, rootDirectory, dryRun,
+                        engine, monitor, instrumentation
+                );
+                state.rpcRecorder = recorder;
+                return state;
             } catch (NullPointerException ex) {
                 throw new IllegalStateException(
                         "Program run without the Pulumi engine available; re-run using the `pulumi` CLI", ex);
@@ -2012,21 +2325,64 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
          * continuously, asynchronously loop, waiting for these tasks to complete, and only
          * exiting once the set becomes empty.
          */
-        private final Map<CompletableFuture<Void>, List<String>> inFlightTasks = new ConcurrentHashMap<>();
+        private final Map<CompletableFuture<Void>, StallDetector.Task> inFlightTasks = new ConcurrentHashMap<>();
         private final Queue<Exception> swallowedExceptions = new ConcurrentLinkedQueue<>();
+        // Runs the whole deployment on the thread calling runAsync, if present
+        @Nullable
+        private final DeterministicExecutor executor;
+        // Published once all the tasks are done
+        private final PerformanceReport performanceReport;
+        // Watches the tasks while the deployment runs
+        private final StallDetector stallDetector;
 
         public DefaultRunner(Logger standardLogger, EngineLogger engineLogger) {
+            this(standardLogger, engineLogger, new PerformanceReport(), new StallDetector(), null);
+        }
+
+        DefaultRunner(
+                Logger standardLogger,
+                EngineLogger engineLogger,
+                PerformanceReport performanceReport,
+                StallDetector stallDetector,
+                @Nullable DeterministicExecutor executor
+        ) {
             this.standardLogger = Objects.requireNonNull(standardLogger);
             this.engineLogger = Objects.requireNonNull(engineLogger);
+            this.performanceReport = Objects.requireNonNull(performanceReport);
+            this.stallDetector = Objects.requireNonNull(stallDetector);
+            this.executor = executor;
+        }
+
+        @Override
+        public Optional<Executor> executor() {
+            return Optional.ofNullable(this.executor);
+        }
+
+        @Override
+        public int getTaskCount() {
+            return this.inFlightTasks.size();
         }
 
         @Override
         public <T> CompletableFuture<Result<T>> runAsync(Supplier<T> callback) {
+            var result = runAsyncInternal(callback);
+            if (this.executor != null) {
+                try {
+                    this.executor.runUntilDone(result);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+            return result;
+        }
+
+        private <T> CompletableFuture<Result<T>> runAsyncInternal(Supplier<T> callback) {
             var valueFuture = ContextAwareCompletableFuture.supplyAsync(callback);
             // run the callback asynchronously in the context of the error handler
             registerTask("DefaultRunner#runAsync", valueFuture);
             // loop starts after the callback
-            return valueFuture
+            var run = valueFuture
                     .thenCompose(value -> whileRunningAsync().thenApply(__ -> value))
                     .handle((value, throwable) -> {
                         if (throwable != null) {
@@ -2048,7 +2404,23 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                                 Optional.ofNullable(value)
                         ));
                     })
-                    .thenCompose(Function.identity()); // we return a future from logging, and we need to flat-map here
+                    .thenCompose(Function.identity()) // we return a future from logging, and we need to flat-map here
+                    .thenCompose(result -> publishPerformanceReportAsync().thenApply(__ -> result));
+            this.stallDetector.watch(this.inFlightTasks::values, this.engineLogger, run, this.standardLogger);
+            return run;
+        }
+
+        private CompletableFuture<Void> publishPerformanceReportAsync() {
+            try {
+                return this.performanceReport.publishAsync(this.engineLogger)
+                        .exceptionally(throwable -> {
+                            this.standardLogger.log(Level.WARNING, "Failed to log the performance report", throwable);
+                            return null;
+                        });
+            } catch (RuntimeException e) {
+                this.standardLogger.log(Level.WARNING, "Failed to publish the performance report", e);
+                return CompletableFuture.completedFuture(null);
+            }
         }
 
         @Override
@@ -2064,15 +2436,22 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
             // happen when the runtime reuses cached tasks that it knows are value-identical
             // (for example a completed future). In that case, we just store all the descriptions.
             // We'll print them all out as done once this task actually finishes.
-            this.inFlightTasks.compute(key,
-                    (__, descriptions) -> {
-                        if (descriptions == null) {
-                            return Lists.newArrayList(description);
+            var tracked = this.inFlightTasks.compute(key,
+                    (__, inFlight) -> {
+                        if (inFlight == null) {
+                            return this.stallDetector.startTask(description);
                         } else {
-                            descriptions.add(description);
-                            return descriptions;
+                            inFlight.addDescription(description);
+                            return inFlight;
                         }
                     });
+            if (this.stallDetector.isEnabled()) {
+                key.whenComplete((__, throwable) -> this.stallDetector.completed(tracked));
+            }
+            if (this.executor != null) {
+                // the task may complete on another thread, e.g. in a mock
+                key.whenComplete((__, throwable) -> this.executor.wakeUp());
+            }
         }
 
         // Wait for one of the two events to happen:
@@ -2081,6 +2460,9 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         // So the resulting semantics is that we complete
         // when remaining count is zero, or when an exception is thrown.
         private CompletableFuture<Void> whileRunningAsync() {
+            // only touched by the loop below, which never runs concurrently with itself
+            var completedTasks = new int[1];
+
             // Wait for every task and remove from inFlightTasks when completed
             Consumer<CompletableFuture<Void>> handleCompletion = (task) -> {
                 try {
@@ -2098,11 +2480,8 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
 
                     // Log the descriptions of completed tasks.
                     if (this.standardLogger.isLoggable(Level.FINEST)) {
-                        List<String> descriptions = inFlightTasks.getOrDefault(task, List.of());
-                        // getOrDefault should never return null, but it does for whatever reason, so just to be sure
-                        if (descriptions == null) {
-                            descriptions = List.of();
-                        }
+                        var inFlight = inFlightTasks.get(task);
+                        List<String> descriptions = inFlight == null ? List.of() : inFlight.descriptions();
                         this.standardLogger.log(Level.FINEST, String.format("Completed task: '%s', %s", String.join(",", descriptions), task));
                     }
                 } catch (Exception e) {
@@ -2111,23 +2490,37 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                 } finally {
                     // Once finished, remove the task from the set of tasks that are running.
                     this.inFlightTasks.remove(task);
+                    completedTasks[0]++;
                 }
             };
 
             CompletableFuture<Void> drainTasks = new CompletableFuture<>();
 
-            ContextAwareCompletableFuture.runAsync(() -> loopUntilDone(drainTasks, handleCompletion));
+            var iterations = new int[1];
+            schedule(() -> loopUntilDone(drainTasks, () -> {
+                iterations[0]++;
+                return checkForTasks(handleCompletion);
+            }));
 
-            return drainTasks;
+            return RuntimeEvents.RunnerDrained.record(() -> completedTasks[0], () -> iterations[0], drainTasks);
         }
 
-        private void loopUntilDone(CompletableFuture<Void> drainTasks, Consumer<CompletableFuture<Void>> handleCompletion) {
+        private void schedule(Runnable loop) {
+            if (this.executor != null) {
+                // check again once the tasks that are ready have run, without polling
+                this.executor.whenIdle(loop);
+            } else {
+                ContextAwareCompletableFuture.runAsync(loop);
+            }
+        }
+
+        private void loopUntilDone(CompletableFuture<Void> drainTasks, BooleanSupplier checkForTasks) {
             try {
-                if (checkForTasks(handleCompletion)) {
+                if (checkForTasks.getAsBoolean()) {
                     drainTasks.complete(null);
                 } else {
                     // We need to reschedule the loop, to avoid hogging the async thread pool.
-                    ContextAwareCompletableFuture.runAsync(() -> loopUntilDone(drainTasks, handleCompletion));
+                    schedule(() -> loopUntilDone(drainTasks, checkForTasks));
                 }
             } catch (Exception e) {
                 drainTasks.completeExceptionally(e);
@@ -2229,6 +2622,7 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
         private final Supplier<Engine> engine;
         private final Logger standardLogger;
         private final AtomicInteger errorCount;
+        private final AtomicInteger pendingLogCount = new AtomicInteger();
 
         // We serialize all logging tasks so that the engine doesn't hear about them out of order.
         // This is necessary for streaming logs to be maintained in the right order.
@@ -2252,6 +2646,11 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
             return errorCount.get();
         }
 
+        @Override
+        public int getPendingLogCount() {
+            return pendingLogCount.get();
+        }
+
         @Override
         public CompletableFuture<Void> logAsync(Level level,
                                                 String message,
@@ -2324,6 +2723,14 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
 
             // Serialize our logging tasks so that streaming logs appear in order.
             // TODO: this implementation will compose CompletableFuture's infinitely and this may cause issues at some point
+            var event = new RuntimeEvents.EngineLog();
+            if (event.isEnabled()) {
+                event.begin();
+                event.severity = severity.name();
+                event.messageLength = message.length();
+                event.queueLength = this.pendingLogCount.get();
+            }
+
             CompletableFuture<Void> task;
             synchronized (logGate) {
                 // TODO: C# uses a 'Task.Run' here (like CompletableFuture.runAsync/supplyAsync?)
@@ -2334,6 +2741,14 @@ public class DeploymentImpl extends DeploymentInstanceHolder implements Deployme
                 );
                 task = this.lastLogTask;
             }
+            this.pendingLogCount.incrementAndGet();
+            task.whenComplete((__, ___) -> {
+                this.pendingLogCount.decrementAndGet();
+                event.end();
+                if (event.shouldCommit()) {
+                    event.commit();
+                }
+            });
 
             runner.registerTask(message, task);
             return task;
@@ -6,6 +6,7 @@ import com.pulumi.deployment.DeploymentInstance;
 
 import javax.annotation.Nullable;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * The Java provider assumes that there's an ambient authority to track the deployment.
@@ -62,6 +63,36 @@ public abstract class DeploymentInstanceHolder {
         instance.set(newInstance);
     }
 
+    /**
+     * Calls the callback with the given deployment installed on the current thread,
+     * restoring whatever was installed before once the callback returns.
+     * <p>
+     * Use this to start work on behalf of a specific deployment, without depending on
+     * the state left on the calling thread, e.g. by other deployments running in the same JVM.
+     */
+    @InternalUse
+    public static <T> T callWithInstance(DeploymentInstance deployment, Supplier<T> callback) {
+        var previous = instance.get();
+        instance.set(deployment);
+        try {
+            return callback.get();
+        } finally {
+            instance.set(previous);
+        }
+    }
+
+    /**
+     * Invalidates the given deployment, and removes it from the current thread if installed there.
+     * Unlike {@link #internalUnsafeDestroyInstance()} it never affects other deployments.
+     */
+    @InternalUse
+    public static void destroyInstance(DeploymentInstance deployment) {
+        deployment.markInvalid();
+        if (instance.get() == deployment) {
+            instance.remove();
+        }
+    }
+
     @InternalUse
     @VisibleForTesting
     public static void internalUnsafeDestroyInstance() {
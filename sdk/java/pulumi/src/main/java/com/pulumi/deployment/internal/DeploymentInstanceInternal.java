@@ -18,6 +18,7 @@ import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
@@ -26,12 +27,22 @@ import java.util.function.Function;
 @InternalUse
 public final class DeploymentInstanceInternal implements DeploymentInstance {
 
+    // set once any deployment has its own executor, so that the others skip the lookup
+    private static volatile boolean anyExecutor;
+
     private final DeploymentInternal deployment;
-    private boolean isInvalid;
+    @Nullable
+    private final Executor executor;
+    private volatile boolean isInvalid;
 
     @InternalUse
     public DeploymentInstanceInternal(DeploymentInternal deployment) {
         this.deployment = deployment;
+        var runner = deployment.getRunner();
+        this.executor = runner == null ? null : runner.executor().orElse(null);
+        if (this.executor != null) {
+            anyExecutor = true;
+        }
     }
 
     @InternalUse
@@ -39,6 +50,38 @@ public final class DeploymentInstanceInternal implements DeploymentInstance {
         return deployment;
     }
 
+    /**
+     * @return the executor of the asynchronous work of the deployment, resolved from its runner
+     * when this instance was created, or null to use the default {@link CompletableFuture} executor
+     * @see Runner#executor()
+     */
+    @InternalUse
+    @Nullable
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return the executor of the deployment of the current thread, or null for the default one
+     */
+    @InternalUse
+    @Nullable
+    public static Executor currentExecutor() {
+        return anyExecutor ? executorOf(DeploymentInstanceHolder.getInstanceNoThrow()) : null;
+    }
+
+    /**
+     * @return the executor of the given deployment, or null for the default one
+     */
+    @InternalUse
+    @Nullable
+    public static Executor executorOf(@Nullable DeploymentInstance instance) {
+        if (!anyExecutor || !(instance instanceof DeploymentInstanceInternal)) {
+            return null;
+        }
+        return ((DeploymentInstanceInternal) instance).executor;
+    }
+
     @Nonnull
     @Override
     public String getStackName() {
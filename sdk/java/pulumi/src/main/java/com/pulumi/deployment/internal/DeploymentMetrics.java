@@ -0,0 +1,272 @@
+package com.pulumi.deployment.internal;
+
+import com.google.common.collect.ImmutableMap;
+import com.pulumi.core.internal.annotations.InternalUse;
+import com.pulumi.resources.Resource;
+import pulumirpc.Provider.CallResponse;
+import pulumirpc.Provider.InvokeResponse;
+import pulumirpc.Resource.ReadResourceRequest;
+import pulumirpc.Resource.ReadResourceResponse;
+import pulumirpc.Resource.RegisterPackageRequest;
+import pulumirpc.Resource.RegisterPackageResponse;
+import pulumirpc.Resource.RegisterResourceOutputsRequest;
+import pulumirpc.Resource.RegisterResourceRequest;
+import pulumirpc.Resource.RegisterResourceResponse;
+import pulumirpc.Resource.ResourceCallRequest;
+import pulumirpc.Resource.ResourceInvokeRequest;
+import pulumirpc.Resource.SupportsFeatureRequest;
+import pulumirpc.Resource.SupportsFeatureResponse;
+
+import javax.annotation.Nullable;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The live counters of a deployment, updated with {@link LongAdder}s on the hot paths,
+ * and exposed over JMX once {@link #register(String, String)} is called, as
+ * {@code com.pulumi:type=Deployment,project=<project>,stack=<stack>}.
+ */
+@InternalUse
+public final class DeploymentMetrics implements DeploymentMetricsMXBean {
+
+    private static final Logger logger = Logger.getLogger(DeploymentMetrics.class.getName());
+
+    /**
+     * The resource monitor methods.
+     */
+    public enum Rpc {
+        SupportsFeature, Invoke, Call, ReadResource, RegisterResource, RegisterResourceOutputs, RegisterPackage
+    }
+
+    private final LongAdder resourcesRegistered = new LongAdder();
+    private final LongAdder resourcesCompleted = new LongAdder();
+    private final LongAdder resourcesFailed = new LongAdder();
+    private final LongAdder outstandingOutputs = new LongAdder();
+    private final Map<Rpc, LongAdder> pendingRpcs = adders();
+    private final Map<Rpc, LongAdder> completedRpcs = adders();
+
+    private volatile IntSupplier inFlightTasks = () -> 0;
+    private volatile IntSupplier pendingLogs = () -> 0;
+    private volatile Supplier<Map<String, Boolean>> supportedFeatures = ImmutableMap::of;
+    @Nullable
+    private ObjectName name;
+
+    private static Map<Rpc, LongAdder> adders() {
+        var adders = new EnumMap<Rpc, LongAdder>(Rpc.class);
+        for (var rpc : Rpc.values()) {
+            adders.put(rpc, new LongAdder());
+        }
+        return adders;
+    }
+
+    /**
+     * Observes the state of the deployment, read when the counters are.
+     */
+    public void observe(IntSupplier inFlightTasks, IntSupplier pendingLogs, Supplier<Map<String, Boolean>> supportedFeatures) {
+        this.inFlightTasks = requireNonNull(inFlightTasks);
+        this.pendingLogs = requireNonNull(pendingLogs);
+        this.supportedFeatures = requireNonNull(supportedFeatures);
+    }
+
+    /**
+     * Counts the registration of a resource, until {@link #resourceCompleted(int, boolean)}.
+     *
+     * @param outputs the number of outputs of the resource
+     */
+    public void resourceRegistered(int outputs) {
+        this.resourcesRegistered.increment();
+        this.outstandingOutputs.add(outputs);
+    }
+
+    /**
+     * @param outputs the number of outputs of the resource, completed now
+     * @param failed  whether the registration failed
+     */
+    public void resourceCompleted(int outputs, boolean failed) {
+        this.resourcesCompleted.increment();
+        if (failed) {
+            this.resourcesFailed.increment();
+        }
+        this.outstandingOutputs.add(-outputs);
+    }
+
+    /**
+     * @return a monitor counting the pending calls to the given monitor
+     */
+    public Monitor countRpcs(Monitor monitor) {
+        return new CountingMonitor(requireNonNull(monitor));
+    }
+
+    private <T> CompletableFuture<T> count(Rpc rpc, Supplier<CompletableFuture<T>> call) {
+        var pending = this.pendingRpcs.get(rpc);
+        pending.increment();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            pending.decrement();
+            throw e;
+        }
+        // the callers continue once the call is no longer counted as pending
+        return future.whenComplete((__, ___) -> {
+            pending.decrement();
+            this.completedRpcs.get(rpc).increment();
+        });
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server.
+     * If a deployment of the same stack is already registered, an {@code instance} key is added to the name.
+     */
+    public synchronized void register(String project, String stack) {
+        if (this.name != null) {
+            return;
+        }
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var base = String.format("com.pulumi:type=Deployment,project=%s,stack=%s",
+                ObjectName.quote(project), ObjectName.quote(stack));
+        try {
+            for (int instance = 0; ; instance++) {
+                var name = new ObjectName(instance == 0 ? base : base + ",instance=" + instance);
+                try {
+                    server.registerMBean(this, name);
+                    this.name = name;
+                    return;
+                } catch (InstanceAlreadyExistsException e) {
+                    // another deployment of the same stack runs in this JVM
+                }
+            }
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Failed to register the deployment MBean", e);
+        }
+    }
+
+    /**
+     * Unregisters the metrics from the platform MBean server, if registered.
+     */
+    public synchronized void unregister() {
+        if (this.name == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.name);
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Failed to unregister the deployment MBean", e);
+        }
+        this.name = null;
+    }
+
+    /**
+     * @return the name the metrics are registered with, if any
+     */
+    @Nullable
+    public synchronized ObjectName name() {
+        return this.name;
+    }
+
+    @Override
+    public int getInFlightTasks() {
+        return this.inFlightTasks.getAsInt();
+    }
+
+    @Override
+    public int getPendingLogs() {
+        return this.pendingLogs.getAsInt();
+    }
+
+    @Override
+    public long getResourcesRegistered() {
+        return this.resourcesRegistered.sum();
+    }
+
+    @Override
+    public long getResourcesCompleted() {
+        return this.resourcesCompleted.sum();
+    }
+
+    @Override
+    public long getResourcesFailed() {
+        return this.resourcesFailed.sum();
+    }
+
+    @Override
+    public long getOutstandingOutputs() {
+        return this.outstandingOutputs.sum();
+    }
+
+    @Override
+    public Map<String, Long> getPendingRpcs() {
+        return sums(this.pendingRpcs);
+    }
+
+    @Override
+    public Map<String, Long> getCompletedRpcs() {
+        return sums(this.completedRpcs);
+    }
+
+    @Override
+    public Map<String, Boolean> getSupportedFeatures() {
+        return ImmutableMap.copyOf(this.supportedFeatures.get());
+    }
+
+    private static Map<String, Long> sums(Map<Rpc, LongAdder> adders) {
+        var sums = ImmutableMap.<String, Long>builder();
+        adders.forEach((rpc, adder) -> sums.put(rpc.name(), adder.sum()));
+        return sums.build();
+    }
+
+    private final class CountingMonitor implements Monitor {
+        private final Monitor monitor;
+
+        private CountingMonitor(Monitor monitor) {
+            this.monitor = monitor;
+        }
+
+        @Override
+        public CompletableFuture<SupportsFeatureResponse> supportsFeatureAsync(SupportsFeatureRequest request) {
+            return count(Rpc.SupportsFeature, () -> this.monitor.supportsFeatureAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<InvokeResponse> invokeAsync(ResourceInvokeRequest request) {
+            return count(Rpc.Invoke, () -> this.monitor.invokeAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<CallResponse> callAsync(ResourceCallRequest request) {
+            return count(Rpc.Call, () -> this.monitor.callAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<ReadResourceResponse> readResourceAsync(Resource resource, ReadResourceRequest request) {
+            return count(Rpc.ReadResource, () -> this.monitor.readResourceAsync(resource, request));
+        }
+
+        @Override
+        public CompletableFuture<RegisterResourceResponse> registerResourceAsync(Resource resource, RegisterResourceRequest request) {
+            return count(Rpc.RegisterResource, () -> this.monitor.registerResourceAsync(resource, request));
+        }
+
+        @Override
+        public CompletableFuture<Void> registerResourceOutputsAsync(RegisterResourceOutputsRequest request) {
+            return count(Rpc.RegisterResourceOutputs, () -> this.monitor.registerResourceOutputsAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<RegisterPackageResponse> registerPackageAsync(RegisterPackageRequest request) {
+            return count(Rpc.RegisterPackage, () -> this.monitor.registerPackageAsync(request));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.pulumi.deployment.internal;
+
+import com.pulumi.core.internal.annotations.InternalUse;
+
+import java.util.Map;
+
+/**
+ * The live counters of a deployment, exposed over JMX, e.g. to JConsole or a Prometheus JMX exporter.
+ *
+ * @see DeploymentMetrics
+ */
+@InternalUse
+public interface DeploymentMetricsMXBean {
+
+    /**
+     * @return the number of tasks the runner waits for
+     */
+    int getInFlightTasks();
+
+    /**
+     * @return the number of log messages waiting to be sent to the engine
+     */
+    int getPendingLogs();
+
+    long getResourcesRegistered();
+
+    long getResourcesCompleted();
+
+    long getResourcesFailed();
+
+    /**
+     * @return the number of outputs of the registered resources that are not completed yet
+     */
+    long getOutstandingOutputs();
+
+    /**
+     * @return the number of resource monitor calls waiting for a response, by method
+     */
+    Map<String, Long> getPendingRpcs();
+
+    /**
+     * @return the number of resource monitor calls made, by method
+     */
+    Map<String, Long> getCompletedRpcs();
+
+    /**
+     * @return the features the resource monitor was asked about, and whether it supports them
+     */
+    Map<String, Boolean> getSupportedFeatures();
+}
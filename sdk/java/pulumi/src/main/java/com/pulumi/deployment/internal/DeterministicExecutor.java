@@ -0,0 +1,103 @@
+package com.pulumi.deployment.internal;
+
+import com.pulumi.deployment.DeploymentInstance;
+
+import javax.annotation.Nullable;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs tasks one at a time, in the order they were submitted, on the thread calling
+ * {@link #runUntilDone(CompletableFuture)}. Used to run a deployment synchronously and
+ * deterministically, e.g. in unit tests with mocks.
+ * <p>
+ * Idle tasks run only once the run queue is empty, e.g. to check whether the program is done,
+ * without polling. An idle task only runs if another task ran since the previous idle task,
+ * as nothing could have changed otherwise; a re-armed idle check does not spin. Otherwise, the
+ * running thread waits for tasks submitted by other threads, e.g. when a mock completes its
+ * futures asynchronously.
+ */
+final class DeterministicExecutor implements Executor {
+    private static final Runnable WakeUp = () -> {
+        // only used to wake up the running thread
+    };
+
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+    private final Queue<Runnable> idleTasks = new ConcurrentLinkedQueue<>();
+    private volatile Thread runningThread;
+
+    @Override
+    public void execute(Runnable task) {
+        this.queue.add(requireNonNull(task));
+    }
+
+    /**
+     * Runs the task once all the tasks in the run queue have run.
+     */
+    void whenIdle(Runnable task) {
+        this.idleTasks.add(requireNonNull(task));
+        wakeUp();
+    }
+
+    /**
+     * Wakes up the running thread if called from another thread, e.g. when a future it waits for completes.
+     */
+    void wakeUp() {
+        var running = this.runningThread;
+        if (running != null && running != Thread.currentThread()) {
+            this.queue.add(WakeUp);
+        }
+    }
+
+    /**
+     * Runs the queued tasks on the current thread, until the future is done.
+     * The deployment installed on the current thread is installed for every task.
+     *
+     * @throws InterruptedException if interrupted while waiting for tasks from other threads
+     */
+    void runUntilDone(CompletableFuture<?> future) throws InterruptedException {
+        var instance = DeploymentInstanceHolder.getInstanceNoThrow();
+        this.runningThread = Thread.currentThread();
+        future.whenComplete((__, ___) -> wakeUp());
+        try {
+            // whether a task ran since the last idle task, so that the idle tasks have something to check
+            var ranSinceIdle = true;
+            while (!future.isDone()) {
+                var task = this.queue.poll();
+                if (task == null && ranSinceIdle) {
+                    var idleTask = this.idleTasks.poll();
+                    if (idleTask != null) {
+                        ranSinceIdle = false;
+                        run(instance, idleTask);
+                        continue;
+                    }
+                }
+                if (task == null) {
+                    task = this.queue.take();
+                }
+                run(instance, task);
+                ranSinceIdle = true;
+            }
+        } finally {
+            this.runningThread = null;
+        }
+    }
+
+    private static void run(@Nullable DeploymentInstance instance, Runnable task) {
+        if (instance == null) {
+            task.run();
+            return;
+        }
+        // tasks remove the deployment from the thread when they are done, so install it for each of them
+        DeploymentInstanceHolder.callWithInstance(instance, () -> {
+            task.run();
+            return null;
+        });
+    }
+}
@@ -11,6 +11,14 @@ import java.util.logging.Level;
 @InternalUse
 public interface EngineLogger extends CountingLogger {
 
+    /**
+     * @return the number of logs not sent to the engine yet, e.g. for metrics
+     */
+    @InternalUse
+    default int getPendingLogCount() {
+        return 0;
+    }
+
     /**
      * Logs a debug-level message that is generally hidden from end-users.
      */
@@ -20,13 +20,17 @@ public class GrpcEngine implements Engine {
     private final EngineGrpc.EngineFutureStub engine;
 
     public GrpcEngine(String engine) {
+        this(engine, Instrumentation.disabled());
+    }
+
+    public GrpcEngine(String engine, Instrumentation instrumentation) {
         // maxRpcMessageSize raises the gRPC Max Message size from `4194304` (4mb) to `419430400` (400mb)
         var maxRpcMessageSizeInBytes = 400 * 1024 * 1024;
         var channelBuilder = ManagedChannelBuilder
                 .forTarget(engine)
                 .usePlaintext() // disable TLS
                 .maxInboundMessageSize(maxRpcMessageSizeInBytes);
-        var interceptor = Instrumentation.getClientInterceptor();
+        var interceptor = instrumentation.getClientInterceptor();
         if (interceptor != null) {
             channelBuilder.intercept(interceptor);
         }
@@ -3,6 +3,7 @@ package com.pulumi.deployment.internal;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.pulumi.core.internal.ContextAwareCompletableFuture;
 import com.pulumi.resources.Resource;
+import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import pulumirpc.Provider.CallResponse;
 import pulumirpc.Provider.InvokeResponse;
@@ -24,21 +25,35 @@ import java.util.concurrent.CompletableFuture;
 import static net.javacrumbs.futureconverter.java8guava.FutureConverter.toCompletableFuture;
 import static pulumirpc.ResourceMonitorGrpc.newFutureStub;
 
-public class GrpcMonitor implements Monitor {
+public class GrpcMonitor implements Monitor, AutoCloseable {
+    private final ManagedChannel channel;
     private final ResourceMonitorGrpc.ResourceMonitorFutureStub monitor;
 
     public GrpcMonitor(String monitor) {
+        this(monitor, Instrumentation.disabled());
+    }
+
+    public GrpcMonitor(String monitor, Instrumentation instrumentation) {
         // maxRpcMessageSize raises the gRPC Max Message size from `4194304` (4mb) to `419430400` (400mb)
         var maxRpcMessageSizeInBytes = 400 * 1024 * 1024;
         var channelBuilder = ManagedChannelBuilder
                 .forTarget(monitor)
                 .usePlaintext() // disable TLS
                 .maxInboundMessageSize(maxRpcMessageSizeInBytes);
-        var interceptor = Instrumentation.getClientInterceptor();
+        var interceptor = instrumentation.getClientInterceptor();
         if (interceptor != null) {
             channelBuilder.intercept(interceptor);
         }
-        this.monitor = newFutureStub(channelBuilder.build());
+        this.channel = channelBuilder.build();
+        this.monitor = newFutureStub(this.channel);
+    }
+
+    /**
+     * Shuts down the channel to the monitor, letting the calls in flight complete.
+     */
+    @Override
+    public void close() {
+        this.channel.shutdown();
     }
 
     @Override
@@ -1,61 +1,161 @@
 package com.pulumi.deployment.internal;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.MessageLite;
 import io.grpc.CallOptions;
 import io.grpc.Channel;
 import io.grpc.ClientCall;
 import io.grpc.ClientInterceptor;
 import io.grpc.MethodDescriptor;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
 import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.context.propagation.ContextPropagators;
 import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.exporter.otlp.metrics.OtlpGrpcMetricExporter;
 import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
 import io.opentelemetry.instrumentation.grpc.v1_6.GrpcTelemetry;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Manages OpenTelemetry tracing initialization for the Pulumi Java SDK.
- * When TRACEPARENT is set in the environment, this class initializes OTel
- * with an OTLP exporter and gRPC client instrumentation.
+ * Manages OpenTelemetry tracing and metrics for a single deployment of the Pulumi Java SDK.
+ * When TRACEPARENT is set in the environment, an instance is created
+ * with OTLP exporters and gRPC client instrumentation.
+ * <p>
+ * Besides the RPCs, the SDK traces where it spends time on every resource: preparing the registration
+ * (gathering dependencies, serializing properties, resolving the parent and the provider, serializing aliases),
+ * the monitor RPC, and completing the resource outputs. It also records metrics for invokes, serialized
+ * sizes, in-flight tasks and pending logs.
+ * <p>
+ * When tracing is disabled, spans are {@link Span#getInvalid() no-op}, nothing is recorded, and no work is done
+ * on behalf of tracing, e.g. serialized sizes are not computed.
+ * <p>
+ * Each deployment owns its instance, so several deployments running in the same JVM
+ * do not share tracing state, and shutting one down does not affect the others.
  */
 public final class Instrumentation {
 
     private static final Logger logger = Logger.getLogger(Instrumentation.class.getName());
-    private static OpenTelemetrySdk sdk;
-    private static Span rootSpan;
-    private static Scope rootScope;
-    private static ClientInterceptor clientInterceptor;
+    private static final String InstrumentationName = "pulumi-sdk-java";
+    private static final Instrumentation Disabled = new Instrumentation(null, null, Context.root(), null);
 
-    private Instrumentation() {}
+    public static final AttributeKey<String> ResourceTypeKey = AttributeKey.stringKey("pulumi.resource.type");
+    public static final AttributeKey<String> ResourceNameKey = AttributeKey.stringKey("pulumi.resource.name");
+    public static final AttributeKey<String> TokenKey = AttributeKey.stringKey("pulumi.token");
+    public static final AttributeKey<String> KindKey = AttributeKey.stringKey("pulumi.kind");
+    public static final AttributeKey<Boolean> FailedKey = AttributeKey.booleanKey("pulumi.failed");
+
+    @Nullable
+    private OpenTelemetrySdk sdk;
+    @Nullable
+    private Span rootSpan;
+    private final Context rootContext;
+    @Nullable
+    private final ClientInterceptor clientInterceptor;
+    @Nullable
+    private final Tracer tracer;
+    @Nullable
+    private final Meter meter;
+    @Nullable
+    private final DoubleHistogram invokeDuration;
+    @Nullable
+    private final LongCounter invokes;
+    @Nullable
+    private final LongHistogram serializedSize;
+    @Nullable
+    private final LongCounter registrations;
+    private final List<ObservableLongGauge> gauges = new ArrayList<>();
+
+    private Instrumentation(
+            @Nullable OpenTelemetrySdk sdk,
+            @Nullable Span rootSpan,
+            Context rootContext,
+            @Nullable ClientInterceptor clientInterceptor
+    ) {
+        this.sdk = sdk;
+        this.rootSpan = rootSpan;
+        this.rootContext = rootContext;
+        this.clientInterceptor = clientInterceptor;
+        if (sdk == null) {
+            this.tracer = null;
+            this.meter = null;
+            this.invokeDuration = null;
+            this.invokes = null;
+            this.serializedSize = null;
+            this.registrations = null;
+        } else {
+            this.tracer = sdk.getTracer(InstrumentationName);
+            this.meter = sdk.getMeter(InstrumentationName);
+            this.invokeDuration = this.meter.histogramBuilder("pulumi.invoke.duration")
+                    .setDescription("The duration of invokes, from the resolution of the provider to the response")
+                    .setUnit("ms")
+                    .build();
+            this.invokes = this.meter.counterBuilder("pulumi.invoke.count")
+                    .setDescription("The number of invokes")
+                    .build();
+            this.serializedSize = this.meter.histogramBuilder("pulumi.serialization.size")
+                    .setDescription("The size of the serialized resource properties and invoke arguments")
+                    .setUnit("By")
+                    .ofLongs()
+                    .build();
+            this.registrations = this.meter.counterBuilder("pulumi.resource.count")
+                    .setDescription("The number of resources read or registered")
+                    .build();
+        }
+    }
+
+    /**
+     * @return an instance with tracing disabled
+     */
+    public static Instrumentation disabled() {
+        return Disabled;
+    }
 
     /**
      * Initialize OpenTelemetry tracing if TRACEPARENT is set.
+     *
+     * @return the initialized instance, or a disabled instance if TRACEPARENT is not set
      */
-    public static void initialize() {
+    public static Instrumentation fromEnvironment() {
         var traceparent = System.getenv("TRACEPARENT");
         if (traceparent == null || traceparent.isEmpty()) {
-            return;
+            return Disabled;
         }
 
         try {
             var resourceBuilder = Resource.getDefault().toBuilder()
-                    .put("service.name", "pulumi-sdk-java")
+                    .put("service.name", InstrumentationName)
                     .build();
 
             var tracerProviderBuilder = SdkTracerProvider.builder()
                     .setResource(resourceBuilder);
+            var meterProviderBuilder = SdkMeterProvider.builder()
+                    .setResource(resourceBuilder);
 
             var otlpEndpoint = System.getenv("OTEL_EXPORTER_OTLP_ENDPOINT");
             if (otlpEndpoint != null && !otlpEndpoint.isEmpty()) {
@@ -63,10 +163,15 @@ public final class Instrumentation {
                         .setEndpoint("http://" + otlpEndpoint)
                         .build();
                 tracerProviderBuilder.addSpanProcessor(BatchSpanProcessor.builder(exporter).build());
+                var metricExporter = OtlpGrpcMetricExporter.builder()
+                        .setEndpoint("http://" + otlpEndpoint)
+                        .build();
+                meterProviderBuilder.registerMetricReader(PeriodicMetricReader.builder(metricExporter).build());
             }
 
-            sdk = OpenTelemetrySdk.builder()
+            var sdk = OpenTelemetrySdk.builder()
                     .setTracerProvider(tracerProviderBuilder.build())
+                    .setMeterProvider(meterProviderBuilder.build())
                     .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
                     .build();
 
@@ -76,50 +181,211 @@ public final class Instrumentation {
             Context extractedContext = W3CTraceContextPropagator.getInstance().extract(
                     Context.root(), carrier, MapTextMapGetter.INSTANCE);
 
-            Tracer tracer = sdk.getTracer("pulumi-sdk-java");
-            rootSpan = tracer.spanBuilder("pulumi-sdk-java")
-                    .setParent(extractedContext)
-                    .startSpan();
-
-            Context rootContext = extractedContext.with(rootSpan);
-            rootScope = rootContext.makeCurrent();
-
-            var grpcTelemetry = GrpcTelemetry.create(sdk);
-            var otelInterceptor = grpcTelemetry.newClientInterceptor();
-            clientInterceptor = new ClientInterceptor() {
-                @Override
-                public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
-                        MethodDescriptor<ReqT, RespT> method,
-                        CallOptions callOptions,
-                        Channel next) {
-                    try (Scope scope = rootContext.makeCurrent()) {
-                        return otelInterceptor.interceptCall(method, callOptions, next);
-                    }
-                }
-            };
-
             logger.log(Level.FINE, "OpenTelemetry tracing initialized with TRACEPARENT: " + traceparent);
+            return create(sdk, extractedContext);
         } catch (Exception e) {
             logger.log(Level.WARNING, "Failed to initialize OpenTelemetry tracing", e);
+            return Disabled;
         }
     }
 
+    /**
+     * Creates an instance exporting through the given SDK, with a root span child of the given context.
+     */
+    @VisibleForTesting
+    static Instrumentation create(OpenTelemetrySdk sdk, Context parentContext) {
+        Tracer tracer = sdk.getTracer(InstrumentationName);
+        var rootSpan = tracer.spanBuilder(InstrumentationName)
+                .setParent(parentContext)
+                .startSpan();
+
+        // the context is passed explicitly, rather than made current on the thread creating the deployment,
+        // as the deployment runs and shuts down on other threads
+        Context rootContext = parentContext.with(rootSpan);
+
+        var grpcTelemetry = GrpcTelemetry.create(sdk);
+        var otelInterceptor = grpcTelemetry.newClientInterceptor();
+        var clientInterceptor = new ClientInterceptor() {
+            @Override
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                    MethodDescriptor<ReqT, RespT> method,
+                    CallOptions callOptions,
+                    Channel next) {
+                // only current for the duration of the call, on the calling thread
+                try (Scope scope = rootContext.makeCurrent()) {
+                    return otelInterceptor.interceptCall(method, callOptions, next);
+                }
+            }
+        };
+
+        return new Instrumentation(sdk, rootSpan, rootContext, clientInterceptor);
+    }
+
+    /**
+     * @return true if spans and metrics are recorded
+     */
+    public boolean isEnabled() {
+        return this.tracer != null;
+    }
+
+    /**
+     * Returns the context of the root span of the deployment, to parent the spans of the deployment,
+     * or the root context if tracing is not enabled.
+     */
+    public Context getRootContext() {
+        return rootContext;
+    }
+
     /**
      * Returns the gRPC client interceptor for OTel instrumentation, or null if tracing is not enabled.
      */
     @Nullable
-    public static ClientInterceptor getClientInterceptor() {
+    public ClientInterceptor getClientInterceptor() {
         return clientInterceptor;
     }
 
     /**
-     * Shutdown the OTel SDK and flush any pending spans.
+     * Starts a span for a resource, child of the root span, and counts the resource.
+     *
+     * @param name         the span name, e.g. {@code "pulumi.registerResource"}
+     * @param resourceType the resource type token
+     * @param resourceName the resource name
+     * @return the started span, or an invalid no-op span if tracing is disabled
+     */
+    public Span startResourceSpan(String name, String resourceType, String resourceName) {
+        if (this.tracer == null) {
+            return Span.getInvalid();
+        }
+        this.registrations.add(1, Attributes.of(KindKey, name, ResourceTypeKey, resourceType));
+        return this.tracer.spanBuilder(name)
+                .setParent(this.rootContext)
+                .setAttribute(ResourceTypeKey, resourceType)
+                .setAttribute(ResourceNameKey, resourceName)
+                .startSpan();
+    }
+
+    /**
+     * Starts a span for an invoke, child of the root span.
+     *
+     * @param token the function token
+     * @return the started span, or an invalid no-op span if tracing is disabled
+     */
+    public Span startInvokeSpan(String token) {
+        if (this.tracer == null) {
+            return Span.getInvalid();
+        }
+        return this.tracer.spanBuilder("pulumi.invoke")
+                .setParent(this.rootContext)
+                .setAttribute(TokenKey, token)
+                .startSpan();
+    }
+
+    /**
+     * Starts a span for a stage of the work of the given parent span.
+     *
+     * @param name   the span name, e.g. {@code "pulumi.prepare.serialization"}
+     * @param parent the parent span
+     * @return the started span, or an invalid no-op span if tracing is disabled or the parent is invalid
+     */
+    public Span startSpan(String name, Span parent) {
+        if (this.tracer == null || !parent.getSpanContext().isValid()) {
+            return Span.getInvalid();
+        }
+        return this.tracer.spanBuilder(name)
+                .setParent(Context.root().with(parent))
+                .startSpan();
+    }
+
+    /**
+     * Ends the span when the future completes, recording its failure if any.
+     *
+     * @param span   the span to end
+     * @param future the future of the work traced by the span
+     * @param <T>    the future value type
+     * @return the given future
+     */
+    public <T> CompletableFuture<T> endOnCompletion(Span span, CompletableFuture<T> future) {
+        if (!span.getSpanContext().isValid()) {
+            return future;
+        }
+        future.whenComplete((__, throwable) -> end(span, throwable));
+        return future;
+    }
+
+    /**
+     * Ends an invoke span when the future completes, recording its failure if any, and the invoke duration.
+     *
+     * @param span   the span started by {@link #startInvokeSpan(String)}
+     * @param token  the function token
+     * @param future the future of the invoke
+     * @param <T>    the future value type
+     * @return the given future
+     */
+    public <T> CompletableFuture<T> endInvokeOnCompletion(Span span, String token, CompletableFuture<T> future) {
+        if (this.invokeDuration == null || !span.getSpanContext().isValid()) {
+            return future;
+        }
+        var start = System.nanoTime();
+        future.whenComplete((__, throwable) -> {
+            var attributes = Attributes.of(TokenKey, token, FailedKey, throwable != null);
+            this.invokeDuration.record((System.nanoTime() - start) / 1e6, attributes);
+            this.invokes.add(1, attributes);
+            end(span, throwable);
+        });
+        return future;
+    }
+
+    private static void end(Span span, @Nullable Throwable throwable) {
+        if (throwable != null) {
+            span.recordException(throwable);
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    /**
+     * Records the serialized size of a message, e.g. the properties of a resource.
+     * The size is only computed if tracing is enabled.
+     *
+     * @param kind    what the message is, e.g. {@code "resource"}, or {@code "invoke"}
+     * @param type    the resource type token, or the function token
+     * @param message the serialized message
+     */
+    public void recordSerializedSize(String kind, String type, MessageLite message) {
+        if (this.serializedSize == null) {
+            return;
+        }
+        this.serializedSize.record(message.getSerializedSize(), Attributes.of(KindKey, kind, TokenKey, type));
+    }
+
+    /**
+     * Observes the number of in-flight tasks and of pending logs of the deployment, until shutdown.
+     *
+     * @param inFlightTasks the number of tasks registered with the runner that are not done yet
+     * @param pendingLogs   the number of logs not sent to the engine yet
+     */
+    public synchronized void observe(IntSupplier inFlightTasks, IntSupplier pendingLogs) {
+        if (this.meter == null || this.sdk == null) {
+            return;
+        }
+        this.gauges.add(this.meter.gaugeBuilder("pulumi.runner.tasks")
+                .setDescription("The number of in-flight tasks of the deployment")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(inFlightTasks.getAsInt())));
+        this.gauges.add(this.meter.gaugeBuilder("pulumi.log.queue")
+                .setDescription("The number of logs waiting to be sent to the engine")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(pendingLogs.getAsInt())));
+    }
+
+    /**
+     * Shutdown the OTel SDK and flush any pending spans and metrics.
      */
-    public static void shutdown() {
-        if (rootScope != null) {
-            rootScope.close();
-            rootScope = null;
+    public synchronized void shutdown() {
+        for (var gauge : this.gauges) {
+            gauge.close();
         }
+        this.gauges.clear();
         if (rootSpan != null) {
             rootSpan.end();
             rootSpan = null;
@@ -128,7 +394,6 @@ public final class Instrumentation {
             sdk.close();
             sdk = null;
         }
-        clientInterceptor = null;
     }
 
     private enum MapTextMapGetter implements TextMapGetter<Map<String, String>> {
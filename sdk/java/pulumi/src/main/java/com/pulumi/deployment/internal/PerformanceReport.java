@@ -0,0 +1,377 @@
+package com.pulumi.deployment.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.GsonBuilder;
+import com.pulumi.core.internal.annotations.InternalUse;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static com.pulumi.core.internal.Environment.getEnvironmentVariable;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Records the timings of the resources and invokes of a deployment, and reports the slowest ones
+ * and the chain of dependencies bounding the duration of the deployment, i.e. its critical path.
+ * <p>
+ * The report is opt-in, with the {@value #EnvironmentVariable} environment variable or
+ * {@link com.pulumi.resources.StackOptions#performanceReport()}, set to the file to write the report to, as JSON.
+ * A summary is also logged when the deployment completes.
+ * <p>
+ * The time of a resource is split between:
+ * <ul>
+ *     <li>waiting: waiting for the dependencies, the inputs and the parent to resolve</li>
+ *     <li>rpc: waiting for the engine to read or register the resource</li>
+ *     <li>sdk: serializing the inputs, and completing the outputs of the resource with the response</li>
+ * </ul>
+ */
+@InternalUse
+public final class PerformanceReport {
+
+    public static final String EnvironmentVariable = "PULUMI_JAVA_PERFORMANCE_REPORT";
+
+    @VisibleForTesting
+    static final int Top = 10;
+
+    private final long origin = System.nanoTime();
+    private final Queue<ResourceTiming> resources = new ConcurrentLinkedQueue<>();
+    private final Queue<InvokeTiming> invokes = new ConcurrentLinkedQueue<>();
+    @Nullable
+    private volatile Path file;
+
+    /**
+     * @return a report enabled if {@value #EnvironmentVariable} is set
+     */
+    public static PerformanceReport fromEnvironment() {
+        var report = new PerformanceReport();
+        var file = getEnvironmentVariable(EnvironmentVariable).or("");
+        if (!file.isBlank()) {
+            report.enable(Path.of(file));
+        }
+        return report;
+    }
+
+    /**
+     * Enables the report. Only the work started afterward is recorded.
+     *
+     * @param file the file to write the report to, as JSON
+     */
+    public void enable(Path file) {
+        this.file = requireNonNull(file);
+    }
+
+    public boolean isEnabled() {
+        return this.file != null;
+    }
+
+    /**
+     * Starts recording the registration of a resource.
+     *
+     * @return the timing to complete as the registration progresses, or null if the report is disabled
+     */
+    @Nullable
+    public ResourceTiming startResource(String type, String name) {
+        if (!isEnabled()) {
+            return null;
+        }
+        var timing = new ResourceTiming(type, name, now());
+        this.resources.add(timing);
+        return timing;
+    }
+
+    /**
+     * Records the duration of an invoke when the given future completes.
+     *
+     * @return the given future
+     */
+    public <T> CompletableFuture<T> recordInvoke(String token, CompletableFuture<T> future) {
+        if (!isEnabled()) {
+            return future;
+        }
+        var start = now();
+        future.whenComplete((__, throwable) -> this.invokes.add(new InvokeTiming(token, start, now(), throwable != null)));
+        return future;
+    }
+
+    private long now() {
+        return System.nanoTime() - this.origin;
+    }
+
+    /**
+     * Writes the report to its file and logs a summary, if the report is enabled.
+     *
+     * @param logger the logger to log the summary with
+     * @return a future completed once the summary is logged
+     */
+    public CompletableFuture<Void> publishAsync(EngineLogger logger) {
+        var file = this.file;
+        if (file == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        var summary = summarize();
+        try {
+            Files.writeString(file, summary.toJson(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return logger.warnAsync(String.format("Failed to write the performance report to '%s': %s", file, e.getMessage()))
+                    .thenCompose(__ -> logger.infoAsync(summary.toText()));
+        }
+        return logger.infoAsync(summary.toText());
+    }
+
+    @VisibleForTesting
+    Summary summarize() {
+        var completed = this.resources.stream()
+                .filter(ResourceTiming::isCompleted)
+                .collect(ImmutableList.toImmutableList());
+        var slowestResources = completed.stream()
+                .sorted(Comparator.comparingLong(ResourceTiming::duration).reversed())
+                .limit(Top)
+                .collect(ImmutableList.toImmutableList());
+        var slowestInvokes = this.invokes.stream()
+                .sorted(Comparator.comparingLong(InvokeTiming::duration).reversed())
+                .limit(Top)
+                .collect(ImmutableList.toImmutableList());
+        var duration = Math.max(
+                completed.stream().mapToLong(timing -> timing.completed).max().orElse(0),
+                this.invokes.stream().mapToLong(timing -> timing.completed).max().orElse(0)
+        );
+        return new Summary(duration, completed.size(), this.invokes.size(), slowestResources, slowestInvokes,
+                criticalPath(completed));
+    }
+
+    /**
+     * Walks back from the last resource to complete, through the dependency that completed last,
+     * i.e. the one its registration waited for, until a resource without dependencies.
+     */
+    private static ImmutableList<ResourceTiming> criticalPath(Collection<ResourceTiming> completed) {
+        var byUrn = new HashMap<String, ResourceTiming>();
+        for (var timing : completed) {
+            if (timing.urn != null) {
+                byUrn.put(timing.urn, timing);
+            }
+        }
+
+        var path = new ArrayList<ResourceTiming>();
+        var visited = new HashSet<String>();
+        var current = completed.stream().max(Comparator.comparingLong(timing -> timing.completed)).orElse(null);
+        while (current != null && (current.urn == null || visited.add(current.urn))) {
+            path.add(current);
+            current = current.dependencies.stream()
+                    .map(byUrn::get)
+                    .filter(timing -> timing != null && !visited.contains(timing.urn))
+                    .max(Comparator.comparingLong(timing -> timing.completed))
+                    .orElse(null);
+        }
+        return ImmutableList.copyOf(path).reverse();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String seconds(long nanos) {
+        return String.format("%.2fs", nanos / 1_000_000_000.0);
+    }
+
+    /**
+     * The timing of the registration of a resource, completed in order with {@link #dependenciesResolved()},
+     * {@link #prepared(Collection)}, {@link #registered(String)} and {@link #completed(Throwable)}.
+     */
+    public final class ResourceTiming {
+        private final String type;
+        private final String name;
+        private final long start;
+        @Nullable
+        private volatile String urn;
+        private volatile List<String> dependencies = List.of();
+        private volatile long resolved = -1;
+        private volatile long prepared = -1;
+        private volatile long registered = -1;
+        private volatile long completed = -1;
+        private volatile boolean failed;
+
+        private ResourceTiming(String type, String name, long start) {
+            this.type = requireNonNull(type);
+            this.name = requireNonNull(name);
+            this.start = start;
+        }
+
+        /**
+         * Marks the end of the wait for the dependencies, the inputs and the parent, before their serialization.
+         */
+        public void dependenciesResolved() {
+            this.resolved = now();
+        }
+
+        /**
+         * @param dependencies the URNs of the resources the registration waited for, e.g. the parent
+         */
+        public void prepared(Collection<String> dependencies) {
+            this.dependencies = List.copyOf(dependencies);
+            this.prepared = now();
+        }
+
+        public void registered(String urn) {
+            this.urn = urn;
+            this.registered = now();
+        }
+
+        public void completed(@Nullable Throwable throwable) {
+            this.failed = throwable != null;
+            this.completed = now();
+        }
+
+        private boolean isCompleted() {
+            return this.completed >= 0;
+        }
+
+        private long duration() {
+            return this.completed - this.start;
+        }
+
+        private long waiting() {
+            if (this.resolved >= 0) {
+                return this.resolved - this.start;
+            }
+            return (this.prepared < 0 ? this.completed : this.prepared) - this.start;
+        }
+
+        private long rpc() {
+            if (this.registered < 0) {
+                return 0;
+            }
+            return this.registered - (this.prepared < 0 ? this.start : this.prepared);
+        }
+
+        private long sdk() {
+            var serialization = this.resolved < 0 ? 0 : (this.prepared < 0 ? this.completed : this.prepared) - this.resolved;
+            return serialization + this.completed - (this.registered < 0 ? this.completed : this.registered);
+        }
+
+        private Map<String, Object> toJson() {
+            var json = new LinkedHashMap<String, Object>();
+            json.put("type", this.type);
+            json.put("name", this.name);
+            json.put("urn", this.urn);
+            json.put("startMs", millis(this.start));
+            json.put("endMs", millis(this.completed));
+            json.put("durationMs", millis(duration()));
+            json.put("waitingMs", millis(waiting()));
+            json.put("rpcMs", millis(rpc()));
+            json.put("sdkMs", millis(sdk()));
+            json.put("failed", this.failed);
+            json.put("dependencies", this.dependencies);
+            return json;
+        }
+
+        private String toText() {
+            return String.format("%s (%s) %s: waiting %s, rpc %s, sdk %s%s",
+                    this.name, this.type, seconds(duration()),
+                    seconds(waiting()), seconds(rpc()), seconds(sdk()),
+                    this.failed ? ", failed" : ""
+            );
+        }
+    }
+
+    private static final class InvokeTiming {
+        private final String token;
+        private final long start;
+        private final long completed;
+        private final boolean failed;
+
+        private InvokeTiming(String token, long start, long completed, boolean failed) {
+            this.token = token;
+            this.start = start;
+            this.completed = completed;
+            this.failed = failed;
+        }
+
+        private long duration() {
+            return this.completed - this.start;
+        }
+
+        private Map<String, Object> toJson() {
+            var json = new LinkedHashMap<String, Object>();
+            json.put("token", this.token);
+            json.put("startMs", millis(this.start));
+            json.put("durationMs", millis(duration()));
+            json.put("failed", this.failed);
+            return json;
+        }
+    }
+
+    @VisibleForTesting
+    static final class Summary {
+        private final long duration;
+        private final int resources;
+        private final int invokes;
+        final ImmutableList<ResourceTiming> slowestResources;
+        final ImmutableList<InvokeTiming> slowestInvokes;
+        final ImmutableList<ResourceTiming> criticalPath;
+
+        private Summary(
+                long duration,
+                int resources,
+                int invokes,
+                ImmutableList<ResourceTiming> slowestResources,
+                ImmutableList<InvokeTiming> slowestInvokes,
+                ImmutableList<ResourceTiming> criticalPath
+        ) {
+            this.duration = duration;
+            this.resources = resources;
+            this.invokes = invokes;
+            this.slowestResources = slowestResources;
+            this.slowestInvokes = slowestInvokes;
+            this.criticalPath = criticalPath;
+        }
+
+        String toJson() {
+            var json = new LinkedHashMap<String, Object>();
+            json.put("durationMs", millis(this.duration));
+            json.put("resources", this.resources);
+            json.put("invokes", this.invokes);
+            json.put("criticalPath", this.criticalPath.stream().map(ResourceTiming::toJson).collect(Collectors.toList()));
+            json.put("slowestResources", this.slowestResources.stream().map(ResourceTiming::toJson).collect(Collectors.toList()));
+            json.put("slowestInvokes", this.slowestInvokes.stream().map(InvokeTiming::toJson).collect(Collectors.toList()));
+            return new GsonBuilder().setPrettyPrinting().serializeNulls().create().toJson(json);
+        }
+
+        String toText() {
+            var text = new StringBuilder();
+            text.append(String.format("Performance report: %d resources and %d invokes in %s%n",
+                    this.resources, this.invokes, seconds(this.duration)));
+            if (!this.criticalPath.isEmpty()) {
+                var first = this.criticalPath.get(0);
+                var last = this.criticalPath.get(this.criticalPath.size() - 1);
+                text.append(String.format("Critical path, %s:%n", seconds(last.completed - first.start)));
+                this.criticalPath.forEach(timing -> text.append("  ").append(timing.toText()).append(System.lineSeparator()));
+            }
+            if (!this.slowestResources.isEmpty()) {
+                text.append(String.format("Slowest resources:%n"));
+                this.slowestResources.forEach(timing -> text.append("  ").append(timing.toText()).append(System.lineSeparator()));
+            }
+            if (!this.slowestInvokes.isEmpty()) {
+                text.append(String.format("Slowest invokes:%n"));
+                this.slowestInvokes.forEach(timing -> text.append(String.format("  %s %s%s%n",
+                        timing.token, seconds(timing.duration()), timing.failed ? ", failed" : "")));
+            }
+            return text.toString().stripTrailing();
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.pulumi.deployment.internal;
+
+import com.google.common.hash.Hashing;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Empty;
+import com.google.protobuf.Message;
+import com.google.protobuf.Struct;
+import com.pulumi.core.internal.annotations.InternalUse;
+import com.pulumi.deployment.internal.Recording.RpcRecord;
+import com.pulumi.resources.Resource;
+import io.grpc.Status;
+import pulumirpc.EngineOuterClass.GetRootResourceRequest;
+import pulumirpc.EngineOuterClass.GetRootResourceResponse;
+import pulumirpc.EngineOuterClass.LogRequest;
+import pulumirpc.EngineOuterClass.RequirePulumiVersionRequest;
+import pulumirpc.EngineOuterClass.RequirePulumiVersionResponse;
+import pulumirpc.Provider.CallResponse;
+import pulumirpc.Provider.InvokeResponse;
+import pulumirpc.Resource.ReadResourceRequest;
+import pulumirpc.Resource.ReadResourceResponse;
+import pulumirpc.Resource.RegisterPackageRequest;
+import pulumirpc.Resource.RegisterPackageResponse;
+import pulumirpc.Resource.RegisterResourceOutputsRequest;
+import pulumirpc.Resource.RegisterResourceRequest;
+import pulumirpc.Resource.RegisterResourceResponse;
+import pulumirpc.Resource.ResourceCallRequest;
+import pulumirpc.Resource.ResourceInvokeRequest;
+import pulumirpc.Resource.SupportsFeatureRequest;
+import pulumirpc.Resource.SupportsFeatureResponse;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.pulumi.core.internal.Environment.getEnvironmentVariable;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Records the calls of a deployment to the resource monitor and the engine, with their requests, responses and
+ * timings, to replay them later without the engine, e.g. to benchmark the SDK with the traffic of a real stack.
+ * <p>
+ * The recording is opt-in, with the {@value #EnvironmentVariable} environment variable set to the file
+ * to write the calls to, as length-delimited {@link RpcRecord}s, in the order the calls complete.
+ * The records are buffered, and written out when the recorder is closed, once the deployment completes,
+ * so the recording of a program exiting abruptly may miss its last calls.
+ *
+ * @see com.pulumi.test.internal.RpcReplay
+ */
+@InternalUse
+public final class RpcRecorder implements AutoCloseable {
+
+    public static final String EnvironmentVariable = "PULUMI_JAVA_RPC_RECORDING";
+
+    public static final String SupportsFeature = "Monitor/SupportsFeature";
+    public static final String Invoke = "Monitor/Invoke";
+    public static final String Call = "Monitor/Call";
+    public static final String ReadResource = "Monitor/ReadResource";
+    public static final String RegisterResource = "Monitor/RegisterResource";
+    public static final String RegisterResourceOutputs = "Monitor/RegisterResourceOutputs";
+    public static final String RegisterPackage = "Monitor/RegisterPackage";
+    public static final String Log = "Engine/Log";
+    public static final String GetRootResource = "Engine/GetRootResource";
+    public static final String RequirePulumiVersion = "Engine/RequirePulumiVersion";
+
+    private static final Logger logger = Logger.getLogger(RpcRecorder.class.getName());
+
+    private final long origin = System.nanoTime();
+    @Nullable
+    private OutputStream output; // guarded by this
+
+    private RpcRecorder(@Nullable OutputStream output) {
+        this.output = output;
+    }
+
+    /**
+     * @return a recorder writing to the file set in {@value #EnvironmentVariable}, or a disabled one
+     */
+    public static RpcRecorder fromEnvironment() {
+        var file = getEnvironmentVariable(EnvironmentVariable).or("");
+        if (file.isBlank()) {
+            return disabled();
+        }
+        try {
+            return open(Path.of(file));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, String.format("Failed to open the RPC recording '%s'", file), e);
+            return disabled();
+        }
+    }
+
+    /**
+     * @return a recorder that records nothing, and returns the monitors and engines as they are
+     */
+    public static RpcRecorder disabled() {
+        return new RpcRecorder(null);
+    }
+
+    /**
+     * @param file the file to write the calls to, replaced if it exists
+     * @return a recorder writing to the given file
+     * @throws IOException if the file cannot be created
+     */
+    public static RpcRecorder open(Path file) throws IOException {
+        return new RpcRecorder(new BufferedOutputStream(Files.newOutputStream(file)));
+    }
+
+    public synchronized boolean isEnabled() {
+        return this.output != null;
+    }
+
+    /**
+     * @return a monitor recording the calls to the given monitor, or the given monitor if disabled
+     */
+    public Monitor record(Monitor monitor) {
+        requireNonNull(monitor);
+        return isEnabled() ? new RecordingMonitor(monitor) : monitor;
+    }
+
+    /**
+     * @return an engine recording the calls to the given engine, or the given engine if disabled
+     */
+    public Engine record(Engine engine) {
+        requireNonNull(engine);
+        return isEnabled() ? new RecordingEngine(engine) : engine;
+    }
+
+    /**
+     * @return the key of a resource read or registered with the given type, name and parent URN
+     */
+    public static String resourceKey(String type, String name, String parent) {
+        return parent.isEmpty() ? type + "::" + name : type + "::" + name + "@" + parent;
+    }
+
+    /**
+     * @return the key of an invoke or a call of the given function with the given arguments, hashed in
+     * a deterministic serialization, as the serialization of the fields of a {@link Struct} is unordered
+     */
+    public static String functionKey(String token, Struct args) {
+        var bytes = new byte[args.getSerializedSize()];
+        var output = CodedOutputStream.newInstance(bytes);
+        output.useDeterministicSerialization();
+        try {
+            args.writeTo(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not expected when writing to an array
+        }
+        return token + "#" + Hashing.sha256().hashBytes(bytes);
+    }
+
+    /**
+     * @return the key of a package registered with the given name and version
+     */
+    public static String packageKey(String name, String version) {
+        return version.isEmpty() ? name : name + "@" + version;
+    }
+
+    private <T extends Message> CompletableFuture<T> record(
+            String method, String key, Message request, Supplier<CompletableFuture<T>> call
+    ) {
+        var start = System.nanoTime();
+        return call.get().whenComplete((response, throwable) -> {
+            var record = RpcRecord.newBuilder()
+                    .setMethod(method)
+                    .setKey(key)
+                    .setStartNanos(start - this.origin)
+                    .setDurationNanos(System.nanoTime() - start)
+                    .setRequest(request.toByteString());
+            if (throwable != null) {
+                var cause = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause()
+                        : throwable;
+                var status = Status.fromThrowable(cause);
+                record.setStatusCode(status.getCode() == Status.Code.OK ? Status.Code.UNKNOWN.value() : status.getCode().value())
+                        .setError(status.getDescription() != null ? status.getDescription() : String.valueOf(cause.getMessage()));
+            } else if (response != null) {
+                record.setResponse(response.toByteString());
+            }
+            write(record.build());
+        });
+    }
+
+    private synchronized void write(RpcRecord record) {
+        if (this.output == null) {
+            return;
+        }
+        try {
+            record.writeDelimitedTo(this.output);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write the RPC recording, stopping the recording", e);
+            close();
+        }
+    }
+
+    /**
+     * Writes out the buffered records and closes the recording. The calls completing afterward are not recorded.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.output != null) {
+            var output = this.output;
+            this.output = null;
+            try {
+                output.close();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to write the RPC recording", e);
+            }
+        }
+    }
+
+    private final class RecordingMonitor implements Monitor {
+        private final Monitor monitor;
+
+        private RecordingMonitor(Monitor monitor) {
+            this.monitor = monitor;
+        }
+
+        @Override
+        public CompletableFuture<SupportsFeatureResponse> supportsFeatureAsync(SupportsFeatureRequest request) {
+            return record(SupportsFeature, request.getId(), request,
+                    () -> this.monitor.supportsFeatureAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<InvokeResponse> invokeAsync(ResourceInvokeRequest request) {
+            return record(Invoke, functionKey(request.getTok(), request.getArgs()), request,
+                    () -> this.monitor.invokeAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<CallResponse> callAsync(ResourceCallRequest request) {
+            return record(Call, functionKey(request.getTok(), request.getArgs()), request,
+                    () -> this.monitor.callAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<ReadResourceResponse> readResourceAsync(Resource resource, ReadResourceRequest request) {
+            return record(ReadResource, resourceKey(request.getType(), request.getName(), request.getParent()), request,
+                    () -> this.monitor.readResourceAsync(resource, request));
+        }
+
+        @Override
+        public CompletableFuture<RegisterResourceResponse> registerResourceAsync(Resource resource, RegisterResourceRequest request) {
+            return record(RegisterResource, resourceKey(request.getType(), request.getName(), request.getParent()), request,
+                    () -> this.monitor.registerResourceAsync(resource, request));
+        }
+
+        @Override
+        public CompletableFuture<Void> registerResourceOutputsAsync(RegisterResourceOutputsRequest request) {
+            return record(RegisterResourceOutputs, request.getUrn(), request,
+                    () -> this.monitor.registerResourceOutputsAsync(request).thenApply(__ -> Empty.getDefaultInstance())
+            ).thenApply(__ -> null);
+        }
+
+        @Override
+        public CompletableFuture<RegisterPackageResponse> registerPackageAsync(RegisterPackageRequest request) {
+            return record(RegisterPackage, packageKey(request.getName(), request.getVersion()), request,
+                    () -> this.monitor.registerPackageAsync(request));
+        }
+    }
+
+    private final class RecordingEngine implements Engine {
+        private final Engine engine;
+
+        private RecordingEngine(Engine engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public CompletableFuture<Void> logAsync(LogRequest request) {
+            return record(Log, request.getSeverity().name(), request,
+                    () -> this.engine.logAsync(request).thenApply(__ -> Empty.getDefaultInstance())
+            ).thenApply(__ -> null);
+        }
+
+        @Override
+        public CompletableFuture<GetRootResourceResponse> getRootResourceAsync(GetRootResourceRequest request) {
+            return record(GetRootResource, "", request, () -> this.engine.getRootResourceAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<RequirePulumiVersionResponse> requirePulumiVersionAsync(RequirePulumiVersionRequest request) {
+            return record(RequirePulumiVersion, request.getPulumiVersionRange(), request,
+                    () -> this.engine.requirePulumiVersionAsync(request));
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.pulumi.core.internal.annotations.InternalUse;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
@@ -63,6 +64,23 @@ public interface Runner {
     @InternalUse
     <T> CompletableFuture<Result<T>> runAsync(Supplier<T> callback);
 
+    /**
+     * @return the executor of the asynchronous work of the deployment,
+     * or empty to use the default {@link CompletableFuture} executor
+     */
+    @InternalUse
+    default Optional<Executor> executor() {
+        return Optional.empty();
+    }
+
+    /**
+     * @return the number of registered tasks the runner is waiting for, e.g. for metrics
+     */
+    @InternalUse
+    default int getTaskCount() {
+        return 0;
+    }
+
     /**
      * Runner's result containing the result value and/or any exceptions, and the process exit code.
      * @param <T> the type of the result value
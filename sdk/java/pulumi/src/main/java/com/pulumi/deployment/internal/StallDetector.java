@@ -0,0 +1,302 @@
+package com.pulumi.deployment.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.pulumi.core.internal.annotations.InternalUse;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.pulumi.core.internal.Environment.getBooleanEnvironmentVariable;
+import static com.pulumi.core.internal.Environment.getDoubleEnvironmentVariable;
+import static com.pulumi.core.internal.Environment.getEnvironmentVariable;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Detects a deployment that stopped making progress, e.g. waiting for an output that never completes,
+ * and reports the oldest outstanding tasks of the runner and the resources whose outputs are still pending.
+ * <p>
+ * The detector is opt-in, with the {@value #TimeoutEnvironmentVariable} environment variable set to the number
+ * of seconds without any task completing after which the deployment is reported as stalled.
+ * The report is logged to the engine and, if {@value #FileEnvironmentVariable} is set, written to that file.
+ * If {@value #StackTracesEnvironmentVariable} is set, the stack trace of the registration of every task
+ * is captured and reported, which is expensive and only meant to diagnose a hang.
+ * <p>
+ * A deployment is reported once per stall: the detector is armed again once one of the reported tasks completes.
+ */
+@InternalUse
+public final class StallDetector {
+
+    public static final String TimeoutEnvironmentVariable = "PULUMI_JAVA_STALL_TIMEOUT";
+    public static final String StackTracesEnvironmentVariable = "PULUMI_JAVA_STALL_STACK_TRACES";
+    public static final String FileEnvironmentVariable = "PULUMI_JAVA_STALL_REPORT";
+
+    @VisibleForTesting
+    static final int Top = 10;
+
+    private final Set<PendingResource> resources = ConcurrentHashMap.newKeySet();
+    @Nullable
+    private volatile Duration timeout;
+    private volatile boolean captureStackTraces;
+    @Nullable
+    private volatile Path file;
+    private volatile long lastProgress = System.nanoTime();
+    // the time of the last report, or 0 if the detector is armed
+    private volatile long reported;
+
+    /**
+     * @return a detector enabled if {@value #TimeoutEnvironmentVariable} is set
+     */
+    public static StallDetector fromEnvironment() {
+        var detector = new StallDetector();
+        var seconds = getDoubleEnvironmentVariable(TimeoutEnvironmentVariable).or(0.0);
+        if (seconds > 0) {
+            var file = getEnvironmentVariable(FileEnvironmentVariable).or("");
+            detector.enable(
+                    Duration.ofMillis((long) (seconds * 1000)),
+                    getBooleanEnvironmentVariable(StackTracesEnvironmentVariable).or(false),
+                    file.isBlank() ? null : Path.of(file)
+            );
+        }
+        return detector;
+    }
+
+    /**
+     * Enables the detector. Only the work started afterward is tracked.
+     *
+     * @param timeout            the time without any task completing after which the deployment is stalled
+     * @param captureStackTraces whether to capture the stack trace of the registration of every task
+     * @param file               the file to write the report to, if any
+     */
+    public void enable(Duration timeout, boolean captureStackTraces, @Nullable Path file) {
+        requireNonNull(timeout);
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException(String.format("Expected a positive timeout, got: %s", timeout));
+        }
+        this.captureStackTraces = captureStackTraces;
+        this.file = file;
+        this.lastProgress = System.nanoTime();
+        this.timeout = timeout;
+    }
+
+    public boolean isEnabled() {
+        return this.timeout != null;
+    }
+
+    /**
+     * Starts tracking a task registered with the runner. If the detector is disabled, the task only
+     * holds its descriptions, and its completion needs not be recorded.
+     *
+     * @param description the description of the task
+     * @return the task, with the stack trace of the caller if the stack traces are captured
+     */
+    public Task startTask(String description) {
+        if (!isEnabled()) {
+            return new Task(description, 0, null);
+        }
+        return new Task(description, System.nanoTime(), this.captureStackTraces ? new Throwable("Registered at") : null);
+    }
+
+    /**
+     * Records the completion of a task, i.e. the progress of the deployment.
+     */
+    public void completed(Task task) {
+        if (!isEnabled()) {
+            return;
+        }
+        var reported = this.reported;
+        // the tasks registered after a report, e.g. logging the report itself, do not end the stall
+        if (reported == 0 || task.registered < reported) {
+            this.lastProgress = System.nanoTime();
+            this.reported = 0;
+        }
+    }
+
+    /**
+     * Starts tracking the outputs of a resource, until {@link PendingResource#completed()}.
+     *
+     * @return the tracked resource, or null if the detector is disabled
+     */
+    @Nullable
+    public PendingResource startResource(String type, String name, Collection<String> outputs) {
+        if (!isEnabled()) {
+            return null;
+        }
+        var resource = new PendingResource(type, name, List.copyOf(outputs));
+        this.resources.add(resource);
+        return resource;
+    }
+
+    /**
+     * Checks the deployment periodically until the given future completes, if the detector is enabled.
+     *
+     * @param tasks    the tasks outstanding in the runner
+     * @param logger   the logger to report a stall with
+     * @param until    the future completed once the deployment is done
+     * @param fallback the logger to use if the report cannot be logged to the engine
+     */
+    public void watch(
+            Supplier<Collection<Task>> tasks, EngineLogger logger, CompletableFuture<?> until, Logger fallback
+    ) {
+        var timeout = this.timeout;
+        if (timeout == null) {
+            return;
+        }
+        this.lastProgress = System.nanoTime();
+        var period = Math.max(10, timeout.toMillis() / 4);
+        Runnable[] check = new Runnable[1];
+        check[0] = () -> {
+            if (until.isDone()) {
+                return;
+            }
+            try {
+                check(System.nanoTime(), tasks.get()).ifPresent(report -> publish(report, logger, fallback));
+            } catch (RuntimeException e) {
+                fallback.log(Level.WARNING, "Failed to check the deployment for a stall", e);
+            }
+            CompletableFuture.delayedExecutor(period, TimeUnit.MILLISECONDS).execute(check[0]);
+        };
+        CompletableFuture.delayedExecutor(period, TimeUnit.MILLISECONDS).execute(check[0]);
+    }
+
+    /**
+     * @return the report of the stall, if the deployment made no progress for the timeout and was not reported yet
+     */
+    @VisibleForTesting
+    Optional<String> check(long now, Collection<Task> tasks) {
+        var timeout = this.timeout;
+        if (timeout == null || this.reported != 0 || tasks.isEmpty()) {
+            return Optional.empty();
+        }
+        var idle = now - this.lastProgress;
+        if (idle < timeout.toNanos()) {
+            return Optional.empty();
+        }
+        this.reported = now;
+        return Optional.of(report(now, idle, tasks));
+    }
+
+    private String report(long now, long idle, Collection<Task> tasks) {
+        var report = new StringBuilder();
+        report.append(String.format("The deployment made no progress for %s, with %d outstanding tasks.%n",
+                seconds(idle), tasks.size()));
+        report.append(String.format("Oldest outstanding tasks:%n"));
+        tasks.stream()
+                .sorted(Comparator.comparingLong(task -> task.registered))
+                .limit(Top)
+                .forEach(task -> {
+                    report.append(String.format("  %s %s%n", seconds(now - task.registered),
+                            String.join(", ", task.descriptions)));
+                    if (task.origin != null) {
+                        for (var element : task.origin.getStackTrace()) {
+                            report.append(String.format("      at %s%n", element));
+                        }
+                    }
+                });
+        if (!this.resources.isEmpty()) {
+            report.append(String.format("Resources with pending outputs:%n"));
+            this.resources.stream()
+                    .sorted(Comparator.comparingLong(resource -> resource.started))
+                    .limit(Top)
+                    .forEach(resource -> report.append(String.format("  %s (%s) %s: %s%n",
+                            resource.name, resource.type, seconds(now - resource.started),
+                            resource.outputs.isEmpty() ? "no outputs" : String.join(", ", resource.outputs))));
+        }
+        if (!this.captureStackTraces) {
+            report.append(String.format("Set %s to capture where the tasks were registered.%n",
+                    StackTracesEnvironmentVariable));
+        }
+        return report.toString().stripTrailing();
+    }
+
+    private void publish(String report, EngineLogger logger, Logger fallback) {
+        var file = this.file;
+        if (file != null) {
+            try {
+                Files.writeString(file, report, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                fallback.log(Level.WARNING, String.format("Failed to write the stall report to '%s'", file), e);
+            }
+        }
+        logger.warnAsync(report).exceptionally(throwable -> {
+            fallback.log(Level.WARNING, report, throwable);
+            return null;
+        });
+    }
+
+    private static String seconds(long nanos) {
+        return String.format("%.2fs", nanos / 1_000_000_000.0);
+    }
+
+    /**
+     * A task registered with the runner.
+     */
+    public static final class Task {
+        private final long registered;
+        // the same future may be registered several times, e.g. a cached completed future, which is rare,
+        // so the descriptions are copied on every addition and read without locking
+        private volatile List<String> descriptions;
+        @Nullable
+        private final Throwable origin;
+
+        private Task(String description, long registered, @Nullable Throwable origin) {
+            this.descriptions = List.of(requireNonNull(description));
+            this.registered = registered;
+            this.origin = origin;
+        }
+
+        /**
+         * Adds a description. The additions must not race, e.g. they are made in {@link java.util.Map#compute}.
+         */
+        public void addDescription(String description) {
+            var descriptions = new ArrayList<String>(this.descriptions.size() + 1);
+            descriptions.addAll(this.descriptions);
+            descriptions.add(requireNonNull(description));
+            this.descriptions = List.copyOf(descriptions);
+        }
+
+        public List<String> descriptions() {
+            return this.descriptions;
+        }
+
+        @Override
+        public String toString() {
+            return this.descriptions.toString();
+        }
+    }
+
+    /**
+     * A resource whose outputs are not completed yet.
+     */
+    public final class PendingResource {
+        private final String type;
+        private final String name;
+        private final List<String> outputs;
+        private final long started = System.nanoTime();
+
+        private PendingResource(String type, String name, List<String> outputs) {
+            this.type = requireNonNull(type);
+            this.name = requireNonNull(name);
+            this.outputs = requireNonNull(outputs);
+        }
+
+        public void completed() {
+            resources.remove(this);
+        }
+    }
+}
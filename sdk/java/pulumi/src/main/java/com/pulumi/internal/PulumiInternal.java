@@ -10,22 +10,29 @@ import com.pulumi.context.internal.OutputContextInternal;
 import com.pulumi.core.internal.OutputFactory;
 import com.pulumi.core.internal.annotations.InternalUse;
 import com.pulumi.deployment.Deployment;
+import com.pulumi.deployment.DeploymentInstance;
 import com.pulumi.deployment.internal.DeploymentImpl;
+import com.pulumi.deployment.internal.DeploymentMetrics;
+import com.pulumi.deployment.internal.DeploymentInstanceHolder;
+import com.pulumi.deployment.internal.DeploymentInstanceInternal;
 import com.pulumi.deployment.internal.Engine;
 import com.pulumi.deployment.internal.Monitor;
 import com.pulumi.deployment.internal.GrpcEngine;
 import com.pulumi.deployment.internal.GrpcMonitor;
 import com.pulumi.deployment.internal.InlineDeploymentSettings;
 import com.pulumi.deployment.internal.Instrumentation;
+import com.pulumi.deployment.internal.RpcRecorder;
 import com.pulumi.deployment.internal.Runner;
 import com.pulumi.deployment.internal.Runner.Result;
 import com.pulumi.resources.StackOptions;
 import com.pulumi.resources.internal.Stack;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 
@@ -35,32 +42,85 @@ public class PulumiInternal implements Pulumi, Pulumi.API {
 
     protected final Runner runner;
     protected final ContextInternal stackContext;
+    @Nullable
+    private final DeploymentInstance instance;
+    private final Instrumentation instrumentation;
+    @Nullable
+    private final DeploymentMetrics metrics;
+    private final RpcRecorder rpcRecorder;
 
+    /**
+     * Creates a program bound to the deployment installed on the current thread, if any.
+     */
     @InternalUse
     public PulumiInternal(Runner runner, ContextInternal stackContext) {
+        this(runner, stackContext, DeploymentInstanceHolder.getInstanceNoThrow(), Instrumentation.disabled());
+    }
+
+    /**
+     * Creates a program bound to the given deployment. All the work of the program is started
+     * with this deployment installed, regardless of the state of the calling thread.
+     */
+    @InternalUse
+    public PulumiInternal(
+            Runner runner,
+            ContextInternal stackContext,
+            @Nullable DeploymentInstance instance,
+            Instrumentation instrumentation
+    ) {
+        this(runner, stackContext, instance, instrumentation, null, RpcRecorder.disabled());
+    }
+
+    private PulumiInternal(
+            Runner runner,
+            ContextInternal stackContext,
+            @Nullable DeploymentInstance instance,
+            Instrumentation instrumentation,
+            @Nullable DeploymentMetrics metrics,
+            RpcRecorder rpcRecorder
+    ) {
         this.runner = requireNonNull(runner);
         this.stackContext = requireNonNull(stackContext);
+        this.instance = instance;
+        this.instrumentation = requireNonNull(instrumentation);
+        this.metrics = metrics;
+        this.rpcRecorder = requireNonNull(rpcRecorder);
     }
 
     @InternalUse
     public static PulumiInternal fromEnvironment(StackOptions options) {
         var deployment = DeploymentImpl.fromEnvironment();
-        return completeConfiguration(deployment, options);
+        return completeConfiguration(deployment, Deployment.getInstance(), options, true);
     }
 
+    /**
+     * Creates an inline program. The deployment is not installed on the calling thread,
+     * so several inline programs can be created and run concurrently from the same threads.
+     */
     @InternalUse
     public static PulumiInternal fromInline(InlineDeploymentSettings settings, StackOptions options) {
-        var deployment = DeploymentImpl.fromInline(settings);
-        return completeConfiguration(deployment, options);
+        var deployment = new DeploymentImpl(DeploymentImpl.DeploymentState.fromInline(settings));
+        return completeConfiguration(deployment, new DeploymentInstanceInternal(deployment), options, true);
     }
 
-    private static PulumiInternal completeConfiguration(DeploymentImpl deployment, StackOptions options) {
-        var instance = Deployment.getInstance();
+    @InternalUse
+    public static PulumiInternal fromState(DeploymentImpl.DeploymentState state, StackOptions options) {
+        var deployment = new DeploymentImpl(state);
+        return completeConfiguration(deployment, new DeploymentInstanceInternal(deployment), options, false);
+    }
+
+    /**
+     * @param registerMetrics whether to expose the metrics of the deployment over JMX until the program completes
+     */
+    private static PulumiInternal completeConfiguration(
+            DeploymentImpl deployment, DeploymentInstance instance, StackOptions options, boolean registerMetrics
+    ) {
         var organizationName = deployment.getOrganizationName();
         var projectName = deployment.getProjectName();
         var stackName = deployment.getStackName();
         var runner = deployment.getRunner();
         var log = deployment.getLog();
+        options.performanceReport().ifPresent(deployment.getPerformanceReport()::enable);
 
         Function<String, Config> configFactory = (name) -> new Config(instance.getConfig(), name);
         var config = new ConfigContextInternal(projectName, configFactory);
@@ -71,7 +131,14 @@ public class PulumiInternal implements Pulumi, Pulumi.API {
         var ctx = new ContextInternal(
                 organizationName, projectName, stackName, logging, config, outputs, options.resourceTransformations()
         );
-        return new PulumiInternal(runner, ctx);
+        DeploymentMetrics metrics = null;
+        if (registerMetrics) {
+            metrics = deployment.getMetrics();
+            metrics.register(projectName, stackName);
+        }
+        return new PulumiInternal(
+                runner, ctx, instance, deployment.getInstrumentation(), metrics, deployment.getRpcRecorder()
+        );
     }
 
     public void run(Consumer<Context> stack) {
@@ -81,12 +148,34 @@ public class PulumiInternal implements Pulumi, Pulumi.API {
     public CompletableFuture<Integer> runAsync(Consumer<Context> stackCallback) {
         return runAsyncResult(stackCallback)
                 .thenApply(r -> r.exitCode())
-                .whenComplete((result, throwable) -> Instrumentation.shutdown());
+                .whenComplete((result, throwable) -> {
+                    instrumentation.shutdown();
+                    unregisterMetrics();
+                    rpcRecorder.close();
+                });
+    }
+
+    /**
+     * Invalidates the deployment of this program once it has completed.
+     * Other deployments running in the same JVM are not affected.
+     */
+    @InternalUse
+    public void destroy() {
+        if (instance != null) {
+            DeploymentInstanceHolder.destroyInstance(instance);
+        }
+        unregisterMetrics();
+    }
+
+    private void unregisterMetrics() {
+        if (metrics != null) {
+            metrics.unregister();
+        }
     }
 
     @InternalUse
     public <T> CompletableFuture<T> runInlineAsync(Function<Context, CompletableFuture<T>> runnerFunc) {
-        return runner.runAsync(() -> runnerFunc.apply(stackContext))
+        return withInstance(() -> runner.runAsync(() -> runnerFunc.apply(stackContext)))
                 .thenCompose(result -> result.result()
                         .map(CompletableFuture::completedFuture)
                         .orElseGet(() -> {
@@ -102,12 +191,13 @@ public class PulumiInternal implements Pulumi, Pulumi.API {
                             return CompletableFuture.failedFuture(
                                     new IllegalStateException("No result or exceptions available"));
                         }))
-                .thenCompose(Function.identity());
+                .thenCompose(Function.identity())
+                .whenComplete((result, throwable) -> unregisterMetrics());
     }
 
     protected CompletableFuture<Result<Stack>> runAsyncResult(Consumer<Context> stackCallback) {
         // Stack must be created and set globally before running any user code
-        return runner.runAsync(
+        return withInstance(() -> runner.runAsync(
                 () -> Stack.factory(
                         this.stackContext.projectName(),
                         this.stackContext.stackName(),
@@ -118,6 +208,13 @@ public class PulumiInternal implements Pulumi, Pulumi.API {
                     // after user code was executed
                     return this.stackContext.exports();
                 })
-        );
+        ));
+    }
+
+    private <T> T withInstance(Supplier<T> callback) {
+        if (instance == null) {
+            return callback.get();
+        }
+        return DeploymentInstanceHolder.callWithInstance(instance, callback);
     }
 }
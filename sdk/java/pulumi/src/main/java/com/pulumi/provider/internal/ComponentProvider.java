@@ -1,15 +1,25 @@
 package com.pulumi.provider.internal;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.Package;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.reflections.Reflections;
 
+import com.google.common.base.Suppliers;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
@@ -24,31 +34,104 @@ import com.pulumi.resources.ComponentResource;
 import com.pulumi.resources.ComponentResourceOptions;
 
 public class ComponentProvider implements Provider {
+    /**
+     * The name of the schema resource generated at build time by {@link SchemaGenerator},
+     * relative to the package of the components.
+     */
+    public static final String SCHEMA_RESOURCE = "schema.json";
+
+    private static final Gson SCHEMA_GSON = new GsonBuilder().setPrettyPrinting().create();
+
     private final Metadata metadata;
     private final String basePackageName;
+    private final ClassLoader classLoader;
+    private final ConcurrentMap<String, ComponentType> componentTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<Object>, GetSchemaResponse> schemas = new ConcurrentHashMap<>();
+    private final Supplier<String> schema = Suppliers.memoize(this::loadSchema);
 
     public ComponentProvider(Metadata metadata, Package pkg) {
+        this(metadata, pkg.getName(), Thread.currentThread().getContextClassLoader());
+    }
+
+    ComponentProvider(Metadata metadata, String basePackageName, ClassLoader classLoader) {
         this.metadata = metadata;
-        this.basePackageName = pkg.getName();
+        this.basePackageName = basePackageName;
+        this.classLoader = classLoader;
     }
-    
+
     @Override
     public CompletableFuture<GetSchemaResponse> getSchema(GetSchemaRequest request) {
+        // The engine asks for the schema on every operation that touches the provider,
+        // so it is computed once and cached per (version, subpackage).
+        var key = Arrays.<Object>asList(
+            request.getVersion(), request.getSubpackageName(), request.getSubpackageVersion());
+        return CompletableFuture.completedFuture(
+            schemas.computeIfAbsent(key, __ -> new GetSchemaResponse(schema.get())));
+    }
+
+    /**
+     * Serves the schema generated at build time if it was packaged with the components,
+     * and otherwise generates it by scanning the classpath.
+     */
+    private String loadSchema() {
+        var resource = basePackageName.replace('.', '/') + "/" + SCHEMA_RESOURCE;
+        try (var stream = classLoader == null ? null : classLoader.getResourceAsStream(resource)) {
+            if (stream != null) {
+                return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the component schema: " + resource, e);
+        }
+        return generateSchema(this.metadata, this.basePackageName);
+    }
+
+    /**
+     * Generates the schema of all the components in the given package.
+     *
+     * @param metadata the metadata of the package
+     * @param basePackageName the Java package containing the components
+     * @return the schema, as JSON
+     */
+    static String generateSchema(Metadata metadata, String basePackageName) {
         // Find all component classes in the package
-        Reflections reflections = new Reflections(this.basePackageName);
+        Reflections reflections = new Reflections(basePackageName);
         Set<Class<? extends ComponentResource>> componentClasses = reflections.getSubTypesOf(ComponentResource.class);
-        
+
         // Generate schema for all component classes
-        var schema = ComponentAnalyzer.generateSchema(this.metadata, componentClasses.toArray(new Class<?>[0]));
+        var schema = ComponentAnalyzer.generateSchema(metadata, componentClasses.toArray(new Class<?>[0]));
 
         // Serialize the schema to JSON
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        return CompletableFuture.completedFuture(new GetSchemaResponse(gson.toJson(schema)));
+        return SCHEMA_GSON.toJson(schema);
     }
 
     @Override
     public CompletableFuture<ConstructResponse> construct(ConstructRequest request) {
-        String type = request.getType();
+        var componentType = componentTypes.computeIfAbsent(request.getType(), this::resolveComponentType);
+
+        // Deserialize the inputs to the Args type
+        Object args = PropertyValueSerializer.deserialize(PropertyValue.of(request.getInputs()), componentType.argsClass);
+
+        // Create component instance using reflection
+        ComponentResource comp = null;
+        try {
+            comp = (ComponentResource) componentType.constructor.newInstance(request.getName(), args, request.getOptions());
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException("Failed to construct component: " + request.getType(), e);
+        }
+
+        // Create the response once the URN and all the exported outputs are known,
+        // without blocking the calling thread
+        var state = PropertyValueSerializer.stateFromComponentResourceAsync(comp);
+        return Internal.of(comp.urn()).getValueNullable()
+                .thenCombine(state, (urn, properties) ->
+                        new ConstructResponse(urn, properties, new HashMap<String, Set<String>>()));
+    }
+
+    /**
+     * Resolves and validates the component class of the given type token.
+     * The result is cached, so this only happens on the first construct of each type.
+     */
+    private ComponentType resolveComponentType(String type) {
         String[] parts = type.split(":");
         if (parts.length != 3) {
             throw new IllegalArgumentException(
@@ -65,11 +148,11 @@ public class ComponentProvider implements Provider {
         String className = parts[2];
 
         // Get the component class using the provided base package name
-        Class<?> componentClass = null;                
+        Class<?> componentClass = null;
         try {
             componentClass = Class.forName(basePackageName + "." + className);
         } catch (ClassNotFoundException e) {
-            throw new RuntimeException("Failed to construct component: " + request.getType(), e);
+            throw new RuntimeException("Failed to construct component: " + type, e);
         }
 
         // Validate the class extends ComponentResource
@@ -84,8 +167,8 @@ public class ComponentProvider implements Provider {
             throw new IllegalArgumentException(
                 String.format("Component %s must have exactly one constructor, found %d", className, constructors.length));
         }
-                       
-        // Validate constructor has at least 2 parameters
+
+        // Validate constructor has exactly 3 parameters
         var constructor = constructors[0];
         constructor.setAccessible(true);
         var paramTypes = constructor.getParameterTypes();
@@ -93,28 +176,24 @@ public class ComponentProvider implements Provider {
             throw new IllegalArgumentException(
                 String.format("Component %s constructor must have exactly 3 parameters, found %d", className, paramTypes.length));
         }
-        
+
         // Get and validate the args class
         Class<?> argsClass = paramTypes[1];
         if (!com.pulumi.resources.ResourceArgs.class.isAssignableFrom(argsClass)) {
             throw new IllegalArgumentException(
                 String.format("Component %s args parameter must extend ResourceArgs, found %s", className, argsClass.getName()));
         }
-        
-        // Deserialize the inputs to the Args type
-        Object args = PropertyValueSerializer.deserialize(PropertyValue.of(request.getInputs()), argsClass);
-        
-        // Create component instance using reflection
-        ComponentResource comp = null;
-        try {
-            comp = (ComponentResource) constructor.newInstance(request.getName(), args, request.getOptions());
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException("Failed to construct component: " + request.getType(), e);
+
+        return new ComponentType(constructor, argsClass);
+    }
+
+    private static final class ComponentType {
+        private final Constructor<?> constructor;
+        private final Class<?> argsClass;
+
+        private ComponentType(Constructor<?> constructor, Class<?> argsClass) {
+            this.constructor = constructor;
+            this.argsClass = argsClass;
         }
-        
-        // Create the response
-        var state = PropertyValueSerializer.stateFromComponentResource(comp);
-        return Internal.of(comp.urn()).getValueNullable()
-                .thenApply(urn -> new ConstructResponse(urn, state, new HashMap<String, Set<String>>()));
     }
 }
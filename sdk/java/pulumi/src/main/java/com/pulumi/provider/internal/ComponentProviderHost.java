@@ -6,10 +6,27 @@ import java.util.ArrayList;
 public class ComponentProviderHost {
     private final Metadata metadata;
     private final Package currentPackage;
+    private final ResourceProviderService.Options options;
 
     public ComponentProviderHost(String name, Package currentPackage) {
+        this(name, currentPackage, ResourceProviderService.Options.builder().build());
+    }
+
+    /**
+     * Creates a host serving the components with the given threading and transport settings, e.g.
+     * constructing at most 256 components at a time:
+     * <pre>
+     * ResourceProviderService.Options.builder()
+     *     .serverThreads(8)
+     *     .keepAlive(Duration.ofMinutes(1), Duration.ofSeconds(20))
+     *     .maxConcurrency(256)
+     *     .build()
+     * </pre>
+     */
+    public ComponentProviderHost(String name, Package currentPackage, ResourceProviderService.Options options) {
         this.metadata = new Metadata(name);
         this.currentPackage = currentPackage;
+        this.options = options;
     }
 
     public void start(String[] args) throws IOException, InterruptedException {
@@ -24,7 +41,7 @@ public class ComponentProviderHost {
         }
 
         var provider = new ComponentProvider(metadata, currentPackage);
-        var server = new ResourceProviderService(engineAddress, provider);
+        var server = new ResourceProviderService(engineAddress, provider, options);
         server.startAndBlockUntilShutdown();
     }
 
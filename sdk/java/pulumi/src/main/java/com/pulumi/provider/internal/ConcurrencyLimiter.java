@@ -0,0 +1,128 @@
+package com.pulumi.provider.internal;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Starts asynchronous tasks on an executor, with at most a given number of them
+ * in flight at any time. Tasks over the limit are queued, without blocking a thread.
+ * <p>
+ * Queued tasks are started in a loop by a single thread at a time, rather than by
+ * the completion of the previous task, so that tasks completing synchronously, e.g.
+ * on a direct executor, do not start the next ones recursively.
+ */
+final class ConcurrencyLimiter {
+    private final Executor executor;
+    private final int maxConcurrency;
+    private final Queue<QueuedTask<?>> pending = new ArrayDeque<>();
+    private int running;
+    private boolean draining;
+
+    ConcurrencyLimiter(Executor executor, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive, got: " + maxConcurrency);
+        }
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Starts the task once a slot is available. Cancelling the returned future
+     * cancels the future of the task, or prevents the task from starting.
+     */
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+        var queued = new QueuedTask<>(task);
+        synchronized (this) {
+            pending.add(queued);
+        }
+        drain();
+        return queued.result;
+    }
+
+    synchronized int running() {
+        return running;
+    }
+
+    private void release() {
+        synchronized (this) {
+            running--;
+        }
+        drain();
+    }
+
+    /**
+     * Starts queued tasks while slots are available, unless another thread is already
+     * doing so, in which case that thread picks up the released slots.
+     */
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            QueuedTask<?> next;
+            synchronized (this) {
+                next = running < maxConcurrency ? pending.poll() : null;
+                if (next == null) {
+                    draining = false;
+                    return;
+                }
+                running++;
+            }
+            execute(next);
+        }
+    }
+
+    private void execute(QueuedTask<?> task) {
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            // e.g. the executor was shut down, the task will never run
+            task.result.completeExceptionally(e);
+            release();
+        }
+    }
+
+    private final class QueuedTask<T> implements Runnable {
+        private final Supplier<CompletableFuture<T>> task;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private QueuedTask(Supplier<CompletableFuture<T>> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                // cancelled while queued
+                release();
+                return;
+            }
+            CompletableFuture<T> future;
+            try {
+                future = task.get();
+            } catch (Throwable t) {
+                future = CompletableFuture.failedFuture(t);
+            }
+            var started = future;
+            started.whenComplete((value, error) -> {
+                release();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    started.cancel(true);
+                }
+            });
+        }
+    }
+}
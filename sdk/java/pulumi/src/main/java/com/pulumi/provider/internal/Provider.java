@@ -29,4 +29,72 @@ public interface Provider {
      * @return A future containing the construction response
      */
     CompletableFuture<ConstructResponse> construct(ConstructRequest request);
+
+    /**
+     * Validate the inputs of a custom resource, and return them with any defaults applied.
+     * @param request The check request
+     * @return A future containing the check response
+     */
+    default CompletableFuture<CheckResponse> check(CheckRequest request) {
+        return notImplemented("check");
+    }
+
+    /**
+     * Compute the differences between the old and new properties of a custom resource.
+     * @param request The diff request
+     * @return A future containing the diff response
+     */
+    default CompletableFuture<DiffResponse> diff(DiffRequest request) {
+        return notImplemented("diff");
+    }
+
+    /**
+     * Create a custom resource, and return its ID and output properties.
+     * @param request The create request
+     * @return A future containing the create response
+     */
+    default CompletableFuture<CreateResponse> create(CreateRequest request) {
+        return notImplemented("create");
+    }
+
+    /**
+     * Read the current live state of a custom resource.
+     * @param request The read request
+     * @return A future containing the read response
+     */
+    default CompletableFuture<ReadResponse> read(ReadRequest request) {
+        return notImplemented("read");
+    }
+
+    /**
+     * Update an existing custom resource, and return its new output properties.
+     * @param request The update request
+     * @return A future containing the update response
+     */
+    default CompletableFuture<UpdateResponse> update(UpdateRequest request) {
+        return notImplemented("update");
+    }
+
+    /**
+     * Delete an existing custom resource.
+     * @param request The delete request
+     * @return A future completed once the resource is deleted
+     */
+    default CompletableFuture<Void> delete(DeleteRequest request) {
+        return notImplemented("delete");
+    }
+
+    /**
+     * Signal the provider to gracefully shut down, abandoning any outstanding operations.
+     * The futures of the outstanding operations are cancelled by the provider host after this call.
+     * @return A future completed once the provider has been signalled
+     */
+    default CompletableFuture<Void> cancel() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static <T> CompletableFuture<T> notImplemented(String method) {
+        return CompletableFuture.failedFuture(
+            new UnsupportedOperationException(String.format("The method '%s' is not implemented", method)));
+    }
 }
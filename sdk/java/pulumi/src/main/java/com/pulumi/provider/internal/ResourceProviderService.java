@@ -1,20 +1,44 @@
 package com.pulumi.provider.internal;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
+import javax.annotation.Nullable;
+
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.Empty;
 import com.google.protobuf.Struct;
-import com.pulumi.deployment.internal.DeploymentInstanceHolder;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
 import io.grpc.Status;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.unix.DomainSocketAddress;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 import com.pulumi.core.Alias;
@@ -32,12 +56,24 @@ public class ResourceProviderService {
     private static final Logger logger = Logger.getLogger(ResourceProviderService.class.getName());
 
     Server server; // Exposed as private-package for testing.
+    @Nullable
+    Server additionalServer; // Exposed as private-package for testing.
+    @Nullable
+    private ExecutorService serverExecutor;
+    @Nullable
+    private EventLoopGroup domainSocketEventLoops;
     private final String engineAddress;
     private final Provider implementation;
+    private final Options options;
 
     public ResourceProviderService(String engineAddress, Provider implementation) {
+        this(engineAddress, implementation, Options.builder().build());
+    }
+
+    public ResourceProviderService(String engineAddress, Provider implementation, Options options) {
         this.engineAddress = engineAddress;
         this.implementation = implementation;
+        this.options = Objects.requireNonNull(options);
     }
 
     public void startAndBlockUntilShutdown() throws IOException, InterruptedException {
@@ -46,11 +82,23 @@ public class ResourceProviderService {
     }
 
     void start() throws IOException {
-        server = createServerBuilder()
-            .addService(new ResourceProviderImpl(this.engineAddress, this.implementation))
+        var service = new ResourceProviderImpl(
+            this.engineAddress, this.implementation, this::createDeployment, this.options);
+        serverExecutor = this.options.createServerExecutor().orElse(null);
+        server = configure(createServerBuilder())
+            .addService(service)
             .intercept(new ErrorHandlingInterceptor())
             .build()
             .start();
+
+        var listener = this.options.getAdditionalListener().or(this::createDomainSocketServerBuilder);
+        if (listener.isPresent()) {
+            additionalServer = configure(listener.get())
+                .addService(service)
+                .intercept(new ErrorHandlingInterceptor())
+                .build()
+                .start();
+        }
         
         // Print the actual bound port for the parent process to read
         System.out.println(server.getPort());
@@ -67,10 +115,20 @@ public class ResourceProviderService {
         });
     }
 
-    private void stop() throws InterruptedException {
+    void stop() throws InterruptedException {
+        if (additionalServer != null) {
+            additionalServer.shutdown().awaitTermination(30, TimeUnit.SECONDS);
+        }
         if (server != null) {
             server.shutdown().awaitTermination(30, TimeUnit.SECONDS);
         }
+        // the servers do not shut down the executor and event loops they are given
+        if (serverExecutor != null) {
+            serverExecutor.shutdown();
+        }
+        if (domainSocketEventLoops != null) {
+            domainSocketEventLoops.shutdownGracefully();
+        }
     }
 
     private void blockUntilShutdown() throws InterruptedException {
@@ -83,13 +141,79 @@ public class ResourceProviderService {
         return ServerBuilder.forPort(0);
     }
 
+    /**
+     * Creates the builder of the server listening on the Unix domain socket of the options, if any.
+     * Domain sockets require the native epoll transport of Linux; without it, the provider is
+     * only served over TCP.
+     */
+    private Optional<ServerBuilder<?>> createDomainSocketServerBuilder() {
+        var path = options.getUnixDomainSocket();
+        if (path.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!Epoll.isAvailable()) {
+            logger.warning(String.format("Not listening on '%s', the native epoll transport is not available: %s",
+                path.get(), Epoll.unavailabilityCause()));
+            return Optional.empty();
+        }
+        domainSocketEventLoops = new EpollEventLoopGroup(0, new ThreadFactoryBuilder()
+            .setNameFormat("pulumi-provider-uds-%d")
+            .setDaemon(true)
+            .build());
+        return Optional.of(NettyServerBuilder.forAddress(new DomainSocketAddress(path.get().toFile()))
+            .channelType(EpollServerDomainSocketChannel.class)
+            .bossEventLoopGroup(domainSocketEventLoops)
+            .workerEventLoopGroup(domainSocketEventLoops));
+    }
+
+    /**
+     * Applies the threading and transport settings of the options. Settings left to their
+     * defaults are not applied, as not all transports support them.
+     */
+    private ServerBuilder<?> configure(ServerBuilder<?> builder) {
+        if (serverExecutor != null) {
+            builder.executor(serverExecutor);
+        } else if (options.getServerExecutor() != null) {
+            builder.executor(options.getServerExecutor());
+        }
+        builder.maxInboundMessageSize(options.getMaxInboundMessageSize());
+        if (options.getKeepAliveTime() != null) {
+            builder.keepAliveTime(options.getKeepAliveTime().toNanos(), TimeUnit.NANOSECONDS);
+            builder.keepAliveTimeout(options.getKeepAliveTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (options.getPermitKeepAliveTime() != null) {
+            builder.permitKeepAliveTime(options.getPermitKeepAliveTime().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return builder;
+    }
+
+    /**
+     * Creates the inline deployment a construct call runs in.
+     */
+    protected PulumiInternal createDeployment(InlineDeploymentSettings settings) {
+        return PulumiInternal.fromInline(settings, StackOptions.builder().build());
+    }
+
     static class ResourceProviderImpl extends pulumirpc.ResourceProviderGrpc.ResourceProviderImplBase {
         private final String engineAddress;
         private final Provider implementation;
+        private final Function<InlineDeploymentSettings, PulumiInternal> deploymentFactory;
+        private final ConcurrencyLimiter limiter;
+        private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
 
         public ResourceProviderImpl(String engineAddress, Provider implementation) {
+            this(engineAddress, implementation,
+                settings -> PulumiInternal.fromInline(settings, StackOptions.builder().build()),
+                Options.builder().build());
+        }
+
+        ResourceProviderImpl(String engineAddress, Provider implementation,
+                             Function<InlineDeploymentSettings, PulumiInternal> deploymentFactory,
+                             Options options) {
             this.engineAddress = engineAddress;
             this.implementation = implementation;
+            this.deploymentFactory = deploymentFactory;
+            this.limiter = new ConcurrencyLimiter(options.getHandlerExecutor(), options.getMaxConcurrency());
         }
 
         @Override
@@ -232,8 +356,12 @@ public class ResourceProviderService {
                 .configSecretKeys(ImmutableSet.copyOf(request.getConfigSecretKeysList()))
                 .build();
 
-            var runner = PulumiInternal.fromInline(inlineDeploymentSettings, StackOptions.builder().build());
-            runner.runInlineAsync(ctx -> this.implementation.construct(domRequest))
+            // the slot is held until the inline deployment of the component completes
+            submit(responseObserver, () -> {
+                var runner = this.deploymentFactory.apply(inlineDeploymentSettings);
+                return runner.runInlineAsync(ctx -> this.implementation.construct(domRequest))
+                    .whenComplete((domResponse, error) -> runner.destroy());
+            })
                 .whenComplete((domResponse, error) -> 
                     handleCompletion(error, domResponse, responseObserver, response -> {
                         var domState = response.getState();
@@ -255,6 +383,179 @@ public class ResourceProviderService {
                 );
         }
 
+        @Override
+        public void check(pulumirpc.Provider.CheckRequest request,
+                          StreamObserver<pulumirpc.Provider.CheckResponse> responseObserver) {
+            var domRequest = new com.pulumi.provider.internal.models.CheckRequest(
+                request.getUrn(), request.getName(), request.getType(),
+                unmarshal(request.getOlds()), unmarshal(request.getNews()),
+                request.getRandomSeed().toByteArray());
+
+            submit(responseObserver, () -> this.implementation.check(domRequest))
+                .whenComplete((domResponse, error) ->
+                    handleCompletion(error, domResponse, responseObserver, response -> {
+                        var responseBuilder = pulumirpc.Provider.CheckResponse.newBuilder()
+                            .setInputs(PropertyValue.marshalProperties(response.getInputs()));
+                        if (response.getFailures() != null) {
+                            response.getFailures().forEach(failure -> responseBuilder.addFailures(
+                                pulumirpc.Provider.CheckFailure.newBuilder()
+                                    .setProperty(failure.getProperty())
+                                    .setReason(failure.getReason())));
+                        }
+                        responseObserver.onNext(responseBuilder.build());
+                    })
+                );
+        }
+
+        @Override
+        public void diff(pulumirpc.Provider.DiffRequest request,
+                         StreamObserver<pulumirpc.Provider.DiffResponse> responseObserver) {
+            var domRequest = new com.pulumi.provider.internal.models.DiffRequest(
+                request.getId(), request.getUrn(), request.getName(), request.getType(),
+                unmarshal(request.getOlds()), unmarshal(request.getNews()), unmarshal(request.getOldInputs()),
+                request.getIgnoreChangesList());
+
+            submit(responseObserver, () -> this.implementation.diff(domRequest))
+                .whenComplete((domResponse, error) ->
+                    handleCompletion(error, domResponse, responseObserver, response -> {
+                        var changes = response.getChanges() == null
+                            ? pulumirpc.Provider.DiffResponse.DiffChanges.DIFF_UNKNOWN
+                            : response.getChanges()
+                                ? pulumirpc.Provider.DiffResponse.DiffChanges.DIFF_SOME
+                                : pulumirpc.Provider.DiffResponse.DiffChanges.DIFF_NONE;
+                        var responseBuilder = pulumirpc.Provider.DiffResponse.newBuilder()
+                            .setChanges(changes)
+                            .addAllReplaces(emptyIfNull(response.getReplaces()))
+                            .addAllStables(emptyIfNull(response.getStables()))
+                            .setDeleteBeforeReplace(response.isDeleteBeforeReplace())
+                            .addAllDiffs(emptyIfNull(response.getDiffs()));
+                        if (response.getDetailedDiff() != null) {
+                            responseBuilder.setHasDetailedDiff(true);
+                            response.getDetailedDiff().forEach((path, diff) -> responseBuilder.putDetailedDiff(path,
+                                pulumirpc.Provider.PropertyDiff.newBuilder()
+                                    .setKind(pulumirpc.Provider.PropertyDiff.Kind.valueOf(diff.getKind().name()))
+                                    .setInputDiff(diff.isInputDiff())
+                                    .build()));
+                        }
+                        responseObserver.onNext(responseBuilder.build());
+                    })
+                );
+        }
+
+        @Override
+        public void create(pulumirpc.Provider.CreateRequest request,
+                           StreamObserver<pulumirpc.Provider.CreateResponse> responseObserver) {
+            var domRequest = new com.pulumi.provider.internal.models.CreateRequest(
+                request.getUrn(), request.getName(), request.getType(), unmarshal(request.getProperties()),
+                deserializeTimeout(request.getTimeout()), request.getPreview());
+
+            submit(responseObserver, () -> this.implementation.create(domRequest))
+                .whenComplete((domResponse, error) ->
+                    handleCompletion(error, domResponse, responseObserver, response -> {
+                        var grpcResponse = pulumirpc.Provider.CreateResponse.newBuilder()
+                            .setId(response.getId() == null ? "" : response.getId())
+                            .setProperties(PropertyValue.marshalProperties(response.getProperties()))
+                            .build();
+                        responseObserver.onNext(grpcResponse);
+                    })
+                );
+        }
+
+        @Override
+        public void read(pulumirpc.Provider.ReadRequest request,
+                         StreamObserver<pulumirpc.Provider.ReadResponse> responseObserver) {
+            var domRequest = new com.pulumi.provider.internal.models.ReadRequest(
+                request.getId(), request.getUrn(), request.getName(), request.getType(),
+                unmarshal(request.getProperties()), unmarshal(request.getInputs()));
+
+            submit(responseObserver, () -> this.implementation.read(domRequest))
+                .whenComplete((domResponse, error) ->
+                    handleCompletion(error, domResponse, responseObserver, response -> {
+                        var responseBuilder = pulumirpc.Provider.ReadResponse.newBuilder()
+                            .setId(response.getId() == null ? "" : response.getId())
+                            .setProperties(PropertyValue.marshalProperties(response.getProperties()));
+                        if (response.getInputs() != null) {
+                            responseBuilder.setInputs(PropertyValue.marshalProperties(response.getInputs()));
+                        }
+                        responseObserver.onNext(responseBuilder.build());
+                    })
+                );
+        }
+
+        @Override
+        public void update(pulumirpc.Provider.UpdateRequest request,
+                           StreamObserver<pulumirpc.Provider.UpdateResponse> responseObserver) {
+            var domRequest = new com.pulumi.provider.internal.models.UpdateRequest(
+                request.getId(), request.getUrn(), request.getName(), request.getType(),
+                unmarshal(request.getOlds()), unmarshal(request.getNews()), unmarshal(request.getOldInputs()),
+                deserializeTimeout(request.getTimeout()), request.getIgnoreChangesList(), request.getPreview());
+
+            submit(responseObserver, () -> this.implementation.update(domRequest))
+                .whenComplete((domResponse, error) ->
+                    handleCompletion(error, domResponse, responseObserver, response -> {
+                        var grpcResponse = pulumirpc.Provider.UpdateResponse.newBuilder()
+                            .setProperties(PropertyValue.marshalProperties(response.getProperties()))
+                            .build();
+                        responseObserver.onNext(grpcResponse);
+                    })
+                );
+        }
+
+        @Override
+        public void delete(pulumirpc.Provider.DeleteRequest request, StreamObserver<Empty> responseObserver) {
+            var domRequest = new com.pulumi.provider.internal.models.DeleteRequest(
+                request.getId(), request.getUrn(), request.getName(), request.getType(),
+                unmarshal(request.getProperties()), unmarshal(request.getOldInputs()),
+                deserializeTimeout(request.getTimeout()));
+
+            submit(responseObserver, () -> this.implementation.delete(domRequest))
+                .whenComplete((domResponse, error) ->
+                    handleCompletion(error, domResponse, responseObserver,
+                        response -> responseObserver.onNext(Empty.getDefaultInstance()))
+                );
+        }
+
+        @Override
+        public void cancel(Empty request, StreamObserver<Empty> responseObserver) {
+            this.implementation.cancel()
+                .whenComplete((domResponse, error) -> {
+                    // abandon the outstanding operations, whether or not the provider could be signalled
+                    inFlight.forEach(operation -> operation.cancel(false));
+                    handleCompletion(error, domResponse, responseObserver,
+                        response -> responseObserver.onNext(Empty.getDefaultInstance()));
+                });
+        }
+
+        /**
+         * Runs a construct or resource operation within the concurrency limit, cancelling it if the call
+         * is cancelled by the engine or if the provider is cancelled.
+         */
+        private <T> CompletableFuture<T> submit(StreamObserver<?> responseObserver,
+                                                Supplier<CompletableFuture<T>> operation) {
+            // tracked before the operation starts, so that a concurrent cancel cannot miss it
+            var future = new CompletableFuture<T>();
+            inFlight.add(future);
+            future.whenComplete((result, error) -> inFlight.remove(future));
+            if (responseObserver instanceof ServerCallStreamObserver) {
+                ((ServerCallStreamObserver<?>) responseObserver).setOnCancelHandler(() -> future.cancel(false));
+            }
+
+            var submitted = this.limiter.submit(operation);
+            submitted.whenComplete((result, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(result);
+                }
+            });
+            future.whenComplete((result, error) -> {
+                if (future.isCancelled()) {
+                    submitted.cancel(false);
+                }
+            });
+            return future;
+        }
+
         private <T> void handleCompletion(Throwable error, T response, 
                 StreamObserver<?> responseObserver, 
                 java.util.function.Consumer<T> successHandler) {
@@ -262,7 +563,13 @@ public class ResourceProviderService {
                 Throwable cause = error instanceof java.util.concurrent.CompletionException 
                     ? error.getCause() 
                     : error;
-                responseObserver.onError(Status.INTERNAL
+                Status status = Status.INTERNAL;
+                if (cause instanceof CancellationException) {
+                    status = Status.CANCELLED;
+                } else if (cause instanceof UnsupportedOperationException) {
+                    status = Status.UNIMPLEMENTED;
+                }
+                responseObserver.onError(status
                     .withDescription(cause.getMessage())
                     .withCause(cause)
                     .asRuntimeException());
@@ -270,7 +577,6 @@ public class ResourceProviderService {
             }
             successHandler.accept(response);
             responseObserver.onCompleted();
-            DeploymentInstanceHolder.internalUnsafeDestroyInstance();
         }
 
         private static CustomTimeouts deserializeTimeouts(pulumirpc.Provider.ConstructRequest.CustomTimeouts customTimeouts)
@@ -283,6 +589,15 @@ public class ResourceProviderService {
                 .build();
         }
 
+        @Nullable
+        private static Duration deserializeTimeout(double seconds) {
+            return seconds > 0 ? Duration.ofMillis((long) (seconds * 1000)) : null;
+        }
+
+        private static <T> List<T> emptyIfNull(List<T> list) {
+            return list == null ? List.of() : list;
+        }
+
         private static Map<String, PropertyValue> unmarshal(Struct properties) {
             if (properties == null) {
                 return Collections.emptyMap();
@@ -290,4 +605,280 @@ public class ResourceProviderService {
             return PropertyValue.unmarshalProperties(properties);
         }
     }
-} 
+
+    /**
+     * Options of the resource provider server: how its calls are threaded and the settings of its transport.
+     */
+    public static final class Options {
+        /**
+         * The maximum size of a message, matching the limit of the clients of the engine and monitor.
+         */
+        public static final int DEFAULT_MAX_INBOUND_MESSAGE_SIZE = 400 * 1024 * 1024;
+
+        private final Executor handlerExecutor;
+        private final int maxConcurrency;
+        @Nullable
+        private final Executor serverExecutor;
+        @Nullable
+        private final Supplier<ExecutorService> serverExecutorFactory;
+        private final int maxInboundMessageSize;
+        @Nullable
+        private final Duration keepAliveTime;
+        @Nullable
+        private final Duration keepAliveTimeout;
+        @Nullable
+        private final Duration permitKeepAliveTime;
+        @Nullable
+        private final ServerBuilder<?> additionalListener;
+        @Nullable
+        private final Path unixDomainSocket;
+
+        private Options(Builder builder) {
+            this.handlerExecutor = builder.handlerExecutor;
+            this.maxConcurrency = builder.maxConcurrency;
+            this.serverExecutor = builder.serverExecutor;
+            this.serverExecutorFactory = builder.serverExecutorFactory;
+            this.maxInboundMessageSize = builder.maxInboundMessageSize;
+            this.keepAliveTime = builder.keepAliveTime;
+            this.keepAliveTimeout = builder.keepAliveTimeout;
+            this.permitKeepAliveTime = builder.permitKeepAliveTime;
+            this.additionalListener = builder.additionalListener;
+            this.unixDomainSocket = builder.unixDomainSocket;
+        }
+
+        /**
+         * @return the executor the resource operations of the provider are started on
+         */
+        public Executor getHandlerExecutor() {
+            return handlerExecutor;
+        }
+
+        /**
+         * @return the maximum number of constructs and resource operations in flight at the same time
+         */
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        /**
+         * @return the executor given to handle the gRPC calls on, or null if the server creates its own
+         */
+        @Nullable
+        public Executor getServerExecutor() {
+            return serverExecutor;
+        }
+
+        /**
+         * Creates the executor the gRPC calls are handled on, owned and shut down by the server.
+         *
+         * @return the new executor, or empty if none was requested
+         */
+        Optional<ExecutorService> createServerExecutor() {
+            return Optional.ofNullable(serverExecutorFactory).map(Supplier::get);
+        }
+
+        /**
+         * @return the maximum size of an inbound message, in bytes
+         */
+        public int getMaxInboundMessageSize() {
+            return maxInboundMessageSize;
+        }
+
+        /**
+         * @return the time without reads after which the server pings the client, or null for the transport default
+         */
+        @Nullable
+        public Duration getKeepAliveTime() {
+            return keepAliveTime;
+        }
+
+        /**
+         * @return the time the server waits for a ping acknowledgement, or null for the transport default
+         */
+        @Nullable
+        public Duration getKeepAliveTimeout() {
+            return keepAliveTimeout;
+        }
+
+        /**
+         * @return the most aggressive keepalive the clients are permitted, or null for the transport default
+         */
+        @Nullable
+        public Duration getPermitKeepAliveTime() {
+            return permitKeepAliveTime;
+        }
+
+        /**
+         * @return the builder of the server also serving the provider, if any
+         */
+        public Optional<ServerBuilder<?>> getAdditionalListener() {
+            return Optional.ofNullable(additionalListener);
+        }
+
+        /**
+         * @return the Unix domain socket the provider is also served on, if any
+         */
+        public Optional<Path> getUnixDomainSocket() {
+            return Optional.ofNullable(unixDomainSocket);
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public static final class Builder {
+            private Executor handlerExecutor = MoreExecutors.directExecutor();
+            private int maxConcurrency = Integer.MAX_VALUE;
+            @Nullable
+            private Executor serverExecutor;
+            @Nullable
+            private Supplier<ExecutorService> serverExecutorFactory;
+            private int maxInboundMessageSize = DEFAULT_MAX_INBOUND_MESSAGE_SIZE;
+            @Nullable
+            private Duration keepAliveTime;
+            @Nullable
+            private Duration keepAliveTimeout;
+            @Nullable
+            private Duration permitKeepAliveTime;
+            @Nullable
+            private ServerBuilder<?> additionalListener;
+            @Nullable
+            private Path unixDomainSocket;
+
+            /**
+             * Sets the executor the resource operations (check, diff, create, read, update and delete)
+             * are started on. By default they are started on the gRPC server thread handling the call.
+             */
+            public Builder handlerExecutor(Executor handlerExecutor) {
+                this.handlerExecutor = Objects.requireNonNull(handlerExecutor);
+                return this;
+            }
+
+            /**
+             * Sets the maximum number of constructs and resource operations in flight at the same time.
+             * Calls over the limit are queued, without holding a thread. Unlimited by default.
+             * <p>
+             * A construct holds its slot until its component is fully constructed, so a component
+             * that constructs another component of the same provider as a remote component needs a
+             * limit above its nesting depth.
+             */
+            public Builder maxConcurrency(int maxConcurrency) {
+                this.maxConcurrency = requirePositive("maxConcurrency", maxConcurrency);
+                return this;
+            }
+
+            /**
+             * Sets the executor the gRPC calls are handled on. By default, gRPC uses an unbounded
+             * cached thread pool. The executor is not shut down with the server.
+             */
+            public Builder serverExecutor(Executor serverExecutor) {
+                this.serverExecutor = Objects.requireNonNull(serverExecutor);
+                this.serverExecutorFactory = null;
+                return this;
+            }
+
+            /**
+             * Handles the gRPC calls on a fixed pool of daemon threads, created when the server
+             * starts and shut down with it.
+             */
+            public Builder serverThreads(int threads) {
+                requirePositive("threads", threads);
+                this.serverExecutor = null;
+                this.serverExecutorFactory = () -> Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                    .setNameFormat("pulumi-provider-%d")
+                    .setDaemon(true)
+                    .build());
+                return this;
+            }
+
+            /**
+             * Handles each gRPC call on a new virtual thread. Requires Java 21 or later.
+             *
+             * @throws UnsupportedOperationException if the JVM does not support virtual threads
+             */
+            public Builder virtualThreads() {
+                Method factory;
+                try {
+                    // looked up reflectively, the SDK targets Java 11
+                    factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                } catch (NoSuchMethodException e) {
+                    throw new UnsupportedOperationException("Virtual threads require Java 21 or later", e);
+                }
+                this.serverExecutor = null;
+                this.serverExecutorFactory = () -> {
+                    try {
+                        return (ExecutorService) factory.invoke(null);
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException("Failed to create a virtual thread executor", e);
+                    }
+                };
+                return this;
+            }
+
+            /**
+             * Sets the maximum size of an inbound message. Defaults to 400MB, the limit of the
+             * clients of the engine and monitor.
+             */
+            public Builder maxInboundMessageSize(int bytes) {
+                this.maxInboundMessageSize = requirePositive("maxInboundMessageSize", bytes);
+                return this;
+            }
+
+            /**
+             * Sets the time without reads after which the server pings the client, and the time it
+             * waits for the acknowledgement before closing the connection.
+             */
+            public Builder keepAlive(Duration time, Duration timeout) {
+                this.keepAliveTime = Objects.requireNonNull(time);
+                this.keepAliveTimeout = Objects.requireNonNull(timeout);
+                return this;
+            }
+
+            /**
+             * Sets the most aggressive keepalive the clients are permitted to use.
+             */
+            public Builder permitKeepAliveTime(Duration time) {
+                this.permitKeepAliveTime = Objects.requireNonNull(time);
+                return this;
+            }
+
+            /**
+             * Also serves the provider from a server built by the given builder, in addition to the
+             * TCP port the engine connects to, for transports {@link #unixDomainSocket(Path)} does not
+             * cover. The services and the settings of these options are added to it. Transport-specific
+             * settings, like the event loops or a per-connection cap on concurrent calls, are left
+             * to the caller, who also owns any resources given to the builder. Replaces the Unix
+             * domain socket, if any.
+             */
+            public Builder additionalListener(ServerBuilder<?> builder) {
+                this.additionalListener = Objects.requireNonNull(builder);
+                this.unixDomainSocket = null;
+                return this;
+            }
+
+            /**
+             * Also serves the provider on a Unix domain socket created at the given path, in addition
+             * to the TCP port the engine connects to. The server and its event loops are created and
+             * shut down with the provider. Domain sockets require the native epoll transport of Linux;
+             * where it is not available, a warning is logged and the provider is only served over TCP.
+             * Replaces the additional listener, if any.
+             */
+            public Builder unixDomainSocket(Path path) {
+                this.unixDomainSocket = Objects.requireNonNull(path);
+                this.additionalListener = null;
+                return this;
+            }
+
+            public Options build() {
+                return new Options(this);
+            }
+
+            private static int requirePositive(String name, int value) {
+                if (value <= 0) {
+                    throw new IllegalArgumentException(String.format("%s must be positive, got: %d", name, value));
+                }
+                return value;
+            }
+        }
+    }
+}
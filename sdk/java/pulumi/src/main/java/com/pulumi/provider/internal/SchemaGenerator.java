@@ -0,0 +1,65 @@
+package com.pulumi.provider.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates the schema of a component provider at build time, so that it can be
+ * packaged with the components and served by {@link ComponentProvider} without
+ * scanning the classpath when the provider starts.
+ * <p>
+ * The schema is written to {@code <output directory>/<package path>/schema.json}.
+ * Run it on the compiled components, with the output directory on the resources
+ * of the jar, e.g. with Gradle:
+ * <pre>
+ * tasks.register('generateSchema', JavaExec) {
+ *     classpath = sourceSets.main.runtimeClasspath
+ *     mainClass = 'com.pulumi.provider.internal.SchemaGenerator'
+ *     args "$buildDir/generated/schema", 'com.example.components', 'example', version
+ * }
+ * processResources.from(generateSchema)
+ * </pre>
+ * or with Maven, using {@code exec-maven-plugin} in the {@code process-classes} phase
+ * and {@code target/classes} as the output directory.
+ */
+public final class SchemaGenerator {
+
+    private SchemaGenerator() {
+        throw new UnsupportedOperationException("static class");
+    }
+
+    /**
+     * Writes the schema to the output directory, see {@link #generate(Path, String, Metadata)}.
+     *
+     * @param args the output directory, the Java package containing the components,
+     *             the name of the provider and, optionally, its version
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 4) {
+            throw new IllegalArgumentException("Usage: SchemaGenerator <output directory> <package> <name> [version]");
+        }
+        var metadata = args.length == 4 ? new Metadata(args[2], args[3]) : new Metadata(args[2]);
+        generate(Paths.get(args[0]), args[1], metadata);
+    }
+
+    /**
+     * Generates the schema of the components in the given package.
+     *
+     * @param outputDirectory the root directory of the generated resources
+     * @param basePackageName the Java package containing the components
+     * @param metadata the metadata of the provider
+     * @return the path of the generated schema
+     */
+    public static Path generate(Path outputDirectory, String basePackageName, Metadata metadata) throws IOException {
+        var schema = outputDirectory
+            .resolve(basePackageName.replace('.', '/'))
+            .resolve(ComponentProvider.SCHEMA_RESOURCE);
+        Files.createDirectories(schema.getParent());
+        Files.writeString(schema, ComponentProvider.generateSchema(metadata, basePackageName), StandardCharsets.UTF_8);
+        return schema;
+    }
+}
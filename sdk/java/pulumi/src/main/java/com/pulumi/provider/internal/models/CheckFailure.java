@@ -0,0 +1,19 @@
+package com.pulumi.provider.internal.models;
+
+public class CheckFailure {
+    private final String property;
+    private final String reason;
+
+    public CheckFailure(String property, String reason) {
+        this.property = property;
+        this.reason = reason;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
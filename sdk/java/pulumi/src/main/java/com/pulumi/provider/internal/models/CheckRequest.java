@@ -0,0 +1,48 @@
+package com.pulumi.provider.internal.models;
+
+import java.util.Map;
+
+import com.pulumi.provider.internal.properties.PropertyValue;
+
+public class CheckRequest {
+    private final String urn;
+    private final String name;
+    private final String type;
+    private final Map<String, PropertyValue> olds;
+    private final Map<String, PropertyValue> news;
+    private final byte[] randomSeed;
+
+    public CheckRequest(String urn, String name, String type, Map<String, PropertyValue> olds,
+            Map<String, PropertyValue> news, byte[] randomSeed) {
+        this.urn = urn;
+        this.name = name;
+        this.type = type;
+        this.olds = olds;
+        this.news = news;
+        this.randomSeed = randomSeed;
+    }
+
+    public String getUrn() {
+        return urn;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Map<String, PropertyValue> getOlds() {
+        return olds;
+    }
+
+    public Map<String, PropertyValue> getNews() {
+        return news;
+    }
+
+    public byte[] getRandomSeed() {
+        return randomSeed;
+    }
+}
@@ -0,0 +1,24 @@
+package com.pulumi.provider.internal.models;
+
+import java.util.List;
+import java.util.Map;
+
+import com.pulumi.provider.internal.properties.PropertyValue;
+
+public class CheckResponse {
+    private final Map<String, PropertyValue> inputs;
+    private final List<CheckFailure> failures;
+
+    public CheckResponse(Map<String, PropertyValue> inputs, List<CheckFailure> failures) {
+        this.inputs = inputs;
+        this.failures = failures;
+    }
+
+    public Map<String, PropertyValue> getInputs() {
+        return inputs;
+    }
+
+    public List<CheckFailure> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pulumi.provider.internal.models;
+
+import java.time.Duration;
+import java.util.Map;
+
+import com.pulumi.provider.internal.properties.PropertyValue;
+
+public class CreateRequest {
+    private final String urn;
+    private final String name;
+    private final String type;
+    private final Map<String, PropertyValue> properties;
+    private final Duration timeout;
+    private final boolean preview;
+
+    public CreateRequest(String urn, String name, String type, Map<String, PropertyValue> properties,
+            Duration timeout, boolean preview) {
+        this.urn = urn;
+        this.name = name;
+        this.type = type;
+        this.properties = properties;
+        this.timeout = timeout;
+        this.preview = preview;
+    }
+
+    public String getUrn() {
+        return urn;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Map<String, PropertyValue> getProperties() {
+        return properties;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public boolean isPreview() {
+        return preview;
+    }
+}
@@ -0,0 +1,23 @@
+package com.pulumi.provider.internal.models;
+
+import java.util.Map;
+
+import com.pulumi.provider.internal.properties.PropertyValue;
+
+public class CreateResponse {
+    private final String id;
+    private final Map<String, PropertyValue> properties;
+
+    public CreateResponse(String id, Map<String, PropertyValue> properties) {
+        this.id = id;
+        this.properties = properties;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Map<String, PropertyValue> getProperties() {
+        return properties;
+    }
+}
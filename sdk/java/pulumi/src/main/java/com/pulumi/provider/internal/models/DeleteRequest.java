@@ -0,0 +1,55 @@
+package com.pulumi.provider.internal.models;
+
+import java.time.Duration;
+import java.util.Map;
+
+import com.pulumi.provider.internal.properties.PropertyValue;
+
+public class DeleteRequest {
+    private final String id;
+    private final String urn;
+    private final String name;
+    private final String type;
+    private final Map<String, PropertyValue> properties;
+    private final Map<String, PropertyValue> oldInputs;
+    private final Duration timeout;
+
+    public DeleteRequest(String id, String urn, String name, String type,
+            Map<String, PropertyValue> properties, Map<String, PropertyValue> oldInputs, Duration timeout) {
+        this.id = id;
+        this.urn = urn;
+        this.name = name;
+        this.type = type;
+        this.properties = properties;
+        this.oldInputs = oldInputs;
+        this.timeout = timeout;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUrn() {
+        return urn;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Map<String, PropertyValue> getProperties() {
+        return properties;
+    }
+
+    public Map<String, PropertyValue> getOldInputs() {
+        return oldInputs;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
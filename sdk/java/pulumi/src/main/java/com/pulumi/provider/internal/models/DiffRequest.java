@@ -0,0 +1,62 @@
+package com.pulumi.provider.internal.models;
+
+import java.util.List;
+import java.util.Map;
+
+import com.pulumi.provider.internal.properties.PropertyValue;
+
+public class DiffRequest {
+    private final String id;
+    private final String urn;
+    private final String name;
+    private final String type;
+    private final Map<String, PropertyValue> olds;
+    private final Map<String, PropertyValue> news;
+    private final Map<String, PropertyValue> oldInputs;
+    private final List<String> ignoreChanges;
+
+    public DiffRequest(String id, String urn, String name, String type, Map<String, PropertyValue> olds,
+            Map<String, PropertyValue> news, Map<String, PropertyValue> oldInputs,
+            List<String> ignoreChanges) {
+        this.id = id;
+        this.urn = urn;
+        this.name = name;
+        this.type = type;
+        this.olds = olds;
+        this.news = news;
+        this.oldInputs = oldInputs;
+        this.ignoreChanges = ignoreChanges;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUrn() {
+        return urn;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Map<String, PropertyValue> getOlds() {
+        return olds;
+    }
+
+    public Map<String, PropertyValue> getNews() {
+        return news;
+    }
+
+    public Map<String, PropertyValue> getOldInputs() {
+        return oldInputs;
+    }
+
+    public List<String> getIgnoreChanges() {
+        return ignoreChanges;
+    }
+}
@@ -0,0 +1,59 @@
+package com.pulumi.provider.internal.models;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+public class DiffResponse {
+    @Nullable
+    private final Boolean changes;
+    private final List<String> replaces;
+    private final List<String> stables;
+    private final boolean deleteBeforeReplace;
+    private final List<String> diffs;
+    @Nullable
+    private final Map<String, PropertyDiff> detailedDiff;
+
+    public DiffResponse(@Nullable Boolean changes, List<String> replaces, List<String> stables,
+            boolean deleteBeforeReplace, List<String> diffs, @Nullable Map<String, PropertyDiff> detailedDiff) {
+        this.changes = changes;
+        this.replaces = replaces;
+        this.stables = stables;
+        this.deleteBeforeReplace = deleteBeforeReplace;
+        this.diffs = diffs;
+        this.detailedDiff = detailedDiff;
+    }
+
+    /**
+     * @return whether the resource changed, or null if unknown
+     */
+    @Nullable
+    public Boolean getChanges() {
+        return changes;
+    }
+
+    public List<String> getReplaces() {
+        return replaces;
+    }
+
+    public List<String> getStables() {
+        return stables;
+    }
+
+    public boolean isDeleteBeforeReplace() {
+        return deleteBeforeReplace;
+    }
+
+    public List<String> getDiffs() {
+        return diffs;
+    }
+
+    /**
+     * @return the detailed diff by property path, or null if the provider does not compute one
+     */
+    @Nullable
+    public Map<String, PropertyDiff> getDetailedDiff() {
+        return detailedDiff;
+    }
+}
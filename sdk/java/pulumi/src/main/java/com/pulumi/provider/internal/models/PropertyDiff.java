@@ -0,0 +1,28 @@
+package com.pulumi.provider.internal.models;
+
+public class PropertyDiff {
+    public enum Kind {
+        ADD,
+        ADD_REPLACE,
+        DELETE,
+        DELETE_REPLACE,
+        UPDATE,
+        UPDATE_REPLACE
+    }
+
+    private final Kind kind;
+    private final boolean inputDiff;
+
+    public PropertyDiff(Kind kind, boolean inputDiff) {
+        this.kind = kind;
+        this.inputDiff = inputDiff;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isInputDiff() {
+        return inputDiff;
+    }
+}
@@ -0,0 +1,48 @@
+package com.pulumi.provider.internal.models;
+
+import java.util.Map;
+
+import com.pulumi.provider.internal.properties.PropertyValue;
+
+public class ReadRequest {
+    private final String id;
+    private final String urn;
+    private final String name;
+    private final String type;
+    private final Map<String, PropertyValue> properties;
+    private final Map<String, PropertyValue> inputs;
+
+    public ReadRequest(String id, String urn, String name, String type,
+            Map<String, PropertyValue> properties, Map<String, PropertyValue> inputs) {
+        this.id = id;
+        this.urn = urn;
+        this.name = name;
+        this.type = type;
+        this.properties = properties;
+        this.inputs = inputs;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUrn() {
+        return urn;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Map<String, PropertyValue> getProperties() {
+        return properties;
+    }
+
+    public Map<String, PropertyValue> getInputs() {
+        return inputs;
+    }
+}
@@ -0,0 +1,29 @@
+package com.pulumi.provider.internal.models;
+
+import java.util.Map;
+
+import com.pulumi.provider.internal.properties.PropertyValue;
+
+public class ReadResponse {
+    private final String id;
+    private final Map<String, PropertyValue> properties;
+    private final Map<String, PropertyValue> inputs;
+
+    public ReadResponse(String id, Map<String, PropertyValue> properties, Map<String, PropertyValue> inputs) {
+        this.id = id;
+        this.properties = properties;
+        this.inputs = inputs;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Map<String, PropertyValue> getProperties() {
+        return properties;
+    }
+
+    public Map<String, PropertyValue> getInputs() {
+        return inputs;
+    }
+}
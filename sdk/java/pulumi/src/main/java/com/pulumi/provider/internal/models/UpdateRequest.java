@@ -0,0 +1,75 @@
+package com.pulumi.provider.internal.models;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import com.pulumi.provider.internal.properties.PropertyValue;
+
+public class UpdateRequest {
+    private final String id;
+    private final String urn;
+    private final String name;
+    private final String type;
+    private final Map<String, PropertyValue> olds;
+    private final Map<String, PropertyValue> news;
+    private final Map<String, PropertyValue> oldInputs;
+    private final Duration timeout;
+    private final List<String> ignoreChanges;
+    private final boolean preview;
+
+    public UpdateRequest(String id, String urn, String name, String type, Map<String, PropertyValue> olds,
+            Map<String, PropertyValue> news, Map<String, PropertyValue> oldInputs, Duration timeout,
+            List<String> ignoreChanges, boolean preview) {
+        this.id = id;
+        this.urn = urn;
+        this.name = name;
+        this.type = type;
+        this.olds = olds;
+        this.news = news;
+        this.oldInputs = oldInputs;
+        this.timeout = timeout;
+        this.ignoreChanges = ignoreChanges;
+        this.preview = preview;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUrn() {
+        return urn;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Map<String, PropertyValue> getOlds() {
+        return olds;
+    }
+
+    public Map<String, PropertyValue> getNews() {
+        return news;
+    }
+
+    public Map<String, PropertyValue> getOldInputs() {
+        return oldInputs;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public List<String> getIgnoreChanges() {
+        return ignoreChanges;
+    }
+
+    public boolean isPreview() {
+        return preview;
+    }
+}
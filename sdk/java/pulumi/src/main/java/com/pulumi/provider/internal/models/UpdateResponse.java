@@ -0,0 +1,17 @@
+package com.pulumi.provider.internal.models;
+
+import java.util.Map;
+
+import com.pulumi.provider.internal.properties.PropertyValue;
+
+public class UpdateResponse {
+    private final Map<String, PropertyValue> properties;
+
+    public UpdateResponse(Map<String, PropertyValue> properties) {
+        this.properties = properties;
+    }
+
+    public Map<String, PropertyValue> getProperties() {
+        return properties;
+    }
+}
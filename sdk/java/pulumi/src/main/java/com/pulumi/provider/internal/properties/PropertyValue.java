@@ -4,15 +4,22 @@ import com.google.protobuf.Struct;
 import com.google.protobuf.Value;
 import com.google.protobuf.NullValue;
 import com.google.protobuf.ListValue;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import com.pulumi.asset.*;
 import com.pulumi.core.internal.Constants;
 
@@ -109,8 +116,18 @@ public class PropertyValue {
 
     private final ValueType type;
     private final Object value;
+    /**
+     * The protobuf value this array or object was unmarshalled from, if any.
+     * Property values are immutable, so it is also the marshalled form of this value.
+     */
+    @Nullable
+    private final Value source;
 
     private PropertyValue(ValueType type, Object value) {
+        this(type, value, null);
+    }
+
+    private PropertyValue(ValueType type, Object value, @Nullable Value source) {
         if (value != null && type.valueClass != null && !type.valueClass.isInstance(value)) {
             throw new IllegalArgumentException(String.format(
                 "Value of type %s cannot be used for PropertyValue of type %s",
@@ -120,6 +137,7 @@ public class PropertyValue {
         }
         this.type = type;
         this.value = value;
+        this.source = source;
     }
 
     // Factory methods
@@ -302,6 +320,12 @@ public class PropertyValue {
     }
 
     // Protobuf marshaling methods
+
+    /**
+     * Unmarshals a protobuf value. Arrays and objects are views over the protobuf value:
+     * their elements are unmarshalled on first access, and they are marshalled back as
+     * the original protobuf value.
+     */
     public static PropertyValue unmarshal(Value value) {
         switch (value.getKindCase()) {
             case NULL_VALUE:
@@ -316,21 +340,17 @@ public class PropertyValue {
                 }
                 return of(value.getStringValue());
             case LIST_VALUE:
-                List<PropertyValue> list = new ArrayList<>();
-                for (Value v : value.getListValue().getValuesList()) {
-                    list.add(unmarshal(v));
-                }
-                return of(Collections.unmodifiableList(list));
+                return new PropertyValue(ValueType.ARRAY, new LazyArray(value.getListValue()), value);
             case STRUCT_VALUE:
-                return unmarshalStruct(value.getStructValue());
+                return unmarshalStruct(value);
             default:
                 throw new IllegalArgumentException("Unexpected grpc value type: " + value.getKindCase());
         }
     }
 
-    private static PropertyValue unmarshalStruct(Struct struct) {
+    private static PropertyValue unmarshalStruct(Value value) {
         // Handle special types (Asset, Archive, Secret, Resource, Output)
-        Map<String, Value> fields = struct.getFieldsMap();
+        Map<String, Value> fields = value.getStructValue().getFieldsMap();
         if (fields.containsKey(Constants.SpecialSigKey)) {
             String sig = fields.get(Constants.SpecialSigKey).getStringValue();
             switch (sig) {
@@ -350,11 +370,108 @@ public class PropertyValue {
         }
 
         // Regular object
-        Map<String, PropertyValue> map = new HashMap<>();
-        for (Map.Entry<String, Value> entry : fields.entrySet()) {
-            map.put(entry.getKey(), unmarshal(entry.getValue()));
+        return new PropertyValue(ValueType.OBJECT, new LazyObject(fields), value);
+    }
+
+    /**
+     * An unmodifiable list over a protobuf list, unmarshalling each element on first access.
+     * Equality and hash code are the ones of {@link List}, so it equals the eagerly unmarshalled list.
+     */
+    private static final class LazyArray extends AbstractList<PropertyValue> implements RandomAccess {
+        private final ListValue values;
+        // racy caching is fine: property values are immutable
+        private final PropertyValue[] elements;
+
+        private LazyArray(ListValue values) {
+            this.values = values;
+            this.elements = new PropertyValue[values.getValuesCount()];
+        }
+
+        @Override
+        public PropertyValue get(int index) {
+            var element = elements[index];
+            if (element == null) {
+                element = unmarshal(values.getValues(index));
+                elements[index] = element;
+            }
+            return element;
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+    }
+
+    /**
+     * An unmodifiable map over the fields of a protobuf struct, unmarshalling each field on first access.
+     * Equality and hash code are the ones of {@link Map}, so it equals the eagerly unmarshalled map.
+     */
+    private static final class LazyObject extends AbstractMap<String, PropertyValue> {
+        private final Map<String, Value> fields;
+        private final Map<String, PropertyValue> properties = new ConcurrentHashMap<>();
+
+        private LazyObject(Map<String, Value> fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public PropertyValue get(Object key) {
+            // the cache does not accept null keys, which a HashMap answers with null
+            if (!(key instanceof String)) {
+                return null;
+            }
+            var property = properties.get(key);
+            if (property == null) {
+                var field = fields.get(key);
+                if (field == null) {
+                    return null;
+                }
+                property = unmarshal(field);
+                var existing = properties.putIfAbsent((String) key, property);
+                if (existing != null) {
+                    property = existing;
+                }
+            }
+            return property;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && fields.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return fields.size();
+        }
+
+        @Override
+        public Set<Entry<String, PropertyValue>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, PropertyValue>> iterator() {
+                    var keys = fields.keySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, PropertyValue> next() {
+                            var key = keys.next();
+                            return new SimpleImmutableEntry<>(key, get(key));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return fields.size();
+                }
+            };
         }
-        return of(Collections.unmodifiableMap(map));
     }
 
     private static PropertyValue unmarshalSecret(Map<String, Value> fields) {
@@ -459,6 +576,9 @@ public class PropertyValue {
 
     // Marshal methods
     public Value marshal() {
+        if (source != null) {
+            return source;
+        }
         switch (type) {
             case NULL:
                 return Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
@@ -640,11 +760,7 @@ public class PropertyValue {
 
     // Add this static method
     public static Map<String, PropertyValue> unmarshalProperties(Struct properties) {
-        Map<String, PropertyValue> result = new HashMap<>();
-        for (Map.Entry<String, Value> entry : properties.getFieldsMap().entrySet()) {
-            result.put(entry.getKey(), unmarshal(entry.getValue()));
-        }
-        return Collections.unmodifiableMap(result);
+        return new LazyObject(properties.getFieldsMap());
     }
 
     // Add this static method
@@ -1,15 +1,10 @@
 package com.pulumi.provider.internal.properties;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.concurrent.CompletableFuture;
 import java.util.List;
@@ -18,11 +13,12 @@ import com.pulumi.asset.Asset;
 import com.pulumi.asset.Archive;
 import com.pulumi.core.Output;
 import com.pulumi.core.annotations.Export;
-import com.pulumi.core.annotations.Import;
 import com.pulumi.core.internal.Internal;
 import com.pulumi.core.internal.OutputData;
 import com.pulumi.core.internal.OutputInternal;
 import com.pulumi.resources.DependencyResource;
+import com.pulumi.provider.internal.properties.TypePlan.FieldPlan;
+import com.pulumi.provider.internal.properties.TypePlan.ObjectPlan;
 import com.pulumi.resources.Resource;
 
 import com.google.common.collect.ImmutableSet;
@@ -31,6 +27,9 @@ import com.google.common.collect.ImmutableSet;
  * A utility class for deserializing {@link PropertyValue} objects into Java types.
  * This class handles deserialization of primitive types, collections, maps, and complex objects
  * with support for Pulumi's {@link Output} types and annotations.
+ * <p>
+ * The fields, property names and generic element types of each Java type are resolved once,
+ * into a {@link TypePlan} shared by both directions.
  */
 public final class PropertyValueSerializer {
     private PropertyValueSerializer() {}
@@ -68,16 +67,16 @@ public final class PropertyValueSerializer {
         );
     }
 
-    private static Object deserializeValue(PropertyValue value, java.lang.reflect.Type targetType) {
+    private static Object deserializeValue(PropertyValue value, Class<?> targetType) {
         String[] rootPath = new String[]{"$"};
-        return deserializeValue(value, targetType, rootPath);
+        return deserializeValue(value, TypePlan.of(targetType), rootPath);
     }
 
-    private static Object deserializeValue(PropertyValue value, java.lang.reflect.Type targetType, String[] path) {
-        Class<?> rawType = resolveGenericType(targetType);
+    private static Object deserializeValue(PropertyValue value, TypePlan plan, String[] path) {
+        Class<?> rawType = plan.rawType;
 
         if (Output.class.isAssignableFrom(rawType)) {
-            return deserializeOutput(value, targetType, path);
+            return deserializeOutput(value, plan, path);
         }
 
         if (value.isNull() && isNullable(rawType)) {
@@ -114,7 +113,7 @@ public final class PropertyValueSerializer {
                 break;
             case ARRAY:
                 if (Collection.class.isAssignableFrom(rawType)) {
-                    return deserializeCollection(value, targetType, path);
+                    return deserializeCollection(value, plan, path);
                 }
                 break;
             case ASSET:
@@ -129,9 +128,9 @@ public final class PropertyValueSerializer {
                 break;
             case OBJECT:
                 if (Map.class.isAssignableFrom(rawType)) {
-                    return deserializeMap(value, rawType, path);
+                    return deserializeMap(value, plan, path);
                 }
-                return deserializeComplexObject(value.getObjectValue(), rawType, path);
+                return deserializeComplexObject(value.getObjectValue(), plan.object(), path);
             default:
                 throw new IllegalArgumentException(
                     String.format("Unsupported type for deserialization: %s to %s, path: %s", 
@@ -143,22 +142,12 @@ public final class PropertyValueSerializer {
                 value.getType().name(), rawType.getName(), path));
     }
 
-    private static Object deserializeOutput(PropertyValue value, java.lang.reflect.Type targetType, String[] path) {
+    private static Object deserializeOutput(PropertyValue value, TypePlan plan, String[] path) {
         Object deserializedValue = null;
         boolean isKnown = true;
         boolean isSecret = false;
         ImmutableSet<Resource> resources = ImmutableSet.of();
 
-        // Get the actual type parameter from Output<T>
-        java.lang.reflect.Type elementType = Object.class;
-        if (targetType instanceof java.lang.reflect.ParameterizedType) {
-            java.lang.reflect.ParameterizedType paramType = (java.lang.reflect.ParameterizedType) targetType;
-            java.lang.reflect.Type[] typeArgs = paramType.getActualTypeArguments();
-            if (typeArgs.length > 0) {
-                elementType = typeArgs[0]; // Keep as Type instead of converting to Class
-            }
-        }
-
         PropertyValue valueToDeserialize = null;
         switch (value.getType()) {
             case SECRET:
@@ -186,109 +175,63 @@ public final class PropertyValueSerializer {
         }
 
         if (valueToDeserialize != null && !value.isComputed()) {
-            deserializedValue = deserializeValue(valueToDeserialize, elementType, path);
+            // The plan of the actual type parameter of Output<T>
+            deserializedValue = deserializeValue(valueToDeserialize, plan.element(), path);
         }
 
         OutputData<?> outputData = OutputData.ofNullable(resources, deserializedValue, isKnown, isSecret);
         return new OutputInternal<>(outputData);
     }
 
-    private static Class<?> resolveGenericType(java.lang.reflect.Type type) {
-        if (type instanceof Class) {
-            return (Class<?>) type;
-        }
-        if (type instanceof java.lang.reflect.ParameterizedType) {
-            java.lang.reflect.ParameterizedType paramType = (java.lang.reflect.ParameterizedType) type;
-            // Just return the raw type, don't try to resolve type parameters
-            return (Class<?>) paramType.getRawType();
-        }
-        if (type instanceof java.lang.reflect.TypeVariable) {
-            java.lang.reflect.Type[] bounds = ((java.lang.reflect.TypeVariable<?>) type).getBounds();
-            if (bounds.length > 0) {
-                return resolveGenericType(bounds[0]);
-            }
-        }
-        return Object.class;
-    }
-
-    private static Object deserializeCollection(PropertyValue value, java.lang.reflect.Type targetType, String[] path) {
+    private static Object deserializeCollection(PropertyValue value, TypePlan plan, String[] path) {
         var array = value.getArrayValue();
         
         // Get the element type from the collection's type parameter
-        java.lang.reflect.Type elementType = Object.class;
-        if (targetType instanceof java.lang.reflect.ParameterizedType) {
-            java.lang.reflect.ParameterizedType paramType = (java.lang.reflect.ParameterizedType) targetType;
-            java.lang.reflect.Type[] typeArgs = paramType.getActualTypeArguments();
-            if (typeArgs.length > 0) {
-                elementType = typeArgs[0];
-            }
-        }
+        var elementPlan = plan.element();
 
-        Collection<Object> collection = createCollection(resolveGenericType(targetType));
+        Collection<Object> collection = createCollection(plan.rawType);
 
         for (int i = 0; i < array.size(); i++) {
             var elementPath = Arrays.copyOf(path, path.length + 1);
             elementPath[elementPath.length - 1] = String.format("index[%d]", i);
-            var element = deserializeValue(array.get(i), elementType, elementPath);
+            var element = deserializeValue(array.get(i), elementPlan, elementPath);
             collection.add(element);
         }
 
         return collection;
     }
 
-    private static Object deserializeMap(PropertyValue value, java.lang.reflect.Type targetType, String[] path) {
+    private static Object deserializeMap(PropertyValue value, TypePlan plan, String[] path) {
         var objectValue = value.getObjectValue();
         
-        java.lang.reflect.Type valueType = Object.class;
-        if (targetType instanceof java.lang.reflect.ParameterizedType) {
-            java.lang.reflect.ParameterizedType paramType = (java.lang.reflect.ParameterizedType) targetType;
-            java.lang.reflect.Type[] typeArgs = paramType.getActualTypeArguments();
-            if (typeArgs.length > 1) {
-                valueType = typeArgs[1];
-            }
-        }
+        var valuePlan = plan.element();
 
-        Map<String, Object> map = createMap(resolveGenericType(targetType));
+        Map<String, Object> map = createMap(plan.rawType);
 
         for (var entry : objectValue.entrySet()) {
             var elementPath = Arrays.copyOf(path, path.length + 1);
             elementPath[elementPath.length - 1] = entry.getKey();
-            var element = deserializeValue(entry.getValue(), valueType, elementPath);
+            var element = deserializeValue(entry.getValue(), valuePlan, elementPath);
             map.put(entry.getKey(), element);
         }
 
         return map;
     }
 
-    private static Object deserializeComplexObject(Map<String, PropertyValue> objectValue, Class<?> targetType, String[] path) {
+    private static Object deserializeComplexObject(Map<String, PropertyValue> objectValue, ObjectPlan plan, String[] path) {
         // Create instance using no-args constructor
-        Object instance;
-        try {
-            Constructor<?> noArgsConstructor = targetType.getDeclaredConstructor();
-            noArgsConstructor.setAccessible(true);
-            instance = noArgsConstructor.newInstance();
-        } catch (Exception e) {
-            throw new PropertyDeserializationException(
-                "Failed to create instance", 
-                path, 
-                targetType, 
-                null, 
-                e
-            );
-        }
+        Object instance = plan.newInstance(path);
 
         // Set fields using Import annotations
-        for (Field field : targetType.getDeclaredFields()) {
-            field.setAccessible(true);
-            String propertyName = propertyName(field, targetType);
+        for (FieldPlan field : plan.fields) {
+            String propertyName = field.propertyName;
             
             PropertyValue value = objectValue.get(propertyName);
             if (value == null) {
-                Import importAnnotation = field.getAnnotation(Import.class);
-                if (importAnnotation != null && importAnnotation.required()) {
+                if (field.required) {
                     throw new IllegalArgumentException(
                             String.format("Missing required field %s in type %s",
-                                    propertyName, targetType.getName()));
+                                    propertyName, plan.type.getName()));
                 }
                 continue;
             }
@@ -297,14 +240,14 @@ public final class PropertyValueSerializer {
             fieldPath[fieldPath.length - 1] = propertyName;
             
             try {
-                // Use the field's generic type instead of just its class
-                Object deserializedValue = deserializeValue(value, field.getGenericType(), fieldPath);
+                // Use the plan of the field's generic type instead of just its class
+                Object deserializedValue = deserializeValue(value, field.type, fieldPath);
                 field.set(instance, deserializedValue);
             } catch (IllegalAccessException e) {
                 throw new PropertyDeserializationException(
-                    "Failed to set field: " + field.getName(), 
+                    "Failed to set field: " + field.field.getName(), 
                     fieldPath, 
-                    field.getType(), 
+                    field.field.getType(), 
                     value, 
                     e
                 );
@@ -356,22 +299,6 @@ public final class PropertyValueSerializer {
         return !type.isPrimitive();
     }
 
-    private static String propertyName(Field field, Class<?> declaringType) {
-        String propertyName = field.getName();
-        
-        Export exportAnnotation = field.getAnnotation(Export.class);
-        if (exportAnnotation != null && !exportAnnotation.name().isEmpty()) {
-            propertyName = exportAnnotation.name();
-        }
-
-        Import importAnnotation = field.getAnnotation(Import.class);
-        if (importAnnotation != null && !importAnnotation.name().isEmpty()) {
-            propertyName = importAnnotation.name();
-        }
-
-        return propertyName;
-    }
-
     /**
      * Converts a component resource object into a map of property values asynchronously.
      * This method examines the fields of the component resource marked with the {@link Export} annotation
@@ -382,42 +309,28 @@ public final class PropertyValueSerializer {
      * @throws PropertySerializationException if there is an error accessing field values
      */
     public static CompletableFuture<Map<String, PropertyValue>> stateFromComponentResourceAsync(Object component) {
-        Class<?> componentType = component.getClass();
-        
-        // Get all fields including inherited ones
-        Set<Field> fields = new HashSet<>();
-        Class<?> currentClass = componentType;
-        while (currentClass != null) {
-            fields.addAll(Arrays.asList(currentClass.getDeclaredFields()));
-            currentClass = currentClass.getSuperclass();
-        }
+        // All fields with @Export annotation, including inherited ones
+        List<FieldPlan> fields = ObjectPlan.of(component.getClass()).allExports;
 
-        // Process each field with @Export annotation and collect futures
-        List<CompletableFuture<Map.Entry<String, PropertyValue>>> futures = fields.stream()
-            .filter(field -> field.isAnnotationPresent(Export.class))
-            .<CompletableFuture<Map.Entry<String, PropertyValue>>>map(field -> {
-                field.setAccessible(true);
-                Export attr = field.getAnnotation(Export.class);
-                String propertyName = !attr.name().isEmpty() ? attr.name() : field.getName();
-
-                try {
-                    Object value = field.get(component);
-                    if (value == null) {
-                        return CompletableFuture.completedFuture(null);
-                    }
-                    return serialize(value, field.getName())
-                            .thenApply(serialized -> Map.entry(propertyName, serialized));
-                } catch (IllegalAccessException e) {
-                    throw new PropertySerializationException(
-                        "Failed to get field value",
-                        new String[]{field.getName()},
-                        field.getType(),
-                        e
-                    );
+        // Process each field and collect futures
+        List<CompletableFuture<Map.Entry<String, PropertyValue>>> futures = new ArrayList<>(fields.size());
+        for (FieldPlan field : fields) {
+            try {
+                Object value = field.get(component);
+                if (value == null) {
+                    continue;
                 }
-            })
-            .filter(future -> future != null)
-            .collect(Collectors.toList());
+                futures.add(serialize(value, field.field.getName())
+                        .thenApply(serialized -> Map.entry(field.exportName, serialized)));
+            } catch (IllegalAccessException e) {
+                throw new PropertySerializationException(
+                    "Failed to get field value",
+                    new String[]{field.field.getName()},
+                    field.field.getType(),
+                    e
+                );
+            }
+        }
 
         // Wait for all futures to complete and combine results
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
@@ -541,31 +454,28 @@ public final class PropertyValueSerializer {
         }
 
         // Handle objects with @Export annotations only
-        if (Arrays.stream(value.getClass().getDeclaredFields())
-                .anyMatch(field -> field.isAnnotationPresent(Export.class))) {
+        List<FieldPlan> exports = ObjectPlan.of(value.getClass()).exports;
+        if (!exports.isEmpty()) {
             Map<String, PropertyValue> object = new HashMap<>();
-            for (Field field : value.getClass().getDeclaredFields()) {
-                if (field.isAnnotationPresent(Export.class)) {
-                    field.setAccessible(true);
-                    try {
-                        Object fieldValue = field.get(value);
-                        if (fieldValue != null) {
-                            String propertyName = propertyName(field, value.getClass());
-                            // Add the current field name to the path for nested serialization
-                            String[] fieldPath = Arrays.copyOf(path, path.length + 1);
-                            fieldPath[fieldPath.length - 1] = propertyName;
-                            object.put(propertyName, serializeValue(fieldValue, fieldPath));
-                        }
-                    } catch (IllegalAccessException e) {
+            for (FieldPlan field : exports) {
+                try {
+                    Object fieldValue = field.get(value);
+                    if (fieldValue != null) {
+                        String propertyName = field.propertyName;
+                        // Add the current field name to the path for nested serialization
                         String[] fieldPath = Arrays.copyOf(path, path.length + 1);
-                        fieldPath[fieldPath.length - 1] = field.getName();
-                        throw new PropertySerializationException(
-                            "Failed to serialize field",
-                            fieldPath,
-                            field.getType(),
-                            e
-                        );
+                        fieldPath[fieldPath.length - 1] = propertyName;
+                        object.put(propertyName, serializeValue(fieldValue, fieldPath));
                     }
+                } catch (IllegalAccessException e) {
+                    String[] fieldPath = Arrays.copyOf(path, path.length + 1);
+                    fieldPath[fieldPath.length - 1] = field.field.getName();
+                    throw new PropertySerializationException(
+                        "Failed to serialize field",
+                        fieldPath,
+                        field.field.getType(),
+                        e
+                    );
                 }
             }
             return PropertyValue.of(object);
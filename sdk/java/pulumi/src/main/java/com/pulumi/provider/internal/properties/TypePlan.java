@@ -0,0 +1,287 @@
+package com.pulumi.provider.internal.properties;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.pulumi.core.annotations.Export;
+import com.pulumi.core.annotations.Import;
+
+/**
+ * The compiled form of a Java type used by {@link PropertyValueSerializer}: its raw class,
+ * the plan of its element type for outputs, collections and maps, and the plan of its
+ * fields for objects.
+ * <p>
+ * Plans of classes are cached in a {@link ClassValue}, so the reflection needed to
+ * (de)serialize a type happens once per class. Plans of parameterized types are owned by
+ * the plans of the fields declared with them, and the plans of their type arguments are
+ * resolved lazily, so that recursive types are supported.
+ * <p>
+ * Fields and constructors are only made accessible when first used, so that planning a
+ * type the SDK cannot access, e.g. a JDK type that is not supported, does not fail.
+ */
+final class TypePlan {
+    private static final ClassValue<TypePlan> CLASS_PLANS = new ClassValue<>() {
+        @Override
+        protected TypePlan computeValue(Class<?> type) {
+            return new TypePlan(type);
+        }
+    };
+
+    final Type type;
+    final Class<?> rawType;
+    private final int elementIndex;
+    @Nullable
+    private volatile TypePlan element;
+
+    private TypePlan(Type type) {
+        this.type = type;
+        this.rawType = resolveRawType(type);
+        // Map<K, V> values are typed by the second type argument
+        this.elementIndex = Map.class.isAssignableFrom(rawType) ? 1 : 0;
+    }
+
+    static TypePlan of(Class<?> type) {
+        return CLASS_PLANS.get(type);
+    }
+
+    static TypePlan of(Type type) {
+        if (type instanceof Class) {
+            return of((Class<?>) type);
+        }
+        return new TypePlan(type);
+    }
+
+    /**
+     * @return the plan of the type argument of an output or collection, or of the values of a map
+     */
+    TypePlan element() {
+        var plan = element;
+        if (plan == null) {
+            Type elementType = Object.class;
+            if (type instanceof ParameterizedType) {
+                var typeArgs = ((ParameterizedType) type).getActualTypeArguments();
+                if (typeArgs.length > elementIndex) {
+                    elementType = typeArgs[elementIndex];
+                }
+            }
+            plan = of(elementType);
+            element = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * @return the plan of the fields of the raw type
+     */
+    ObjectPlan object() {
+        return ObjectPlan.of(rawType);
+    }
+
+    private static Class<?> resolveRawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            // Just return the raw type, the type arguments are resolved by element()
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof TypeVariable) {
+            var bounds = ((TypeVariable<?>) type).getBounds();
+            if (bounds.length > 0) {
+                return resolveRawType(bounds[0]);
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * The fields of a class, with their property names and accessors.
+     */
+    static final class ObjectPlan {
+        private static final ClassValue<ObjectPlan> PLANS = new ClassValue<>() {
+            @Override
+            protected ObjectPlan computeValue(Class<?> type) {
+                return new ObjectPlan(type);
+            }
+        };
+
+        final Class<?> type;
+        /**
+         * The instance fields declared by the class, set when deserializing.
+         */
+        final List<FieldPlan> fields;
+        /**
+         * The {@link Export} fields declared by the class, read when serializing a nested object.
+         */
+        final List<FieldPlan> exports;
+        /**
+         * The {@link Export} fields of the class and its superclasses, read when serializing a component.
+         */
+        final List<FieldPlan> allExports;
+        @Nullable
+        private volatile Constructor<?> constructor;
+
+        private ObjectPlan(Class<?> type) {
+            this.type = type;
+
+            var fields = new ArrayList<FieldPlan>();
+            var exports = new ArrayList<FieldPlan>();
+            // the fields of classes in modules closed to the SDK, e.g. the JDK's, are not (de)serialized
+            var open = type.getModule().isOpen(type.getPackageName(), ObjectPlan.class.getModule());
+            for (var field : open ? type.getDeclaredFields() : new Field[0]) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                var plan = new FieldPlan(field);
+                fields.add(plan);
+                if (field.isAnnotationPresent(Export.class)) {
+                    exports.add(plan);
+                }
+            }
+            this.fields = Collections.unmodifiableList(fields);
+            this.exports = Collections.unmodifiableList(exports);
+
+            var allExports = new ArrayList<>(exports);
+            if (type.getSuperclass() != null) {
+                allExports.addAll(of(type.getSuperclass()).allExports);
+            }
+            this.allExports = Collections.unmodifiableList(allExports);
+        }
+
+        static ObjectPlan of(Class<?> type) {
+            return PLANS.get(type);
+        }
+
+        Object newInstance(String[] path) {
+            try {
+                // only objects that are deserialized need a no-args constructor
+                var noArgs = constructor;
+                if (noArgs == null) {
+                    noArgs = type.getDeclaredConstructor();
+                    noArgs.setAccessible(true);
+                    constructor = noArgs;
+                }
+                return noArgs.newInstance();
+            } catch (Exception e) {
+                throw new PropertyDeserializationException(
+                    "Failed to create instance",
+                    path,
+                    type,
+                    null,
+                    e
+                );
+            }
+        }
+    }
+
+    /**
+     * A field, with its property name, the plan of its declared type and its accessor.
+     */
+    static final class FieldPlan {
+        final Field field;
+        final String propertyName;
+        /**
+         * The name of the output of a component, which ignores {@link Import#name()}.
+         */
+        final String exportName;
+        final boolean required;
+        final TypePlan type;
+        private volatile boolean accessible;
+        @Nullable
+        private volatile VarHandle handle;
+
+        private FieldPlan(Field field) {
+            this.field = field;
+            this.propertyName = propertyName(field);
+            var exportAnnotation = field.getAnnotation(Export.class);
+            this.exportName = exportAnnotation != null && !exportAnnotation.name().isEmpty()
+                ? exportAnnotation.name()
+                : field.getName();
+            var importAnnotation = field.getAnnotation(Import.class);
+            this.required = importAnnotation != null && importAnnotation.required();
+            this.type = TypePlan.of(field.getGenericType());
+        }
+
+        /**
+         * Makes the field accessible on first use.
+         */
+        private void ensureAccessible() throws IllegalAccessException {
+            if (accessible) {
+                return;
+            }
+            try {
+                field.setAccessible(true);
+            } catch (InaccessibleObjectException e) {
+                var error = new IllegalAccessException(e.getMessage());
+                error.initCause(e);
+                throw error;
+            }
+            handle = varHandle(field);
+            accessible = true;
+        }
+
+        /**
+         * Final fields can only be set reflectively, other fields are accessed through a {@link VarHandle}.
+         */
+        @Nullable
+        private static VarHandle varHandle(Field field) {
+            if (Modifier.isFinal(field.getModifiers())) {
+                return null;
+            }
+            try {
+                return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectVarHandle(field);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        Object get(Object instance) throws IllegalAccessException {
+            ensureAccessible();
+            var handle = this.handle;
+            if (handle != null) {
+                return handle.get(instance);
+            }
+            return field.get(instance);
+        }
+
+        void set(Object instance, Object value) throws IllegalAccessException {
+            ensureAccessible();
+            var handle = this.handle;
+            if (handle != null) {
+                handle.set(instance, value);
+                return;
+            }
+            field.set(instance, value);
+        }
+
+        private static String propertyName(Field field) {
+            String propertyName = field.getName();
+
+            Export exportAnnotation = field.getAnnotation(Export.class);
+            if (exportAnnotation != null && !exportAnnotation.name().isEmpty()) {
+                propertyName = exportAnnotation.name();
+            }
+
+            Import importAnnotation = field.getAnnotation(Import.class);
+            if (importAnnotation != null && !importAnnotation.name().isEmpty()) {
+                propertyName = importAnnotation.name();
+            }
+
+            return propertyName;
+        }
+    }
+}
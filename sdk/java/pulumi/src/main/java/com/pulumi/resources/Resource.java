@@ -16,12 +16,13 @@ import com.pulumi.exceptions.ResourceException;
 
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -54,7 +55,7 @@ public abstract class Resource {
      */
     private final boolean protect;
 
-    private final List<ResourceTransformation> transformations;
+    private final TransformationChain transformations;
 
     private final Map<String, ProviderResource> providers;
 
@@ -123,7 +124,7 @@ public abstract class Resource {
             this.type = "";
             this.name = "";
             this.protect = false;
-            this.transformations = List.of();
+            this.transformations = TransformationChain.Empty;
             this.providers = Map.of();
             this.provider = null;
             this.version = null;
@@ -151,13 +152,14 @@ public abstract class Resource {
                 ? null
                 : (options.parent == null ? DeploymentInternal.getInstance().getStack() : options.parent);
 
-        var transformations = new ArrayList<>(options.getResourceTransformations());
-        if (parent != null) {
-            transformations.addAll(parent.transformations);
-        }
-        this.transformations = List.copyOf(transformations);
+        // The transformations of the parent are shared, not copied, as every resource of a large
+        // component tree would otherwise keep its own copy of the transformations of all its ancestors
+        this.transformations = TransformationChain.of(
+                options.getResourceTransformations(),
+                parent == null ? TransformationChain.Empty : parent.transformations
+        );
 
-        for (var transformation : transformations) {
+        for (var transformation : this.transformations) {
             var tres = transformation.apply(
                     new ResourceTransformation.Args(this, args, options)
             );
@@ -392,6 +394,57 @@ public abstract class Resource {
         }
     }
 
+    /**
+     * The transformations of a resource, followed by the ones of its ancestors.
+     * Links to the chain of the parent instead of copying it.
+     */
+    private static final class TransformationChain implements Iterable<ResourceTransformation> {
+        private static final TransformationChain Empty = new TransformationChain(List.of(), null);
+
+        private final List<ResourceTransformation> own;
+        @Nullable
+        private final TransformationChain parent;
+
+        private TransformationChain(List<ResourceTransformation> own, @Nullable TransformationChain parent) {
+            this.own = own;
+            this.parent = parent;
+        }
+
+        private static TransformationChain of(List<ResourceTransformation> own, TransformationChain parent) {
+            if (own.isEmpty()) {
+                // most resources have no transformations of their own
+                return parent;
+            }
+            return new TransformationChain(List.copyOf(own), parent == Empty ? null : parent);
+        }
+
+        @Override
+        public Iterator<ResourceTransformation> iterator() {
+            return new Iterator<>() {
+                @Nullable
+                private TransformationChain chain = TransformationChain.this;
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    while (this.chain != null && this.index >= this.chain.own.size()) {
+                        this.chain = this.chain.parent;
+                        this.index = 0;
+                    }
+                    return this.chain != null;
+                }
+
+                @Override
+                public ResourceTransformation next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return this.chain.own.get(this.index++);
+                }
+            };
+        }
+    }
+
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     @InternalUse
     @ParametersAreNonnullByDefault
@@ -2,7 +2,9 @@ package com.pulumi.resources;
 
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 
 import static com.pulumi.resources.Resources.mergeNullableList;
 import static java.util.Objects.requireNonNull;
@@ -16,6 +18,8 @@ public class StackOptions {
     public static final StackOptions Empty = builder().build();
 
     private final List<ResourceTransformation> resourceTransformations;
+    @Nullable
+    private final Path performanceReport;
 
     /**
      * Creates a {@link StackOptions} instance.
@@ -24,7 +28,19 @@ public class StackOptions {
      * @see #builder()
      */
     public StackOptions(List<ResourceTransformation> resourceTransformations) {
+        this(resourceTransformations, null);
+    }
+
+    /**
+     * Creates a {@link StackOptions} instance.
+     *
+     * @param resourceTransformations the resource transformations to use
+     * @param performanceReport       the file to write the performance report to, if any
+     * @see #builder()
+     */
+    public StackOptions(List<ResourceTransformation> resourceTransformations, @Nullable Path performanceReport) {
         this.resourceTransformations = requireNonNull(resourceTransformations);
+        this.performanceReport = performanceReport;
     }
 
     /**
@@ -38,6 +54,19 @@ public class StackOptions {
         return this.resourceTransformations;
     }
 
+    /**
+     * Optional file to write a performance report of the deployment to, as JSON, when the program completes.
+     * The report lists the slowest resources and invokes, and the chain of dependent resources bounding
+     * the duration of the deployment. A summary is also logged.
+     * <p>
+     * The report can also be enabled with the {@code PULUMI_JAVA_PERFORMANCE_REPORT} environment variable.
+     *
+     * @return the file to write the performance report to, if any
+     */
+    public Optional<Path> performanceReport() {
+        return Optional.ofNullable(this.performanceReport);
+    }
+
     /**
      * @return a {@link StackOptions} builder instance
      */
@@ -51,6 +80,8 @@ public class StackOptions {
     public static final class Builder {
 
         private List<ResourceTransformation> resourceTransformations = List.of();
+        @Nullable
+        private Path performanceReport;
 
         /**
          * @param resourceTransformations transformations to apply to children resources
@@ -72,11 +103,21 @@ public class StackOptions {
             return this;
         }
 
+        /**
+         * @param performanceReport the file to write the performance report to
+         * @return this {@link Builder}
+         * @see StackOptions#performanceReport()
+         */
+        public Builder performanceReport(Path performanceReport) {
+            this.performanceReport = requireNonNull(performanceReport);
+            return this;
+        }
+
         /**
          * @return a new {@link StackOptions} from this {@link Builder}
          */
         public StackOptions build() {
-            return new StackOptions(resourceTransformations);
+            return new StackOptions(resourceTransformations, performanceReport);
         }
     }
 
@@ -98,6 +139,9 @@ public class StackOptions {
         var resourceTransformations = requireNonNull(mergeNullableList(
                 opt1.resourceTransformations, opt2.resourceTransformations
         ));
-        return new StackOptions(resourceTransformations);
+        return new StackOptions(
+                resourceTransformations,
+                opt2.performanceReport != null ? opt2.performanceReport : opt1.performanceReport
+        );
     }
 }
@@ -29,14 +29,21 @@ import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 
 import static com.pulumi.core.internal.PulumiCollectors.toSingleton;
@@ -53,10 +60,21 @@ public class Converter {
 
     private final Log log;
     private final Deserializer deserializer;
+    private final boolean lazyCollections;
 
     public Converter(Log log, Deserializer deserializer) {
+        this(log, deserializer, false);
+    }
+
+    /**
+     * @param lazyCollections whether to convert {@link List} and {@link Map} values to immutable views
+     *                        that convert their elements only when accessed, and memoize them,
+     *                        instead of converting all the elements right away
+     */
+    public Converter(Log log, Deserializer deserializer, boolean lazyCollections) {
         this.log = requireNonNull(log);
         this.deserializer = requireNonNull(deserializer);
+        this.lazyCollections = lazyCollections;
     }
 
     public <T> OutputData<T> convertValue(String context, Value value, Class<T> targetType) {
@@ -78,7 +96,12 @@ public class Converter {
         checkTargetType(context, targetType);
 
         log.excessive("Deserialize property[%s]: value=%s intended for targetType=%s", context, value, targetType);
-        var data = this.deserializer.deserialize(value);
+        return convertData(context, deserialize(value), targetType, resources);
+    }
+
+    private <T> OutputData<T> convertData(
+            String context, OutputData<Object> data, TypeShape<T> targetType, ImmutableSet<Resource> resources
+    ) {
         // Note: nulls can enter the system as the representation of an 'unknown' value,
         //       but the Deserializer will wrap it in an OutputData, and we get them as a null here
         @Nullable
@@ -105,6 +128,70 @@ public class Converter {
         return OutputData.ofNullable(mergedResources, (T) converted, data.isKnown(), data.isSecret());
     }
 
+    /**
+     * @return the value deserialized, or with its lists and structs left serialized if the collections are lazy
+     */
+    private OutputData<Object> deserialize(Value value) {
+        if (!this.lazyCollections) {
+            return this.deserializer.deserialize(value);
+        }
+        var maybeMetadata = this.deserializer.tryDeserializeMetadata(value);
+        if (maybeMetadata.isEmpty()) {
+            // resources are constructed when deserialized, so deserialize them right away
+            return this.deserializer.deserialize(value);
+        }
+        return deserialize(value, maybeMetadata.get());
+    }
+
+    /**
+     * @param metadata the metadata of the value, so that the value is not walked again to compute it
+     */
+    private OutputData<Object> deserialize(Value value, OutputData<Void> metadata) {
+        if (!this.lazyCollections) {
+            return this.deserializer.deserialize(value);
+        }
+        return OutputData.ofNullable(
+                metadata.getResources(),
+                metadata.isKnown() ? this.deserializer.deserializeDeferred(value) : null,
+                metadata.isKnown(),
+                metadata.isSecret()
+        );
+    }
+
+    /**
+     * Converts the given value like {@link #convertValue(String, Value, TypeShape, ImmutableSet)},
+     * but only once the value of the returned data is accessed. Whether the value is known and secret,
+     * and its resources, are computed right away.
+     * <p>
+     * A value that cannot be converted fails on access instead of right away.
+     * A value that references resources is converted right away, as the resources are constructed.
+     */
+    public <T> OutputData<T> convertValueLazily(
+            String context, Value value, TypeShape<T> targetType, ImmutableSet<Resource> resources
+    ) {
+        requireNonNull(context);
+        requireNonNull(value);
+        requireNonNull(targetType);
+        requireNonNull(resources);
+
+        checkTargetType(context, targetType);
+
+        var maybeMetadata = this.deserializer.tryDeserializeMetadata(value);
+        if (maybeMetadata.isEmpty()) {
+            return convertValue(context, value, targetType, resources);
+        }
+        // the value does not reference resources, so the given ones are all its resources
+        var metadata = maybeMetadata.get();
+        if (!metadata.isKnown()) {
+            return OutputData.ofNullable(resources, null, false, metadata.isSecret());
+        }
+        return OutputData.ofLazy(
+                resources,
+                () -> convertData(context, deserialize(value, metadata), targetType, resources).getValueNullable(),
+                metadata.isSecret()
+        );
+    }
+
     @Nullable
     private Object convertObjectUntyped(String context, @Nullable Object value, TypeShape<?> targetType) {
         log.excessive(
@@ -190,6 +277,22 @@ public class Converter {
 
         // We're NOT an Optional and we're NOT converting to Optional<T>, just continue
 
+        if (value instanceof Deserializer.Raw) {
+            var raw = (Deserializer.Raw) value;
+            if (List.class.equals(targetType.getType()) && raw.isList()) {
+                return new LazyList(context, raw.elements(), targetType.getParameter(0)
+                        .orElseThrow(() -> new IllegalArgumentException("Expected a parameter type for the List, got none")));
+            }
+            if (Map.class.equals(targetType.getType()) && raw.isStruct()) {
+                return new LazyMap(context, raw.fields(), targetType.getParameter(1)
+                        .orElseThrow(() -> new IllegalArgumentException("Expected a key parameter type for the Map, got none")));
+            }
+            // the fields of a custom type are left serialized, for its lists and maps
+            if (!raw.isStruct() || !targetType.hasAnnotatedClass(CustomType.Builder.class)) {
+                return tryConvertObjectInner(context, raw.deserialize(), targetType);
+            }
+        }
+
         if (String.class.isAssignableFrom(targetType.getType())) {
             //noinspection unchecked
             return tryEnsureType(context, value, (TypeShape<String>) targetType, "");
@@ -285,10 +388,18 @@ public class Converter {
         if (hasAnnotatedBuilder) {
             var builderType = targetType.getAnnotatedClass(CustomType.Builder.class);
 
-            //noinspection unchecked,ConstantConditions
-            var argumentsMap = new HashMap<String, Object>(
-                    tryEnsureType(context, value, TypeShape.of(Map.class), new HashMap<String, Object>())
-            );
+            final HashMap<String, Object> argumentsMap;
+            if (value instanceof Deserializer.Raw) {
+                argumentsMap = new HashMap<>();
+                ((Deserializer.Raw) value).fields().forEach(
+                        (name, field) -> argumentsMap.put(name, this.deserializer.deserializeDeferred(field))
+                );
+            } else {
+                //noinspection unchecked,ConstantConditions
+                argumentsMap = new HashMap<String, Object>(
+                        tryEnsureType(context, value, TypeShape.of(Map.class), new HashMap<String, Object>())
+                );
+            }
 
             // create the builder object
             final Object builder;
@@ -586,6 +697,129 @@ public class Converter {
         return builder.build();
     }
 
+    /**
+     * An immutable list converting its elements when first accessed, see {@link #tryConvertList(String, Object, TypeShape)}.
+     */
+    private final class LazyList extends AbstractList<Object> implements RandomAccess {
+        private final String context;
+        private final List<Value> elements;
+        private final TypeShape<?> elementType;
+        private final AtomicReferenceArray<Object> converted;
+
+        private LazyList(String context, List<Value> elements, TypeShape<?> elementType) {
+            this.context = requireNonNull(context);
+            this.elements = requireNonNull(elements);
+            this.elementType = requireNonNull(elementType);
+            this.converted = new AtomicReferenceArray<>(elements.size());
+        }
+
+        @Override
+        public Object get(int index) {
+            var element = this.converted.get(index);
+            if (element == null) {
+                var elementContext = String.format("%s[%d]", this.context, index);
+                element = requireNonNull(
+                        convertObjectUntyped(elementContext, deserializer.deserializeDeferred(this.elements.get(index)), this.elementType),
+                        () -> String.format("%s; Expected a non-null element", elementContext)
+                );
+                // the conversions are equal, so keep the first one
+                if (!this.converted.compareAndSet(index, null, element)) {
+                    element = this.converted.get(index);
+                }
+            }
+            return element;
+        }
+
+        @Override
+        public int size() {
+            return this.elements.size();
+        }
+    }
+
+    /**
+     * An immutable map converting its values when first accessed, see {@link #tryConvertMap(String, Object, TypeShape)}.
+     */
+    private final class LazyMap extends AbstractMap<String, Object> {
+        private final String context;
+        private final ImmutableMap<String, Value> fields;
+        private final TypeShape<?> valueType;
+        private final ConcurrentHashMap<String, Object> converted = new ConcurrentHashMap<>();
+
+        private LazyMap(String context, ImmutableMap<String, Value> fields, TypeShape<?> valueType) {
+            this.context = requireNonNull(context);
+            this.fields = requireNonNull(fields);
+            this.valueType = requireNonNull(valueType);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return this.fields.containsKey(key);
+        }
+
+        @Override
+        @Nullable
+        public Object get(Object key) {
+            if (!(key instanceof String) || !this.fields.containsKey(key)) {
+                return null;
+            }
+            return convert((String) key);
+        }
+
+        @Override
+        public int size() {
+            return this.fields.size();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return this.fields.keySet();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    var keys = fields.keySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            var key = keys.next();
+                            return new SimpleImmutableEntry<>(key, convert(key));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return fields.size();
+                }
+            };
+        }
+
+        private Object convert(String key) {
+            var value = this.converted.get(key);
+            if (value == null) {
+                var valueContext = String.format("%s[%s]", this.context, key);
+                value = requireNonNull(
+                        convertObjectUntyped(valueContext, deserializer.deserializeDeferred(this.fields.get(key)), this.valueType),
+                        () -> String.format("%s; Expected a non-null value", valueContext)
+                );
+                // the conversions are equal, so keep the first one
+                var previous = this.converted.putIfAbsent(key, value);
+                if (previous != null) {
+                    value = previous;
+                }
+            }
+            return value;
+        }
+    }
+
     public void checkTargetType(String context, TypeShape<?> targetType) {
         checkTargetType(context, targetType, new HashSet<>());
     }
@@ -15,10 +15,12 @@ import com.pulumi.asset.RemoteAsset;
 import com.pulumi.asset.StringAsset;
 import com.pulumi.core.internal.Constants;
 import com.pulumi.core.internal.OutputData;
+import com.pulumi.core.internal.StringInterner;
 import com.pulumi.core.internal.Urn;
 import com.pulumi.resources.DependencyResource;
 import com.pulumi.resources.Resource;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,6 +33,7 @@ import java.util.stream.Stream;
 
 import static com.google.protobuf.Value.KindCase.BOOL_VALUE;
 import static com.google.protobuf.Value.KindCase.LIST_VALUE;
+import static com.google.protobuf.Value.KindCase.NULL_VALUE;
 import static com.google.protobuf.Value.KindCase.NUMBER_VALUE;
 import static com.google.protobuf.Value.KindCase.STRING_VALUE;
 import static com.google.protobuf.Value.KindCase.STRUCT_VALUE;
@@ -47,10 +50,19 @@ public class Deserializer {
 
     private final Log log;
     private final ResourcePackages resourcePackages;
+    private final StringInterner interner;
 
     public Deserializer(Log log) {
+        this(log, new StringInterner());
+    }
+
+    /**
+     * @param interner deduplicates the property names, URNs and type tokens of the deserialized values
+     */
+    public Deserializer(Log log, StringInterner interner) {
         this.log = requireNonNull(log);
         this.resourcePackages = new ResourcePackages(log);
+        this.interner = requireNonNull(interner);
     }
 
     public OutputData<Object> deserialize(Value value) {
@@ -84,6 +96,172 @@ public class Deserializer {
         });
     }
 
+    /**
+     * Computes whether the given value is known and secret, exactly like {@link #deserialize(Value)} does,
+     * but without building the value, so that the value can be deserialized only once it is used.
+     *
+     * @return the data of the value, without the value itself, or empty if the value references resources,
+     * which are constructed when deserialized, so the value must be deserialized right away
+     */
+    public Optional<OutputData<Void>> tryDeserializeMetadata(Value value) {
+        requireNonNull(value, "Expected value to be non-null");
+
+        var metadata = describe(value);
+        if (metadata.hasResources) {
+            return Optional.empty();
+        }
+        return Optional.of(OutputData.ofNullable(ImmutableSet.of(), null, metadata.isKnown, metadata.isSecret));
+    }
+
+    /**
+     * Deserializes the given value like {@link #deserialize(Value)}, but leaves plain lists and structs serialized,
+     * so that their elements can be deserialized one by one when needed, see {@link Converter}.
+     * The value must be known and must not reference resources, see {@link #tryDeserializeMetadata(Value)}.
+     *
+     * @return the value, a {@link Raw} list or struct, or null if the value deserializes to null
+     */
+    @Nullable
+    Object deserializeDeferred(Value value) {
+        requireNonNull(value, "Expected value to be non-null");
+
+        var unwrapped = unwrapSecret(value).value;
+        if (unwrapped.getKindCase() == NULL_VALUE) {
+            return null;
+        }
+        if (unwrapped.getKindCase() == LIST_VALUE
+                || (unwrapped.getKindCase() == STRUCT_VALUE && checkSpecialStruct(unwrapped).isEmpty())) {
+            return new Raw(unwrapped);
+        }
+        return deserialize(value).getValueNullable();
+    }
+
+    /**
+     * A list or struct left serialized, see {@link #deserializeDeferred(Value)}.
+     */
+    final class Raw {
+        private final Value value;
+
+        private Raw(Value value) {
+            this.value = requireNonNull(value);
+        }
+
+        boolean isList() {
+            return this.value.getKindCase() == LIST_VALUE;
+        }
+
+        boolean isStruct() {
+            return this.value.getKindCase() == STRUCT_VALUE;
+        }
+
+        /**
+         * @return the elements of the list, left serialized
+         */
+        List<Value> elements() {
+            return this.value.getListValue().getValuesList();
+        }
+
+        /**
+         * @return the fields of the struct, left serialized, without the fields deserialized as a struct skips,
+         * in the order a deserialized struct has them
+         */
+        ImmutableMap<String, Value> fields() {
+            var result = new HashMap<String, Value>();
+            for (var entry : this.value.getStructValue().getFieldsMap().entrySet()) {
+                var key = entry.getKey();
+                // the struct is known, so are its fields, and only the null ones are skipped
+                if (key.startsWith("__") || unwrapSecret(entry.getValue()).value.getKindCase() == NULL_VALUE) {
+                    continue;
+                }
+                result.put(interner.intern(key), entry.getValue());
+            }
+            return ImmutableMap.copyOf(result);
+        }
+
+        /**
+         * @return the list or struct, deserialized
+         */
+        Object deserialize() {
+            return requireNonNull(Deserializer.this.deserialize(this.value).getValueNullable());
+        }
+
+        @Override
+        public String toString() {
+            return this.value.getKindCase().toString();
+        }
+    }
+
+    /**
+     * Mirrors {@link #deserializeCore(Value, Function)} and the deserialization of every kind of value.
+     */
+    private static Metadata describe(Value maybeSecret) {
+        var unwrapped = unwrapSecret(maybeSecret);
+        var value = unwrapped.value;
+
+        if (value.getKindCase() == STRING_VALUE && Constants.UnknownValue.equals(value.getStringValue())) {
+            return new Metadata(false, unwrapped.isSecret, true, false);
+        }
+
+        var sig = checkSpecialStruct(value);
+        if (sig.isPresent() && (Constants.SpecialAssetSig.equals(sig.get()) || Constants.SpecialArchiveSig.equals(sig.get()))) {
+            return new Metadata(true, unwrapped.isSecret, false, false);
+        }
+        if (sig.isPresent() && Constants.SpecialResourceSig.equals(sig.get())) {
+            return new Metadata(true, unwrapped.isSecret, false, true);
+        }
+
+        var isKnown = true;
+        var isSecret = false;
+        var hasResources = false;
+        switch (value.getKindCase()) {
+            case NUMBER_VALUE:
+            case STRING_VALUE:
+            case BOOL_VALUE:
+                return new Metadata(true, unwrapped.isSecret, false, false);
+            case NULL_VALUE:
+                return new Metadata(true, unwrapped.isSecret, true, false);
+            case LIST_VALUE:
+                for (var element : value.getListValue().getValuesList()) {
+                    var elementMetadata = describe(element);
+                    isKnown = isKnown && elementMetadata.isKnown;
+                    isSecret = isSecret || elementMetadata.isSecret;
+                    hasResources = hasResources || elementMetadata.hasResources;
+                }
+                return new Metadata(isKnown, unwrapped.isSecret || isSecret, !isKnown, hasResources);
+            case STRUCT_VALUE:
+                for (var entry : value.getStructValue().getFieldsMap().entrySet()) {
+                    if (entry.getKey().startsWith("__")) {
+                        continue;
+                    }
+                    var elementMetadata = describe(entry.getValue());
+                    isKnown = isKnown && elementMetadata.isKnown;
+                    hasResources = hasResources || elementMetadata.hasResources;
+                    if (elementMetadata.isNull) {
+                        continue; // skipped like the null values of a struct
+                    }
+                    isSecret = isSecret || elementMetadata.isSecret;
+                }
+                return new Metadata(isKnown, unwrapped.isSecret || isSecret, !isKnown, hasResources);
+            case KIND_NOT_SET:
+                throw new UnsupportedOperationException("Should never get 'None' type when deserializing protobuf");
+            default:
+                throw new UnsupportedOperationException("Unknown type when deserializing protobuf: " + value.getKindCase());
+        }
+    }
+
+    private static final class Metadata {
+        public final boolean isKnown;
+        public final boolean isSecret;
+        public final boolean isNull;
+        public final boolean hasResources;
+
+        private Metadata(boolean isKnown, boolean isSecret, boolean isNull, boolean hasResources) {
+            this.isKnown = isKnown;
+            this.isSecret = isSecret;
+            this.isNull = isNull;
+            this.hasResources = hasResources;
+        }
+    }
+
     private <T> OutputData<T> deserializeCore(Value maybeSecret, Function<Value, OutputData<T>> func) {
         var unwrapped = unwrapSecret(maybeSecret);
         var isSecret = unwrapped.isSecret;
@@ -201,7 +379,7 @@ public class Deserializer {
                 if (valueOrNull == null) {
                     continue; // skip null early, because most collections cannot handle null values
                 }
-                result.put(key, valueOrNull);
+                result.put(this.interner.intern(key), valueOrNull);
 
                 resources.addAll(elementData.getResources());
                 isSecret = isSecret || elementData.isSecret();
@@ -354,6 +532,7 @@ public class Deserializer {
         var struct = value.getStructValue();
 
         var urn = tryGetStringValue(struct, Constants.ResourceUrnName)
+                .map(this.interner::intern)
                 .orElseThrow(() -> {
                     throw new UnsupportedOperationException(
                             "Value was marked as a Resource, but did not conform to required shape.");
@@ -363,7 +542,7 @@ public class Deserializer {
                 .orElse("");
 
         var urnParsed = Urn.parse(urn);
-        var type = urnParsed.qualifiedType.type.asString();
+        var type = this.interner.intern(urnParsed.qualifiedType.type.asString());
         var resource = this.resourcePackages.tryConstruct(type, version, urn);
         if (resource.isPresent()) {
             return resource;
@@ -7,6 +7,7 @@ import com.pulumi.Log;
 import com.pulumi.core.Output;
 import com.pulumi.core.internal.CompletableFutures;
 import com.pulumi.core.internal.Constants;
+import com.pulumi.core.internal.RuntimeEvents;
 import com.pulumi.resources.CustomResource;
 import com.pulumi.resources.Resource;
 
@@ -19,6 +20,7 @@ import java.util.StringJoiner;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
 import static com.pulumi.core.internal.CompletableFutures.ignoreNullMapValues;
@@ -80,7 +82,7 @@ public final class PropertiesSerializer {
             }
         }
 
-        return CompletableFutures.flatAllOf(resultFutures)
+        var serialized = CompletableFutures.flatAllOf(resultFutures)
                 .thenApply(results -> results.entrySet().stream()
                         .filter(ignoreNullMapValues())
                         .collect(toTupleOfMaps2(
@@ -95,6 +97,18 @@ public final class PropertiesSerializer {
                                 results.t2
                         )
                 );
+        return RuntimeEvents.SerializationCompleted.record(label, serialized, (event, result) -> {
+            event.properties = result.serialized.getFieldsCount();
+            event.nodes = countNodes(result.serialized);
+            event.bytes = result.serialized.getSerializedSize();
+            event.containsUnknowns = result.containsUnknowns;
+        });
+    }
+
+    private static long countNodes(Struct struct) {
+        var nodes = new AtomicLong();
+        ValueVisitor.visit(Value.newBuilder().setStructValue(struct).build(), v -> nodes.incrementAndGet());
+        return nodes.get() - 1; // not counting the wrapping value
     }
 
     private static RuntimeException wrapWithPropertyName(String key, Throwable throwable) {
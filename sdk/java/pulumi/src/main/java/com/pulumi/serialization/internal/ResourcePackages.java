@@ -12,6 +12,7 @@ import com.pulumi.core.annotations.ResourceType;
 import com.pulumi.core.internal.Maps;
 import com.pulumi.core.internal.Optionals;
 import com.pulumi.core.internal.Reflection;
+import com.pulumi.core.internal.RuntimeEvents;
 import com.pulumi.core.internal.SemanticVersion;
 import com.pulumi.core.internal.Urn;
 import com.pulumi.core.internal.annotations.InternalUse;
@@ -28,6 +29,7 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -63,10 +65,15 @@ public class ResourcePackages {
             throw new IllegalStateException(String.format("Failed to read class path: %s", e.getMessage()), e);
         }
 
-        return classpath.getAllClasses().stream()
+        var event = new RuntimeEvents.ResourcePackagesScan();
+        event.begin();
+        var loaded = new AtomicInteger();
+
+        var discovered = classpath.getAllClasses().stream()
                 // exclude early our dependencies and common packages almost certain to not contain what we want
                 .filter(ResourcePackages::excludePackages)
                 .map(c -> {
+                    loaded.incrementAndGet();
                     try {
                         return c.load();
                     } catch (LinkageError e) {
@@ -114,6 +121,14 @@ public class ResourcePackages {
                                 ImmutableMap::copyOf
                         )
                 );
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.classes = loaded.get();
+            event.resourceTypes = discovered.size();
+            event.commit();
+        }
+        return discovered;
     }
 
     @SuppressWarnings("UnstableApiUsage")
@@ -67,7 +67,8 @@ public interface PulumiTest {
     }
 
     /**
-     * Cleanup internal test state. <b>Must be called</b> after every run of a Pulumi test program.
+     * Cleanup internal test state. <b>Must be called</b> after every run of a Pulumi test program,
+     * unless the test is {@link TestOptions#isolated()}.
      */
     static void cleanup() {
         PulumiTestInternal.cleanup();
@@ -20,6 +20,9 @@ public class TestOptions {
     private final String rootDirectory;
     private final boolean preview;
     private final List<ResourceTransformation> resourceTransformations;
+    private final boolean isolated;
+    private final boolean synchronous;
+    private final boolean retainResources;
 
     /**
      * @param projectName             the test project name to use
@@ -68,6 +71,76 @@ public class TestOptions {
             List<ResourceTransformation> resourceTransformations,
             String organizationName,
             String rootDirectory
+    ) {
+        this(projectName, stackName, preview, resourceTransformations, organizationName, rootDirectory, false);
+    }
+
+    /**
+     * @param projectName             the test project name to use
+     * @param stackName               the test stack name to use
+     * @param preview                 is the test a preview or a normal execution
+     * @param resourceTransformations the test stack resource transformations
+     * @param organizationName        the test organization name to use
+     * @param rootDirectory           the test project root directory to use
+     * @param isolated                bind the test to its own deployment, instead of the calling thread
+     */
+    public TestOptions(
+            String projectName,
+            String stackName,
+            boolean preview,
+            List<ResourceTransformation> resourceTransformations,
+            String organizationName,
+            String rootDirectory,
+            boolean isolated
+    ) {
+        this(projectName, stackName, preview, resourceTransformations, organizationName, rootDirectory, isolated, false);
+    }
+
+    /**
+     * @param projectName             the test project name to use
+     * @param stackName               the test stack name to use
+     * @param preview                 is the test a preview or a normal execution
+     * @param resourceTransformations the test stack resource transformations
+     * @param organizationName        the test organization name to use
+     * @param rootDirectory           the test project root directory to use
+     * @param isolated                bind the test to its own deployment, instead of the calling thread
+     * @param synchronous             run the test synchronously on the calling thread
+     */
+    public TestOptions(
+            String projectName,
+            String stackName,
+            boolean preview,
+            List<ResourceTransformation> resourceTransformations,
+            String organizationName,
+            String rootDirectory,
+            boolean isolated,
+            boolean synchronous
+    ) {
+        this(projectName, stackName, preview, resourceTransformations, organizationName, rootDirectory,
+                isolated, synchronous, true);
+    }
+
+    /**
+     * @param projectName             the test project name to use
+     * @param stackName               the test stack name to use
+     * @param preview                 is the test a preview or a normal execution
+     * @param resourceTransformations the test stack resource transformations
+     * @param organizationName        the test organization name to use
+     * @param rootDirectory           the test project root directory to use
+     * @param isolated                bind the test to its own deployment, instead of the calling thread
+     * @param synchronous             run the test synchronously on the calling thread
+     * @param retainResources         keep the registered resources, or only their serialized state
+     */
+    public TestOptions(
+            String projectName,
+            String stackName,
+            boolean preview,
+            List<ResourceTransformation> resourceTransformations,
+            String organizationName,
+            String rootDirectory,
+            boolean isolated,
+            boolean synchronous,
+            boolean retainResources
     ) {
         this.projectName = requireNonNull(projectName);
         this.stackName = requireNonNull(stackName);
@@ -75,6 +148,9 @@ public class TestOptions {
         this.resourceTransformations = requireNonNull(resourceTransformations);
         this.organizationName = requireNonNullElse(organizationName, "organization");
         this.rootDirectory = requireNonNullElse(rootDirectory, "");
+        this.isolated = isolated;
+        this.synchronous = synchronous;
+        this.retainResources = retainResources;
     }
 
     /**
@@ -120,6 +196,36 @@ public class TestOptions {
         return this.resourceTransformations;
     }
 
+    /**
+     * Whether the test is isolated from the calling thread. Defaults to <b>false</b> if not specified.
+     * <p>
+     * An isolated test runs with its own deployment, without installing it on the calling thread,
+     * so isolated tests can run concurrently and need no {@link PulumiTest#cleanup()}.
+     */
+    public boolean isolated() {
+        return this.isolated;
+    }
+
+    /**
+     * Whether the test runs synchronously. Defaults to <b>false</b> if not specified.
+     * <p>
+     * A synchronous test runs all the asynchronous work of the program, one task at a time,
+     * in a deterministic order, on the thread calling {@link PulumiTest.API#runTest}.
+     */
+    public boolean synchronous() {
+        return this.synchronous;
+    }
+
+    /**
+     * Whether the test keeps the registered resources. Defaults to <b>true</b> if not specified.
+     * <p>
+     * When false, only the URNs and the serialized state of the resources are kept,
+     * and {@link TestResult#resources()} is empty.
+     */
+    public boolean retainResources() {
+        return this.retainResources;
+    }
+
     /**
      * @return a new {@link Builder} for {@link TestOptions}
      */
@@ -137,6 +243,9 @@ public class TestOptions {
         private String rootDirectory;
         private boolean preview;
         private List<ResourceTransformation> resourceTransformations;
+        private boolean isolated;
+        private boolean synchronous;
+        private boolean retainResources;
 
         public Builder() {
             this.organizationName = "organization";
@@ -145,6 +254,9 @@ public class TestOptions {
             this.rootDirectory = "";
             this.preview = false;
             this.resourceTransformations = List.of();
+            this.isolated = false;
+            this.synchronous = false;
+            this.retainResources = true;
         }
 
         /**
@@ -214,13 +326,66 @@ public class TestOptions {
             return this;
         }
 
+        /**
+         * The isolated mode. Defaults to <b>false</b> if not specified.
+         * <p>
+         * By default, the deployment of a test is installed on the calling thread, and
+         * {@link PulumiTest#cleanup()} must be called after every run. An isolated test keeps its
+         * deployment to itself instead, so many tests can run concurrently in one JVM,
+         * e.g. with JUnit 5 {@code @Execution(CONCURRENT)}. Code that looks the deployment up
+         * outside of the test program, e.g. after the run, does not see it.
+         *
+         * @param isolated set true to bind the test to its own deployment only
+         * @return this {@link Builder}
+         */
+        public Builder isolated(boolean isolated) {
+            this.isolated = isolated;
+            return this;
+        }
+
+        /**
+         * The synchronous mode. Defaults to <b>false</b> if not specified.
+         * <p>
+         * In synchronous mode, the program and all its asynchronous work, e.g. the registration of
+         * resources with the mocks, run one task at a time on the thread calling
+         * {@link PulumiTest.API#runTest}, in a deterministic order. Tests run faster and reproducibly,
+         * and errors are raised on the test thread.
+         * Mocks should complete their futures directly, as the test waits for other threads otherwise.
+         * {@link PulumiTest.API#runTestAsync} blocks too: it runs the test before returning,
+         * and returns a completed future.
+         *
+         * @param synchronous set true to run the test synchronously
+         * @return this {@link Builder}
+         */
+        public Builder synchronous(boolean synchronous) {
+            this.synchronous = synchronous;
+            return this;
+        }
+
+        /**
+         * Whether to keep the registered resources. Defaults to <b>true</b> if not specified.
+         * <p>
+         * Tests registering many resources can set this to false to keep only the URN and the serialized
+         * state of every resource, instead of the resource objects. The state is still available with
+         * {@link TestResult#state(String)} and the URN queries of {@link TestResult}, but the queries
+         * returning resources, like {@link TestResult#resources()}, return nothing.
+         *
+         * @param retainResources set false to keep only the serialized state of the resources
+         * @return this {@link Builder}
+         */
+        public Builder retainResources(boolean retainResources) {
+            this.retainResources = retainResources;
+            return this;
+        }
+
         /**
          * @return a new {@link TestOptions} from this {@link Builder}.
          */
         public TestOptions build() {
             return new TestOptions(
                     this.projectName, this.stackName, this.preview, this.resourceTransformations,
-                    this.organizationName, this.rootDirectory
+                    this.organizationName, this.rootDirectory, this.isolated, this.synchronous,
+                    this.retainResources
             );
         }
     }
@@ -3,12 +3,16 @@ package com.pulumi.test;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.pulumi.core.Output;
+import com.pulumi.core.internal.annotations.InternalUse;
 import com.pulumi.exceptions.RunException;
 import com.pulumi.resources.Resource;
+import com.pulumi.test.internal.MockResourceIndex;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -20,15 +24,38 @@ public class TestResult {
     private final List<Exception> exceptions;
     private final List<String> errors;
     private final Map<String, Output<?>> outputs;
+    private final MockResourceIndex index;
+    private final Map<Class<?>, List<?>> resourcesByClass = new ConcurrentHashMap<>();
 
     public TestResult(int exitCode,
                       List<Resource> resources,
                       List<Exception> exceptions,
                       List<String> errors,
                       Map<String, Output<?>> outputs
+    ) {
+        this(exitCode, resources, MockResourceIndex.of(resources), exceptions, errors, outputs);
+    }
+
+    @InternalUse
+    public TestResult(int exitCode,
+                      MockResourceIndex index,
+                      List<Exception> exceptions,
+                      List<String> errors,
+                      Map<String, Output<?>> outputs
+    ) {
+        this(exitCode, index.resources(), index, exceptions, errors, outputs);
+    }
+
+    private TestResult(int exitCode,
+                       Iterable<Resource> resources,
+                       MockResourceIndex index,
+                       List<Exception> exceptions,
+                       List<String> errors,
+                       Map<String, Output<?>> outputs
     ) {
         this.exitCode = exitCode;
         this.resources = ImmutableList.copyOf(resources);
+        this.index = index;
         this.exceptions = ImmutableList.copyOf(exceptions);
         this.errors = ImmutableList.copyOf(errors);
         this.outputs = ImmutableMap.copyOf(outputs);
@@ -42,6 +69,86 @@ public class TestResult {
         return this.resources;
     }
 
+    /**
+     * Gets the registered resources that are instances of the given class, in registration order.
+     *
+     * @param type the resource class
+     * @param <T>  the resource type
+     * @return the resources of the given {@code type}
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Resource> List<T> resourcesOfType(Class<T> type) {
+        return (List<T>) this.resourcesByClass.computeIfAbsent(type, t -> this.resources.stream()
+                .filter(t::isInstance)
+                .collect(ImmutableList.toImmutableList())
+        );
+    }
+
+    /**
+     * Gets the registered resources with the given type token, e.g. {@code "aws:s3/bucket:Bucket"}.
+     *
+     * @param type the resource type token
+     * @return the resources of the given {@code type}, in registration order
+     */
+    public List<Resource> resourcesOfType(String type) {
+        return this.index.resourcesOfType(type);
+    }
+
+    /**
+     * Gets the URNs of the registered resources with the given type token.
+     * Unlike {@link #resourcesOfType(String)}, this also works when resources are not retained.
+     *
+     * @param type the resource type token
+     * @return the URNs of the resources of the given {@code type}
+     * @see TestOptions#retainResources()
+     */
+    public List<String> urnsOfType(String type) {
+        return this.index.urnsOfType(type);
+    }
+
+    /**
+     * Gets the resource with the given URN.
+     *
+     * @param urn the resource URN
+     * @return the resource, or empty if there is no such resource, or resources are not retained
+     */
+    public Optional<Resource> byUrn(String urn) {
+        return this.index.byUrn(urn);
+    }
+
+    /**
+     * Gets the registered resources whose parent has the given URN.
+     *
+     * @param parentUrn the parent resource URN
+     * @return the children of the parent resource, in registration order
+     */
+    public List<Resource> childrenOf(String parentUrn) {
+        return this.index.resolve(this.index.urnsOfChildren(parentUrn));
+    }
+
+    /**
+     * Gets the registered resources that use the given provider.
+     *
+     * @param providerReference the provider reference, in the form of {@code "<provider URN>::<provider ID>"}
+     * @return the resources using the given provider, in registration order
+     */
+    public List<Resource> resourcesWithProvider(String providerReference) {
+        return this.index.resolve(this.index.urnsWithProvider(providerReference));
+    }
+
+    /**
+     * Gets the serialized state returned by the mocks for the resource with the given URN.
+     * This also works when resources are not retained.
+     *
+     * @param urn the resource URN
+     * @return the serialized state, or empty if there is no such resource
+     * @see TestOptions#retainResources()
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<Map<String, Object>> state(String urn) {
+        return this.index.state(urn).map(registered -> (Map<String, Object>) registered.get("state"));
+    }
+
     public List<Exception> exceptions() {
         return this.exceptions;
     }
@@ -0,0 +1,197 @@
+package com.pulumi.test.internal;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import com.pulumi.core.internal.annotations.InternalUse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The latencies and failure rates of the operations of a {@link SyntheticEngine}, per resource type token.
+ */
+@InternalUse
+public final class LatencyProfile {
+
+    /**
+     * A profile without latency or failures.
+     */
+    public static final LatencyProfile None = builder().build();
+
+    private final Distribution defaultLatency;
+    private final ImmutableMap<String, Distribution> latencies;
+    private final double defaultFailureRate;
+    private final ImmutableMap<String, Double> failureRates;
+    private final long seed;
+
+    private LatencyProfile(
+            Distribution defaultLatency,
+            ImmutableMap<String, Distribution> latencies,
+            double defaultFailureRate,
+            ImmutableMap<String, Double> failureRates,
+            long seed
+    ) {
+        this.defaultLatency = defaultLatency;
+        this.latencies = latencies;
+        this.defaultFailureRate = defaultFailureRate;
+        this.failureRates = failureRates;
+        this.seed = seed;
+    }
+
+    /**
+     * The seed of the random numbers. Each operation samples its latency and failure from numbers
+     * derived from the seed and the operation, e.g. the URN of its resource, so the same operation
+     * gets the same latency in every run with the same profile, whatever the order of the operations.
+     *
+     * @return the seed of the random numbers
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    /**
+     * @param key identifies the operation, e.g. the URN of its resource
+     * @return the random numbers of the operation, derived from the seed and the key
+     */
+    Random random(String key) {
+        return new Random(Hashing.farmHashFingerprint64().newHasher()
+                .putLong(this.seed)
+                .putString(key, StandardCharsets.UTF_8)
+                .hash()
+                .asLong());
+    }
+
+    Duration latency(String type, Random random) {
+        return this.latencies.getOrDefault(type, this.defaultLatency).sample(random);
+    }
+
+    boolean fails(String type, Random random) {
+        var rate = this.failureRates.getOrDefault(type, this.defaultFailureRate);
+        return rate > 0 && random.nextDouble() < rate;
+    }
+
+    /**
+     * @return a new {@link Builder} for {@link LatencyProfile}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A distribution of latencies.
+     */
+    @FunctionalInterface
+    public interface Distribution {
+
+        /**
+         * @param random the source of randomness to use
+         * @return a latency
+         */
+        Duration sample(Random random);
+
+        /**
+         * @return a distribution always returning the given latency
+         */
+        static Distribution fixed(Duration latency) {
+            requireNonNull(latency);
+            return random -> latency;
+        }
+
+        /**
+         * @return a distribution returning latencies uniformly distributed between {@code min} and {@code max}
+         */
+        static Distribution uniform(Duration min, Duration max) {
+            var minNanos = min.toNanos();
+            var range = max.toNanos() - minNanos;
+            if (range < 0) {
+                throw new IllegalArgumentException(String.format("Expected min <= max, got: %s, %s", min, max));
+            }
+            return random -> Duration.ofNanos(minNanos + (long) (random.nextDouble() * range));
+        }
+
+        /**
+         * A log-normal distribution, with a long tail, like the latencies of cloud provider APIs.
+         *
+         * @param median the median latency
+         * @param sigma  the standard deviation of the logarithm of the latency, e.g. 0.5
+         * @return a distribution returning log-normally distributed latencies
+         */
+        static Distribution logNormal(Duration median, double sigma) {
+            var mu = Math.log(median.toNanos());
+            return random -> Duration.ofNanos((long) Math.exp(mu + sigma * random.nextGaussian()));
+        }
+    }
+
+    /**
+     * The builder for {@link LatencyProfile}.
+     */
+    public static final class Builder {
+        private Distribution defaultLatency = Distribution.fixed(Duration.ZERO);
+        private final Map<String, Distribution> latencies = new HashMap<>();
+        private double defaultFailureRate = 0;
+        private final Map<String, Double> failureRates = new HashMap<>();
+        private long seed = 0;
+
+        /**
+         * The latency of the operations on types without a specific latency. Defaults to none.
+         */
+        public Builder latency(Distribution latency) {
+            this.defaultLatency = requireNonNull(latency);
+            return this;
+        }
+
+        /**
+         * The latency of the operations on the given type token, or invoke/call token.
+         */
+        public Builder latency(String type, Distribution latency) {
+            this.latencies.put(requireNonNull(type), requireNonNull(latency));
+            return this;
+        }
+
+        /**
+         * The probability, between 0 and 1, that an operation on types without a specific rate fails. Defaults to 0.
+         */
+        public Builder failureRate(double rate) {
+            this.defaultFailureRate = checkRate(rate);
+            return this;
+        }
+
+        /**
+         * The probability, between 0 and 1, that an operation on the given type token fails.
+         */
+        public Builder failureRate(String type, double rate) {
+            this.failureRates.put(requireNonNull(type), checkRate(rate));
+            return this;
+        }
+
+        /**
+         * The seed of the random numbers. Defaults to 0.
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        private static double checkRate(double rate) {
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException(String.format("Expected a rate between 0 and 1, got: %s", rate));
+            }
+            return rate;
+        }
+
+        public LatencyProfile build() {
+            return new LatencyProfile(
+                    this.defaultLatency,
+                    ImmutableMap.copyOf(this.latencies),
+                    this.defaultFailureRate,
+                    ImmutableMap.copyOf(this.failureRates),
+                    this.seed
+            );
+        }
+    }
+}
@@ -5,7 +5,6 @@ import com.google.common.collect.ImmutableMap;
 import com.google.protobuf.Struct;
 import com.pulumi.Log;
 import com.pulumi.core.internal.ContextAwareCompletableFuture;
-import com.pulumi.core.internal.Maps;
 import com.pulumi.core.internal.Urn;
 import com.pulumi.core.internal.annotations.InternalUse;
 import com.pulumi.deployment.Deployment;
@@ -27,9 +26,6 @@ import pulumirpc.Resource.RegisterResourceResponse;
 import pulumirpc.Resource.SupportsFeatureRequest;
 import pulumirpc.Resource.SupportsFeatureResponse;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -45,15 +41,46 @@ public class MockMonitor implements Monitor {
     private final Serializer serializer;
     private final Deserializer deserializer;
 
-    private final Map<String, ImmutableMap<String, Object>> registeredResources;
+    private final MockResourceIndex index;
     public final List<Resource> resources;
 
     public MockMonitor(Mocks mocks, Log log) {
+        this(mocks, log, true);
+    }
+
+    /**
+     * @param mocks           the mocks to register the resources with
+     * @param log             the log to use
+     * @param retainResources whether to keep the registered {@link Resource} objects,
+     *                        or only their serialized state to save memory in large tests
+     */
+    public MockMonitor(Mocks mocks, Log log, boolean retainResources) {
         this.mocks = Objects.requireNonNull(mocks);
         this.serializer = new Serializer(log);
         this.deserializer = new Deserializer(log);
-        this.registeredResources = Collections.synchronizedMap(new HashMap<>());
-        this.resources = Collections.synchronizedList(new LinkedList<>());
+        this.index = new MockResourceIndex(retainResources);
+        this.resources = this.index.resources();
+    }
+
+    /**
+     * Creates a monitor sharing the mocks and the registered resources of the given monitor,
+     * for subclasses decorating an existing monitor, e.g. in {@link PulumiTestInternal.Builder#monitorDecorator}.
+     *
+     * @param other the monitor to share the state of
+     */
+    protected MockMonitor(MockMonitor other) {
+        this.mocks = other.mocks;
+        this.serializer = other.serializer;
+        this.deserializer = other.deserializer;
+        this.index = other.index;
+        this.resources = other.resources;
+    }
+
+    /**
+     * @return the index of the resources registered with this monitor
+     */
+    public MockResourceIndex index() {
+        return this.index;
     }
 
     @Override
@@ -71,9 +98,9 @@ public class MockMonitor implements Monitor {
         CompletableFuture<Map<String, Object>> toBeSerialized;
         if ("pulumi:pulumi:getResource".equals(request.getTok())) {
             var urn = (String) args.get("urn");
-            Map<String, Object> registeredResource = Maps.tryGetValue(registeredResources, urn)
+            Map<String, Object> registeredResource = index.state(urn)
                     .orElseThrow(() -> new IllegalArgumentException(String.format(
-                            "Unknown resource '%s', got: %s", urn, registeredResources
+                            "Unknown resource '%s', got: %s", urn, index.urnsWithState()
                     )));
             toBeSerialized = CompletableFuture.completedFuture(registeredResource);
         } else {
@@ -125,7 +152,8 @@ public class MockMonitor implements Monitor {
                         }
                         builder.put("state", serializedState);
 
-                        registeredResources.put(urn, builder.build());
+                        index.register(urn, resource, request.getType(), request.getParent(),
+                                request.getProvider(), builder.build());
 
                         return ReadResourceResponse.newBuilder()
                                 .setUrn(urn)
@@ -137,18 +165,20 @@ public class MockMonitor implements Monitor {
 
     @Override
     public CompletableFuture<RegisterResourceResponse> registerResourceAsync(Resource resource, RegisterResourceRequest request) {
-        this.resources.add(resource);
+        this.index.add(resource, request.getType());
 
         if (RootPulumiStackTypeName.equals(request.getType())) {
+            var urn = Urn.create(
+                    Deployment.getInstance().getStackName(),
+                    Deployment.getInstance().getProjectName(),
+                    Optional.of(request.getParent()),
+                    request.getType(),
+                    request.getName()
+            );
+            this.index.register(urn, resource, request.getType(), request.getParent(), request.getProvider(), null);
             return CompletableFuture.completedFuture(
                     RegisterResourceResponse.newBuilder()
-                            .setUrn(Urn.create(
-                                    Deployment.getInstance().getStackName(),
-                                    Deployment.getInstance().getProjectName(),
-                                    Optional.of(request.getParent()),
-                                    request.getType(),
-                                    request.getName()
-                            ))
+                            .setUrn(urn)
                             .setObject(Struct.newBuilder().build())
                             .build()
             );
@@ -172,11 +202,12 @@ public class MockMonitor implements Monitor {
             );
             return serializeToMap(state)
                     .thenApply(serializedState -> {
-                        registeredResources.put(urn, ImmutableMap.of(
-                                "urn", urn,
-                                "id", id.isPresent() ? id : request.getImportId(),
-                                "state", serializedState
-                        ));
+                        index.register(urn, resource, request.getType(), request.getParent(),
+                                request.getProvider(), ImmutableMap.of(
+                                        "urn", urn,
+                                        "id", id.isPresent() ? id : request.getImportId(),
+                                        "state", serializedState
+                                ));
 
                         return RegisterResourceResponse.newBuilder()
                                 .setId(id.isPresent() ? id.get() : request.getImportId())
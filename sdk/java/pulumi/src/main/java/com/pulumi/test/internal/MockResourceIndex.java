@@ -0,0 +1,200 @@
+package com.pulumi.test.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.pulumi.core.internal.annotations.InternalUse;
+import com.pulumi.resources.Resource;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The resources registered with a {@link MockMonitor}, indexed by URN, type token, parent and provider.
+ * <p>
+ * All the indexes are append-only and safe to use concurrently, so registering a resource
+ * only briefly locks the list of all the resources, and lookups never scan all the resources.
+ * <p>
+ * When resources are not retained, only the URNs and the serialized state of the resources are kept,
+ * and the queries returning {@link Resource} objects return nothing.
+ */
+@InternalUse
+public final class MockResourceIndex {
+
+    private final boolean retainResources;
+
+    private final List<Resource> resources = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, Queue<Resource>> resourcesByType = new ConcurrentHashMap<>();
+    private final Queue<String> urns = new ConcurrentLinkedQueue<>();
+    private final Map<String, Resource> resourcesByUrn = new ConcurrentHashMap<>();
+    private final Map<String, ImmutableMap<String, Object>> statesByUrn = new ConcurrentHashMap<>();
+    private final Map<String, Queue<String>> urnsByType = new ConcurrentHashMap<>();
+    private final Map<String, Queue<String>> urnsByParent = new ConcurrentHashMap<>();
+    private final Map<String, Queue<String>> urnsByProvider = new ConcurrentHashMap<>();
+
+    /**
+     * @param retainResources whether to keep the {@link Resource} objects, or only their serialized state
+     */
+    public MockResourceIndex(boolean retainResources) {
+        this.retainResources = retainResources;
+    }
+
+    /**
+     * @return an index of the given resources, by the order and type they were registered with
+     */
+    public static MockResourceIndex of(List<Resource> resources) {
+        var index = new MockResourceIndex(true);
+        for (var resource : resources) {
+            index.add(resource, resource.pulumiResourceType());
+        }
+        return index;
+    }
+
+    /**
+     * @return whether the {@link Resource} objects are kept
+     */
+    public boolean retainResources() {
+        return this.retainResources;
+    }
+
+    /**
+     * Adds a resource at the time it is registered, before its URN is known.
+     *
+     * @param resource the resource
+     * @param type     the resource type token
+     */
+    void add(Resource resource, String type) {
+        if (this.retainResources) {
+            this.resources.add(resource);
+            this.resourcesByType.computeIfAbsent(type, __ -> new ConcurrentLinkedQueue<>()).add(resource);
+        }
+    }
+
+    /**
+     * Indexes a resource once its URN is known.
+     *
+     * @param urn      the resource URN
+     * @param resource the resource
+     * @param type     the resource type token
+     * @param parent   the parent URN, or an empty string for no parent
+     * @param provider the provider reference, or an empty string for the default provider
+     * @param state    the serialized state, or null if the resource has no state, e.g. the root stack
+     */
+    void register(
+            String urn,
+            Resource resource,
+            String type,
+            String parent,
+            String provider,
+            @Nullable ImmutableMap<String, Object> state
+    ) {
+        if (state != null) {
+            this.statesByUrn.put(urn, state);
+        }
+        if (this.retainResources) {
+            this.resourcesByUrn.put(urn, resource);
+        }
+        this.urns.add(urn);
+        append(this.urnsByType, type, urn);
+        if (!parent.isEmpty()) {
+            append(this.urnsByParent, parent, urn);
+        }
+        if (!provider.isEmpty()) {
+            append(this.urnsByProvider, provider, urn);
+        }
+    }
+
+    private static void append(Map<String, Queue<String>> index, String key, String urn) {
+        index.computeIfAbsent(key, __ -> new ConcurrentLinkedQueue<>()).add(urn);
+    }
+
+    /**
+     * @return a live, unmodifiable view of the registered resources, in registration order
+     */
+    public List<Resource> resources() {
+        return Collections.unmodifiableList(this.resources);
+    }
+
+    /**
+     * @return the retained resources with the given type token, in registration order
+     */
+    public List<Resource> resourcesOfType(String type) {
+        var resources = this.resourcesByType.get(type);
+        return resources == null ? ImmutableList.of() : ImmutableList.copyOf(resources);
+    }
+
+    /**
+     * @return the URNs of the indexed resources, in the order they were indexed
+     */
+    public List<String> urns() {
+        return ImmutableList.copyOf(this.urns);
+    }
+
+    /**
+     * @return the resource with the given URN, if it is indexed and retained
+     */
+    public Optional<Resource> byUrn(String urn) {
+        return Optional.ofNullable(this.resourcesByUrn.get(urn));
+    }
+
+    /**
+     * @return the serialized {@code urn}, {@code id} and {@code state} of the resource with the given URN
+     */
+    public Optional<ImmutableMap<String, Object>> state(String urn) {
+        return Optional.ofNullable(this.statesByUrn.get(urn));
+    }
+
+    /**
+     * @return the URNs of the resources with the given type token
+     */
+    public List<String> urnsOfType(String type) {
+        return lookup(this.urnsByType, type);
+    }
+
+    /**
+     * @return the URNs of the children of the resource with the given URN
+     */
+    public List<String> urnsOfChildren(String parentUrn) {
+        return lookup(this.urnsByParent, parentUrn);
+    }
+
+    /**
+     * @return the URNs of the resources using the given provider reference
+     */
+    public List<String> urnsWithProvider(String provider) {
+        return lookup(this.urnsByProvider, provider);
+    }
+
+    /**
+     * @return the retained resources with the given URNs, in the same order
+     */
+    public List<Resource> resolve(List<String> urns) {
+        var builder = ImmutableList.<Resource>builder();
+        for (var urn : urns) {
+            var resource = this.resourcesByUrn.get(urn);
+            if (resource != null) {
+                builder.add(resource);
+            }
+        }
+        return builder.build();
+    }
+
+    private static List<String> lookup(Map<String, Queue<String>> index, String key) {
+        var urns = index.get(key);
+        return urns == null ? ImmutableList.of() : ImmutableList.copyOf(urns);
+    }
+
+    /**
+     * @return the URNs of the resources with state, e.g. for error messages
+     */
+    Set<String> urnsWithState() {
+        return Collections.unmodifiableSet(this.statesByUrn.keySet());
+    }
+}
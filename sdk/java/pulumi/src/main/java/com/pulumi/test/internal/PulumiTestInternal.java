@@ -16,12 +16,14 @@ import com.pulumi.core.internal.Internal;
 import com.pulumi.core.internal.OutputData;
 import com.pulumi.core.internal.OutputFactory;
 import com.pulumi.core.internal.annotations.InternalUse;
+import com.pulumi.deployment.DeploymentInstance;
 import com.pulumi.deployment.internal.DeploymentImpl;
 import com.pulumi.deployment.internal.DeploymentInstanceHolder;
 import com.pulumi.deployment.internal.DeploymentInstanceInternal;
 import com.pulumi.deployment.internal.DeploymentInternal;
 import com.pulumi.deployment.internal.Engine;
 import com.pulumi.deployment.internal.EngineLogger;
+import com.pulumi.deployment.internal.Instrumentation;
 import com.pulumi.deployment.internal.Monitor;
 import com.pulumi.deployment.internal.ReadOrRegisterResource;
 import com.pulumi.deployment.internal.RegisterResourceOutputs;
@@ -71,7 +73,27 @@ public class PulumiTestInternal extends PulumiInternal implements PulumiTest {
             RegisterResourceOutputs registerResourceOutputs,
             ContextInternal stackContext
     ) {
-        super(runner, stackContext);
+        this(options, runner, engine, monitor, log, readOrRegisterResource, registerResourceOutputs, stackContext,
+                DeploymentInstanceHolder.getInstanceNoThrow());
+    }
+
+    /**
+     * Creates a test bound to the given deployment, the test does not depend on
+     * the deployment installed on the calling thread, so tests can run concurrently.
+     */
+    @InternalUse
+    public PulumiTestInternal(
+            TestOptions options,
+            Runner runner,
+            MockEngine engine,
+            MockMonitor monitor,
+            Log log,
+            ReadOrRegisterResource readOrRegisterResource,
+            RegisterResourceOutputs registerResourceOutputs,
+            ContextInternal stackContext,
+            @Nullable DeploymentInstance instance
+    ) {
+        super(runner, stackContext, instance, Instrumentation.disabled());
         this.options = requireNonNull(options);
         this.log = requireNonNull(log);
         this.engine = requireNonNull(engine);
@@ -142,7 +164,7 @@ public class PulumiTestInternal extends PulumiInternal implements PulumiTest {
     ) {
         return runAsyncResult(stackCallback).thenApply(r -> new TestResult(
                 r.exitCode(),
-                this.monitor.resources,
+                this.monitor.index(),
                 r.exceptions(),
                 ImmutableList.copyOf(this.engine.getErrors()),
                 this.stackContext.exports()
@@ -234,6 +256,8 @@ public class PulumiTestInternal extends PulumiInternal implements PulumiTest {
         private Function<DeploymentImpl.DeploymentState, DeploymentInternal> deploymentFactory;
         @Nullable
         private Function<MockMonitor, MockMonitor> monitorDecorator;
+        @Nullable
+        private Instrumentation instrumentation;
 
         /**
          * @param options the {@link TestOptions} to use in the test
@@ -320,6 +344,18 @@ public class PulumiTestInternal extends PulumiInternal implements PulumiTest {
             return this;
         }
 
+        /**
+         * Trace the deployment of this test, e.g. to test the tracing itself.
+         * The test does not shut the instrumentation down.
+         *
+         * @param instrumentation the instrumentation, by default {@link Instrumentation#disabled()}
+         * @return this Pulumi test {@link Builder}
+         */
+        public Builder instrumentation(Instrumentation instrumentation) {
+            this.instrumentation = requireNonNull(instrumentation);
+            return this;
+        }
+
         /**
          * @return a {@link PulumiTestInternal} instance created from this {@link Builder}
          */
@@ -356,7 +392,9 @@ public class PulumiTestInternal extends PulumiInternal implements PulumiTest {
                 this.monitorDecorator = Function.identity();
             }
             if (this.monitor == null) {
-                this.monitor = monitorDecorator.apply(new MockMonitor(this.mocks, this.log));
+                this.monitor = monitorDecorator.apply(new MockMonitor(
+                        this.mocks, this.log, this.options.retainResources()
+                ));
             }
             if (this.config == null) {
                 this.config = new DeploymentImpl.Config(ImmutableMap.of(), ImmutableSet.of());
@@ -371,7 +409,9 @@ public class PulumiTestInternal extends PulumiInternal implements PulumiTest {
                         this.options.rootDirectory(),
                         this.options.preview(),
                         this.engine,
-                        this.monitor
+                        this.monitor,
+                        this.instrumentation == null ? Instrumentation.disabled() : this.instrumentation,
+                        this.options.synchronous()
                 );
             }
             if (this.deploymentFactory == null) {
@@ -380,7 +420,11 @@ public class PulumiTestInternal extends PulumiInternal implements PulumiTest {
             var deployment = deploymentFactory.apply(this.state);
             // FIXME: this is needed because we create runner inside DeploymentState currently
             this.runner = deployment.getRunner();
-            DeploymentImpl.setInstance(new DeploymentInstanceInternal(deployment));
+            var instance = new DeploymentInstanceInternal(deployment);
+            // an isolated deployment is bound to the test only, see PulumiInternal#withInstance
+            if (!this.options.isolated()) {
+                DeploymentImpl.setInstance(instance);
+            }
 
             Function<String, Config> configFactory = (name) -> new Config(this.config, name);
             var configContext = new ConfigContextInternal(this.options.projectName(), configFactory);
@@ -397,14 +441,17 @@ public class PulumiTestInternal extends PulumiInternal implements PulumiTest {
             );
             return new PulumiTestInternal(
                     this.options, this.runner, this.engine, this.monitor, this.log,
-                    deployment, deployment, context
+                    deployment, deployment, context, instance
             );
         }
     }
 
     @InternalUse
     public static Logger logger(Level level) {
-        var standardLogger = Logger.getLogger(PulumiTestInternal.class.getName());
+        // a logger per test, publishing through the handlers of the shared named logger,
+        // so that setting its level does not leak into other tests
+        var standardLogger = Logger.getAnonymousLogger();
+        standardLogger.setParent(Logger.getLogger(PulumiTestInternal.class.getName()));
         standardLogger.setLevel(level);
         return standardLogger;
     }
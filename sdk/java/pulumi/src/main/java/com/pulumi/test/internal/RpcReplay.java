@@ -0,0 +1,276 @@
+package com.pulumi.test.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
+import com.pulumi.core.internal.ContextAwareCompletableFuture;
+import com.pulumi.core.internal.annotations.InternalUse;
+import com.pulumi.deployment.internal.Engine;
+import com.pulumi.deployment.internal.Monitor;
+import com.pulumi.deployment.internal.Recording.RpcRecord;
+import com.pulumi.deployment.internal.RpcRecorder;
+import com.pulumi.resources.Resource;
+import io.grpc.Status;
+import pulumirpc.EngineOuterClass.GetRootResourceRequest;
+import pulumirpc.EngineOuterClass.GetRootResourceResponse;
+import pulumirpc.EngineOuterClass.LogRequest;
+import pulumirpc.EngineOuterClass.RequirePulumiVersionRequest;
+import pulumirpc.EngineOuterClass.RequirePulumiVersionResponse;
+import pulumirpc.Provider.CallResponse;
+import pulumirpc.Provider.InvokeResponse;
+import pulumirpc.Resource.ReadResourceRequest;
+import pulumirpc.Resource.ReadResourceResponse;
+import pulumirpc.Resource.RegisterPackageRequest;
+import pulumirpc.Resource.RegisterPackageResponse;
+import pulumirpc.Resource.RegisterResourceOutputsRequest;
+import pulumirpc.Resource.RegisterResourceRequest;
+import pulumirpc.Resource.RegisterResourceResponse;
+import pulumirpc.Resource.ResourceCallRequest;
+import pulumirpc.Resource.ResourceInvokeRequest;
+import pulumirpc.Resource.SupportsFeatureRequest;
+import pulumirpc.Resource.SupportsFeatureResponse;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Replays the calls recorded by a {@link RpcRecorder}, to run a program offline with the responses,
+ * and optionally the latencies, of the engine of a real deployment, e.g. to benchmark the SDK.
+ * <p>
+ * The calls are matched by method and key, e.g. the type, name and parent of a resource, or a function token
+ * and a hash of its arguments, in the order they were recorded.
+ * So the program must run with the same project and stack as the recording.
+ * A call recorded several times gets the last recorded response once the recorded ones are used up.
+ * A call that was never recorded, e.g. an invoke with other arguments, fails, and is counted in {@link #misses()},
+ * except for logs.
+ */
+@InternalUse
+public final class RpcReplay {
+
+    /**
+     * How fast the recorded responses are served.
+     */
+    public enum Pacing {
+        /**
+         * Every response is delayed by the duration of the recorded call.
+         */
+        Recorded,
+        /**
+         * Every response is served as soon as it is requested.
+         */
+        FullSpeed
+    }
+
+    private final Map<String, Queue<RpcRecord>> records = new ConcurrentHashMap<>();
+    private final Map<String, RpcRecord> lastRecords = new ConcurrentHashMap<>();
+    private final Pacing pacing;
+    private final int size;
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public RpcReplay(Collection<RpcRecord> records, Pacing pacing) {
+        requireNonNull(records);
+        this.pacing = requireNonNull(pacing);
+        for (var record : records) {
+            var id = id(record.getMethod(), record.getKey());
+            this.records.computeIfAbsent(id, __ -> new ConcurrentLinkedQueue<>()).add(record);
+            this.lastRecords.put(id, record);
+        }
+        this.size = records.size();
+    }
+
+    /**
+     * @param file   a recording of a {@link RpcRecorder}
+     * @param pacing how fast to serve the responses
+     * @return a replay of the given recording
+     * @throws IOException if the recording cannot be read
+     */
+    public static RpcReplay load(Path file, Pacing pacing) throws IOException {
+        try (var input = new BufferedInputStream(Files.newInputStream(file))) {
+            return new RpcReplay(read(input), pacing);
+        }
+    }
+
+    /**
+     * @return the length-delimited records of the given stream
+     */
+    public static List<RpcRecord> read(InputStream input) throws IOException {
+        var records = new ArrayList<RpcRecord>();
+        RpcRecord record;
+        while ((record = RpcRecord.parseDelimitedFrom(input)) != null) {
+            records.add(record);
+        }
+        return ImmutableList.copyOf(records);
+    }
+
+    /**
+     * @return the number of recorded calls
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of calls that were never recorded
+     */
+    public int misses() {
+        return this.misses.get();
+    }
+
+    /**
+     * @return a monitor serving the recorded responses
+     */
+    public Monitor monitor() {
+        return new ReplayMonitor();
+    }
+
+    /**
+     * @return an engine serving the recorded responses
+     */
+    public Engine engine() {
+        return new ReplayEngine();
+    }
+
+    private static String id(String method, String key) {
+        return method + '\n' + key;
+    }
+
+    @Nullable
+    private RpcRecord next(String method, String key) {
+        var id = id(method, key);
+        var queue = this.records.get(id);
+        var record = queue == null ? null : queue.poll();
+        return record != null ? record : this.lastRecords.get(id);
+    }
+
+    private <T> CompletableFuture<T> serve(String method, String key, Parser<T> parser) {
+        var record = next(method, key);
+        if (record == null) {
+            this.misses.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    String.format("No recorded response for %s '%s'", method, key)
+            ));
+        }
+        // complete with the deployment of the caller, as the delay completes on another thread
+        return ContextAwareCompletableFuture.wrap(delay(record)).thenCompose(__ -> respond(record, parser));
+    }
+
+    private CompletableFuture<Void> serveEmpty(String method, String key) {
+        var record = next(method, key);
+        if (record == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return ContextAwareCompletableFuture.wrap(delay(record)).thenCompose(__ -> respond(record, null));
+    }
+
+    private CompletableFuture<Void> delay(RpcRecord record) {
+        if (this.pacing == Pacing.FullSpeed || record.getDurationNanos() <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+            // only delays the completion
+        }, CompletableFuture.delayedExecutor(record.getDurationNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    private static <T> CompletableFuture<T> respond(RpcRecord record, @Nullable Parser<T> parser) {
+        if (record.getStatusCode() != Status.Code.OK.value()) {
+            return CompletableFuture.failedFuture(Status.fromCodeValue(record.getStatusCode())
+                    .withDescription(record.getError())
+                    .asRuntimeException());
+        }
+        if (parser == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return CompletableFuture.completedFuture(parser.parseFrom(record.getResponse()));
+        } catch (InvalidProtocolBufferException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private final class ReplayMonitor implements Monitor {
+
+        @Override
+        public CompletableFuture<SupportsFeatureResponse> supportsFeatureAsync(SupportsFeatureRequest request) {
+            return serve(RpcRecorder.SupportsFeature, request.getId(), SupportsFeatureResponse.parser());
+        }
+
+        @Override
+        public CompletableFuture<InvokeResponse> invokeAsync(ResourceInvokeRequest request) {
+            return serve(RpcRecorder.Invoke, RpcRecorder.functionKey(request.getTok(), request.getArgs()),
+                    InvokeResponse.parser());
+        }
+
+        @Override
+        public CompletableFuture<CallResponse> callAsync(ResourceCallRequest request) {
+            return serve(RpcRecorder.Call, RpcRecorder.functionKey(request.getTok(), request.getArgs()),
+                    CallResponse.parser());
+        }
+
+        @Override
+        public CompletableFuture<ReadResourceResponse> readResourceAsync(
+                @Nullable Resource resource, ReadResourceRequest request
+        ) {
+            return serve(RpcRecorder.ReadResource,
+                    RpcRecorder.resourceKey(request.getType(), request.getName(), request.getParent()),
+                    ReadResourceResponse.parser());
+        }
+
+        @Override
+        public CompletableFuture<RegisterResourceResponse> registerResourceAsync(
+                @Nullable Resource resource, RegisterResourceRequest request
+        ) {
+            return serve(RpcRecorder.RegisterResource,
+                    RpcRecorder.resourceKey(request.getType(), request.getName(), request.getParent()),
+                    RegisterResourceResponse.parser());
+        }
+
+        @Override
+        public CompletableFuture<Void> registerResourceOutputsAsync(RegisterResourceOutputsRequest request) {
+            return serveEmpty(RpcRecorder.RegisterResourceOutputs, request.getUrn());
+        }
+
+        @Override
+        public CompletableFuture<RegisterPackageResponse> registerPackageAsync(RegisterPackageRequest request) {
+            return serve(RpcRecorder.RegisterPackage,
+                    RpcRecorder.packageKey(request.getName(), request.getVersion()),
+                    RegisterPackageResponse.parser());
+        }
+    }
+
+    private final class ReplayEngine implements Engine {
+
+        @Override
+        public CompletableFuture<Void> logAsync(LogRequest request) {
+            return serveEmpty(RpcRecorder.Log, request.getSeverity().name());
+        }
+
+        @Override
+        public CompletableFuture<GetRootResourceResponse> getRootResourceAsync(GetRootResourceRequest request) {
+            return serve(RpcRecorder.GetRootResource, "", GetRootResourceResponse.parser());
+        }
+
+        @Override
+        public CompletableFuture<RequirePulumiVersionResponse> requirePulumiVersionAsync(
+                RequirePulumiVersionRequest request
+        ) {
+            return serve(RpcRecorder.RequirePulumiVersion, request.getPulumiVersionRange(),
+                    RequirePulumiVersionResponse.parser());
+        }
+    }
+}
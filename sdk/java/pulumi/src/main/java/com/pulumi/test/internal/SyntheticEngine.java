@@ -0,0 +1,461 @@
+package com.pulumi.test.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Struct;
+import com.pulumi.core.internal.ContextAwareCompletableFuture;
+import com.pulumi.core.internal.Urn;
+import com.pulumi.core.internal.annotations.InternalUse;
+import com.pulumi.deployment.internal.Monitor;
+import com.pulumi.resources.Resource;
+import io.grpc.Status;
+import pulumirpc.Provider.CallResponse;
+import pulumirpc.Provider.InvokeResponse;
+import pulumirpc.Resource.ReadResourceRequest;
+import pulumirpc.Resource.ReadResourceResponse;
+import pulumirpc.Resource.RegisterPackageRequest;
+import pulumirpc.Resource.RegisterPackageResponse;
+import pulumirpc.Resource.RegisterResourceOutputsRequest;
+import pulumirpc.Resource.RegisterResourceRequest;
+import pulumirpc.Resource.RegisterResourceResponse;
+import pulumirpc.Resource.ResourceCallRequest;
+import pulumirpc.Resource.ResourceInvokeRequest;
+import pulumirpc.Resource.SupportsFeatureRequest;
+import pulumirpc.Resource.SupportsFeatureResponse;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A stand-in for the Pulumi engine, to test how the SDK behaves when the engine is slow,
+ * e.g. when a cloud provider takes hundreds of milliseconds to create a resource.
+ * <p>
+ * Every monitor operation is delayed by a latency sampled from a {@link LatencyProfile}, and may fail
+ * with an injected {@link Status#UNAVAILABLE} error. A resource registration completes only after
+ * the registrations of its parent and dependencies, like in the engine, and fails if one of them was
+ * never registered with this engine. All the operations are recorded
+ * in a {@link #timeline()}, to find out how many of them the SDK keeps in flight.
+ * <p>
+ * The engine can either decorate an existing monitor, e.g. a {@link MockMonitor} with
+ * {@link PulumiTestInternal.Builder#monitorDecorator}, or provide a {@link #monitor()} of its own that
+ * needs no mocks, e.g. to serve it over gRPC with a {@link SyntheticServer}.
+ */
+@InternalUse
+public class SyntheticEngine extends MockEngine {
+
+    /**
+     * The kinds of monitor operations.
+     */
+    public enum Operation {
+        Register, Read, RegisterOutputs, Invoke, Call
+    }
+
+    /**
+     * A monitor operation recorded in the {@link #timeline()}.
+     */
+    public static final class Event {
+        private final Operation operation;
+        private final String type;
+        private final String name;
+        private final long startNanos;
+        private final long endNanos;
+        private final boolean failed;
+
+        private Event(Operation operation, String type, String name, long startNanos, long endNanos, boolean failed) {
+            this.operation = operation;
+            this.type = type;
+            this.name = name;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.failed = failed;
+        }
+
+        public Operation operation() {
+            return this.operation;
+        }
+
+        /**
+         * @return the resource type token, or the invoke/call token
+         */
+        public String type() {
+            return this.type;
+        }
+
+        /**
+         * @return the resource name, or an empty string for invokes and calls
+         */
+        public String name() {
+            return this.name;
+        }
+
+        /**
+         * @return the time the operation was requested, in nanoseconds since the engine was created
+         */
+        public long startNanos() {
+            return this.startNanos;
+        }
+
+        /**
+         * @return the time the operation completed, in nanoseconds since the engine was created
+         */
+        public long endNanos() {
+            return this.endNanos;
+        }
+
+        public Duration duration() {
+            return Duration.ofNanos(this.endNanos - this.startNanos);
+        }
+
+        public boolean failed() {
+            return this.failed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s %s [%d, %d]%s", operation, type, name, startNanos, endNanos,
+                    failed ? " failed" : "");
+        }
+    }
+
+    private final LatencyProfile profile;
+    private final String stackName;
+    private final String projectName;
+    private final boolean preview;
+    private final long origin = System.nanoTime();
+    private final Queue<Event> timeline = new ConcurrentLinkedQueue<>();
+    private final Map<String, CompletableFuture<Void>> registrations = new ConcurrentHashMap<>();
+    // tells apart the invokes and calls of the same token, that have no URN
+    private final Map<String, AtomicInteger> occurrences = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public SyntheticEngine(LatencyProfile profile) {
+        this(profile, "stack", "project", false);
+    }
+
+    /**
+     * @param profile     the latencies and failure rates of the operations
+     * @param stackName   the stack name of the URNs, that should match the deployment's
+     * @param projectName the project name of the URNs, that should match the deployment's
+     * @param preview     whether the resources of {@link #monitor()} get no IDs, like in a preview
+     */
+    public SyntheticEngine(LatencyProfile profile, String stackName, String projectName, boolean preview) {
+        this.profile = requireNonNull(profile);
+        this.stackName = requireNonNull(stackName);
+        this.projectName = requireNonNull(projectName);
+        this.preview = preview;
+    }
+
+    /**
+     * @return the monitor operations, in the order they completed
+     */
+    public List<Event> timeline() {
+        return ImmutableList.copyOf(this.timeline);
+    }
+
+    /**
+     * @return the number of monitor operations currently in flight
+     */
+    public int concurrency() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * @return the maximum number of monitor operations that were in flight at the same time
+     */
+    public int maxConcurrency() {
+        return this.maxInFlight.get();
+    }
+
+    /**
+     * @return a monitor answering every request itself after the sampled latency, without mocks
+     */
+    public Monitor monitor() {
+        return decorate(new SyntheticMonitor());
+    }
+
+    /**
+     * @return a monitor delaying the requests to the given monitor by the sampled latency
+     */
+    public Monitor decorate(Monitor monitor) {
+        return new LatentMonitor(requireNonNull(monitor));
+    }
+
+    /**
+     * @return a mock monitor delaying the requests to the given mock monitor by the sampled latency
+     */
+    public MockMonitor decorate(MockMonitor monitor) {
+        return new LatentMockMonitor(requireNonNull(monitor));
+    }
+
+    private String urn(String parent, String type, String name) {
+        return Urn.create(this.stackName, this.projectName, Optional.of(parent), type, name);
+    }
+
+    private static List<String> dependencies(RegisterResourceRequest request) {
+        var dependencies = new ArrayList<String>(request.getDependenciesList());
+        if (!request.getParent().isEmpty()) {
+            dependencies.add(request.getParent());
+        }
+        for (var property : request.getPropertyDependenciesMap().values()) {
+            dependencies.addAll(property.getUrnsList());
+        }
+        return dependencies;
+    }
+
+    private <T> CompletableFuture<T> register(RegisterResourceRequest request, Supplier<CompletableFuture<T>> action) {
+        var urn = urn(request.getParent(), request.getType(), request.getName());
+        return schedule(Operation.Register, request.getType(), request.getName(), urn, urn,
+                dependencies(request), action);
+    }
+
+    private <T> CompletableFuture<T> read(ReadResourceRequest request, Supplier<CompletableFuture<T>> action) {
+        var dependencies = new ArrayList<String>(request.getDependenciesList());
+        if (!request.getParent().isEmpty()) {
+            dependencies.add(request.getParent());
+        }
+        var urn = urn(request.getParent(), request.getType(), request.getName());
+        return schedule(Operation.Read, request.getType(), request.getName(), urn, "read:" + urn,
+                dependencies, action);
+    }
+
+    private <T> CompletableFuture<T> outputs(
+            RegisterResourceOutputsRequest request, Supplier<CompletableFuture<T>> action
+    ) {
+        return schedule(Operation.RegisterOutputs, "", "", null, "outputs:" + request.getUrn(), List.of(), action);
+    }
+
+    private <T> CompletableFuture<T> schedule(Operation operation, String token, Supplier<CompletableFuture<T>> action) {
+        var key = operation + ":" + token;
+        var occurrence = this.occurrences.computeIfAbsent(key, __ -> new AtomicInteger()).incrementAndGet();
+        return schedule(operation, token, "", null, key + "#" + occurrence, List.of(), action);
+    }
+
+    /**
+     * Runs the action once the dependencies are registered and the sampled latency has elapsed,
+     * or fails if a failure is injected, or a dependency was never registered with this engine.
+     *
+     * @param urn the URN dependents wait for, if the operation registers or reads a resource
+     * @param key identifies the operation, to derive its random latency and failure from
+     */
+    private <T> CompletableFuture<T> schedule(
+            Operation operation,
+            String type,
+            String name,
+            @Nullable String urn,
+            String key,
+            Collection<String> dependencies,
+            Supplier<CompletableFuture<T>> action
+    ) {
+        var start = System.nanoTime() - this.origin;
+        var running = this.inFlight.incrementAndGet();
+        this.maxInFlight.accumulateAndGet(running, Math::max);
+
+        var registered = new CompletableFuture<Void>();
+        if (urn != null) {
+            this.registrations.put(urn, registered);
+        }
+        var random = this.profile.random(key);
+        var latency = this.profile.latency(type, random);
+        var fails = this.profile.fails(type, random);
+        var missing = dependencies.stream()
+                .filter(dependency -> !this.registrations.containsKey(dependency))
+                .collect(Collectors.toList());
+        var ready = missing.isEmpty()
+                ? CompletableFuture.allOf(dependencies.stream()
+                        .map(this.registrations::get)
+                        .toArray(CompletableFuture[]::new))
+                .thenCompose(__ -> delay(latency))
+                : CompletableFuture.<Void>failedFuture(new IllegalStateException(String.format(
+                        "%s %s %s depends on resources never registered with the synthetic engine: %s",
+                        operation, type, name, missing)));
+
+        // run the action with the deployment of the caller, as the delay completes on another thread
+        var completed = ContextAwareCompletableFuture.wrap(ready)
+                .thenCompose(__ -> {
+                    if (fails) {
+                        return CompletableFuture.<T>failedFuture(Status.UNAVAILABLE
+                                .withDescription(String.format("injected failure: %s %s %s", operation, type, name))
+                                .asRuntimeException());
+                    }
+                    return action.get();
+                })
+                .whenComplete((result, throwable) -> {
+                    this.inFlight.decrementAndGet();
+                    this.timeline.add(new Event(
+                            operation, type, name, start, System.nanoTime() - this.origin, throwable != null
+                    ));
+                });
+        // dependents complete only after the future returned to the caller
+        completed.whenComplete((result, throwable) -> registered.complete(null));
+        return completed;
+    }
+
+    private static CompletableFuture<Void> delay(Duration latency) {
+        if (latency.isZero() || latency.isNegative()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+            // only delays the completion
+        }, CompletableFuture.delayedExecutor(latency.toNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Answers every request itself: resources get their URN and, unless in preview, an ID derived from
+     * their name, and their inputs as outputs. Invokes and calls return their arguments.
+     */
+    private final class SyntheticMonitor implements Monitor {
+
+        @Override
+        public CompletableFuture<SupportsFeatureResponse> supportsFeatureAsync(SupportsFeatureRequest request) {
+            var hasSupport = !"outputValues".equals(request.getId());
+            return CompletableFuture.completedFuture(
+                    SupportsFeatureResponse.newBuilder().setHasSupport(hasSupport).build()
+            );
+        }
+
+        @Override
+        public CompletableFuture<InvokeResponse> invokeAsync(ResourceInvokeRequest request) {
+            return CompletableFuture.completedFuture(
+                    InvokeResponse.newBuilder().setReturn(request.getArgs()).build()
+            );
+        }
+
+        @Override
+        public CompletableFuture<CallResponse> callAsync(ResourceCallRequest request) {
+            return CompletableFuture.completedFuture(
+                    CallResponse.newBuilder().setReturn(request.getArgs()).build()
+            );
+        }
+
+        @Override
+        public CompletableFuture<ReadResourceResponse> readResourceAsync(
+                @Nullable Resource resource, ReadResourceRequest request
+        ) {
+            return CompletableFuture.completedFuture(ReadResourceResponse.newBuilder()
+                    .setUrn(urn(request.getParent(), request.getType(), request.getName()))
+                    .setProperties(request.getProperties())
+                    .build());
+        }
+
+        @Override
+        public CompletableFuture<RegisterResourceResponse> registerResourceAsync(
+                @Nullable Resource resource, RegisterResourceRequest request
+        ) {
+            var response = RegisterResourceResponse.newBuilder()
+                    .setUrn(urn(request.getParent(), request.getType(), request.getName()))
+                    .setObject(request.getCustom() ? request.getObject() : Struct.getDefaultInstance());
+            if (request.getCustom() && !preview) {
+                response.setId(request.getImportId().isEmpty() ? request.getName() + "_id" : request.getImportId());
+            }
+            return CompletableFuture.completedFuture(response.build());
+        }
+
+        @Override
+        public CompletableFuture<Void> registerResourceOutputsAsync(RegisterResourceOutputsRequest request) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<RegisterPackageResponse> registerPackageAsync(RegisterPackageRequest request) {
+            return CompletableFuture.completedFuture(RegisterPackageResponse.newBuilder()
+                    .setRef("synthetic-uuid")
+                    .build());
+        }
+    }
+
+    private final class LatentMonitor implements Monitor {
+        private final Monitor delegate;
+
+        private LatentMonitor(Monitor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableFuture<SupportsFeatureResponse> supportsFeatureAsync(SupportsFeatureRequest request) {
+            return this.delegate.supportsFeatureAsync(request);
+        }
+
+        @Override
+        public CompletableFuture<InvokeResponse> invokeAsync(ResourceInvokeRequest request) {
+            return schedule(Operation.Invoke, request.getTok(), () -> this.delegate.invokeAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<CallResponse> callAsync(ResourceCallRequest request) {
+            return schedule(Operation.Call, request.getTok(), () -> this.delegate.callAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<ReadResourceResponse> readResourceAsync(
+                @Nullable Resource resource, ReadResourceRequest request
+        ) {
+            return read(request, () -> this.delegate.readResourceAsync(resource, request));
+        }
+
+        @Override
+        public CompletableFuture<RegisterResourceResponse> registerResourceAsync(
+                @Nullable Resource resource, RegisterResourceRequest request
+        ) {
+            return register(request, () -> this.delegate.registerResourceAsync(resource, request));
+        }
+
+        @Override
+        public CompletableFuture<Void> registerResourceOutputsAsync(RegisterResourceOutputsRequest request) {
+            return outputs(request, () -> this.delegate.registerResourceOutputsAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<RegisterPackageResponse> registerPackageAsync(RegisterPackageRequest request) {
+            return this.delegate.registerPackageAsync(request);
+        }
+    }
+
+    private final class LatentMockMonitor extends MockMonitor {
+
+        private LatentMockMonitor(MockMonitor delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public CompletableFuture<InvokeResponse> invokeAsync(ResourceInvokeRequest request) {
+            return schedule(Operation.Invoke, request.getTok(), () -> super.invokeAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<CallResponse> callAsync(ResourceCallRequest request) {
+            return schedule(Operation.Call, request.getTok(), () -> super.callAsync(request));
+        }
+
+        @Override
+        public CompletableFuture<ReadResourceResponse> readResourceAsync(Resource resource, ReadResourceRequest request) {
+            return read(request, () -> super.readResourceAsync(resource, request));
+        }
+
+        @Override
+        public CompletableFuture<RegisterResourceResponse> registerResourceAsync(
+                Resource resource, RegisterResourceRequest request
+        ) {
+            return register(request, () -> super.registerResourceAsync(resource, request));
+        }
+
+        @Override
+        public CompletableFuture<Void> registerResourceOutputsAsync(RegisterResourceOutputsRequest request) {
+            return outputs(request, () -> super.registerResourceOutputsAsync(request));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.pulumi.test.internal;
+
+import com.google.protobuf.Empty;
+import com.pulumi.core.internal.annotations.InternalUse;
+import com.pulumi.deployment.internal.Engine;
+import com.pulumi.deployment.internal.Monitor;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import pulumirpc.EngineGrpc;
+import pulumirpc.EngineOuterClass.GetRootResourceRequest;
+import pulumirpc.EngineOuterClass.GetRootResourceResponse;
+import pulumirpc.EngineOuterClass.LogRequest;
+import pulumirpc.EngineOuterClass.RequirePulumiVersionRequest;
+import pulumirpc.EngineOuterClass.RequirePulumiVersionResponse;
+import pulumirpc.Provider.CallResponse;
+import pulumirpc.Provider.InvokeResponse;
+import pulumirpc.Resource.ReadResourceRequest;
+import pulumirpc.Resource.ReadResourceResponse;
+import pulumirpc.Resource.RegisterPackageRequest;
+import pulumirpc.Resource.RegisterPackageResponse;
+import pulumirpc.Resource.RegisterResourceOutputsRequest;
+import pulumirpc.Resource.RegisterResourceRequest;
+import pulumirpc.Resource.RegisterResourceResponse;
+import pulumirpc.Resource.ResourceCallRequest;
+import pulumirpc.Resource.ResourceInvokeRequest;
+import pulumirpc.Resource.SupportsFeatureRequest;
+import pulumirpc.Resource.SupportsFeatureResponse;
+import pulumirpc.ResourceMonitorGrpc;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Serves a {@link Monitor} and an {@link Engine} over gRPC on a free loopback port, so that a deployment
+ * talks to them with a {@link com.pulumi.deployment.internal.GrpcMonitor} and a
+ * {@link com.pulumi.deployment.internal.GrpcEngine}, like to the real engine.
+ * <p>
+ * The monitor is given no resources, so it must not need them, e.g. a {@link SyntheticEngine#monitor()}.
+ */
+@InternalUse
+public final class SyntheticServer implements AutoCloseable {
+
+    private final Server server;
+
+    private SyntheticServer(Server server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts a server on a free port of the loopback interface only.
+     *
+     * @param monitor the monitor to serve
+     * @param engine  the engine to serve
+     * @return the started server
+     * @throws IOException if the server could not be started
+     */
+    public static SyntheticServer start(Monitor monitor, Engine engine) throws IOException {
+        var server = NettyServerBuilder.forAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .addService(new ResourceMonitorService(requireNonNull(monitor)))
+                .addService(new EngineService(requireNonNull(engine)))
+                .build()
+                .start();
+        return new SyntheticServer(server);
+    }
+
+    /**
+     * @return the address of the server, e.g. for {@link com.pulumi.deployment.internal.GrpcMonitor}
+     */
+    public String address() {
+        return String.format("%s:%d", InetAddress.getLoopbackAddress().getHostAddress(), this.server.getPort());
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        this.server.shutdownNow().awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private static <T> void reply(Supplier<CompletableFuture<T>> call, StreamObserver<T> observer) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((response, throwable) -> {
+            if (throwable != null) {
+                // finds the status of the first StatusException or StatusRuntimeException in the causes
+                observer.onError(Status.fromThrowable(throwable).asRuntimeException());
+            } else {
+                observer.onNext(response);
+                observer.onCompleted();
+            }
+        });
+    }
+
+    private static void replyEmpty(Supplier<CompletableFuture<Void>> call, StreamObserver<Empty> observer) {
+        reply(() -> call.get().thenApply(__ -> Empty.getDefaultInstance()), observer);
+    }
+
+    private static final class ResourceMonitorService extends ResourceMonitorGrpc.ResourceMonitorImplBase {
+        private final Monitor monitor;
+
+        private ResourceMonitorService(Monitor monitor) {
+            this.monitor = monitor;
+        }
+
+        @Override
+        public void supportsFeature(SupportsFeatureRequest request, StreamObserver<SupportsFeatureResponse> observer) {
+            reply(() -> this.monitor.supportsFeatureAsync(request), observer);
+        }
+
+        @Override
+        public void invoke(ResourceInvokeRequest request, StreamObserver<InvokeResponse> observer) {
+            reply(() -> this.monitor.invokeAsync(request), observer);
+        }
+
+        @Override
+        public void call(ResourceCallRequest request, StreamObserver<CallResponse> observer) {
+            reply(() -> this.monitor.callAsync(request), observer);
+        }
+
+        @Override
+        public void readResource(ReadResourceRequest request, StreamObserver<ReadResourceResponse> observer) {
+            reply(() -> this.monitor.readResourceAsync(null, request), observer);
+        }
+
+        @Override
+        public void registerResource(RegisterResourceRequest request, StreamObserver<RegisterResourceResponse> observer) {
+            reply(() -> this.monitor.registerResourceAsync(null, request), observer);
+        }
+
+        @Override
+        public void registerResourceOutputs(RegisterResourceOutputsRequest request, StreamObserver<Empty> observer) {
+            replyEmpty(() -> this.monitor.registerResourceOutputsAsync(request), observer);
+        }
+
+        @Override
+        public void registerPackage(RegisterPackageRequest request, StreamObserver<RegisterPackageResponse> observer) {
+            reply(() -> this.monitor.registerPackageAsync(request), observer);
+        }
+    }
+
+    private static final class EngineService extends EngineGrpc.EngineImplBase {
+        private final Engine engine;
+
+        private EngineService(Engine engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public void log(LogRequest request, StreamObserver<Empty> observer) {
+            replyEmpty(() -> this.engine.logAsync(request), observer);
+        }
+
+        @Override
+        public void getRootResource(GetRootResourceRequest request, StreamObserver<GetRootResourceResponse> observer) {
+            reply(() -> this.engine.getRootResourceAsync(request), observer);
+        }
+
+        @Override
+        public void requirePulumiVersion(RequirePulumiVersionRequest request,
+                                         StreamObserver<RequirePulumiVersionResponse> observer) {
+            reply(() -> this.engine.requirePulumiVersionAsync(request), observer);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+// Copyright 2025, Pulumi Corporation
+
+package com.pulumi.automation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import com.pulumi.Context;
+import com.pulumi.core.Output;
+import com.pulumi.deployment.Deployment;
+import com.pulumi.resources.CustomResource;
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.test.internal.LatencyProfile;
+import com.pulumi.test.internal.LatencyProfile.Distribution;
+import com.pulumi.test.internal.SyntheticEngine;
+import com.pulumi.test.internal.SyntheticServer;
+
+import io.grpc.ManagedChannelBuilder;
+import pulumirpc.Language.RunRequest;
+import pulumirpc.Language.RunResponse;
+import pulumirpc.LanguageRuntimeGrpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs inline programs of several stacks concurrently through one {@link InlineLanguageHost},
+ * like concurrent inline operations of a {@link LocalWorkspace}, each against its own engine.
+ */
+public class InlineLanguageHostConcurrentTest {
+
+    private static final String Project = "concurrent";
+    private static final String ResourceType = "test:InlineLanguageHostConcurrent:Resource";
+    private static final int Stacks = 6;
+    private static final int ResourcesPerStack = 20;
+
+    private final Map<String, Set<String>> observedStacks = new ConcurrentHashMap<>();
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void testConcurrentInlineProgramsAreIsolated() throws Exception {
+        var engines = new ArrayList<SyntheticEngine>();
+        var servers = new ArrayList<SyntheticServer>();
+        // fewer threads than programs, so that threads are reused across programs
+        var executor = Executors.newFixedThreadPool(3);
+        try (var host = new InlineLanguageHost(executor, stackName -> "organization/" + Project + "/" + stackName)) {
+            var registrations = new ArrayList<InlineLanguageHost.Registration>();
+            for (int i = 0; i < Stacks; i++) {
+                var stackName = "stack" + i;
+                var engine = new SyntheticEngine(LatencyProfile.builder()
+                        .latency(Distribution.uniform(Duration.ofMillis(1), Duration.ofMillis(10)))
+                        .build(), stackName, Project, false);
+                engines.add(engine);
+                servers.add(SyntheticServer.start(engine.monitor(), engine));
+                registrations.add(host.register(stackName, program(), null));
+            }
+
+            var channel = ManagedChannelBuilder.forAddress("127.0.0.1", registrations.get(0).port())
+                    .usePlaintext()
+                    .build();
+            try {
+                var runtime = LanguageRuntimeGrpc.newFutureStub(channel);
+                var runs = new ArrayList<CompletableFuture<RunResponse>>();
+                for (int i = 0; i < Stacks; i++) {
+                    var address = servers.get(i).address();
+                    var request = RunRequest.newBuilder()
+                            .setOrganization("organization")
+                            .setProject(Project)
+                            .setStack("stack" + i)
+                            .setMonitorAddress(address)
+                            .addArgs(address)
+                            .putConfig(Project + ":label", "stack" + i)
+                            .build();
+                    var run = new CompletableFuture<RunResponse>();
+                    var response = runtime.run(request);
+                    response.addListener(() -> {
+                        try {
+                            run.complete(response.get());
+                        } catch (Exception e) {
+                            run.completeExceptionally(e);
+                        }
+                    }, Runnable::run);
+                    runs.add(run);
+                }
+                CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+
+                for (int i = 0; i < Stacks; i++) {
+                    var stackName = "stack" + i;
+                    assertThat(runs.get(i).join().getError()).isEmpty();
+                    assertThat(observedStacks.get(stackName)).containsExactly(stackName);
+                    assertThat(engines.get(i).timeline())
+                            .filteredOn(event -> event.type().equals(ResourceType))
+                            .hasSize(ResourcesPerStack)
+                            .allMatch(event -> event.name().startsWith(stackName + "-"));
+                }
+            } finally {
+                channel.shutdownNow();
+                registrations.forEach(InlineLanguageHost.Registration::close);
+            }
+        } finally {
+            for (var server : servers) {
+                server.close();
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    private Consumer<Context> program() {
+        return ctx -> {
+            var label = ctx.config().require("label");
+            observedStacks.computeIfAbsent(label, __ -> ConcurrentHashMap.newKeySet())
+                    .add(Deployment.getInstance().getStackName());
+            for (int j = 0; j < ResourcesPerStack; j++) {
+                new ConcurrentResource(label + "-" + j);
+            }
+            ctx.export("label", Output.of(label));
+        };
+    }
+
+    public static class ConcurrentResource extends CustomResource {
+        public ConcurrentResource(String name) {
+            super(ResourceType, name, ResourceArgs.Empty, null);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+// Copyright 2025, Pulumi Corporation
+
+package com.pulumi.automation;
+
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import com.pulumi.Context;
+import com.pulumi.automation.InlineLanguageHost.InlineProgram;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InlineLanguageHostTest {
+    @Test
+    public void testRegistrationsShareTheServer() throws Exception {
+        try (var host = newHost();
+                var dev = host.register("dev", ctx -> {}, null);
+                var prod = host.register("org/project/prod", ctx -> {}, null)) {
+            assertThat(dev.port()).isEqualTo(prod.port());
+            assertThat(host.lookup("org", "project", "dev")).isPresent();
+            assertThat(host.lookup("org", "project", "prod")).isPresent();
+            assertThat(host.lookup("org", "project", "test")).isNotPresent();
+        }
+    }
+
+    @Test
+    public void testStacksAreRoutedByQualifiedName() throws Exception {
+        Consumer<Context> first = ctx -> {};
+        Consumer<Context> second = ctx -> {};
+        Consumer<Context> third = ctx -> {};
+        try (var host = newHost();
+                var orgA = host.register("orgA/project/dev", first, null);
+                var orgB = host.register("orgB/project/dev", second, null);
+                var orgC = host.register("orgC/dev", third, null)) {
+            assertThat(host.lookup("orgA", "project", "dev")).map(InlineProgram::program).containsSame(first);
+            assertThat(host.lookup("orgB", "project", "dev")).map(InlineProgram::program).containsSame(second);
+            assertThat(host.lookup("orgC", "project", "dev")).map(InlineProgram::program).containsSame(third);
+            assertThat(host.lookup("orgD", "project", "dev")).isNotPresent();
+            assertThat(host.lookup("orgA", "other", "dev")).isNotPresent();
+        }
+    }
+
+    @Test
+    public void testRegistrationIsExclusivePerStack() throws Exception {
+        try (var host = newHost()) {
+            var registration = host.register("dev", ctx -> {}, null);
+            assertThatThrownBy(() -> host.register("dev", ctx -> {}, null))
+                    .isInstanceOf(AutomationException.class);
+
+            registration.close();
+            assertThat(host.lookup("org", "project", "dev")).isNotPresent();
+
+            try (var again = host.register("dev", ctx -> {}, null)) {
+                assertThat(again.port()).isEqualTo(registration.port());
+            }
+        }
+    }
+
+    @Test
+    public void testShortAndQualifiedNamesOfAStackAreTheSameStack() throws Exception {
+        Consumer<Context> program = ctx -> {};
+        try (var host = newHost();
+                var dev = host.register("dev", program, null)) {
+            assertThatThrownBy(() -> host.register("org/project/dev", ctx -> {}, null))
+                    .isInstanceOf(AutomationException.class)
+                    .hasMessageContaining("already running");
+            assertThatThrownBy(() -> host.register("org/dev", ctx -> {}, null))
+                    .isInstanceOf(AutomationException.class)
+                    .hasMessageContaining("already running");
+            assertThat(host.lookup("org", "project", "dev")).map(InlineProgram::program).containsSame(program);
+        }
+    }
+
+    @Test
+    public void testClosedHostRejectsRegistrations() {
+        var host = newHost();
+        host.close();
+        assertThatThrownBy(() -> host.register("dev", ctx -> {}, null))
+                .isInstanceOf(AutomationException.class);
+    }
+
+    /**
+     * @return a host resolving stack names in the project "project", with the default organization "org"
+     */
+    private static InlineLanguageHost newHost() {
+        return new InlineLanguageHost(null, stackName -> {
+            var parts = stackName.split("/");
+            switch (parts.length) {
+                case 1:
+                    return "org/project/" + stackName;
+                case 2:
+                    return parts[0] + "/project/" + parts[1];
+                default:
+                    return stackName;
+            }
+        });
+    }
+}
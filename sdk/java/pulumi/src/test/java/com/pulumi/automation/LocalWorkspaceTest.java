@@ -19,6 +19,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -228,6 +232,46 @@ public class LocalWorkspaceTest {
         }
     }
 
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void testImportExportStackThroughChannels(@EnvVars Map<String, String> envVars) throws Exception {
+        var env = new HashMap<String, String>(envVars);
+        env.put("PULUMI_CONFIG_PASSPHRASE", "test");
+
+        Path workingDir = Paths.get(getClass().getResource("/testproj").toURI());
+        var projectSettings = ProjectSettings.builder("testproj", ProjectRuntimeName.GO)
+                .description("A minimal Go Pulumi program")
+                .build();
+
+        try (var workspace = LocalWorkspace.create(LocalWorkspaceOptions.builder()
+                .workDir(workingDir)
+                .projectSettings(projectSettings)
+                .environmentVariables(env)
+                .build())) {
+
+            var stackName = randomStackName();
+
+            try {
+                var stack = WorkspaceStack.create(stackName, workspace);
+                stack.up();
+
+                var exported = new ByteArrayOutputStream();
+                stack.exportStack(Channels.newChannel(exported));
+                assertThat(StackDeployment.fromJson(exported.toString(StandardCharsets.UTF_8)).version()).isGreaterThan(0);
+
+                stack.destroy();
+                assertThat(stack.preview().changeSummary().get(OperationType.CREATE)).isEqualTo(1);
+
+                stack.importStack(Channels.newChannel(new ByteArrayInputStream(exported.toByteArray())));
+                assertThat(stack.preview().changeSummary().get(OperationType.SAME)).isEqualTo(1);
+
+                stack.destroy();
+            } finally {
+                workspace.removeStack(stackName);
+            }
+        }
+    }
+
     @Test
     @Timeout(value = 1, unit = TimeUnit.MINUTES)
     public void testManipulateConfig(@EnvVars Map<String, String> envVars) throws Exception {
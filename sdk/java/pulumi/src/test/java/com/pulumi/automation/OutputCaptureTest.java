@@ -0,0 +1,118 @@
+// Copyright 2025, Pulumi Corporation
+
+package com.pulumi.automation;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OutputCaptureTest {
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    public void testFullRetainsEverything() throws Exception {
+        var sink = OutputCapture.full().newSink("stdout", StandardCharsets.UTF_8);
+        sink.append("first");
+        sink.append("second");
+
+        var output = sink.finish();
+        assertThat(output.text()).isEqualTo("first" + NL + "second" + NL);
+        assertThat(output.file()).isNotPresent();
+    }
+
+    @Test
+    public void testTailRetainsTheLastCharacters() throws Exception {
+        var sink = OutputCapture.tail(8).newSink("stdout", StandardCharsets.UTF_8);
+        assertThat(sink.finish().text()).isEmpty();
+
+        var all = new StringBuilder();
+        sink.append("abc");
+        all.append("abc").append(NL);
+        assertThat(sink.finish().text()).isEqualTo(all.toString());
+
+        for (int i = 0; i < 100; i++) {
+            sink.append("line" + i);
+            all.append("line").append(i).append(NL);
+            assertThat(sink.finish().text()).isEqualTo(all.substring(Math.max(0, all.length() - 8)));
+        }
+
+        sink.append("a line longer than the buffer");
+        all.append("a line longer than the buffer").append(NL);
+        assertThat(sink.finish().text()).isEqualTo(all.substring(all.length() - 8));
+    }
+
+    @Test
+    public void testTailRejectsNonPositiveSizes() {
+        assertThatThrownBy(() -> OutputCapture.tail(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testSpillToFile(@TempDir Path directory) throws Exception {
+        var sink = OutputCapture.spillToFile(directory).newSink("stdout", StandardCharsets.UTF_8);
+        sink.append("first");
+        sink.append("second");
+
+        var output = sink.finish();
+        assertThat(output.file()).isPresent();
+        assertThat(output.file().get().getParent()).isEqualTo(directory);
+        assertThat(Files.readString(output.file().get())).isEqualTo("first" + NL + "second" + NL);
+        assertThat(output.text()).isEqualTo("first" + NL + "second" + NL);
+
+        var result = new CommandResult(0, output, CapturedOutput.Empty);
+        assertThat(result.standardOutputFile()).isEqualTo(output.file());
+        assertThat(result.standardErrorFile()).isNotPresent();
+    }
+
+    @Test
+    public void testClosingTheResultDeletesTheSpillFiles(@TempDir Path directory) throws Exception {
+        var capture = OutputCapture.spillToFile(directory);
+        var stdout = capture.newSink("stdout", StandardCharsets.UTF_8);
+        var stderr = capture.newSink("stderr", StandardCharsets.UTF_8);
+        stdout.append("out");
+        stderr.append("err");
+
+        try (var result = new CommandResult(0, stdout.finish(), stderr.finish())) {
+            assertThat(result.standardOutputFile()).hasValueSatisfying(file -> assertThat(file).exists());
+            assertThat(result.standardErrorFile()).hasValueSatisfying(file -> assertThat(file).exists());
+        }
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    public void testFailureMessageIsBoundedForSpilledOutput(@TempDir Path directory) throws Exception {
+        var capture = OutputCapture.spillToFile(directory);
+        var stderr = capture.newSink("stderr", StandardCharsets.UTF_8);
+        var line = "x".repeat(1024);
+        for (int i = 0; i < 64; i++) {
+            stderr.append(line);
+        }
+        stderr.append("error: no stack named 'dev' found");
+
+        var result = new CommandResult(255, CapturedOutput.Empty, stderr.finish());
+        var exception = LocalPulumiCommand.createExceptionFromResult(result);
+        assertThat(exception).isInstanceOf(StackNotFoundException.class);
+        assertThat(exception.getMessage())
+                .hasSizeLessThan(CommandResult.MESSAGE_TAIL_CHARS + 1024)
+                .contains(result.standardErrorFile().get().toString())
+                .contains("no stack named 'dev' found");
+
+        // the file is kept for the exception, and deleted with the result
+        assertThat(result.standardErrorFile().get()).exists();
+        result.close();
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    public void testNoneDiscards() throws Exception {
+        var sink = OutputCapture.none().newSink("stderr", StandardCharsets.UTF_8);
+        sink.append("ignored");
+        assertThat(sink.finish().text()).isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+// Copyright 2025, Pulumi Corporation
+
+package com.pulumi.automation;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StackResourceReaderTest {
+    private static final String DEPLOYMENT = "{\n" +
+            "  \"version\": 3,\n" +
+            "  \"deployment\": {\n" +
+            "    \"manifest\": {\"time\": \"2025-01-01T00:00:00Z\", \"plugins\": [{\"name\": \"random\"}]},\n" +
+            "    \"secrets_providers\": {\"type\": \"passphrase\"},\n" +
+            "    \"resources\": [\n" +
+            "      {\"urn\": \"urn:pulumi:dev::project::pulumi:pulumi:Stack::project-dev\", \"custom\": false},\n" +
+            "      {\"urn\": \"urn:pulumi:dev::project::random:index/randomString:RandomString::s\",\n" +
+            "       \"custom\": true, \"outputs\": {\"length\": 8, \"result\": \"abcdefgh\"}}\n" +
+            "    ],\n" +
+            "    \"pending_operations\": []\n" +
+            "  }\n" +
+            "}\n";
+
+    @Test
+    public void testReadsResourcesOneByOne(@TempDir Path directory) throws Exception {
+        var file = directory.resolve("stack.json");
+        Files.writeString(file, DEPLOYMENT);
+
+        var urns = new ArrayList<Object>();
+        try (var resources = StackResourceReader.open(file)) {
+            while (resources.hasNext()) {
+                var resource = resources.next();
+                urns.add(resource.get("urn"));
+                if (Boolean.TRUE.equals(resource.get("custom"))) {
+                    assertThat(resource.get("outputs")).isEqualTo(Map.of("length", 8.0, "result", "abcdefgh"));
+                }
+            }
+            assertThat(resources.hasNext()).isFalse();
+        }
+        assertThat(urns).containsExactly(
+                "urn:pulumi:dev::project::pulumi:pulumi:Stack::project-dev",
+                "urn:pulumi:dev::project::random:index/randomString:RandomString::s");
+    }
+
+    @Test
+    public void testMatchesStackDeployment() throws Exception {
+        var deployment = StackDeployment.fromJson(DEPLOYMENT);
+        assertThat(deployment.version()).isEqualTo(3);
+
+        var expected = (List<?>) deployment.deployment().get("resources");
+        var actual = new ArrayList<Object>();
+        try (var resources = StackResourceReader.of(new StringReader(DEPLOYMENT))) {
+            resources.forEachRemaining(actual::add);
+        }
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void testDeploymentWithoutResources() throws Exception {
+        try (var resources = StackResourceReader.of(new StringReader("{\"version\": 3, \"deployment\": {}}"))) {
+            assertThat(resources.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    public void testInvalidDeployment() {
+        assertThatThrownBy(() -> StackResourceReader.of(new StringReader("[]")))
+                .isInstanceOf(AutomationException.class);
+        assertThatThrownBy(() -> StackDeployment.fromJson("{\"version\": 3}"))
+                .isInstanceOf(AutomationException.class);
+    }
+}
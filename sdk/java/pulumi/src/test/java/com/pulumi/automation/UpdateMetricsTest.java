@@ -0,0 +1,124 @@
+// Copyright 2025, Pulumi Corporation
+
+package com.pulumi.automation;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.pulumi.automation.events.EngineEvent;
+import com.pulumi.automation.events.ResourceOperationFailedEvent;
+import com.pulumi.automation.events.ResourceOutputsEvent;
+import com.pulumi.automation.events.ResourcePreEvent;
+import com.pulumi.automation.events.StepEventMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UpdateMetricsTest {
+    private static final String PROVIDER = "urn:pulumi:dev::project::pulumi:providers:random::default";
+    private static final String STRING = "random:index/randomString:RandomString";
+    private static final String PET = "random:index/randomPet:RandomPet";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final UpdateMetrics.Collector collector = new UpdateMetrics.Collector(clock::get);
+
+    @Test
+    public void testTimings() {
+        at(0).accept(pre(OperationType.CREATE, "a", STRING));
+        at(10).accept(pre(OperationType.CREATE, "b", PET));
+        at(30).accept(outputs(OperationType.CREATE, "a", STRING));
+        // c waits for a
+        at(35).accept(pre(OperationType.CREATE, "c", STRING));
+        at(40).accept(outputs(OperationType.CREATE, "b", PET));
+        at(95).accept(failed(OperationType.CREATE, "c", STRING));
+
+        var metrics = collector.build();
+        assertThat(metrics.duration()).isEqualTo(millis(95));
+        assertThat(metrics.stepCount()).isEqualTo(3);
+        assertThat(metrics.resourceLatencies())
+                .containsEntry(urn("a", STRING), millis(30))
+                .containsEntry(urn("b", PET), millis(30))
+                .containsEntry(urn("c", STRING), millis(60));
+
+        var strings = metrics.byType().get(STRING);
+        assertThat(strings.count()).isEqualTo(2);
+        assertThat(strings.failures()).isEqualTo(1);
+        assertThat(strings.total()).isEqualTo(millis(90));
+        assertThat(strings.mean()).isEqualTo(millis(45));
+        assertThat(strings.max()).isEqualTo(millis(60));
+        assertThat(metrics.byProvider()).containsOnlyKeys(PROVIDER);
+        assertThat(metrics.byProvider().get(PROVIDER).count()).isEqualTo(3);
+
+        assertThat(metrics.maxConcurrency()).isEqualTo(2);
+        // 1 in flight over [0, 10), [30, 35) and [40, 95), 2 over [10, 30) and [35, 40)
+        assertThat(metrics.concurrency()).containsExactly(
+                Map.entry(1, millis(70)),
+                Map.entry(2, millis(25)));
+
+        assertThat(metrics.estimatedCriticalPath()).extracting(UpdateMetrics.StepTiming::urn)
+                .containsExactly(urn("a", STRING), urn("c", STRING));
+        assertThat(metrics.estimatedCriticalPath().get(1).start()).isEqualTo(millis(35));
+        assertThat(metrics.estimatedCriticalPath().get(1).failed()).isTrue();
+    }
+
+    @Test
+    public void testReplacementStepsAreSummed() {
+        at(0).accept(pre(OperationType.CREATE_REPLACEMENT, "a", STRING));
+        at(20).accept(outputs(OperationType.CREATE_REPLACEMENT, "a", STRING));
+        at(20).accept(pre(OperationType.DELETE_REPLACED, "a", STRING));
+        at(25).accept(outputs(OperationType.DELETE_REPLACED, "a", STRING));
+
+        var metrics = collector.build();
+        assertThat(metrics.stepCount()).isEqualTo(2);
+        assertThat(metrics.resourceLatencies()).containsExactly(
+                Map.entry(urn("a", STRING), millis(25)));
+        assertThat(metrics.maxConcurrency()).isEqualTo(1);
+    }
+
+    @Test
+    public void testNoEvents() {
+        var metrics = collector.build();
+        assertThat(metrics.duration()).isEqualTo(Duration.ZERO);
+        assertThat(metrics.stepCount()).isZero();
+        assertThat(metrics.concurrency()).isEmpty();
+        assertThat(metrics.estimatedCriticalPath()).isEmpty();
+        assertThat(metrics.maxConcurrency()).isZero();
+    }
+
+    private UpdateMetrics.Collector at(long millis) {
+        clock.set(millis(millis).toNanos());
+        return collector;
+    }
+
+    private static Duration millis(long millis) {
+        return Duration.ofMillis(millis);
+    }
+
+    private static String urn(String name, String type) {
+        return "urn:pulumi:dev::project::" + type + "::" + name;
+    }
+
+    private static StepEventMetadata metadata(OperationType op, String name, String type) {
+        return new StepEventMetadata(op, urn(name, type), type, null, null, null, null, null, false,
+                PROVIDER + "::04da6b54-80e4-46f7-96ec-b56ff0331ba9");
+    }
+
+    private static EngineEvent pre(OperationType op, String name, String type) {
+        return event(new ResourcePreEvent(metadata(op, name, type), false), null, null);
+    }
+
+    private static EngineEvent outputs(OperationType op, String name, String type) {
+        return event(null, new ResourceOutputsEvent(metadata(op, name, type), false), null);
+    }
+
+    private static EngineEvent failed(OperationType op, String name, String type) {
+        return event(null, null, new ResourceOperationFailedEvent(metadata(op, name, type), 1, 0));
+    }
+
+    private static EngineEvent event(
+            ResourcePreEvent pre, ResourceOutputsEvent outputs, ResourceOperationFailedEvent failed) {
+        return new EngineEvent(0, 0, null, null, null, null, null, pre, outputs, failed, null);
+    }
+}
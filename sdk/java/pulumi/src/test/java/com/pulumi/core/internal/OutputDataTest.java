@@ -1,11 +1,15 @@
 package com.pulumi.core.internal;
 
+import com.google.common.collect.ImmutableSet;
 import com.pulumi.core.Output;
 import com.pulumi.core.OutputTests;
 import com.pulumi.core.Tuples;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class OutputDataTest {
 
@@ -62,4 +66,50 @@ class OutputDataTest {
         assertThat(result.isSecret()).isTrue();
         assertThat(result.getResources()).isEmpty();
     }
+
+    @Test
+    void testLazyDataIsComparedByValue() {
+        var computed = new AtomicInteger();
+        var lazy = OutputData.<String>ofLazy(ImmutableSet.of(), () -> {
+            computed.incrementAndGet();
+            return "value";
+        }, false);
+
+        assertThat(lazy.toString()).contains("<lazy>");
+        assertThat(computed).hasValue(0);
+
+        assertThat(lazy).isEqualTo(OutputData.of("value"));
+        assertThat(lazy.hashCode()).isEqualTo(OutputData.of("value").hashCode());
+        assertThat(lazy).isNotEqualTo(OutputData.of("other"));
+        assertThat(lazy).isNotEqualTo(OutputData.of("value", true));
+        assertThat(lazy.toString()).contains("value=value");
+        assertThat(computed).hasValue(1);
+    }
+
+    @Test
+    void testLazyNullIsNormalizedToEmptyOnceComputed() {
+        var lazy = OutputData.<String>ofLazy(ImmutableSet.of(), () -> null, false);
+
+        assertThat(lazy).isEqualTo(OutputData.ofNullable(null));
+        assertThat(lazy.copy()).isSameAs(OutputData.ofNullable(null));
+        assertThat(lazy.withIsSecret(true)).isSameAs(OutputData.ofNullable(ImmutableSet.of(), null, true));
+    }
+
+    @Test
+    void testLazyDataIsNotComputedUntilAccessed() {
+        var computed = new AtomicInteger();
+        var lazy = OutputData.<String>ofLazy(ImmutableSet.of(), () -> {
+            computed.incrementAndGet();
+            throw new IllegalStateException("not convertible");
+        }, false);
+
+        var copy = lazy.withIsSecret(true);
+        assertThat(lazy.toString()).contains("<lazy>");
+        assertThat(copy.isSecret()).isTrue();
+        assertThat(computed).hasValue(0);
+
+        assertThatThrownBy(lazy::getValueNullable).hasMessage("not convertible");
+        assertThatThrownBy(copy::hashCode).hasMessage("not convertible");
+        assertThat(computed).hasValue(2);
+    }
 }
@@ -0,0 +1,124 @@
+package com.pulumi.core.internal;
+
+import com.pulumi.Context;
+import com.pulumi.core.Output;
+import com.pulumi.deployment.Deployment;
+import com.pulumi.resources.InvokeArgs;
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.test.Mocks;
+import com.pulumi.test.TestOptions;
+import com.pulumi.test.internal.PulumiTestInternal;
+import com.pulumi.test.internal.testdata.TestBucket;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RuntimeEventsTest {
+
+    private static final String BucketType = "test:RuntimeEvents:Bucket";
+
+    @AfterEach
+    void cleanup() {
+        PulumiTestInternal.cleanup();
+    }
+
+    @Test
+    void testRecordsRuntimeEvents(@TempDir Path dir) throws Exception {
+        Configuration settings;
+        try (var reader = new InputStreamReader(
+                Objects.requireNonNull(RuntimeEvents.class.getResourceAsStream(RuntimeEvents.Settings)),
+                StandardCharsets.UTF_8
+        )) {
+            settings = Configuration.create(reader);
+        }
+
+        var test = PulumiTestInternal.builder()
+                .options(TestOptions.builder().preview(false).build())
+                .mocks(new Mocks() {
+                    @Override
+                    public CompletableFuture<ResourceResult> newResourceAsync(ResourceArgs args) {
+                        return CompletableFuture.completedFuture(
+                                ResourceResult.of(Optional.of(args.name + "_id"), Map.of())
+                        );
+                    }
+
+                    @Override
+                    public CompletableFuture<Map<String, Object>> callAsync(CallArgs args) {
+                        return CompletableFuture.completedFuture(Map.of());
+                    }
+                })
+                .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                .build();
+
+        List<RecordedEvent> events;
+        try (var recording = new Recording(settings)) {
+            recording.start();
+            test.runTest(RuntimeEventsTest::program).throwOnError();
+            recording.stop();
+
+            var file = dir.resolve("pulumi.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("pulumi.ResourceRegistered"))
+                .filteredOn(event -> BucketType.equals(event.getString("type")))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getString("name")).isEqualTo("bucket");
+                    assertThat(event.getString("urn")).endsWith(BucketType + "::bucket");
+                    assertThat(event.getBoolean("failed")).isFalse();
+                    assertThat(event.getDuration("prepareDuration")).isPositive();
+                    assertThat(event.getDuration("rpcDuration")).isPositive();
+                    assertThat(event.getDuration("completeDuration")).isPositive();
+                });
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("pulumi.InvokeCompleted"))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getString("token")).isEqualTo("test:RuntimeEvents:getBucket"));
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("pulumi.SerializationCompleted"))
+                .isNotEmpty();
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("pulumi.EngineLog"))
+                .filteredOn(event -> event.getString("severity").equals("INFO"))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getInt("messageLength")).isEqualTo("hello".length()));
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals("pulumi.RunnerDrained"))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getInt("tasks")).isPositive());
+    }
+
+    @Test
+    void testDisabledEventsAreNotFilledIn() {
+        var future = new CompletableFuture<Void>();
+        var recorded = RuntimeEvents.InvokeCompleted.record("test:RuntimeEvents:getBucket", () -> {
+            throw new AssertionError("the arguments size must not be computed");
+        }, future);
+        assertThat(recorded).isSameAs(future);
+    }
+
+    private static void program(Context ctx) {
+        new TestBucket(BucketType, "bucket");
+        ctx.export("invoke", Output.of(Deployment.getInstance().invokeAsync("test:RuntimeEvents:getBucket", InvokeArgs.Empty)));
+        ctx.log().info("hello");
+    }
+}
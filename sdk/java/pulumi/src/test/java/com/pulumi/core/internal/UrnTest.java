@@ -7,12 +7,14 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.lang.management.ManagementFactory;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import static com.pulumi.test.PulumiTest.extractValue;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 class UrnTest {
@@ -88,6 +90,67 @@ class UrnTest {
         );
     }
 
+    @SuppressWarnings({"unused"})
+    private static Stream<Arguments> testParseRejectsMalformedUrns() {
+        return Stream.of(
+                arguments(" ", "expected urn to be not empty and not null, got: ' '"),
+                arguments("pulumi:dev::project::pkg:typ::name", "expected urn to start with 'urn:pulumi:'"),
+                arguments("urn:pulumi:dev::project::pkg:typ", "expected urn to have 4 parts, separated by '::', got '3'"),
+                arguments("urn:pulumi:dev::project::pkg:typ::name::more", "expected urn to have 4 parts, separated by '::', got '5'"),
+                arguments("urn:pulumi: ::project::pkg:typ::name", "expected urn stack part to be not empty, got: ' '"),
+                arguments("urn:pulumi:dev::::pkg:typ::name", "expected urn project part to be not empty, got: ''"),
+                arguments("urn:pulumi:dev::project::::name", "expected urn qualifiedType part to be not empty, got: ''"),
+                arguments("urn:pulumi:dev::project::pkg:typ::", "expected urn name part to be not empty, got: ''"),
+                arguments("urn:pulumi:dev::project::pkg:typ$::name", "expected qualified type, type part to be not empty, got: ''"),
+                arguments("urn:pulumi:dev::project::$pkg:typ::name", "expected qualified type, parent part to be not empty, got: ''"),
+                arguments("urn:pulumi:dev::project::pkg:typ$typ::name", "type token 'typ' does not match the expected format"),
+                arguments("urn:pulumi:dev::project::a:b:c:d::name", "type token 'a:b:c:d' does not match the expected format"),
+                arguments("urn:pulumi:dev::project:: :typ::name", "because the 'package' part is empty")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testParseRejectsMalformedUrns(String example, String message) {
+        assertThatThrownBy(() -> Urn.parse(example))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(message);
+    }
+
+    @Test
+    void testParseParts() {
+        var urn = Urn.parse("urn:pulumi:dev::project::awsx:ec2:Vpc$aws:ec2/vpc:Vpc$aws:ec2/subnet:Subnet::name:with:colons");
+        assertThat(urn.stack).isEqualTo("dev");
+        assertThat(urn.project).isEqualTo("project");
+        assertThat(urn.qualifiedType.parents).hasValue("awsx:ec2:Vpc$aws:ec2/vpc:Vpc");
+        assertThat(urn.qualifiedType.type.package_).isEqualTo("aws");
+        assertThat(urn.qualifiedType.type.module).hasValue("ec2/subnet");
+        assertThat(urn.qualifiedType.type.typeName).isEqualTo("Subnet");
+        assertThat(urn.name).isEqualTo("name:with:colons");
+    }
+
+    @Test
+    void testParseAllocatesOnlyItsParts() {
+        var example = "urn:pulumi:dev::workshop::apigateway:index:RestAPI$aws:apigateway/restApi:RestApi::helloWorldApi";
+        // counting the bytes allocated by a thread is an extension of HotSpot, and optional
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        var parses = 100_000;
+        for (int i = 0; i < parses; i++) {
+            Urn.parse(example); // warm up
+        }
+
+        var before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < parses; i++) {
+            Urn.parse(example);
+        }
+        var perParse = (threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before) / parses;
+
+        // the parts, their Urn, QualifiedTypeName, Type and Optional holders, and nothing else
+        assertThat(perParse).as("bytes allocated per parse").isLessThanOrEqualTo(example.length() + 512);
+    }
+
     @Test
     void testTypeParse() {
         assertThatThrownBy(() -> Urn.Type.parse("p:m:"));
@@ -0,0 +1,180 @@
+package com.pulumi.deployment;
+
+import com.pulumi.Context;
+import com.pulumi.core.Output;
+import com.pulumi.resources.CustomResource;
+import com.pulumi.resources.CustomResourceOptions;
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.test.Mocks;
+import com.pulumi.test.TestOptions;
+import com.pulumi.test.TestResult;
+import com.pulumi.test.internal.PulumiTestInternal;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import static com.pulumi.test.PulumiTest.extractValue;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DeploymentSynchronousTest {
+
+    private static final int Resources = 20;
+
+    @AfterEach
+    void cleanup() {
+        PulumiTestInternal.cleanup();
+    }
+
+    @Test
+    void testRunsOnTheCallingThread() {
+        var mocks = new RecordingMocks();
+        var threads = ConcurrentHashMap.<Thread>newKeySet();
+        var result = synchronousTest(mocks).runTest(ctx -> {
+            threads.add(Thread.currentThread());
+            var names = program(ctx);
+            ctx.export("names", names.applyValue(value -> {
+                threads.add(Thread.currentThread());
+                return value;
+            }));
+        }).throwOnError();
+
+        assertThat(extractValue(result.output("names"))).asInstanceOf(InstanceOfAssertFactories.LIST).hasSize(Resources);
+        assertThat(threads).containsExactly(Thread.currentThread());
+        assertThat(mocks.threads).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    void testRunsInDeterministicOrder() {
+        List<String> expected = null;
+        for (int i = 0; i < 5; i++) {
+            var mocks = new RecordingMocks();
+            synchronousTest(mocks).runTest(ctx -> program(ctx)).throwOnError();
+            assertThat(mocks.names).hasSize(Resources);
+            if (expected == null) {
+                expected = List.copyOf(mocks.names);
+            } else {
+                assertThat(mocks.names).containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    void testReportsErrors() {
+        var result = synchronousTest(new RecordingMocks()).runTest(ctx -> {
+            var resource = new SyncResource("failing", null);
+            resource.urn().applyValue(urn -> {
+                throw new IllegalStateException("failure from " + urn);
+            });
+        });
+
+        assertThat(result.exceptions())
+                .isNotEmpty()
+                .anySatisfy(e -> assertThat(e)
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("failure from urn:"));
+    }
+
+    @Test
+    void testWaitsForMocksCompletingOnOtherThreads() {
+        Mocks mocks = args -> CompletableFuture.supplyAsync(
+                () -> Mocks.ResourceResult.of(Optional.of(args.name + "_id"), Map.of()),
+                CompletableFuture.delayedExecutor(10, TimeUnit.MILLISECONDS)
+        );
+        TestResult result = synchronousTest(mocks).runTest(ctx -> program(ctx)).throwOnError();
+
+        assertThat(result.resources()).filteredOn(r -> r instanceof SyncResource).hasSize(Resources);
+    }
+
+    @Test
+    void testParksWhileWaitingForMocks() {
+        var threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isCurrentThreadCpuTimeSupported(), "thread CPU time is not supported");
+        var delay = Duration.ofSeconds(1);
+        Mocks mocks = args -> CompletableFuture.supplyAsync(
+                () -> Mocks.ResourceResult.of(Optional.of(args.name + "_id"), Map.of()),
+                CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS)
+        );
+        // warm up, so that only the wait for the mock is measured
+        synchronousTest(new RecordingMocks()).runTest(ctx -> new SyncResource("warmup", null)).throwOnError();
+        PulumiTestInternal.cleanup();
+        var test = synchronousTest(mocks);
+
+        var cpuStart = threads.getCurrentThreadCpuTime();
+        var wallStart = System.nanoTime();
+        test.runTest(ctx -> new SyncResource("delayed", null)).throwOnError();
+        var cpu = Duration.ofNanos(threads.getCurrentThreadCpuTime() - cpuStart);
+        var wall = Duration.ofNanos(System.nanoTime() - wallStart);
+
+        // the thread waits for the mock instead of re-running the idle check
+        assertThat(wall).isGreaterThanOrEqualTo(delay);
+        assertThat(cpu).isLessThan(delay.dividedBy(4));
+    }
+
+    @Test
+    void testRunTestAsyncCompletesBeforeReturning() {
+        var mocks = new RecordingMocks();
+        var result = synchronousTest(mocks).runTestAsync(ctx -> program(ctx));
+
+        assertThat(result).isDone();
+        assertThat(mocks.threads).containsExactly(Thread.currentThread());
+    }
+
+    private static PulumiTestInternal synchronousTest(Mocks mocks) {
+        return PulumiTestInternal.builder()
+                .options(TestOptions.builder().synchronous(true).build())
+                .mocks(mocks)
+                .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                .build();
+    }
+
+    /**
+     * A chain of resources, each depending on the previous one, and a few independent ones.
+     */
+    private static Output<List<String>> program(Context ctx) {
+        SyncResource previous = null;
+        var names = new ArrayList<Output<String>>();
+        for (int i = 0; i < Resources; i++) {
+            var options = i % 2 == 0 && previous != null
+                    ? CustomResourceOptions.builder().dependsOn(previous).build()
+                    : null;
+            var resource = new SyncResource("resource" + i, options);
+            names.add(resource.id().applyValue(id -> id));
+            previous = resource;
+        }
+        return Output.all(names);
+    }
+
+    public static class SyncResource extends CustomResource {
+        public SyncResource(String name, CustomResourceOptions options) {
+            super("test:DeploymentSynchronous:resource", name, ResourceArgs.Empty, options);
+        }
+    }
+
+    static class RecordingMocks implements Mocks {
+        final List<String> names = new CopyOnWriteArrayList<>();
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public CompletableFuture<ResourceResult> newResourceAsync(ResourceArgs args) {
+            names.add(args.name);
+            threads.add(Thread.currentThread());
+            return CompletableFuture.completedFuture(
+                    ResourceResult.of(Optional.of(args.name + "_id"), Map.of())
+            );
+        }
+    }
+}
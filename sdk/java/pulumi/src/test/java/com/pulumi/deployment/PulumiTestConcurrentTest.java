@@ -0,0 +1,120 @@
+package com.pulumi.deployment;
+
+import com.pulumi.core.Output;
+import com.pulumi.resources.CustomResource;
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.test.Mocks;
+import com.pulumi.test.TestOptions;
+import com.pulumi.test.TestResult;
+import com.pulumi.test.internal.PulumiTestInternal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.pulumi.test.PulumiTest.extractValue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PulumiTestConcurrentTest {
+
+    private static final int Tests = 200;
+    private static final int ResourcesPerTest = 5;
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void testConcurrentTestRunsAreIsolated() throws Exception {
+        var mocks = new ArrayList<RecordingMocks>();
+        var runs = new ArrayList<PulumiTestInternal>();
+        for (int i = 0; i < Tests; i++) {
+            var stackMocks = new RecordingMocks();
+            mocks.add(stackMocks);
+            runs.add(PulumiTestInternal.builder()
+                    .options(TestOptions.builder().stackName("stack" + i).preview(false).isolated(true).build())
+                    .mocks(stackMocks)
+                    .config(Map.of("project:label", "label" + i))
+                    .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                    .build());
+        }
+
+        // Fewer threads than tests, so that threads are reused across tests.
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var results = new ArrayList<CompletableFuture<TestResult>>();
+            for (var run : runs) {
+                results.add(CompletableFuture.supplyAsync(() -> run.runTestAsync(ctx -> {
+                    var label = ctx.config().require("label");
+                    for (int j = 0; j < ResourcesPerTest; j++) {
+                        new ConcurrentResource(label + "-" + j);
+                    }
+                    ctx.log().error("error from " + label);
+                    ctx.export("label", Output.of(label));
+                }), executor).thenCompose(Function.identity()));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+
+            for (int i = 0; i < Tests; i++) {
+                var label = "label" + i;
+                var result = results.get(i).join();
+                assertThat(result.exceptions()).isEmpty();
+                assertThat(extractValue(result.output("label", String.class))).isEqualTo(label);
+                assertThat(result.errors()).containsExactly("error from " + label);
+                assertThat(result.resources())
+                        .filteredOn(r -> r instanceof ConcurrentResource)
+                        .hasSize(ResourcesPerTest)
+                        .allSatisfy(r -> assertThat(r.pulumiResourceName()).startsWith(label + "-"));
+                assertThat(mocks.get(i).observedStacks).containsExactly("stack" + i);
+                assertThat(mocks.get(i).names)
+                        .hasSize(ResourcesPerTest)
+                        .allMatch(name -> name.startsWith(label + "-"));
+            }
+        } finally {
+            executor.shutdownNow();
+            runs.forEach(PulumiTestInternal::destroy);
+        }
+    }
+
+    @Test
+    void testTestLoggersHaveTheirOwnLevel() {
+        var shared = Logger.getLogger(PulumiTestInternal.class.getName());
+        var sharedLevel = shared.getLevel();
+
+        var quiet = PulumiTestInternal.logger(Level.OFF);
+        var verbose = PulumiTestInternal.logger(Level.FINEST);
+
+        assertThat(quiet).isNotSameAs(verbose);
+        assertThat(quiet.getLevel()).isEqualTo(Level.OFF);
+        assertThat(verbose.getLevel()).isEqualTo(Level.FINEST);
+        assertThat(verbose.getParent()).isSameAs(shared);
+        assertThat(shared.getLevel()).isEqualTo(sharedLevel);
+    }
+
+    public static class ConcurrentResource extends CustomResource {
+        public ConcurrentResource(String name) {
+            super("test:PulumiTestConcurrent:resource", name, ResourceArgs.Empty, null);
+        }
+    }
+
+    static class RecordingMocks implements Mocks {
+        final Set<String> observedStacks = ConcurrentHashMap.newKeySet();
+        final Set<String> names = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public CompletableFuture<ResourceResult> newResourceAsync(ResourceArgs args) {
+            observedStacks.add(Deployment.getInstance().getStackName());
+            names.add(args.name);
+            return CompletableFuture.completedFuture(
+                    ResourceResult.of(Optional.of(args.name + "_id"), Map.of())
+            );
+        }
+    }
+}
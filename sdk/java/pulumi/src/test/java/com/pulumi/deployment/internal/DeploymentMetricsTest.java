@@ -0,0 +1,119 @@
+package com.pulumi.deployment.internal;
+
+import com.pulumi.Context;
+import com.pulumi.core.Output;
+import com.pulumi.deployment.Deployment;
+import com.pulumi.resources.InvokeArgs;
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.test.Mocks;
+import com.pulumi.test.TestOptions;
+import com.pulumi.test.internal.PulumiTestInternal;
+import com.pulumi.test.internal.testdata.TestBucket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeploymentMetricsTest {
+
+    private static final String BucketType = "test:DeploymentMetrics:Bucket";
+
+    @AfterEach
+    void cleanup() {
+        PulumiTestInternal.cleanup();
+    }
+
+    @Test
+    void testCountsOverJmx() throws Exception {
+        var metrics = new AtomicReference<DeploymentMetrics>();
+        var test = PulumiTestInternal.builder()
+                .options(TestOptions.builder().preview(false).build())
+                .mocks(new Mocks() {
+                    @Override
+                    public CompletableFuture<ResourceResult> newResourceAsync(ResourceArgs args) {
+                        return CompletableFuture.completedFuture(
+                                ResourceResult.of(Optional.of(args.name + "_id"), Map.of("name", args.name))
+                        );
+                    }
+
+                    @Override
+                    public CompletableFuture<Map<String, Object>> callAsync(CallArgs args) {
+                        return CompletableFuture.completedFuture(Map.of());
+                    }
+                })
+                .deploymentFactory(state -> {
+                    metrics.set(state.metrics);
+                    return new DeploymentImpl(state);
+                })
+                .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                .build();
+
+        test.runTest(DeploymentMetricsTest::program).throwOnError();
+
+        metrics.get().register("project", "metrics-test");
+        var name = metrics.get().name();
+        try {
+            assertThat(name).isNotNull();
+            assertThat(name.getKeyProperty("type")).isEqualTo("Deployment");
+            var server = ManagementFactory.getPlatformMBeanServer();
+            assertThat(server.getAttribute(name, "ResourcesRegistered")).isEqualTo(3L); // with the stack
+            assertThat(server.getAttribute(name, "ResourcesCompleted")).isEqualTo(3L);
+            assertThat(server.getAttribute(name, "ResourcesFailed")).isEqualTo(0L);
+            assertThat(server.getAttribute(name, "OutstandingOutputs")).isEqualTo(0L);
+            assertThat(server.getAttribute(name, "InFlightTasks")).isEqualTo(0);
+            assertThat(longs((TabularData) server.getAttribute(name, "PendingRpcs"))).allSatisfy(
+                    (rpc, pending) -> assertThat(pending).as(rpc).isZero()
+            );
+            assertThat(longs((TabularData) server.getAttribute(name, "CompletedRpcs")))
+                    .containsEntry("Invoke", 1L)
+                    .hasEntrySatisfying("RegisterResource", count -> assertThat(count).isEqualTo(3L));
+            assertThat(((TabularData) server.getAttribute(name, "SupportedFeatures")).isEmpty()).isFalse();
+        } finally {
+            metrics.get().unregister();
+        }
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(name)).isFalse();
+        assertThat(metrics.get().name()).isNull();
+    }
+
+    @Test
+    void testRegistersDeploymentsOfTheSameStack() {
+        var first = new DeploymentMetrics();
+        var second = new DeploymentMetrics();
+        first.register("project", "same-stack");
+        second.register("project", "same-stack");
+        try {
+            assertThat(first.name()).isNotNull();
+            assertThat(second.name()).isNotNull().isNotEqualTo(first.name());
+            assertThat(second.name().getKeyProperty("instance")).isEqualTo("1");
+        } finally {
+            first.unregister();
+            second.unregister();
+        }
+    }
+
+    private static Map<String, Long> longs(TabularData data) {
+        var values = new HashMap<String, Long>();
+        for (var row : data.values()) {
+            var entry = (CompositeData) row;
+            values.put((String) entry.get("key"), (Long) entry.get("value"));
+        }
+        return values;
+    }
+
+    private static void program(Context ctx) {
+        var bucket = new TestBucket(BucketType, "bucket");
+        new TestBucket(BucketType, "other");
+        ctx.export("name", bucket.name);
+        ctx.export("invoke", Output.of(Deployment.getInstance().invokeAsync("test:DeploymentMetrics:getBucket", InvokeArgs.Empty)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.pulumi.deployment.internal;
+
+import com.pulumi.Context;
+import com.pulumi.core.Output;
+import com.pulumi.core.annotations.Import;
+import com.pulumi.resources.CustomResource;
+import com.pulumi.resources.CustomResourceOptions;
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.resources.ResourceTransformation;
+import com.pulumi.test.Mocks;
+import com.pulumi.test.TestOptions;
+import com.pulumi.test.internal.PulumiTestInternal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import static com.pulumi.test.internal.HeapUsage.usedHeap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HeapRetentionTest {
+
+    private static final String BucketType = "test:HeapRetention:Bucket";
+    private static final int Resources = 2_000;
+    // every resource gets large inputs, to tell them apart from the bookkeeping of the resource itself
+    private static final int PayloadBytes = 32 * 1024;
+    private static final long BudgetBytesPerResource = 8 * 1024;
+    private static final AtomicInteger Transformed = new AtomicInteger();
+
+    @AfterEach
+    void cleanup() {
+        PulumiTestInternal.cleanup();
+    }
+
+    @Test
+    @Timeout(60)
+    void testRegisteredResourcesDoNotRetainTheirInputs() throws InterruptedException {
+        var test = PulumiTestInternal.builder()
+                .options(TestOptions.builder().preview(false).build())
+                .mocks(new Mocks() {
+                    @Override
+                    public CompletableFuture<ResourceResult> newResourceAsync(ResourceArgs args) {
+                        // the engine returns no state, so that only the SDK could retain the inputs
+                        return CompletableFuture.completedFuture(
+                                ResourceResult.of(Optional.of(args.name + "_id"), Map.of())
+                        );
+                    }
+                })
+                .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                .build();
+
+        Transformed.set(0);
+        var before = usedHeap();
+        var result = test.runTest(HeapRetentionTest::program).throwOnError();
+        var after = usedHeap();
+
+        // the resources themselves are still reachable
+        assertThat(result.resourcesOfType(Bucket.class)).hasSize(Resources);
+        assertThat(Transformed.get()).isEqualTo(Resources);
+        var retainedPerResource = (after - before) / Resources;
+        assertThat(retainedPerResource)
+                .as("bytes retained per registered resource")
+                .isLessThan(BudgetBytesPerResource);
+    }
+
+    private static void program(Context ctx) {
+        // the children share the transformations of their parent
+        ResourceTransformation count = args -> {
+            Transformed.incrementAndGet();
+            return Optional.empty();
+        };
+        var parent = new Bucket("parent", "", CustomResourceOptions.builder()
+                .resourceTransformations(count)
+                .build());
+        for (int i = 0; i < Resources - 1; i++) {
+            var payload = String.valueOf((char) ('a' + i % 26)).repeat(PayloadBytes / 2) + i;
+            new Bucket("bucket" + i, payload, CustomResourceOptions.builder().parent(parent).build());
+        }
+    }
+
+    public static class Bucket extends CustomResource {
+        public Bucket(String name, String payload, CustomResourceOptions options) {
+            super(BucketType, name, new BucketArgs(payload), options);
+        }
+    }
+
+    public static final class BucketArgs extends ResourceArgs {
+        @Import(name = "payload")
+        private final Output<String> payload;
+
+        public BucketArgs(String payload) {
+            this.payload = Output.of(payload);
+        }
+    }
+}
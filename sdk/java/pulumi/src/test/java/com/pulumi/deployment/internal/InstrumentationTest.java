@@ -0,0 +1,218 @@
+package com.pulumi.deployment.internal;
+
+import com.pulumi.Context;
+import com.pulumi.core.Output;
+import com.pulumi.core.TypeShape;
+import com.pulumi.core.annotations.CustomType;
+import com.pulumi.deployment.Deployment;
+import com.pulumi.deployment.InvokeOptions;
+import com.pulumi.resources.InvokeArgs;
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.test.Mocks;
+import com.pulumi.test.TestOptions;
+import com.pulumi.test.internal.PulumiTestInternal;
+import com.pulumi.test.internal.testdata.TestBucket;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.CollectionRegistration;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstrumentationTest {
+
+    private static final String BucketType = "test:Instrumentation:Bucket";
+    private static final String InvokeToken = "test:Instrumentation:getBucket";
+
+    @AfterEach
+    void cleanup() {
+        PulumiTestInternal.cleanup();
+    }
+
+    @Test
+    void testDisabledIsNoop() {
+        var instrumentation = Instrumentation.disabled();
+        assertThat(instrumentation.isEnabled()).isFalse();
+        assertThat(instrumentation.startResourceSpan("pulumi.resource", BucketType, "bucket"))
+                .isSameAs(Span.getInvalid());
+        assertThat(instrumentation.startInvokeSpan(InvokeToken)).isSameAs(Span.getInvalid());
+
+        var future = CompletableFuture.completedFuture(1);
+        assertThat(instrumentation.endOnCompletion(Span.getInvalid(), future)).isSameAs(future);
+    }
+
+    @Test
+    void testTracesRegistrationPhases() {
+        var spans = new CollectingSpanExporter();
+        var metrics = new CollectingMetricReader();
+        var sdk = OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder()
+                        .addSpanProcessor(SimpleSpanProcessor.create(spans))
+                        .build())
+                .setMeterProvider(SdkMeterProvider.builder()
+                        .registerMetricReader(metrics)
+                        .build())
+                .build();
+        var instrumentation = Instrumentation.create(sdk, io.opentelemetry.context.Context.root());
+        try {
+            var test = PulumiTestInternal.builder()
+                    .options(TestOptions.builder().preview(false).build())
+                    .mocks(new Mocks() {
+                        @Override
+                        public CompletableFuture<ResourceResult> newResourceAsync(ResourceArgs args) {
+                            return CompletableFuture.completedFuture(
+                                    ResourceResult.of(Optional.of(args.name + "_id"), Map.of())
+                            );
+                        }
+
+                        @Override
+                        public CompletableFuture<Map<String, Object>> callAsync(CallArgs args) {
+                            return CompletableFuture.completedFuture(Map.of("name", "bucket"));
+                        }
+                    })
+                    .instrumentation(instrumentation)
+                    .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                    .build();
+
+            test.runTest(InstrumentationTest::program).throwOnError();
+
+            // collect the gauges before the deployment is gone
+            var metricNames = metrics.collect().stream()
+                    .map(MetricData::getName)
+                    .collect(Collectors.toSet());
+            assertThat(metricNames).contains(
+                    "pulumi.resource.count",
+                    "pulumi.serialization.size",
+                    "pulumi.invoke.count",
+                    "pulumi.invoke.duration",
+                    "pulumi.runner.tasks",
+                    "pulumi.log.queue"
+            );
+        } finally {
+            instrumentation.shutdown();
+        }
+
+        var resourceSpan = spans.finished.stream()
+                .filter(span -> span.getName().equals("pulumi.resource"))
+                .filter(span -> BucketType.equals(span.getAttributes().get(Instrumentation.ResourceTypeKey)))
+                .findFirst()
+                .orElseThrow();
+        assertThat(resourceSpan.getAttributes().get(Instrumentation.ResourceNameKey)).isEqualTo("bucket");
+
+        var phases = spans.finished.stream()
+                .filter(span -> span.getParentSpanId().equals(resourceSpan.getSpanId()))
+                .map(SpanData::getName)
+                .collect(Collectors.toList());
+        assertThat(phases).contains(
+                "pulumi.prepare.dependencies",
+                "pulumi.prepare.serialization",
+                "pulumi.prepare.parent",
+                "pulumi.prepare.provider",
+                "pulumi.prepare.aliases",
+                "pulumi.monitor.registerResource",
+                "pulumi.complete"
+        );
+
+        assertThat(spans.finished)
+                .filteredOn(span -> span.getName().equals("pulumi.invoke"))
+                .singleElement()
+                .satisfies(span -> assertThat(span.getAttributes().get(Instrumentation.TokenKey)).isEqualTo(InvokeToken));
+    }
+
+    private static void program(Context ctx) {
+        var bucket = new TestBucket(BucketType, "bucket");
+        var name = Output.of(Deployment.getInstance().invokeAsync(
+                InvokeToken, TypeShape.of(GetBucketResult.class), InvokeArgs.Empty, InvokeOptions.Empty
+        )).applyValue(result -> result.name);
+        ctx.export("id", bucket.id());
+        ctx.export("name", name);
+    }
+
+    @CustomType
+    static class GetBucketResult {
+        private String name;
+
+        @CustomType.Builder
+        static final class Builder {
+            private final GetBucketResult $ = new GetBucketResult();
+
+            @CustomType.Setter("name")
+            Builder name(String name) {
+                this.$.name = name;
+                return this;
+            }
+
+            GetBucketResult build() {
+                return this.$;
+            }
+        }
+    }
+
+    private static final class CollectingSpanExporter implements SpanExporter {
+        private final List<SpanData> finished = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            this.finished.addAll(spans);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    private static final class CollectingMetricReader implements MetricReader {
+        private volatile CollectionRegistration registration = CollectionRegistration.noop();
+
+        Collection<MetricData> collect() {
+            return this.registration.collectAllMetrics();
+        }
+
+        @Override
+        public void register(CollectionRegistration registration) {
+            this.registration = registration;
+        }
+
+        @Override
+        public CompletableResultCode forceFlush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+            return AggregationTemporality.CUMULATIVE;
+        }
+    }
+}
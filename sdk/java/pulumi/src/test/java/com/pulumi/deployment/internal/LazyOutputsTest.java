@@ -0,0 +1,158 @@
+package com.pulumi.deployment.internal;
+
+import com.pulumi.Context;
+import com.pulumi.core.Output;
+import com.pulumi.core.annotations.CustomType;
+import com.pulumi.core.annotations.CustomType.Setter;
+import com.pulumi.core.annotations.Export;
+import com.pulumi.core.internal.Internal;
+import com.pulumi.resources.CustomResource;
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.test.Mocks;
+import com.pulumi.test.TestOptions;
+import com.pulumi.test.TestResult;
+import com.pulumi.test.internal.PulumiTestInternal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+import static com.pulumi.test.PulumiTest.extractValue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyOutputsTest {
+
+    private static final String ClusterType = "test:LazyOutputs:Cluster";
+    private static final AtomicInteger Converted = new AtomicInteger();
+
+    @AfterEach
+    void cleanup() {
+        PulumiTestInternal.cleanup();
+    }
+
+    @Test
+    void testConvertsOutputsOnlyOnceUsed() {
+        Converted.set(0);
+        var result = run(true);
+
+        // only the status of the first cluster was used, by the export
+        assertThat(Converted.get()).isEqualTo(1);
+        var clusters = result.resourcesOfType(Cluster.class);
+        assertThat(clusters).hasSize(2);
+        var second = clusters.stream().filter(c -> c.pulumiResourceName().equals("second")).findFirst().orElseThrow();
+        // the metadata does not need the conversion
+        assertThat(Internal.of(second.status).isKnown().join()).isTrue();
+        assertThat(Internal.of(second.status).isSecret().join()).isFalse();
+        assertThat(Internal.of(second.status).getResources().join()).containsExactly(second);
+        assertThat(Converted.get()).isEqualTo(1);
+
+        var status = extractValue(second.status);
+        assertThat(Converted.get()).isEqualTo(2);
+        assertThat(status.phase).isEqualTo("Running");
+        assertThat(status.replicas).isEqualTo(3.0);
+        extractValue(second.status);
+        assertThat(Converted.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testLazyOutputsMatchEagerOutputs() {
+        Converted.set(0);
+        var eager = run(false);
+        assertThat(Converted.get()).isEqualTo(2);
+        var eagerData = data(eager);
+        PulumiTestInternal.cleanup();
+
+        var lazy = run(true);
+        assertThat(data(lazy)).isEqualTo(eagerData);
+        assertThat(extractValue(lazy.output("phase"))).isEqualTo(extractValue(eager.output("phase")));
+    }
+
+    private static TestResult run(boolean lazyOutputs) {
+        var test = PulumiTestInternal.builder()
+                .options(TestOptions.builder().preview(false).build())
+                .mocks(new Mocks() {
+                    @Override
+                    public CompletableFuture<ResourceResult> newResourceAsync(ResourceArgs args) {
+                        return CompletableFuture.completedFuture(ResourceResult.of(
+                                Optional.of(args.name + "_id"),
+                                Map.of(
+                                        "status", Map.of("phase", "Running", "replicas", 3.0),
+                                        "tags", Map.of("name", args.name)
+                                )
+                        ));
+                    }
+                })
+                .deploymentFactory(state -> new DeploymentImpl(lazyOutputs ? state.lazyOutputs() : state))
+                .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                .build();
+        return test.runTest(LazyOutputsTest::program).throwOnError();
+    }
+
+    /**
+     * @return the phase and tags of every cluster, with whether they are known and secret
+     */
+    private static Map<String, String> data(TestResult result) {
+        return result.resourcesOfType(Cluster.class).stream().collect(Collectors.toMap(
+                Cluster::pulumiResourceName,
+                cluster -> {
+                    var status = Internal.of(cluster.status).getDataAsync().join();
+                    var tags = Internal.of(cluster.tags).getDataAsync().join();
+                    return String.format("%s %s %s %s %s %s",
+                            status.getValueNullable().phase, status.isKnown(), status.isSecret(),
+                            tags.getValueNullable(), tags.isKnown(), tags.isSecret());
+                }
+        ));
+    }
+
+    private static void program(Context ctx) {
+        var first = new Cluster("first");
+        new Cluster("second");
+        ctx.export("phase", first.status.applyValue(status -> status.phase));
+    }
+
+    public static class Cluster extends CustomResource {
+        @Export(name = "status", refs = Status.class)
+        public Output<Status> status;
+
+        @Export(name = "tags", refs = {Map.class, String.class}, tree = "[0,1,1]")
+        public Output<Map<String, String>> tags;
+
+        public Cluster(String name) {
+            super(ClusterType, name, ResourceArgs.Empty, null);
+        }
+    }
+
+    @CustomType
+    public static class Status {
+        private @Nullable String phase;
+        private @Nullable Double replicas;
+
+        @CustomType.Builder
+        public static final class Builder {
+            private final Status $ = new Status();
+
+            @Setter("phase")
+            public Builder phase(@Nullable String phase) {
+                this.$.phase = phase;
+                return this;
+            }
+
+            @Setter("replicas")
+            public Builder replicas(@Nullable Double replicas) {
+                this.$.replicas = replicas;
+                return this;
+            }
+
+            public Status build() {
+                Converted.incrementAndGet();
+                return this.$;
+            }
+        }
+    }
+}
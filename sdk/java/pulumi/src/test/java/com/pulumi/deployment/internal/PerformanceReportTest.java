@@ -0,0 +1,167 @@
+package com.pulumi.deployment.internal;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.pulumi.Context;
+import com.pulumi.core.Output;
+import com.pulumi.core.annotations.Import;
+import com.pulumi.deployment.Deployment;
+import com.pulumi.resources.CustomResource;
+import com.pulumi.resources.CustomResourceOptions;
+import com.pulumi.resources.InvokeArgs;
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.test.Mocks;
+import com.pulumi.test.TestOptions;
+import com.pulumi.test.internal.LatencyProfile;
+import com.pulumi.test.internal.LatencyProfile.Distribution;
+import com.pulumi.test.internal.PulumiTestInternal;
+import com.pulumi.test.internal.SyntheticEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PerformanceReportTest {
+
+    private static final String SlowType = "test:PerformanceReport:Slow";
+    private static final String FastType = "test:PerformanceReport:Fast";
+
+    @AfterEach
+    void cleanup() {
+        PulumiTestInternal.cleanup();
+    }
+
+    @Test
+    void testReportsCriticalPath(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("report.json");
+        var engine = new SyntheticEngine(LatencyProfile.builder()
+                .latency(SlowType, Distribution.fixed(Duration.ofMillis(100)))
+                .build());
+        var report = new AtomicReference<PerformanceReport>();
+        var test = PulumiTestInternal.builder()
+                .options(TestOptions.builder().preview(false).build())
+                .mocks(new Mocks() {
+                    @Override
+                    public CompletableFuture<ResourceResult> newResourceAsync(ResourceArgs args) {
+                        return CompletableFuture.completedFuture(
+                                ResourceResult.of(Optional.of(args.name + "_id"), Map.of())
+                        );
+                    }
+
+                    @Override
+                    public CompletableFuture<Map<String, Object>> callAsync(CallArgs args) {
+                        return CompletableFuture.completedFuture(Map.of());
+                    }
+                })
+                .monitorDecorator(engine::decorate)
+                .deploymentFactory(state -> {
+                    state.performanceReport.enable(file);
+                    report.set(state.performanceReport);
+                    return new DeploymentImpl(state);
+                })
+                .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                .build();
+
+        test.runTest(PerformanceReportTest::program).throwOnError();
+
+        var json = JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+        assertThat(json.get("resources").getAsInt()).isEqualTo(6); // with the stack
+        assertThat(json.get("invokes").getAsInt()).isEqualTo(1);
+        // the chain of slow resources bounds the deployment, not the independent fast ones
+        assertThat(names(json, "criticalPath")).endsWith("first", "second", "third");
+        // the later resources of the chain start early, but wait for the previous ones
+        assertThat(names(json, "slowestResources")).containsSubsequence("third", "second", "first");
+        var criticalPath = json.getAsJsonArray("criticalPath");
+        var third = criticalPath.get(criticalPath.size() - 1).getAsJsonObject();
+        assertThat(third.get("waitingMs").getAsDouble()).isGreaterThanOrEqualTo(200);
+        assertThat(third.get("rpcMs").getAsDouble()).isGreaterThanOrEqualTo(100);
+        assertThat(json.getAsJsonArray("slowestInvokes").get(0).getAsJsonObject().get("token").getAsString())
+                .isEqualTo("test:PerformanceReport:getSlow");
+
+        assertThat(report.get().summarize().toText())
+                .startsWith("Performance report: 6 resources and 1 invokes in ")
+                .contains("Critical path", "third (" + SlowType + ")", "test:PerformanceReport:getSlow");
+    }
+
+    @Test
+    void testChargesSerializationToSdk(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("report.json");
+        var test = PulumiTestInternal.builder()
+                .options(TestOptions.builder().preview(false).build())
+                .mocks(args -> CompletableFuture.completedFuture(
+                        Mocks.ResourceResult.of(Optional.of(args.name + "_id"), Map.of())
+                ))
+                .deploymentFactory(state -> {
+                    state.performanceReport.enable(file);
+                    return new DeploymentImpl(state);
+                })
+                .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                .build();
+
+        // the inputs are known upfront, so the resource only waits for its serialization
+        var payload = IntStream.range(0, 200_000).mapToObj(i -> "item" + i).collect(Collectors.toList());
+        test.runTest(ctx -> new Resource(SlowType, "large", new LargeArgs(payload), CustomResourceOptions.Empty))
+                .throwOnError();
+
+        var json = JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+        var resources = json.getAsJsonArray("slowestResources");
+        var large = resources.get(names(json, "slowestResources").indexOf("large")).getAsJsonObject();
+        assertThat(large.get("sdkMs").getAsDouble()).isGreaterThan(large.get("waitingMs").getAsDouble());
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        var report = new PerformanceReport();
+        assertThat(report.isEnabled()).isFalse();
+        assertThat(report.startResource(SlowType, "first")).isNull();
+        assertThat(report.summarize().toText()).isEqualTo("Performance report: 0 resources and 0 invokes in 0.00s");
+    }
+
+    private static List<String> names(JsonObject json, String key) {
+        var names = new ArrayList<String>();
+        json.getAsJsonArray(key).forEach(element -> names.add(element.getAsJsonObject().get("name").getAsString()));
+        return names;
+    }
+
+    private static void program(Context ctx) {
+        var first = new Resource(SlowType, "first", CustomResourceOptions.Empty);
+        var second = new Resource(SlowType, "second", CustomResourceOptions.builder().dependsOn(first).build());
+        new Resource(SlowType, "third", CustomResourceOptions.builder().dependsOn(second).build());
+        new Resource(FastType, "fast1", CustomResourceOptions.Empty);
+        new Resource(FastType, "fast2", CustomResourceOptions.Empty);
+        ctx.export("slow", Output.of(Deployment.getInstance().invokeAsync("test:PerformanceReport:getSlow", InvokeArgs.Empty)));
+    }
+
+    public static class Resource extends CustomResource {
+        public Resource(String type, String name, CustomResourceOptions options) {
+            this(type, name, ResourceArgs.Empty, options);
+        }
+
+        public Resource(String type, String name, ResourceArgs args, CustomResourceOptions options) {
+            super(type, name, args, options);
+        }
+    }
+
+    public static final class LargeArgs extends ResourceArgs {
+        @Import(name = "items")
+        private final Output<List<String>> items;
+
+        public LargeArgs(List<String> items) {
+            this.items = Output.of(items);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.pulumi.deployment.internal;
+
+import com.pulumi.Context;
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.test.Mocks;
+import com.pulumi.test.TestOptions;
+import com.pulumi.test.internal.PulumiTestInternal;
+import com.pulumi.test.internal.testdata.TestBucket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StallDetectorTest {
+
+    private static final String BucketType = "test:StallDetector:Bucket";
+
+    @AfterEach
+    void cleanup() {
+        PulumiTestInternal.cleanup();
+    }
+
+    @Test
+    void testReportsStalledResources(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("stall.txt");
+        var test = PulumiTestInternal.builder()
+                .options(TestOptions.builder().preview(false).build())
+                .mocks(new Mocks() {
+                    @Override
+                    public CompletableFuture<ResourceResult> newResourceAsync(ResourceArgs args) {
+                        // the engine takes much longer than the timeout to respond
+                        return CompletableFuture.supplyAsync(
+                                () -> ResourceResult.of(Optional.of(args.name + "_id"), Map.of("name", args.name)),
+                                CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS)
+                        );
+                    }
+
+                    @Override
+                    public CompletableFuture<Map<String, Object>> callAsync(CallArgs args) {
+                        return CompletableFuture.completedFuture(Map.of());
+                    }
+                })
+                .deploymentFactory(state -> {
+                    state.stallDetector.enable(Duration.ofMillis(200), true, file);
+                    return new DeploymentImpl(state);
+                })
+                .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                .build();
+
+        test.runTest(StallDetectorTest::program).throwOnError();
+
+        assertThat(file).exists();
+        assertThat(Files.readString(file))
+                .startsWith("The deployment made no progress for ")
+                .contains("readOrRegisterResource: " + BucketType + "-bucket")
+                .contains("Resources with pending outputs:", "bucket (" + BucketType + ")", "name")
+                // where the resource was created
+                .contains(StallDetectorTest.class.getName() + ".program");
+    }
+
+    @Test
+    void testReportsOncePerStall() throws InterruptedException {
+        var detector = new StallDetector();
+        detector.enable(Duration.ofMillis(500), false, null);
+        var task = detector.startTask("stuck");
+
+        assertThat(detector.check(System.nanoTime(), List.of(task))).isEmpty();
+        Thread.sleep(600);
+        assertThat(detector.check(System.nanoTime(), List.of(task))).hasValueSatisfying(report -> assertThat(report)
+                .contains("with 1 outstanding tasks", "stuck", StallDetector.StackTracesEnvironmentVariable));
+        assertThat(detector.check(System.nanoTime(), List.of(task))).isEmpty();
+
+        // logging the report does not end the stall
+        detector.completed(detector.startTask("log"));
+        Thread.sleep(600);
+        assertThat(detector.check(System.nanoTime(), List.of(task))).isEmpty();
+
+        // the stalled task does
+        detector.completed(task);
+        var next = detector.startTask("next");
+        Thread.sleep(600);
+        assertThat(detector.check(System.nanoTime(), List.of(next))).isPresent();
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        var detector = new StallDetector();
+        assertThat(detector.isEnabled()).isFalse();
+        assertThat(detector.startResource(BucketType, "bucket", List.of("name"))).isNull();
+        var task = detector.startTask("task");
+        assertThat(task.descriptions()).containsExactly("task");
+        assertThat(detector.check(Long.MAX_VALUE, List.of(task))).isEmpty();
+    }
+
+    private static void program(Context ctx) {
+        var bucket = new TestBucket(BucketType, "bucket");
+        ctx.export("name", bucket.name);
+    }
+}
@@ -0,0 +1,194 @@
+package com.pulumi.provider.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.grpc.ManagedChannel;
+import io.grpc.ServerBuilder;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import pulumirpc.ResourceProviderGrpc;
+
+import com.pulumi.deployment.internal.DeploymentImpl;
+import com.pulumi.deployment.internal.InlineDeploymentSettings;
+import com.pulumi.internal.PulumiInternal;
+import com.pulumi.provider.internal.delayed.DelayedComponent;
+import com.pulumi.provider.internal.models.ConstructRequest;
+import com.pulumi.provider.internal.models.ConstructResponse;
+import com.pulumi.resources.StackOptions;
+import com.pulumi.test.Mocks;
+import com.pulumi.test.internal.MockEngine;
+import com.pulumi.test.internal.MockMonitor;
+import com.pulumi.test.internal.PulumiTestInternal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ComponentProviderConcurrencyTest {
+    private static final String SERVER_NAME = "component-provider-concurrency";
+    private static final int Constructs = 500;
+
+    private ResourceProviderService service;
+    private ExecutorService serverExecutor;
+    private ManagedChannel channel;
+
+    class TestResourceProviderService extends ResourceProviderService {
+        TestResourceProviderService(Provider implementation, Options options) {
+            super("dummy-engine-address", implementation, options);
+        }
+
+        @Override
+        protected ServerBuilder<?> createServerBuilder() {
+            // Far fewer threads than concurrent constructs: a construct must not
+            // hold a server thread while its outputs resolve.
+            return InProcessServerBuilder.forName(SERVER_NAME).executor(serverExecutor);
+        }
+
+        @Override
+        protected PulumiInternal createDeployment(InlineDeploymentSettings settings) {
+            return mockDeployment(settings);
+        }
+    }
+
+    /**
+     * Creates a deployment for a construct call, with mocks in place of the engine and monitor.
+     */
+    static PulumiInternal mockDeployment(InlineDeploymentSettings settings) {
+        Mocks mocks = args -> CompletableFuture.completedFuture(
+            Mocks.ResourceResult.of(Optional.of(args.name + "_id"), Map.of()));
+        var state = new DeploymentImpl.DeploymentState(
+            PulumiTestInternal.config(settings.getConfig(), settings.getConfigSecretKeys()),
+            PulumiTestInternal.defaultLogger(),
+            settings.getOrganization().orElse("organization"),
+            settings.getProject(),
+            settings.getStack(),
+            "",
+            settings.isDryRun(),
+            new MockEngine(),
+            new MockMonitor(mocks, PulumiTestInternal.mockLog())
+        );
+        return PulumiInternal.fromState(state, StackOptions.Empty);
+    }
+
+    @BeforeEach
+    void setUp() {
+        serverExecutor = Executors.newFixedThreadPool(2);
+        channel = InProcessChannelBuilder.forName(SERVER_NAME).build();
+    }
+
+    private void start(Provider provider, ResourceProviderService.Options options) throws IOException {
+        service = new TestResourceProviderService(provider, options);
+        service.start();
+    }
+
+    private static ComponentProvider delayedComponents() {
+        var metadata = new Metadata("test-package", "1.0.0", "Test Package");
+        return new ComponentProvider(metadata, DelayedComponent.class.getPackage());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdown();
+        channel.awaitTermination(5, TimeUnit.SECONDS);
+        if (service != null) {
+            service.server.shutdown();
+            service.server.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        serverExecutor.shutdownNow();
+        PulumiTestInternal.cleanup();
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void testConcurrentConstructs() throws Exception {
+        start(delayedComponents(), ResourceProviderService.Options.builder().build());
+        var responses = construct(Constructs);
+
+        for (int i = 0; i < Constructs; i++) {
+            var response = responses.get(i).join();
+            assertThat(response.getUrn()).endsWith("::component" + i);
+            assertThat(response.getState().getFieldsMap().get("testProperty").getStringValue())
+                .isEqualTo("value" + i);
+        }
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void testMaxConcurrencyLimitsConstructs() throws Exception {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var metadata = new Metadata("test-package", "1.0.0", "Test Package");
+        start(new ComponentProvider(metadata, DelayedComponent.class.getPackage()) {
+            @Override
+            public CompletableFuture<ConstructResponse> construct(ConstructRequest request) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                return super.construct(request).whenComplete((response, error) -> running.decrementAndGet());
+            }
+        }, ResourceProviderService.Options.builder()
+            .maxConcurrency(4)
+            .build());
+
+        var responses = construct(50);
+
+        assertThat(responses).allSatisfy(response -> assertThat(response).isCompleted());
+        assertThat(maxRunning.get()).isEqualTo(4);
+    }
+
+    /**
+     * Constructs the given number of delayed components at once, and waits for all of them.
+     */
+    private ArrayList<CompletableFuture<pulumirpc.Provider.ConstructResponse>> construct(int count) throws Exception {
+        var stub = ResourceProviderGrpc.newStub(channel);
+        var responses = new ArrayList<CompletableFuture<pulumirpc.Provider.ConstructResponse>>();
+        for (int i = 0; i < count; i++) {
+            var request = pulumirpc.Provider.ConstructRequest.newBuilder()
+                .setType("test-package:index:DelayedComponent")
+                .setName("component" + i)
+                .setParent("urn:pulumi:stack::project::pulumi:pulumi:Stack::project-stack")
+                .setProject("project")
+                .setStack("stack")
+                .setMonitorEndpoint("dummy-monitor-address")
+                .setInputs(Struct.newBuilder()
+                    .putFields("testProperty", Value.newBuilder().setStringValue("value" + i).build()))
+                .build();
+            var response = new CompletableFuture<pulumirpc.Provider.ConstructResponse>();
+            stub.construct(request, observer(response));
+            responses.add(response);
+        }
+
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+        return responses;
+    }
+
+    static <T> StreamObserver<T> observer(CompletableFuture<T> future) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                future.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                future.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                // the value was received in onNext
+            }
+        };
+    }
+}
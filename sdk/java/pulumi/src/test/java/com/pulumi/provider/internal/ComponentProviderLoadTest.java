@@ -0,0 +1,174 @@
+package com.pulumi.provider.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.unix.DomainSocketAddress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import pulumirpc.ResourceProviderGrpc;
+
+import com.pulumi.deployment.internal.InlineDeploymentSettings;
+import com.pulumi.internal.PulumiInternal;
+import com.pulumi.provider.internal.testdata.TestComponent;
+import com.pulumi.test.internal.PulumiTestInternal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of construct calls made over a real transport, with a tuned server profile.
+ * Tagged "load" and run by the loadTest task, not by the default test task.
+ */
+@Tag("load")
+class ComponentProviderLoadTest {
+    private static final int Constructs = 500;
+    private static final int Concurrency = 64;
+    private static final Duration MaxP99 = Duration.ofSeconds(5);
+
+    private ResourceProviderService service;
+    private ManagedChannel channel;
+    private EpollEventLoopGroup eventLoops;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (channel != null) {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (service != null) {
+            service.stop();
+        }
+        if (eventLoops != null) {
+            eventLoops.shutdownGracefully();
+        }
+        PulumiTestInternal.cleanup();
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void testConstructLatencyOverTcp(TestReporter reporter) throws Exception {
+        start(profile().build());
+        channel = NettyChannelBuilder.forAddress("127.0.0.1", service.server.getPort())
+            .usePlaintext()
+            .maxInboundMessageSize(ResourceProviderService.Options.DEFAULT_MAX_INBOUND_MESSAGE_SIZE)
+            .build();
+
+        report(reporter, "tcp", measure());
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void testConstructLatencyOverUnixDomainSocket(@TempDir Path directory, TestReporter reporter) throws Exception {
+        assumeTrue(Epoll.isAvailable(), "the native epoll transport is not available");
+        var path = directory.resolve("provider.sock");
+        start(profile()
+            .unixDomainSocket(path)
+            .build());
+        eventLoops = new EpollEventLoopGroup(2);
+        channel = NettyChannelBuilder.forAddress(new DomainSocketAddress(path.toFile()))
+            .channelType(EpollDomainSocketChannel.class)
+            .eventLoopGroup(eventLoops)
+            .usePlaintext()
+            .build();
+
+        report(reporter, "uds", measure());
+    }
+
+    private static ResourceProviderService.Options.Builder profile() {
+        return ResourceProviderService.Options.builder()
+            .serverThreads(4)
+            .keepAlive(Duration.ofMinutes(1), Duration.ofSeconds(20))
+            .permitKeepAliveTime(Duration.ofSeconds(10));
+    }
+
+    private void start(ResourceProviderService.Options options) throws IOException {
+        var metadata = new Metadata("test-package", "1.0.0", "Test Package");
+        service = new ResourceProviderService(
+            "dummy-engine-address", new ComponentProvider(metadata, TestComponent.class.getPackage()), options) {
+            @Override
+            protected PulumiInternal createDeployment(InlineDeploymentSettings settings) {
+                return ComponentProviderConcurrencyTest.mockDeployment(settings);
+            }
+        };
+        service.start();
+    }
+
+    /**
+     * Runs the constructs with at most {@link #Concurrency} in flight, and returns their latencies in nanoseconds.
+     */
+    private long[] measure() throws Exception {
+        var stub = ResourceProviderGrpc.newStub(channel);
+        var permits = new Semaphore(Concurrency);
+        var latencies = new long[Constructs];
+        var responses = new ArrayList<CompletableFuture<pulumirpc.Provider.ConstructResponse>>();
+        for (int i = 0; i < Constructs; i++) {
+            permits.acquire();
+            var index = i;
+            var request = pulumirpc.Provider.ConstructRequest.newBuilder()
+                .setType("test-package:index:TestComponent")
+                .setName("component" + i)
+                .setParent("urn:pulumi:stack::project::pulumi:pulumi:Stack::project-stack")
+                .setProject("project")
+                .setStack("stack")
+                .setMonitorEndpoint("dummy-monitor-address")
+                .setInputs(Struct.newBuilder()
+                    .putFields("testProperty", Value.newBuilder().setStringValue("value" + i).build()))
+                .build();
+            var response = new CompletableFuture<pulumirpc.Provider.ConstructResponse>();
+            var start = System.nanoTime();
+            response.whenComplete((value, error) -> {
+                latencies[index] = System.nanoTime() - start;
+                permits.release();
+            });
+            stub.construct(request, ComponentProviderConcurrencyTest.observer(response));
+            responses.add(response);
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+        for (int i = 0; i < Constructs; i++) {
+            assertThat(responses.get(i).join().getUrn()).endsWith("::component" + i);
+        }
+        return latencies;
+    }
+
+    /**
+     * Publishes the latency percentiles as report entries, and checks the tail stays within a generous bound.
+     */
+    private static void report(TestReporter reporter, String transport, long[] latencies) {
+        var sorted = latencies.clone();
+        Arrays.sort(sorted);
+        var p99 = percentile(sorted, 99);
+        reporter.publishEntry(Map.of(
+            "transport", transport,
+            "p50", String.format("%.2fms", millis(percentile(sorted, 50))),
+            "p99", String.format("%.2fms", millis(p99)),
+            "max", String.format("%.2fms", millis(sorted[sorted.length - 1]))));
+        assertThat(Duration.ofNanos(p99)).isLessThan(MaxP99);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        var index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
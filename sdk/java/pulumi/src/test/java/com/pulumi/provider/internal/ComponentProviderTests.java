@@ -7,7 +7,12 @@ import com.pulumi.provider.internal.testdata.TestComponent;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.lang.reflect.InvocationTargetException;
@@ -38,6 +43,33 @@ class ComponentProviderTests {
         assertTrue(response.getSchema().contains("testProperty"));
     }
 
+    @Test
+    void getSchema_ShouldBeCachedPerVersionAndSubpackage() {
+        var first = provider.getSchema(new GetSchemaRequest(1, null, null)).join();
+        var second = provider.getSchema(new GetSchemaRequest(1, null, null)).join();
+        var subpackage = provider.getSchema(new GetSchemaRequest(1, "sub", "1.0.0")).join();
+
+        assertSame(first, second);
+        assertNotSame(first, subpackage);
+        assertEquals(first.getSchema(), subpackage.getSchema());
+    }
+
+    @Test
+    void getSchema_ShouldServeGeneratedSchema(@TempDir Path directory) throws Exception {
+        var packageName = TestComponent.class.getPackage().getName();
+        var generated = SchemaGenerator.generate(directory, packageName, metadata);
+        var expected = provider.getSchema(new GetSchemaRequest(1, null, null)).join().getSchema();
+        assertEquals(expected, Files.readString(generated));
+
+        // Served from the resource, without scanning the classpath
+        Files.writeString(generated, "{\"name\": \"test-package\"}");
+        try (var loader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, null)) {
+            var prebuilt = new ComponentProvider(metadata, packageName, loader);
+            var response = prebuilt.getSchema(new GetSchemaRequest(1, null, null)).join();
+            assertEquals("{\"name\": \"test-package\"}", response.getSchema());
+        }
+    }
+
     @Test
     void construct_ValidComponent_ShouldCreateInstance() {
         String name = "test-component";
@@ -0,0 +1,75 @@
+package com.pulumi.provider.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    void testSynchronousTasksDoNotRecurse() {
+        var limiter = new ConcurrencyLimiter(MoreExecutors.directExecutor(), 1);
+        var blocker = new CompletableFuture<Integer>();
+        var first = limiter.submit(() -> blocker);
+
+        // queued behind the first task, and completing as soon as they start
+        var started = new AtomicInteger();
+        var queued = new ArrayList<CompletableFuture<Integer>>();
+        for (int i = 0; i < 5_000; i++) {
+            var value = i;
+            queued.add(limiter.submit(() -> {
+                started.incrementAndGet();
+                return CompletableFuture.completedFuture(value);
+            }));
+        }
+        assertThat(started).hasValue(0);
+
+        // releasing the slot starts every queued task on this thread's stack
+        blocker.complete(-1);
+        assertThat(first.join()).isEqualTo(-1);
+        assertThat(started).hasValue(5_000);
+        for (int i = 0; i < queued.size(); i++) {
+            assertThat(queued.get(i).join()).isEqualTo(i);
+        }
+        assertThat(limiter.running()).isZero();
+    }
+
+    @Test
+    void testLimitsConcurrency() {
+        var limiter = new ConcurrencyLimiter(MoreExecutors.directExecutor(), 2);
+        var futures = new ArrayList<CompletableFuture<Void>>();
+        var results = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < 5; i++) {
+            var future = new CompletableFuture<Void>();
+            futures.add(future);
+            results.add(limiter.submit(() -> future));
+        }
+        assertThat(limiter.running()).isEqualTo(2);
+
+        futures.forEach(future -> future.complete(null));
+        assertThat(results).allMatch(CompletableFuture::isDone);
+        assertThat(limiter.running()).isZero();
+    }
+
+    @Test
+    void testCancelledTasksDoNotStart() {
+        var limiter = new ConcurrencyLimiter(MoreExecutors.directExecutor(), 1);
+        var blocker = new CompletableFuture<Void>();
+        limiter.submit(() -> blocker);
+        var started = new AtomicInteger();
+        var cancelled = limiter.submit(() -> {
+            started.incrementAndGet();
+            return CompletableFuture.<Void>completedFuture(null);
+        });
+
+        cancelled.cancel(false);
+        blocker.complete(null);
+        assertThat(started).hasValue(0);
+        assertThat(limiter.running()).isZero();
+    }
+}
@@ -15,6 +15,7 @@ import com.pulumi.resources.ResourceArgs;
 
 import com.pulumi.test.internal.PulumiTestInternal;
 import com.pulumi.provider.internal.properties.PropertyValue;
+import com.pulumi.provider.internal.properties.PropertySerializationException;
 import com.pulumi.provider.internal.properties.PropertyValueSerializer;
 
 import org.junit.jupiter.api.Test;
@@ -22,6 +23,8 @@ import org.junit.jupiter.api.Test;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -614,6 +617,63 @@ public class PropertyValueSerializerTest {
         assertThat(data).isEqualTo(expected);
     }
 
+    static class UnsupportedJdkTypeResource {
+        @Export(name="value")
+        public final Object value;
+
+        UnsupportedJdkTypeResource(Object value) {
+            this.value = value;
+        }
+    }
+
+    @Test
+    void testSerializingUnsupportedJdkTypesFails() {
+        for (Object value : List.of((short) 1, BigDecimal.ONE, Instant.EPOCH)) {
+            assertThatThrownBy(() -> PropertyValueSerializer.stateFromComponentResource(
+                new UnsupportedJdkTypeResource(value)))
+                .isInstanceOf(PropertySerializationException.class)
+                .hasMessageStartingWith("Unsupported type for serialization")
+                .hasMessageContaining(value.getClass().getName());
+        }
+    }
+
+    static class TreeArgs extends ResourceArgs {
+        @Import(name="name", required=true)
+        private String name;
+
+        @Import(name="children")
+        private List<TreeArgs> children;
+
+        @Import(name="tags")
+        private Output<Map<String, List<Integer>>> tags;
+
+        private TreeArgs() {}
+    }
+
+    @Test
+    void testDeserializingRecursiveGenericArgsWorks() {
+        var data = object(
+            pair("name", PropertyValue.of("root")),
+            pair("children", array(
+                object(pair("name", PropertyValue.of("leaf")),
+                    pair("children", array())))),
+            pair("tags", object(
+                pair("sizes", array(PropertyValue.of(1), PropertyValue.of(2))))));
+
+        // Deserializing twice reuses the plans compiled for TreeArgs and its fields
+        for (int i = 0; i < 2; i++) {
+            var args = PropertyValueSerializer.deserialize(data, TreeArgs.class);
+
+            assertThat(args.name).isEqualTo("root");
+            assertThat(args.children).hasSize(1);
+            assertThat(args.children.get(0).name).isEqualTo("leaf");
+            assertThat(args.children.get(0).children).isEmpty();
+            assertThat(args.children.get(0).tags).isNull();
+            assertThat(PulumiTestInternal.extractOutputData(args.tags).getValueNullable())
+                .isEqualTo(Map.of("sizes", List.of(1, 2)));
+        }
+    }
+
     @SafeVarargs
     private static PropertyValue object(Map.Entry<String, PropertyValue>... pairs) {
         var builder = new HashMap<String, PropertyValue>();
@@ -252,6 +252,53 @@ public class PropertyValueTests {
         }
     }
 
+    @Test
+    void testUnmarshalIsLazyView() {
+        var invalidSecret = Value.newBuilder().setStructValue(Struct.newBuilder()
+            .putFields(Constants.SpecialSigKey, Value.newBuilder().setStringValue(Constants.SpecialSecretSig).build()))
+            .build();
+        var document = Value.newBuilder().setStructValue(Struct.newBuilder()
+            .putFields("name", Value.newBuilder().setStringValue("value").build())
+            .putFields("list", Value.newBuilder().setListValue(ListValue.newBuilder()
+                .addValues(Value.newBuilder().setNumberValue(1.0))
+                .addValues(Value.newBuilder().setStringValue(Constants.UnknownValue))).build())
+            .putFields("invalid", invalidSecret))
+            .build();
+
+        var unmarshaled = PropertyValue.unmarshal(document);
+
+        // Unmodified values marshal back as the original protobuf value
+        assertSame(document, unmarshaled.marshal());
+
+        // Only the accessed fields are unmarshaled
+        var object = unmarshaled.getObjectValue();
+        assertEquals(3, object.size());
+        assertEquals(PropertyValue.of("value"), object.get("name"));
+        assertThrows(IllegalArgumentException.class, () -> object.get("invalid"));
+
+        // Equality matches the eagerly built values
+        var list = object.get("list");
+        var expected = PropertyValue.of(Arrays.asList(PropertyValue.of(1.0), PropertyValue.COMPUTED));
+        assertEquals(expected, list);
+        assertEquals(list, expected);
+        assertEquals(expected.hashCode(), list.hashCode());
+        assertThrows(UnsupportedOperationException.class, () -> list.getArrayValue().add(PropertyValue.NULL));
+    }
+
+    @Test
+    void testUnmarshaledObjectAcceptsNullKeys() {
+        var document = Value.newBuilder().setStructValue(Struct.newBuilder()
+            .putFields("name", Value.newBuilder().setStringValue("value").build()))
+            .build();
+
+        var object = PropertyValue.unmarshal(document).getObjectValue();
+
+        assertNull(object.get(null));
+        assertFalse(object.containsKey(null));
+        assertNull(object.get(1));
+        assertEquals(PropertyValue.of("value"), object.get("name"));
+    }
+
     @Test
     void testUnmarshalInvalidStruct() {
         // Test invalid special signature
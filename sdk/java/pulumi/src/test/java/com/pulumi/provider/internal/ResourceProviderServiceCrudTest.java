@@ -0,0 +1,307 @@
+package com.pulumi.provider.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.protobuf.Empty;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.grpc.ManagedChannel;
+import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import pulumirpc.ResourceProviderGrpc;
+
+import com.pulumi.provider.internal.models.*;
+import com.pulumi.provider.internal.properties.PropertyValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ResourceProviderServiceCrudTest {
+    private static final String SERVER_NAME = "resource-provider-crud";
+    private static final String URN = "urn:pulumi:stack::project::test:index:Bucket::bucket";
+
+    private ResourceProviderService service;
+    private ManagedChannel channel;
+
+    /**
+     * An in-memory provider of buckets, with a size validated by check.
+     */
+    static class BucketProvider implements Provider {
+        final Map<String, Map<String, PropertyValue>> buckets = new ConcurrentHashMap<>();
+        final AtomicInteger ids = new AtomicInteger();
+
+        @Override
+        public CompletableFuture<GetSchemaResponse> getSchema(GetSchemaRequest request) {
+            return CompletableFuture.completedFuture(new GetSchemaResponse("{}"));
+        }
+
+        @Override
+        public CompletableFuture<ConstructResponse> construct(ConstructRequest request) {
+            throw new UnsupportedOperationException("construct");
+        }
+
+        @Override
+        public CompletableFuture<CheckResponse> check(CheckRequest request) {
+            var size = request.getNews().get("size");
+            var failures = new ArrayList<CheckFailure>();
+            if (size == null || size.getNumberValue() <= 0) {
+                failures.add(new CheckFailure("size", "size must be positive"));
+            }
+            return CompletableFuture.completedFuture(new CheckResponse(request.getNews(), failures));
+        }
+
+        @Override
+        public CompletableFuture<DiffResponse> diff(DiffRequest request) {
+            var changed = !request.getOlds().get("size").equals(request.getNews().get("size"));
+            return CompletableFuture.completedFuture(new DiffResponse(
+                changed, List.of(), List.of(), false, changed ? List.of("size") : List.of(),
+                changed ? Map.of("size", new PropertyDiff(PropertyDiff.Kind.UPDATE, true)) : Map.of()));
+        }
+
+        @Override
+        public CompletableFuture<CreateResponse> create(CreateRequest request) {
+            var id = "bucket-" + ids.incrementAndGet();
+            buckets.put(id, request.getProperties());
+            return CompletableFuture.completedFuture(new CreateResponse(id, request.getProperties()));
+        }
+
+        @Override
+        public CompletableFuture<ReadResponse> read(ReadRequest request) {
+            var properties = buckets.get(request.getId());
+            return CompletableFuture.completedFuture(properties == null
+                ? new ReadResponse(null, Map.of(), null)
+                : new ReadResponse(request.getId(), properties, request.getInputs()));
+        }
+
+        @Override
+        public CompletableFuture<UpdateResponse> update(UpdateRequest request) {
+            buckets.put(request.getId(), request.getNews());
+            return CompletableFuture.completedFuture(new UpdateResponse(request.getNews()));
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(DeleteRequest request) {
+            buckets.remove(request.getId());
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private ResourceProviderGrpc.ResourceProviderBlockingStub start(
+            Provider provider, ResourceProviderService.Options options) throws IOException {
+        service = new ResourceProviderService("dummy-engine-address", provider, options) {
+            @Override
+            protected ServerBuilder<?> createServerBuilder() {
+                return InProcessServerBuilder.forName(SERVER_NAME);
+            }
+        };
+        service.start();
+        channel = InProcessChannelBuilder.forName(SERVER_NAME).build();
+        return ResourceProviderGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow();
+        service.server.shutdownNow();
+        channel.awaitTermination(5, TimeUnit.SECONDS);
+        service.server.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testResourceLifecycle() throws Exception {
+        var provider = new BucketProvider();
+        var engine = start(provider, ResourceProviderService.Options.builder().build());
+
+        var invalid = engine.check(pulumirpc.Provider.CheckRequest.newBuilder()
+            .setUrn(URN)
+            .setNews(size(0))
+            .build());
+        assertThat(invalid.getFailuresList()).hasSize(1);
+        assertThat(invalid.getFailures(0).getProperty()).isEqualTo("size");
+
+        var checked = engine.check(pulumirpc.Provider.CheckRequest.newBuilder()
+            .setUrn(URN)
+            .setNews(size(1))
+            .build());
+        assertThat(checked.getFailuresList()).isEmpty();
+
+        var created = engine.create(pulumirpc.Provider.CreateRequest.newBuilder()
+            .setUrn(URN)
+            .setProperties(checked.getInputs())
+            .build());
+        assertThat(created.getId()).isEqualTo("bucket-1");
+        assertThat(created.getProperties()).isEqualTo(size(1));
+
+        var diff = engine.diff(pulumirpc.Provider.DiffRequest.newBuilder()
+            .setId(created.getId())
+            .setUrn(URN)
+            .setOlds(created.getProperties())
+            .setNews(size(2))
+            .build());
+        assertThat(diff.getChanges()).isEqualTo(pulumirpc.Provider.DiffResponse.DiffChanges.DIFF_SOME);
+        assertThat(diff.getDiffsList()).containsExactly("size");
+        assertThat(diff.getHasDetailedDiff()).isTrue();
+        assertThat(diff.getDetailedDiffMap().get("size").getKind())
+            .isEqualTo(pulumirpc.Provider.PropertyDiff.Kind.UPDATE);
+
+        var updated = engine.update(pulumirpc.Provider.UpdateRequest.newBuilder()
+            .setId(created.getId())
+            .setUrn(URN)
+            .setOlds(created.getProperties())
+            .setNews(size(2))
+            .build());
+        assertThat(updated.getProperties()).isEqualTo(size(2));
+
+        var read = engine.read(pulumirpc.Provider.ReadRequest.newBuilder()
+            .setId(created.getId())
+            .setUrn(URN)
+            .build());
+        assertThat(read.getId()).isEqualTo(created.getId());
+        assertThat(read.getProperties()).isEqualTo(size(2));
+
+        engine.delete(pulumirpc.Provider.DeleteRequest.newBuilder()
+            .setId(created.getId())
+            .setUrn(URN)
+            .setProperties(updated.getProperties())
+            .build());
+        assertThat(provider.buckets).isEmpty();
+
+        var gone = engine.read(pulumirpc.Provider.ReadRequest.newBuilder()
+            .setId(created.getId())
+            .setUrn(URN)
+            .build());
+        assertThat(gone.getId()).isEmpty();
+    }
+
+    @Test
+    void testNotImplementedOperations() throws Exception {
+        var engine = start(new Provider() {
+            @Override
+            public CompletableFuture<GetSchemaResponse> getSchema(GetSchemaRequest request) {
+                return CompletableFuture.completedFuture(new GetSchemaResponse("{}"));
+            }
+
+            @Override
+            public CompletableFuture<ConstructResponse> construct(ConstructRequest request) {
+                throw new UnsupportedOperationException("construct");
+            }
+        }, ResourceProviderService.Options.builder().build());
+
+        assertThatThrownBy(() -> engine.create(pulumirpc.Provider.CreateRequest.newBuilder().setUrn(URN).build()))
+            .isInstanceOfSatisfying(StatusRuntimeException.class, e ->
+                assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.UNIMPLEMENTED));
+    }
+
+    @Test
+    void testMaxConcurrency() throws Exception {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(8);
+        var engine = start(new BucketProvider() {
+            @Override
+            public CompletableFuture<CreateResponse> create(CreateRequest request) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                return CompletableFuture
+                    .supplyAsync(() -> null, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS))
+                    .thenCompose(__ -> {
+                        running.decrementAndGet();
+                        return super.create(request);
+                    });
+            }
+        }, ResourceProviderService.Options.builder()
+            .handlerExecutor(executor)
+            .maxConcurrency(2)
+            .build());
+
+        try {
+            var stub = ResourceProviderGrpc.newFutureStub(channel);
+            var responses = new ArrayList<com.google.common.util.concurrent.ListenableFuture<?>>();
+            for (int i = 0; i < 20; i++) {
+                responses.add(stub.create(pulumirpc.Provider.CreateRequest.newBuilder()
+                    .setUrn(URN + i)
+                    .setProperties(size(1))
+                    .build()));
+            }
+            for (var response : responses) {
+                response.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(maxRunning.get()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCancelAbandonsOutstandingOperations() throws Exception {
+        var started = new CountDownLatch(1);
+        var cancelled = new CompletableFuture<Void>();
+        var engine = start(new BucketProvider() {
+            @Override
+            public CompletableFuture<CreateResponse> create(CreateRequest request) {
+                var never = new CompletableFuture<CreateResponse>();
+                never.whenComplete((response, error) -> {
+                    if (never.isCancelled()) {
+                        cancelled.complete(null);
+                    }
+                });
+                started.countDown();
+                return never;
+            }
+        }, ResourceProviderService.Options.builder().build());
+
+        var pending = ResourceProviderGrpc.newFutureStub(channel)
+            .create(pulumirpc.Provider.CreateRequest.newBuilder().setUrn(URN).build());
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        engine.cancel(Empty.getDefaultInstance());
+
+        cancelled.get(10, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> pending.get(10, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(StatusRuntimeException.class)
+            .satisfies(e -> assertThat(((StatusRuntimeException) e.getCause()).getStatus().getCode())
+                .isEqualTo(Status.Code.CANCELLED));
+    }
+
+    @Test
+    void testServerThreadsAreShutDownWithTheServer() throws Exception {
+        var thread = new CompletableFuture<Thread>();
+        var engine = start(new BucketProvider() {
+            @Override
+            public CompletableFuture<CreateResponse> create(CreateRequest request) {
+                thread.complete(Thread.currentThread());
+                return super.create(request);
+            }
+        }, ResourceProviderService.Options.builder()
+            .serverThreads(1)
+            .build());
+
+        engine.create(pulumirpc.Provider.CreateRequest.newBuilder().setUrn(URN).setProperties(size(1)).build());
+        var serverThread = thread.get(10, TimeUnit.SECONDS);
+        assertThat(serverThread.getName()).startsWith("pulumi-provider-");
+
+        service.stop();
+
+        serverThread.join(TimeUnit.SECONDS.toMillis(10));
+        assertThat(serverThread.isAlive()).isFalse();
+    }
+
+    private static Struct size(double size) {
+        return Struct.newBuilder()
+            .putFields("size", Value.newBuilder().setNumberValue(size).build())
+            .build();
+    }
+}
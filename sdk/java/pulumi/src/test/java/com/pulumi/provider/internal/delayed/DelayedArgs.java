@@ -0,0 +1,13 @@
+package com.pulumi.provider.internal.delayed;
+
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.core.annotations.Import;
+
+public final class DelayedArgs extends ResourceArgs {
+    @Import(name="testProperty")
+    private String testProperty;
+
+    public String testProperty() {
+        return testProperty;
+    }
+}
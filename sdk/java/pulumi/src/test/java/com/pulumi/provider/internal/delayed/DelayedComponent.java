@@ -0,0 +1,24 @@
+package com.pulumi.provider.internal.delayed;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.pulumi.core.Output;
+import com.pulumi.core.annotations.Export;
+import com.pulumi.resources.ComponentResource;
+import com.pulumi.resources.ComponentResourceOptions;
+
+/**
+ * A component with an output resolved after the constructor returns.
+ */
+public final class DelayedComponent extends ComponentResource {
+    @Export(name="testProperty")
+    private final Output<String> testProperty;
+
+    public DelayedComponent(String name, DelayedArgs args, ComponentResourceOptions options) {
+        super("test-package:index:DelayedComponent", name, args, options);
+        // resolved later, as an output of a child resource would be
+        this.testProperty = Output.of(CompletableFuture.supplyAsync(
+            args::testProperty, CompletableFuture.delayedExecutor(10, TimeUnit.MILLISECONDS)));
+    }
+}
@@ -14,6 +14,8 @@ import pulumirpc.Resource.RegisterResourceRequest;
 
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
 
 import static com.pulumi.test.PulumiTest.extractValue;
 import static java.util.Objects.requireNonNull;
@@ -62,6 +64,39 @@ public class ResourceTest {
         assertThat(provider.get().pulumiResourceType()).isEqualTo("pulumi:providers:test");
     }
 
+    @Test
+    void testTransformationsOfAncestorsRunAfterOwnOnes() {
+        var applied = new ConcurrentLinkedQueue<String>();
+        Function<String, ResourceTransformation> recording = label -> args -> {
+            applied.add(args.resource().pulumiResourceName() + ":" + label);
+            return Optional.empty();
+        };
+        var test = PulumiTestInternal.builder()
+                .options(TestOptions.builder().preview(false).build())
+                .mocks(args -> CompletableFuture.completedFuture(
+                        Mocks.ResourceResult.of(Optional.of(args.name + "_id"), ImmutableMap.of())
+                ))
+                .build();
+
+        test.runTest(ctx -> {
+            var component = new ComponentResource("test:index:Component", "component",
+                    ComponentResourceOptions.builder().resourceTransformations(recording.apply("component")).build());
+            var child = new ComponentResource("test:index:Component", "child",
+                    ComponentResourceOptions.builder()
+                            .parent(component)
+                            .resourceTransformations(recording.apply("child"))
+                            .build());
+            new CustomResource("test:index:Leaf", "leaf", ResourceArgs.Empty,
+                    CustomResourceOptions.builder().parent(child).build());
+        }).throwOnError();
+
+        assertThat(applied).containsExactly(
+                "component:component",
+                "child:child", "child:component",
+                "leaf:child", "leaf:component"
+        );
+    }
+
     @Test
     void testReplaceOnChanges() {
         var test = PulumiTestInternal.builder()
@@ -0,0 +1,89 @@
+package com.pulumi.serialization.internal;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import com.pulumi.Log;
+import com.pulumi.core.internal.StringInterner;
+import com.pulumi.test.internal.PulumiTestInternal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.pulumi.test.internal.HeapUsage.usedHeap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeserializerInterningTest {
+
+    private static final Log log = PulumiTestInternal.mockLog();
+    private static final int Structs = 5_000;
+    private static final int Keys = 20;
+
+    @Test
+    void testInternsPropertyNames() throws InvalidProtocolBufferException {
+        var interner = new StringInterner();
+        var deserializer = new Deserializer(log, interner);
+
+        var first = deserialize(deserializer, response());
+        var second = deserialize(deserializer, response());
+
+        assertThat(first).isEqualTo(second);
+        for (var key : first.keySet()) {
+            var same = second.keySet().stream().filter(key::equals).findFirst().orElseThrow();
+            assertThat(same).isSameAs(key);
+        }
+        assertThat(interner.size()).isEqualTo(Keys);
+    }
+
+    @Test
+    @Timeout(60)
+    void testInterningReducesRetainedHeap() throws InterruptedException {
+        var shared = new Deserializer(log, new StringInterner());
+        var interned = retainedHeap(() -> shared);
+        // a deserializer per response, like responses deserialized without a deployment-scoped interner
+        var copied = retainedHeap(() -> new Deserializer(log));
+
+        assertThat(interned)
+                .as("bytes retained by %d responses with interned property names", Structs)
+                .isLessThan(copied * 3 / 4);
+    }
+
+    private static long retainedHeap(Supplier<Deserializer> deserializers) throws InterruptedException {
+        var results = new ArrayList<Map<String, ?>>(Structs);
+        var before = usedHeap();
+        try {
+            for (int i = 0; i < Structs; i++) {
+                results.add(deserialize(deserializers.get(), response()));
+            }
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        var after = usedHeap();
+        assertThat(results).hasSize(Structs);
+        return after - before;
+    }
+
+    /**
+     * @return a struct parsed from its bytes, with fresh copies of its keys, like a response of the engine
+     */
+    private static Value response() throws InvalidProtocolBufferException {
+        var struct = Struct.newBuilder();
+        for (int i = 0; i < Keys; i++) {
+            struct.putFields(
+                    String.format("someRatherLongPropertyNameOfAGeneratedResourceType%02d", i),
+                    Value.newBuilder().setBoolValue(true).build()
+            );
+        }
+        var bytes = Value.newBuilder().setStructValue(struct).build().toByteArray();
+        return Value.parseFrom(bytes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, ?> deserialize(Deserializer deserializer, Value value) {
+        return (Map<String, ?>) deserializer.deserialize(value).getValueNullable();
+    }
+}
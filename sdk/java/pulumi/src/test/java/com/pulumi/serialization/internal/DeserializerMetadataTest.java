@@ -0,0 +1,97 @@
+package com.pulumi.serialization.internal;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import com.pulumi.core.internal.Constants;
+import com.pulumi.test.internal.PulumiTestInternal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class DeserializerMetadataTest {
+
+    private final Deserializer deserializer = new Deserializer(PulumiTestInternal.mockLog());
+
+    @SuppressWarnings("unused")
+    private static Stream<Arguments> testMetadataMatchesDeserialization() {
+        var unknown = string(Constants.UnknownValue);
+        return Stream.of(
+                arguments("string", string("a")),
+                arguments("number", Value.newBuilder().setNumberValue(1).build()),
+                arguments("null", nullValue()),
+                arguments("unknown", unknown),
+                arguments("secret", secret(string("a"))),
+                arguments("secret unknown", secret(unknown)),
+                arguments("secret null", secret(nullValue())),
+                arguments("list", list(string("a"), secret(string("b")))),
+                arguments("list with unknown", list(string("a"), unknown)),
+                arguments("list with secret unknown", list(string("a"), secret(unknown))),
+                arguments("struct", struct("a", string("a"), "b", secret(string("b")))),
+                arguments("struct with unknown", struct("a", string("a"), "b", unknown)),
+                // the null values of a struct are dropped, with their secrecy
+                arguments("struct with secret null", struct("a", string("a"), "b", secret(nullValue()))),
+                arguments("struct with secret unknown", struct("a", string("a"), "b", secret(unknown))),
+                arguments("struct with internal unknown", struct("a", string("a"), "__b", unknown)),
+                arguments("nested", list(struct("a", list(secret(string("a")))), struct("b", struct("c", unknown)))),
+                arguments("secret struct with unknown", secret(struct("a", unknown)))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource
+    void testMetadataMatchesDeserialization(@SuppressWarnings("unused") String name, Value value) {
+        var data = this.deserializer.deserialize(value);
+        var metadata = this.deserializer.tryDeserializeMetadata(value).orElseThrow();
+        assertThat(metadata.isKnown()).as("known").isEqualTo(data.isKnown());
+        assertThat(metadata.isSecret()).as("secret").isEqualTo(data.isSecret());
+        assertThat(metadata.getResources()).isEqualTo(data.getResources());
+    }
+
+    @Test
+    void testResourcesAreDeserializedRightAway() {
+        var resource = struct(
+                Constants.SpecialSigKey, string(Constants.SpecialResourceSig),
+                Constants.ResourceUrnName, string("urn:pulumi:stack::project::test:index:Resource::name")
+        );
+        assertThat(this.deserializer.tryDeserializeMetadata(list(string("a"), resource))).isEmpty();
+    }
+
+    private static Value string(String value) {
+        return Value.newBuilder().setStringValue(value).build();
+    }
+
+    private static Value nullValue() {
+        return Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
+    }
+
+    private static Value secret(Value value) {
+        return struct(Constants.SpecialSigKey, string(Constants.SpecialSecretSig), Constants.SecretValueName, value);
+    }
+
+    private static Value list(Value... values) {
+        var list = ListValue.newBuilder();
+        for (var value : values) {
+            list.addValues(value);
+        }
+        return Value.newBuilder().setListValue(list).build();
+    }
+
+    private static Value struct(String key, Value value) {
+        return Value.newBuilder().setStructValue(Struct.newBuilder().putFields(key, value)).build();
+    }
+
+    private static Value struct(String key1, Value value1, String key2, Value value2) {
+        return Value.newBuilder().setStructValue(Struct.newBuilder()
+                .putFields(key1, value1)
+                .putFields(key2, value2)
+        ).build();
+    }
+}
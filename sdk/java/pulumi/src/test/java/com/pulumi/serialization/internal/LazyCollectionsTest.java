@@ -0,0 +1,262 @@
+package com.pulumi.serialization.internal;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import com.pulumi.Log;
+import com.pulumi.core.TypeShape;
+import com.pulumi.core.annotations.CustomType;
+import com.pulumi.core.annotations.CustomType.Setter;
+import com.pulumi.core.internal.Constants;
+import com.pulumi.test.internal.PulumiTestInternal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LazyCollectionsTest {
+
+    private static final Log log = PulumiTestInternal.mockLog();
+    private static final int Subnets = 1_000;
+    private static final AtomicInteger Converted = new AtomicInteger();
+
+    @BeforeEach
+    void reset() {
+        Converted.set(0);
+    }
+
+    @Test
+    void testSizeNeedsNoConversion() {
+        var result = convert(true, subnets(), TypeShape.of(Subnets.class));
+
+        assertThat(result.subnets).hasSize(Subnets);
+        assertThat(result.records).hasSize(3);
+        assertThat(result.records).containsKey("www");
+        assertThat(Converted.get()).isZero();
+    }
+
+    @Test
+    void testConvertsOnlyTheAccessedElements() {
+        var result = convert(true, subnets(), TypeShape.of(Subnets.class));
+
+        var filtered = result.subnets.stream()
+                .limit(10)
+                .filter(subnet -> subnet.zone.equals("a"))
+                .collect(Collectors.toList());
+        assertThat(filtered).hasSize(5);
+        assertThat(Converted.get()).isEqualTo(10);
+
+        // the elements are converted only once
+        assertThat(result.subnets.get(0)).isSameAs(filtered.get(0));
+        assertThat(Converted.get()).isEqualTo(10);
+
+        assertThat(result.subnets.get(Subnets - 1).id).isEqualTo("subnet-" + (Subnets - 1));
+        assertThat(Converted.get()).isEqualTo(11);
+    }
+
+    @Test
+    void testLazyCollectionsMatchEagerCollections() {
+        var eager = convert(false, subnets(), TypeShape.of(Subnets.class));
+        assertThat(Converted.get()).isEqualTo(Subnets);
+        var lazy = convert(true, subnets(), TypeShape.of(Subnets.class));
+
+        assertThat(lazy.subnets).isEqualTo(eager.subnets);
+        assertThat(lazy.subnets.hashCode()).isEqualTo(eager.subnets.hashCode());
+        assertThat(lazy.records).isEqualTo(eager.records);
+        assertThat(lazy.records.hashCode()).isEqualTo(eager.records.hashCode());
+        assertThat(lazy.records.keySet()).containsExactlyElementsOf(eager.records.keySet());
+        assertThat(lazy.tags).isEqualTo(eager.tags);
+    }
+
+    @Test
+    void testTopLevelCollections() {
+        var list = list(Value.newBuilder().setStringValue("a").build(), Value.newBuilder().setStringValue("b").build());
+        assertThat(convert(true, list, TypeShape.list(String.class))).containsExactly("a", "b");
+
+        var map = struct(Map.of("a", Value.newBuilder().setNumberValue(1).build()));
+        assertThat(convert(true, map, TypeShape.map(String.class, Double.class))).containsExactlyEntriesOf(Map.of("a", 1.0));
+    }
+
+    @Test
+    void testCollectionsAreImmutable() {
+        var result = convert(true, subnets(), TypeShape.of(Subnets.class));
+
+        assertThatThrownBy(() -> result.subnets.add(result.subnets.get(0)))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> result.subnets.remove(0))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> result.records.put("mail", "10.0.0.4"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> result.records.remove("www"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> result.records.entrySet().iterator().next().setValue("10.0.0.4"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testElementsFailWhenAccessed() {
+        var list = list(list(Value.newBuilder().setStringValue("a").build()), Value.newBuilder().setBoolValue(true).build());
+        var result = convert(true, list, TypeShape.<List<List<String>>>builder(List.class)
+                .addParameter(TypeShape.list(String.class))
+                .build());
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0)).containsExactly("a");
+        assertThatThrownBy(() -> result.get(1))
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageContaining("test[1]");
+    }
+
+    @Test
+    void testSecretCollectionsStaySecret() {
+        var secret = Value.newBuilder().setStructValue(Struct.newBuilder()
+                .putFields(Constants.SpecialSigKey, Value.newBuilder().setStringValue(Constants.SpecialSecretSig).build())
+                .putFields(Constants.SecretValueName, list(Value.newBuilder().setStringValue("a").build()))
+        ).build();
+        var converter = new Converter(log, new Deserializer(log), true);
+        var data = converter.convertValue("test", secret, TypeShape.list(String.class));
+
+        assertThat(data.isSecret()).isTrue();
+        assertThat(data.isKnown()).isTrue();
+        assertThat(data.getValueNullable()).containsExactly("a");
+    }
+
+    @Test
+    void testNullFieldsAreSkippedLikeEagerMaps() {
+        var secretNull = Value.newBuilder().setStructValue(Struct.newBuilder()
+                .putFields(Constants.SpecialSigKey, Value.newBuilder().setStringValue(Constants.SpecialSecretSig).build())
+                .putFields(Constants.SecretValueName, Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build())
+        ).build();
+        var map = struct(Map.of(
+                "a", Value.newBuilder().setStringValue("x").build(),
+                "b", Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build(),
+                "c", secretNull
+        ));
+        var shape = TypeShape.map(String.class, String.class);
+
+        var lazy = convert(true, map, shape);
+        assertThat(lazy).isEqualTo(convert(false, map, shape));
+        assertThat(lazy).containsOnlyKeys("a");
+    }
+
+    private static <T> T convert(boolean lazyCollections, Value value, TypeShape<T> targetType) {
+        var converter = new Converter(log, new Deserializer(log), lazyCollections);
+        var data = converter.convertValue("test", value, targetType);
+        assertThat(data.isKnown()).isTrue();
+        return data.getValueNullable();
+    }
+
+    /**
+     * @return an invoke result with many subnets, like the result of listing all the subnets of an account
+     */
+    private static Value subnets() {
+        var subnets = ListValue.newBuilder();
+        for (int i = 0; i < Subnets; i++) {
+            subnets.addValues(struct(Map.of(
+                    "id", Value.newBuilder().setStringValue("subnet-" + i).build(),
+                    "zone", Value.newBuilder().setStringValue(i % 2 == 0 ? "a" : "b").build()
+            )));
+        }
+        return struct(Map.of(
+                "subnets", Value.newBuilder().setListValue(subnets).build(),
+                "records", struct(Map.of(
+                        "www", Value.newBuilder().setStringValue("10.0.0.1").build(),
+                        "api", Value.newBuilder().setStringValue("10.0.0.2").build(),
+                        "db", Value.newBuilder().setStringValue("10.0.0.3").build()
+                )),
+                "tags", list(Value.newBuilder().setStringValue("prod").build())
+        ));
+    }
+
+    private static Value struct(Map<String, Value> fields) {
+        return Value.newBuilder().setStructValue(Struct.newBuilder().putAllFields(fields)).build();
+    }
+
+    private static Value list(Value... values) {
+        return Value.newBuilder().setListValue(ListValue.newBuilder().addAllValues(List.of(values))).build();
+    }
+
+    @CustomType
+    public static class Subnets {
+        private List<Subnet> subnets;
+        private Map<String, String> records;
+        private List<String> tags;
+
+        @CustomType.Builder
+        public static final class Builder {
+            private final Subnets $ = new Subnets();
+
+            @Setter("subnets")
+            public Builder subnets(List<Subnet> subnets) {
+                this.$.subnets = subnets;
+                return this;
+            }
+
+            @Setter("records")
+            public Builder records(Map<String, String> records) {
+                this.$.records = records;
+                return this;
+            }
+
+            @Setter("tags")
+            public Builder tags(List<String> tags) {
+                this.$.tags = tags;
+                return this;
+            }
+
+            public Subnets build() {
+                return this.$;
+            }
+        }
+    }
+
+    @CustomType
+    public static class Subnet {
+        private String id;
+        private @Nullable String zone;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            var subnet = (Subnet) o;
+            return id.equals(subnet.id) && Objects.equals(zone, subnet.zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, zone);
+        }
+
+        @CustomType.Builder
+        public static final class Builder {
+            private final Subnet $ = new Subnet();
+
+            @Setter("id")
+            public Builder id(String id) {
+                this.$.id = id;
+                return this;
+            }
+
+            @Setter("zone")
+            public Builder zone(@Nullable String zone) {
+                this.$.zone = zone;
+                return this;
+            }
+
+            public Subnet build() {
+                Converted.incrementAndGet();
+                return this.$;
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.pulumi.test;
+
+import com.pulumi.Context;
+import com.pulumi.resources.ComponentResource;
+import com.pulumi.resources.ComponentResourceOptions;
+import com.pulumi.resources.CustomResourceOptions;
+import com.pulumi.resources.ProviderResource;
+import com.pulumi.resources.ResourceArgs;
+import com.pulumi.test.internal.PulumiTestInternal;
+import com.pulumi.test.internal.testdata.TestBucket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+import static com.pulumi.test.PulumiTest.extractValue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestResultTest {
+
+    private static final String BucketType = "test:TestResult:Bucket";
+    private static final String ComponentType = "test:TestResult:Component";
+
+    @AfterEach
+    void cleanup() {
+        PulumiTestInternal.cleanup();
+    }
+
+    @Test
+    void testQueries() {
+        var result = test(true).runTest(TestResultTest::program).throwOnError();
+
+        var buckets = result.resourcesOfType(TestBucket.class);
+        assertThat(buckets).hasSize(3);
+        assertThat(result.resourcesOfType(BucketType)).containsExactlyElementsOf(buckets);
+        assertThat(result.resourcesOfType(Component.class)).hasSize(1);
+        assertThat(result.resourcesOfType("test:TestResult:Missing")).isEmpty();
+
+        var component = result.resourcesOfType(Component.class).get(0);
+        var componentUrn = extractValue(component.urn());
+        assertThat(result.byUrn(componentUrn)).contains(component);
+        assertThat(result.childrenOf(componentUrn))
+                .hasSize(2)
+                .allSatisfy(r -> assertThat(r.pulumiResourceName()).startsWith("child"));
+
+        var provider = result.resourcesOfType(Provider.class).get(0);
+        var reference = extractValue(provider.urn()) + "::" + extractValue(provider.id());
+        assertThat(result.resourcesWithProvider(reference))
+                .singleElement()
+                .satisfies(r -> assertThat(r.pulumiResourceName()).isEqualTo("provided"));
+
+        var bucketUrn = extractValue(buckets.get(0).urn());
+        assertThat(result.state(bucketUrn)).contains(Map.of("name", buckets.get(0).pulumiResourceName()));
+        assertThat(result.byUrn("urn:pulumi:stack::project::test:TestResult:Missing::missing")).isEmpty();
+    }
+
+    @Test
+    void testWithoutRetainingResources() {
+        var result = test(false).runTest(TestResultTest::program).throwOnError();
+
+        assertThat(result.resources()).isEmpty();
+        assertThat(result.resourcesOfType(TestBucket.class)).isEmpty();
+        assertThat(result.resourcesOfType(BucketType)).isEmpty();
+
+        var urns = result.urnsOfType(BucketType);
+        assertThat(urns).hasSize(3);
+        assertThat(urns).allSatisfy(urn -> {
+            assertThat(result.byUrn(urn)).isEmpty();
+            assertThat(result.state(urn)).hasValueSatisfying(state -> assertThat(state).containsKey("name"));
+        });
+        assertThat(result.urnsOfType(ComponentType)).hasSize(1);
+    }
+
+    private static PulumiTestInternal test(boolean retainResources) {
+        return PulumiTestInternal.builder()
+                .options(TestOptions.builder().retainResources(retainResources).build())
+                .mocks(args -> CompletableFuture.completedFuture(
+                        Mocks.ResourceResult.of(Optional.of(args.name + "_id"), Map.of("name", args.name))
+                ))
+                .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                .build();
+    }
+
+    private static void program(Context ctx) {
+        var component = new Component("component");
+        new TestBucket(BucketType, "child1", CustomResourceOptions.builder().parent(component).build());
+        new TestBucket(BucketType, "child2", CustomResourceOptions.builder().parent(component).build());
+        var provider = new Provider("provider");
+        new TestBucket(BucketType, "provided", CustomResourceOptions.builder().provider(provider).build());
+    }
+
+    public static class Component extends ComponentResource {
+        public Component(String name) {
+            super(ComponentType, name, ComponentResourceOptions.Empty);
+        }
+    }
+
+    public static class Provider extends ProviderResource {
+        public Provider(String name) {
+            super("test", name, ResourceArgs.Empty, null);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.pulumi.test.internal;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the heap in tests guarding how much memory the SDK retains.
+ */
+public final class HeapUsage {
+
+    private HeapUsage() {
+        throw new UnsupportedOperationException("static class");
+    }
+
+    /**
+     * @return the bytes used on the heap once the garbage has been collected, as far as the JVM lets us
+     */
+    public static long usedHeap() throws InterruptedException {
+        var memory = ManagementFactory.getMemoryMXBean();
+        var used = Long.MAX_VALUE;
+        // collect until the heap stops shrinking
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(50);
+            var now = memory.getHeapMemoryUsage().getUsed();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+}
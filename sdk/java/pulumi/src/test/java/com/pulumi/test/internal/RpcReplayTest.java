@@ -0,0 +1,143 @@
+package com.pulumi.test.internal;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import com.pulumi.Context;
+import com.pulumi.core.Output;
+import com.pulumi.deployment.Deployment;
+import com.pulumi.deployment.internal.DeploymentImpl;
+import com.pulumi.deployment.internal.Engine;
+import com.pulumi.deployment.internal.Monitor;
+import com.pulumi.deployment.internal.Recording.RpcRecord;
+import com.pulumi.deployment.internal.RpcRecorder;
+import com.pulumi.internal.PulumiInternal;
+import com.pulumi.resources.CustomResourceOptions;
+import com.pulumi.resources.InvokeArgs;
+import com.pulumi.resources.StackOptions;
+import com.pulumi.test.internal.LatencyProfile.Distribution;
+import com.pulumi.test.internal.RpcReplay.Pacing;
+import com.pulumi.test.internal.testdata.TestBucket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pulumirpc.EngineOuterClass.LogRequest;
+import pulumirpc.Provider.InvokeResponse;
+import pulumirpc.Resource.ResourceInvokeRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RpcReplayTest {
+
+    private static final String BucketType = "test:RpcReplay:Bucket";
+
+    @Test
+    void testReplaysRecording(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("rpc.bin");
+        var engine = new SyntheticEngine(LatencyProfile.builder()
+                .latency(BucketType, Distribution.fixed(Duration.ofMillis(50)))
+                .build());
+        var recorded = new ConcurrentHashMap<String, String>();
+        try (var recorder = RpcRecorder.open(file)) {
+            assertThat(run(recorder.record(engine.monitor()), recorder.record(new MockEngine()), recorded)).isZero();
+        }
+        assertThat(recorded).containsKeys("first", "second");
+        assertThat(Files.size(file)).isPositive();
+
+        var replay = RpcReplay.load(file, Pacing.Recorded);
+        assertThat(replay.size()).isPositive();
+        var replayed = new ConcurrentHashMap<String, String>();
+        var start = System.nanoTime();
+        assertThat(run(replay.monitor(), replay.engine(), replayed)).isZero();
+        // the second bucket waits for the first one
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(replayed).isEqualTo(recorded);
+        assertThat(replay.misses()).isZero();
+
+        var fullSpeed = RpcReplay.load(file, Pacing.FullSpeed);
+        var again = new ConcurrentHashMap<String, String>();
+        assertThat(run(fullSpeed.monitor(), fullSpeed.engine(), again)).isZero();
+        assertThat(again).isEqualTo(recorded);
+    }
+
+    @Test
+    void testFailsUnrecordedCalls() {
+        var replay = new RpcReplay(List.of(), Pacing.FullSpeed);
+        var invoke = replay.monitor().invokeAsync(ResourceInvokeRequest.newBuilder()
+                .setTok("test:RpcReplay:getBucket")
+                .build());
+        assertThat(invoke).isCompletedExceptionally();
+        assertThat(replay.misses()).isEqualTo(1);
+        // logs are not part of the traffic a program depends on
+        assertThat(replay.engine().logAsync(LogRequest.getDefaultInstance())).isCompleted();
+    }
+
+    @Test
+    void testMatchesFunctionsByArguments() {
+        var token = "test:RpcReplay:getBucket";
+        var nameThenRegion = struct("name", "bucket", "region", "east");
+        var regionThenName = struct("region", "east", "name", "bucket");
+        var otherRegion = struct("name", "bucket", "region", "west");
+        assertThat(RpcRecorder.functionKey(token, regionThenName)).isEqualTo(RpcRecorder.functionKey(token, nameThenRegion));
+        assertThat(RpcRecorder.functionKey(token, otherRegion)).isNotEqualTo(RpcRecorder.functionKey(token, nameThenRegion));
+
+        var replay = new RpcReplay(List.of(RpcRecord.newBuilder()
+                .setMethod(RpcRecorder.Invoke)
+                .setKey(RpcRecorder.functionKey(token, nameThenRegion))
+                .setResponse(InvokeResponse.getDefaultInstance().toByteString())
+                .build()), Pacing.FullSpeed);
+        var monitor = replay.monitor();
+        assertThat(monitor.invokeAsync(ResourceInvokeRequest.newBuilder().setTok(token).setArgs(regionThenName).build()))
+                .isCompleted();
+        assertThat(monitor.invokeAsync(ResourceInvokeRequest.newBuilder().setTok(token).setArgs(otherRegion).build()))
+                .isCompletedExceptionally();
+        assertThat(replay.misses()).isEqualTo(1);
+    }
+
+    private static Struct struct(String firstKey, String firstValue, String secondKey, String secondValue) {
+        return Struct.newBuilder()
+                .putFields(firstKey, Value.newBuilder().setStringValue(firstValue).build())
+                .putFields(secondKey, Value.newBuilder().setStringValue(secondValue).build())
+                .build();
+    }
+
+    private static int run(Monitor monitor, Engine engine, Map<String, String> ids) throws Exception {
+        var state = new DeploymentImpl.DeploymentState(
+                PulumiTestInternal.config(ImmutableMap.of(), ImmutableSet.of()),
+                PulumiTestInternal.logger(Level.OFF),
+                "organization",
+                "project",
+                "stack",
+                "",
+                false,
+                engine,
+                monitor
+        );
+        var run = PulumiInternal.fromState(state, StackOptions.Empty);
+        try {
+            return run.runAsync(program(ids)).get(30, TimeUnit.SECONDS);
+        } finally {
+            run.destroy();
+        }
+    }
+
+    private static Consumer<Context> program(Map<String, String> ids) {
+        return ctx -> {
+            var first = new TestBucket(BucketType, "first", CustomResourceOptions.Empty);
+            var second = new TestBucket(BucketType, "second", CustomResourceOptions.builder().dependsOn(first).build());
+            first.id().applyValue(id -> ids.put("first", id));
+            second.id().applyValue(id -> ids.put("second", id));
+            ctx.export("invoke", Output.of(Deployment.getInstance().invokeAsync("test:RpcReplay:getBucket", InvokeArgs.Empty)));
+        };
+    }
+}
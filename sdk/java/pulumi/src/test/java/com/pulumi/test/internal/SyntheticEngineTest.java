@@ -0,0 +1,181 @@
+package com.pulumi.test.internal;
+
+import com.pulumi.Context;
+import com.pulumi.deployment.internal.GrpcMonitor;
+import com.pulumi.test.Mocks;
+import com.pulumi.test.TestOptions;
+import com.pulumi.test.internal.LatencyProfile.Distribution;
+import com.pulumi.test.internal.SyntheticEngine.Operation;
+import com.pulumi.test.internal.testdata.TestBucket;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.Test;
+import pulumirpc.Resource.RegisterResourceRequest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SyntheticEngineTest {
+
+    private static final String BucketType = "test:SyntheticEngine:Bucket";
+    private static final int Resources = 30;
+
+    @Test
+    void testDecoratesMockMonitor() {
+        var engine = new SyntheticEngine(LatencyProfile.builder()
+                .latency(BucketType, Distribution.uniform(Duration.ofMillis(20), Duration.ofMillis(50)))
+                .build());
+        var test = PulumiTestInternal.builder()
+                .options(TestOptions.builder().preview(false).build())
+                .mocks(args -> CompletableFuture.completedFuture(
+                        Mocks.ResourceResult.of(Optional.of(args.name + "_id"), Map.of())
+                ))
+                .monitorDecorator(engine::decorate)
+                .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                .build();
+
+        var result = test.runTest(SyntheticEngineTest::program).throwOnError();
+
+        assertThat(result.resourcesOfType(TestBucket.class)).hasSize(Resources);
+        assertThat(engine.timeline())
+                .filteredOn(event -> event.type().equals(BucketType))
+                .hasSize(Resources)
+                .allSatisfy(event -> {
+                    assertThat(event.operation()).isEqualTo(Operation.Register);
+                    assertThat(event.duration()).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+                    assertThat(event.failed()).isFalse();
+                });
+        // independent resources are registered concurrently
+        assertThat(engine.maxConcurrency()).isGreaterThan(1);
+        assertThat(engine.concurrency()).isZero();
+    }
+
+    @Test
+    void testInjectsFailures() {
+        var engine = new SyntheticEngine(LatencyProfile.builder()
+                .failureRate(BucketType, 1.0)
+                .build());
+        var test = PulumiTestInternal.builder()
+                .options(TestOptions.builder().preview(false).build())
+                .monitorDecorator(engine::decorate)
+                .standardLogger(PulumiTestInternal.logger(Level.OFF))
+                .build();
+
+        var result = test.runTest(SyntheticEngineTest::program);
+
+        assertThat(result.exceptions()).isNotEmpty();
+        assertThat(engine.timeline())
+                .filteredOn(event -> event.type().equals(BucketType))
+                .isNotEmpty()
+                .allMatch(SyntheticEngine.Event::failed);
+    }
+
+    @Test
+    void testCompletesAfterDependencies() {
+        var engine = new SyntheticEngine(LatencyProfile.builder()
+                .latency("test:index:Slow", Distribution.fixed(Duration.ofMillis(100)))
+                .build());
+        var monitor = engine.monitor();
+
+        var slow = monitor.registerResourceAsync(null, request("test:index:Slow", "slow", ""));
+        var slowUrn = "urn:pulumi:stack::project::test:index:Slow::slow";
+        var fast = monitor.registerResourceAsync(null, request(BucketType, "fast", "")
+                .toBuilder().addDependencies(slowUrn).build());
+
+        assertThat(fast.join().getUrn()).isEqualTo("urn:pulumi:stack::project::" + BucketType + "::fast");
+        assertThat(slow).isDone();
+        assertThat(slow.join().getUrn()).isEqualTo(slowUrn);
+        assertThat(engine.timeline())
+                .extracting(SyntheticEngine.Event::name)
+                .containsExactly("slow", "fast");
+    }
+
+    @Test
+    void testFailsOnUnregisteredDependencies() {
+        var engine = new SyntheticEngine(LatencyProfile.None);
+        var monitor = engine.monitor();
+
+        var orphan = monitor.registerResourceAsync(null, request(BucketType, "orphan", "")
+                .toBuilder().addDependencies("urn:pulumi:stack::project::test:index:Unknown::unknown").build());
+
+        assertThatThrownBy(orphan::join)
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("test:index:Unknown::unknown");
+        assertThat(engine.timeline()).singleElement().satisfies(event -> assertThat(event.failed()).isTrue());
+    }
+
+    @Test
+    void testSamplesReproduciblyPerResource() {
+        var profile = LatencyProfile.builder()
+                .failureRate(0.5)
+                .seed(42)
+                .build();
+        var forward = new SyntheticEngine(profile);
+        var backward = new SyntheticEngine(profile);
+
+        for (int i = 0; i < Resources; i++) {
+            forward.monitor().registerResourceAsync(null, request(BucketType, "bucket" + i, "")).exceptionally(t -> null).join();
+        }
+        for (int i = Resources - 1; i >= 0; i--) {
+            backward.monitor().registerResourceAsync(null, request(BucketType, "bucket" + i, "")).exceptionally(t -> null).join();
+        }
+
+        // the same resources fail, whatever the order they are registered in
+        var failed = forward.timeline().stream()
+                .filter(SyntheticEngine.Event::failed)
+                .map(SyntheticEngine.Event::name)
+                .collect(Collectors.toSet());
+        assertThat(failed).isNotEmpty().hasSizeLessThan(Resources);
+        assertThat(backward.timeline())
+                .filteredOn(SyntheticEngine.Event::failed)
+                .extracting(SyntheticEngine.Event::name)
+                .containsExactlyInAnyOrderElementsOf(failed);
+    }
+
+    @Test
+    void testServesOverGrpc() throws Exception {
+        var engine = new SyntheticEngine(LatencyProfile.builder()
+                .latency(Distribution.fixed(Duration.ofMillis(10)))
+                .failureRate("test:index:Failing", 1.0)
+                .build());
+        try (var server = SyntheticServer.start(engine.monitor(), engine);
+             var monitor = new GrpcMonitor(server.address())) {
+
+            var response = monitor.registerResourceAsync(null, request(BucketType, "bucket", "")).join();
+            assertThat(response.getUrn()).isEqualTo("urn:pulumi:stack::project::" + BucketType + "::bucket");
+            assertThat(response.getId()).isEqualTo("bucket_id");
+
+            var failing = monitor.registerResourceAsync(null, request("test:index:Failing", "failing", ""));
+            assertThatThrownBy(failing::join)
+                    .isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(StatusRuntimeException.class)
+                    .hasMessageContaining("injected failure");
+            assertThat(Status.fromThrowable(failing.handle((r, t) -> t).join()).getCode())
+                    .isEqualTo(Status.Code.UNAVAILABLE);
+        }
+        assertThat(engine.timeline()).hasSize(2);
+    }
+
+    private static RegisterResourceRequest request(String type, String name, String parent) {
+        return RegisterResourceRequest.newBuilder()
+                .setType(type)
+                .setName(name)
+                .setParent(parent)
+                .setCustom(true)
+                .build();
+    }
+
+    private static void program(Context ctx) {
+        for (int i = 0; i < Resources; i++) {
+            new TestBucket(BucketType, "bucket" + i);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.pulumi.test.internal.testdata;
+
+import com.pulumi.core.Output;
+import com.pulumi.core.annotations.Export;
+import com.pulumi.resources.CustomResource;
+import com.pulumi.resources.CustomResourceOptions;
+import com.pulumi.resources.ResourceArgs;
+
+import javax.annotation.Nullable;
+
+/**
+ * A custom resource without inputs, registered under the type token of the test using it.
+ */
+public final class TestBucket extends CustomResource {
+    @Export(name = "name", refs = String.class)
+    public Output<String> name;
+
+    public TestBucket(String type, String name) {
+        this(type, name, null);
+    }
+
+    public TestBucket(String type, String name, @Nullable CustomResourceOptions options) {
+        super(type, name, ResourceArgs.Empty, options);
+    }
+}